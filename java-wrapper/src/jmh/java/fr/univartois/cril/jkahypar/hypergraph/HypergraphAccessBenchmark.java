@@ -0,0 +1,191 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The HypergraphAccessBenchmark compares the time needed to scan hypergraphs
+ * represented by a {@link FlatHypergraph} and by a chain of decorators adding weights to
+ * an {@link UnweightedHypergraph}.
+ * Both read their array of vertices directly, so that only the cost of delegating to
+ * the decorated hypergraph is measured.
+ *
+ * Each benchmark scans an unweighted hypergraph, a hypergraph with weights on its
+ * hyperedges and a hypergraph with weights on both its hyperedges and vertices through
+ * the same call sites.
+ * With decorators, these call sites see three different classes (and thus become
+ * megamorphic), while they only see one class with flat hypergraphs.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class HypergraphAccessBenchmark {
+
+    /**
+     * The implementation of the hypergraphs to scan.
+     */
+    @Param({ "FLAT", "DECORATED" })
+    public String implementation;
+
+    /**
+     * The number of hyperedges in the hypergraphs.
+     */
+    @Param({ "100000" })
+    public int nbHyperedges;
+
+    /**
+     * The hypergraphs to scan.
+     */
+    private Hypergraph[] hypergraphs;
+
+    /**
+     * Creates the hypergraphs to scan.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(2022);
+        int nbVertices = nbHyperedges / 2;
+        var indices = new long[nbHyperedges + 1];
+        var vertices = new int[nbHyperedges * 4];
+        var hyperedgeWeights = new int[nbHyperedges];
+        var vertexWeights = new int[nbVertices];
+        for (int h = 0; h < nbHyperedges; h++) {
+            indices[h + 1] = indices[h] + 2 + random.nextInt(3);
+            for (long p = indices[h]; p < indices[h + 1]; p++) {
+                vertices[(int) p] = random.nextInt(nbVertices);
+            }
+            hyperedgeWeights[h] = 1 + random.nextInt(10);
+        }
+        for (int v = 0; v < nbVertices; v++) {
+            vertexWeights[v] = 1 + random.nextInt(10);
+        }
+        vertices = Arrays.copyOf(vertices, (int) indices[nbHyperedges]);
+
+        hypergraphs = new Hypergraph[] {
+                create(nbVertices, indices, vertices, null, null),
+                create(nbVertices, indices, vertices, hyperedgeWeights, null),
+                create(nbVertices, indices, vertices, hyperedgeWeights, vertexWeights)
+        };
+    }
+
+    /**
+     * Creates a hypergraph using the benchmarked implementation.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param indices The indices at which the vertices of each hyperedge start.
+     * @param vertices The vertices of the hyperedges.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null}.
+     * @param vertexWeights The weights of the vertices, or {@code null}.
+     *
+     * @return The created hypergraph.
+     */
+    private Hypergraph create(int nbVertices, long[] indices, int[] vertices,
+            int[] hyperedgeWeights, int[] vertexWeights) {
+        if ("FLAT".equals(implementation)) {
+            return new FlatHypergraph(nbVertices, nbHyperedges, indices, vertices,
+                    hyperedgeWeights, vertexWeights);
+        }
+
+        var unweighted = new UnweightedHypergraph(nbVertices, nbHyperedges, indices, vertices);
+        return HypergraphDecorator.withWeights(unweighted, hyperedgeWeights, vertexWeights);
+    }
+
+    /**
+     * Scans the pins of the hypergraphs using {@link Hypergraph#pin(int, int)}.
+     *
+     * @return The sum of the pins.
+     */
+    @Benchmark
+    public long pinAccess() {
+        long sum = 0;
+        for (var hypergraph : hypergraphs) {
+            for (int h = 0; h < hypergraph.getNumberOfHyperedges(); h++) {
+                for (int i = 0, size = hypergraph.hyperedgeSize(h); i < size; i++) {
+                    sum += hypergraph.pin(h, i);
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Scans the pins of the hypergraphs using
+     * {@link Hypergraph#forEachPin(int, java.util.function.IntConsumer)}.
+     *
+     * @param blackhole The blackhole consuming the pins.
+     */
+    @Benchmark
+    public void forEachPin(Blackhole blackhole) {
+        for (var hypergraph : hypergraphs) {
+            for (int h = 0; h < hypergraph.getNumberOfHyperedges(); h++) {
+                hypergraph.forEachPin(h, blackhole::consume);
+            }
+        }
+    }
+
+    /**
+     * Computes the weighted degrees of the vertices of the hypergraphs, accessing their
+     * arrays through the accessors of {@link Hypergraph}.
+     *
+     * @return The sum of the weighted degrees.
+     */
+    @Benchmark
+    public long weightedDegrees() {
+        long sum = 0;
+        for (var hypergraph : hypergraphs) {
+            for (int h = 0; h < hypergraph.getNumberOfHyperedges(); h++) {
+                int weight = (hypergraph.getHyperedgeWeights() == null)
+                        ? 1 : hypergraph.getHyperedgeWeights()[h];
+                for (int i = 0, size = hypergraph.hyperedgeSize(h); i < size; i++) {
+                    int vertex = hypergraph.pin(h, i);
+                    sum += (long) weight * ((hypergraph.getVertexWeights() == null)
+                            ? 1 : hypergraph.getVertexWeights()[vertex]);
+                }
+            }
+        }
+        return sum;
+    }
+
+}
@@ -19,10 +19,15 @@
 
 package fr.univartois.cril.jkahypar.hypergraph;
 
+import java.util.function.IntConsumer;
+
 /**
  * The HypergraphDecorator delegates the invocations of all methods defined in
  * {@link Hypergraph} to an instance of a class implementing this interface to make easier
  * the implementation of decorators.
+ * Decorators are not used anymore by the builders of JKaHyPar, which rather create
+ * {@link FlatHypergraph}s holding all their arrays: they are only kept as the baseline
+ * of {@link HypergraphAccessBenchmark}.
  *
  * @author Romain WALLON
  *
@@ -38,14 +43,38 @@ abstract class HypergraphDecorator extends AbstractHypergraph {
     /**
      * Creates a new HypergraphDecorator.
      *
-     * @param hmetisFormat The hMetis format of the hypergraph.
      * @param decorated The hypergraph to decorate.
      */
-    HypergraphDecorator(HmetisFormat hmetisFormat, AbstractHypergraph decorated) {
-        super(hmetisFormat);
+    HypergraphDecorator(AbstractHypergraph decorated) {
         this.decorated = decorated;
     }
 
+    /**
+     * Adds weights to an unweighted hypergraph, by stacking decorators on top of it.
+     *
+     * @param hypergraph The hypergraph to add weights to.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if
+     *        hyperedges are not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if vertices are
+     *        not weighted.
+     *
+     * @return The weighted hypergraph.
+     */
+    static AbstractHypergraph withWeights(AbstractHypergraph hypergraph,
+            int[] hyperedgeWeights, int[] vertexWeights) {
+        if (hyperedgeWeights != null) {
+            // The hyperedges of the hypergraph are weighted.
+            hypergraph = new WeightedHyperedgesHypergraph(hypergraph, hyperedgeWeights);
+        }
+
+        if (vertexWeights != null) {
+            // The vertices of the hypergraph are weighted.
+            hypergraph = new WeightedVerticesHypergraph(hypergraph, vertexWeights);
+        }
+
+        return hypergraph;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -120,21 +149,72 @@ abstract class HypergraphDecorator extends AbstractHypergraph {
     /*
      * (non-Javadoc)
      *
-     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#hmetisFormat()
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getNumberOfPins()
+     */
+    @Override
+    public long getNumberOfPins() {
+        return decorated.getNumberOfPins();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getPins()
+     */
+    @Override
+    public SegmentedIntArray getPins() {
+        return decorated.getPins();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#hyperedgeSize(int)
+     */
+    @Override
+    public int hyperedgeSize(int hyperedge) {
+        return decorated.hyperedgeSize(hyperedge);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#pin(int, int)
+     */
+    @Override
+    public int pin(int hyperedge, int index) {
+        return decorated.pin(hyperedge, index);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#forEachPin(int,
+     * java.util.function.IntConsumer)
+     */
+    @Override
+    public void forEachPin(int hyperedge, IntConsumer action) {
+        decorated.forEachPin(hyperedge, action);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#cursor()
      */
     @Override
-    public final int hmetisFormat() {
-        return super.hmetisFormat() + decorated.hmetisFormat();
+    public HyperedgeCursor cursor() {
+        return decorated.cursor();
     }
 
     /*
      * (non-Javadoc)
      *
-     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#hmetisHeader()
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getVertexIncidence()
      */
     @Override
-    public final String hmetisHeader() {
-        return getNumberOfHyperedges() + " " + getNumberOfVertices() + " " + hmetisFormat();
+    public VertexIncidence getVertexIncidence() {
+        return decorated.getVertexIncidence();
     }
 
 }
@@ -19,9 +19,14 @@
 
 package fr.univartois.cril.jkahypar.hypergraph;
 
+import java.util.function.IntConsumer;
+
 /**
  * The UnweightedHypergraph is a {@link Hypergraph} for which neither the vertices nor the
  * hyperedges have a weight.
+ * It is the base of the chain of decorators used as the baseline of
+ * {@link HypergraphAccessBenchmark}, and thus reads its array of vertices directly, as
+ * {@link FlatHypergraph} does.
  *
  * @author Romain WALLON
  *
@@ -50,17 +55,28 @@ final class UnweightedHypergraph extends AbstractHypergraph {
      */
     private final int[] hyperedgeVertices;
 
+    /**
+     * The vertices of the different hyperedges, as an array addressed by {@code long}
+     * indices.
+     */
+    private final SegmentedIntArray pins;
+
     /**
      * Creates a new UnweightedHypergraph.
      *
-     * @param builder The builder to create the hypergraph from.
-     */
-    UnweightedHypergraph(HypergraphBuilder builder) {
-        super(HmetisFormat.UNWEIGHTED);
-        this.numberOfVertices = builder.getNumberOfVertices();
-        this.numberOfHyperedges = builder.getNumberOfHyperedges();
-        this.hyperedgeIndices = builder.getHyperedgeIndices();
-        this.hyperedgeVertices = builder.getHyperedgeVertices();
+     * @param numberOfVertices The number of vertices in the hypergraph.
+     * @param numberOfHyperedges The number of hyperedges in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code hyperedgeVertices}.
+     * @param hyperedgeVertices The vertices of the different hyperedges.
+     */
+    UnweightedHypergraph(int numberOfVertices, int numberOfHyperedges, long[] hyperedgeIndices,
+            int[] hyperedgeVertices) {
+        this.numberOfVertices = numberOfVertices;
+        this.numberOfHyperedges = numberOfHyperedges;
+        this.hyperedgeIndices = hyperedgeIndices;
+        this.hyperedgeVertices = hyperedgeVertices;
+        this.pins = SegmentedIntArray.wrapping(hyperedgeVertices);
     }
 
     /*
@@ -147,11 +163,35 @@ final class UnweightedHypergraph extends AbstractHypergraph {
     /*
      * (non-Javadoc)
      *
-     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#hmetisHeader()
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getPins()
+     */
+    @Override
+    public SegmentedIntArray getPins() {
+        return pins;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#pin(int, int)
+     */
+    @Override
+    public int pin(int hyperedge, int index) {
+        return hyperedgeVertices[(int) hyperedgeIndices[hyperedge] + index];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#forEachPin(int,
+     * java.util.function.IntConsumer)
      */
     @Override
-    public String hmetisHeader() {
-        return numberOfHyperedges + " " + numberOfVertices;
+    public void forEachPin(int hyperedge, IntConsumer action) {
+        var end = (int) hyperedgeIndices[hyperedge + 1];
+        for (int i = (int) hyperedgeIndices[hyperedge]; i < end; i++) {
+            action.accept(hyperedgeVertices[i]);
+        }
     }
 
 }
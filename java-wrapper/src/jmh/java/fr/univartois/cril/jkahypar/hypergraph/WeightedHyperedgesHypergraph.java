@@ -41,7 +41,7 @@ final class WeightedHyperedgesHypergraph extends HypergraphDecorator {
      * @param hyperedgeWeights The weights of the hyperedges.
      */
     WeightedHyperedgesHypergraph(AbstractHypergraph hypergraph, int[] hyperedgeWeights) {
-        super(HmetisFormat.WEIGHT_ON_HYPEREDGES, hypergraph);
+        super(hypergraph);
         this.hyperedgeWeights = hyperedgeWeights;
     }
 
@@ -41,7 +41,7 @@ final class WeightedVerticesHypergraph extends HypergraphDecorator {
      * @param vertexWeights The weights of the vertices.
      */
     WeightedVerticesHypergraph(AbstractHypergraph hypergraph, int[] vertexWeights) {
-        super(HmetisFormat.WEIGHT_ON_VERTICES, hypergraph);
+        super(hypergraph);
         this.vertexWeights = vertexWeights;
     }
 
@@ -0,0 +1,198 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.KahyparContext;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder;
+import fr.univartois.cril.jkahypar.tools.VertexReordering.Strategy;
+
+/**
+ * The VertexReorderingBenchmark measures the effect of {@link VertexReordering} on the
+ * time needed to partition a hypergraph.
+ *
+ * The benchmarked hypergraph is the row-net model of a 5-point stencil on a square grid,
+ * whose vertices are randomly shuffled so as to destroy the natural locality of the
+ * grid.
+ * The time needed to partition this hypergraph is measured without reordering it, and
+ * after reordering it with each {@link Strategy}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class VertexReorderingBenchmark {
+
+    /**
+     * The strategy used to reorder the hypergraph, or {@code NONE} to partition the
+     * original hypergraph.
+     */
+    @Param({ "NONE", "BREADTH_FIRST", "REVERSE_CUTHILL_MCKEE", "DECREASING_DEGREE" })
+    public String strategy;
+
+    /**
+     * Whether the hyperedges are also reordered.
+     */
+    @Param({ "false", "true" })
+    public boolean sortHyperedges;
+
+    /**
+     * The size of the side of the grid.
+     */
+    @Param({ "300" })
+    public int side;
+
+    /**
+     * The hypergraph to partition.
+     */
+    private Hypergraph hypergraph;
+
+    /**
+     * The reordering of the hypergraph, or {@code null} if it is not reordered.
+     */
+    private VertexReordering reordering;
+
+    /**
+     * The context used to compute the partitions.
+     */
+    private KahyparContext context;
+
+    /**
+     * Creates the hypergraph to partition, and reorders it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        hypergraph = createShuffledGrid(side, new Random(2022));
+        if (!"NONE".equals(strategy)) {
+            reordering = VertexReordering.of(hypergraph, Strategy.valueOf(strategy),
+                    sortHyperedges);
+        }
+
+        context = new KahyparContext();
+        context.configureFrom("src/test/resources/config/cut_kKaHyPar_sea20.ini");
+        context.setImbalance(0.03);
+        context.setNumberOfBlocks(8);
+    }
+
+    /**
+     * Releases the context used to compute the partitions.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Measures the time needed to reorder the hypergraph.
+     *
+     * @return The computed reordering.
+     */
+    @Benchmark
+    public VertexReordering reorder() {
+        if (reordering == null) {
+            return null;
+        }
+        return VertexReordering.of(hypergraph, Strategy.valueOf(strategy), sortHyperedges);
+    }
+
+    /**
+     * Measures the time needed to partition the (possibly reordered) hypergraph.
+     * When the hypergraph is reordered, this includes the time needed to map the
+     * partition back to the original vertices.
+     *
+     * @return The computed partition.
+     */
+    @Benchmark
+    public HypergraphPartition partition() {
+        var partitioner = (reordering == null)
+                ? context.createPartitionerFor(hypergraph)
+                : context.createPartitionerFor(reordering);
+        return partitioner.computePartition();
+    }
+
+    /**
+     * Creates the row-net hypergraph of a 5-point stencil on a square grid, whose
+     * vertices are randomly shuffled.
+     *
+     * @param side The size of the side of the grid.
+     * @param random The random generator used to shuffle the vertices.
+     *
+     * @return The created hypergraph.
+     */
+    private static Hypergraph createShuffledGrid(int side, Random random) {
+        int nbVertices = side * side;
+        var shuffled = new int[nbVertices];
+        for (int v = 0; v < nbVertices; v++) {
+            int other = random.nextInt(v + 1);
+            shuffled[v] = shuffled[other];
+            shuffled[other] = v + 1;
+        }
+
+        var builder = HypergraphBuilder.createHypergraph(nbVertices, nbVertices);
+        var neighbors = new int[5];
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int size = 0;
+                neighbors[size++] = shuffled[row * side + column];
+                if (row > 0) {
+                    neighbors[size++] = shuffled[(row - 1) * side + column];
+                }
+                if (row < side - 1) {
+                    neighbors[size++] = shuffled[(row + 1) * side + column];
+                }
+                if (column > 0) {
+                    neighbors[size++] = shuffled[row * side + column - 1];
+                }
+                if (column < side - 1) {
+                    neighbors[size++] = shuffled[row * side + column + 1];
+                }
+                builder.withHyperedge(Arrays.copyOf(neighbors, size));
+            }
+        }
+        return builder.build();
+    }
+
+}
@@ -67,6 +67,49 @@ public final class HypergraphPartition {
         this.objectiveValue = objectiveValue;
     }
 
+    /**
+     * Creates a new HypergraphPartition from the identifiers of the blocks of the
+     * vertices.
+     * This is typically useful for partitions that have not been computed by a
+     * {@link KahyparPartitioner}, e.g., when they are read from a file.
+     *
+     * @param numberOfBlocks The number of blocks in the partition.
+     * @param blockIdentifiers The array associating to each vertex (shifted by one) the
+     *        identifier of the block to which it belongs.
+     *        This array is not copied.
+     * @param objectiveValue The value of the objective function on the partition.
+     *
+     * @return The created partition.
+     *
+     * @since 0.3.0
+     */
+    public static HypergraphPartition of(int numberOfBlocks, int[] blockIdentifiers,
+            int objectiveValue) {
+        return new HypergraphPartition(numberOfBlocks, blockIdentifiers, objectiveValue);
+    }
+
+    /**
+     * Gives the number of blocks in this partition.
+     *
+     * @return The number of blocks.
+     *
+     * @since 0.3.0
+     */
+    public int numberOfBlocks() {
+        return numberOfBlocks;
+    }
+
+    /**
+     * Gives the number of vertices in the partitioned hypergraph.
+     *
+     * @return The number of vertices.
+     *
+     * @since 0.3.0
+     */
+    public int numberOfVertices() {
+        return blockIdentifiers.length;
+    }
+
     /**
      * Gives the identifier of the block to which the given vertex belongs.
      *
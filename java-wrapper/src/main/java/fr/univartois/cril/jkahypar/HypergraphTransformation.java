@@ -0,0 +1,53 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The HypergraphTransformation represents a hypergraph obtained by transforming an
+ * original hypergraph (for instance, by renumbering its vertices), and allows to map
+ * the partitions of the transformed hypergraph back to the original one.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public interface HypergraphTransformation {
+
+    /**
+     * Gives the transformed hypergraph, which is the one to partition.
+     *
+     * @return The transformed hypergraph.
+     */
+    Hypergraph getHypergraph();
+
+    /**
+     * Maps a partition of the transformed hypergraph back to the vertices of the
+     * original hypergraph.
+     *
+     * @param partition The partition of the transformed hypergraph.
+     *
+     * @return The corresponding partition of the original hypergraph.
+     */
+    HypergraphPartition restore(HypergraphPartition partition);
+
+}
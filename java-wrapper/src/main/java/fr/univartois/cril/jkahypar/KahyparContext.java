@@ -85,6 +85,25 @@ public final class KahyparContext implements AutoCloseable {
         return new KahyparPartitioner(nativePartitioner, nativeContext.getNumberOfBlocks());
     }
 
+    /**
+     * Creates a partitioner for a transformed (e.g., reordered) hypergraph.
+     * The partitioner computes partitions of the transformed hypergraph, which are
+     * automatically mapped back to the vertices of the original hypergraph.
+     *
+     * @param transformation The transformation of the hypergraph to compute a
+     *        partition of.
+     *
+     * @return The created partitioner.
+     *
+     * @since 0.3.0
+     */
+    public KahyparPartitioner createPartitionerFor(HypergraphTransformation transformation) {
+        var nativePartitioner = nativeContext.createPartitionerFor(
+                transformation.getHypergraph());
+        return new KahyparPartitioner(nativePartitioner, nativeContext.getNumberOfBlocks(),
+                transformation);
+    }
+
     /*
      * (non-Javadoc)
      *
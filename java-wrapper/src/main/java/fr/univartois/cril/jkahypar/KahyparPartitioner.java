@@ -41,6 +41,13 @@ public final class KahyparPartitioner {
      */
     private final int numberOfBlocks;
 
+    /**
+     * The transformation applied to the partitioned hypergraph, used to map the computed
+     * partitions back to the original vertices.
+     * This transformation is {@code null} when the hypergraph has not been transformed.
+     */
+    private final HypergraphTransformation transformation;
+
     /**
      * Creates a new KahyparPartitioner.
      *
@@ -48,8 +55,24 @@ public final class KahyparPartitioner {
      * @param numberOfBlocks The number of blocks in the partitions to compute.
      */
     KahyparPartitioner(NativeKahyparPartitioner nativePartitioner, int numberOfBlocks) {
+        this(nativePartitioner, numberOfBlocks, null);
+    }
+
+    /**
+     * Creates a new KahyparPartitioner.
+     *
+     * @param nativePartitioner The native partitioner which actually computes the partitions.
+     * @param numberOfBlocks The number of blocks in the partitions to compute.
+     * @param transformation The transformation applied to the partitioned hypergraph,
+     *        or {@code null} if the hypergraph has not been transformed.
+     *
+     * @since 0.3.0
+     */
+    KahyparPartitioner(NativeKahyparPartitioner nativePartitioner, int numberOfBlocks,
+            HypergraphTransformation transformation) {
         this.nativePartitioner = nativePartitioner;
         this.numberOfBlocks = numberOfBlocks;
+        this.transformation = transformation;
     }
 
     /**
@@ -88,14 +111,17 @@ public final class KahyparPartitioner {
 
     /**
      * Creates a HypergraphPartition representing the last computed partition.
+     * If the partitioned hypergraph has been transformed, the partition is expressed in
+     * terms of the original vertices.
      *
      * @return The created partition.
      */
     private HypergraphPartition lastPartition() {
-        return new HypergraphPartition(
+        var partition = new HypergraphPartition(
                 numberOfBlocks,
                 nativePartitioner.getLastPartition(),
                 nativePartitioner.getLastObjectiveValue());
+        return (transformation == null) ? partition : transformation.restore(partition);
     }
 
 }
@@ -30,17 +30,31 @@ package fr.univartois.cril.jkahypar.hypergraph;
 abstract class AbstractHypergraph implements Hypergraph {
 
     /**
-     * The format of this hypergraph.
+     * The incidence index of this hypergraph.
+     * This index is lazily computed.
      */
-    private final HmetisFormat hmetisFormat;
+    private volatile VertexIncidence vertexIncidence;
 
-    /**
-     * Creates a new AbstractHypergraph.
+    /*
+     * (non-Javadoc)
      *
-     * @param hmetisFormat The format of this hypergraph.
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getVertexIncidence()
      */
-    protected AbstractHypergraph(HmetisFormat hmetisFormat) {
-        this.hmetisFormat = hmetisFormat;
+    @Override
+    public VertexIncidence getVertexIncidence() {
+        var incidence = vertexIncidence;
+        if (incidence == null) {
+            synchronized (this) {
+                incidence = vertexIncidence;
+                if (incidence == null) {
+                    // The index has not been computed yet.
+                    incidence = VertexIncidence.of(this);
+                    vertexIncidence = incidence;
+                }
+            }
+        }
+
+        return incidence;
     }
 
     /*
@@ -56,9 +70,21 @@ abstract class AbstractHypergraph implements Hypergraph {
         builder.append(hmetisHeader());
         builder.append(System.lineSeparator());
 
-        // Adding the hyperedges.
+        // Adding the hyperedges, considering that vertices are currently shifted.
+        var hyperedgeWeights = getHyperedgeWeights();
+        var cursor = cursor();
         for (int h = 0; h < getNumberOfHyperedges(); h++) {
-            builder.append(getHyperedge(h));
+            if (hyperedgeWeights != null) {
+                builder.append(hyperedgeWeights[h]).append(' ');
+            }
+
+            cursor.moveTo(h);
+            while (cursor.hasNext()) {
+                builder.append(cursor.next() + 1);
+                if (cursor.hasNext()) {
+                    builder.append(' ');
+                }
+            }
             builder.append(System.lineSeparator());
         }
 
@@ -67,22 +93,17 @@ abstract class AbstractHypergraph implements Hypergraph {
 
     /**
      * Gives the String containing the characteristics of this hypergraph and used as
-     * header in the hMetis representation of this hypergraph
+     * header in the hMetis representation of this hypergraph.
+     * The format of the hypergraph is only given when it is weighted.
      *
      * @return The header String in the hMetis representation of this hypergraph.
      */
-    protected abstract String hmetisHeader();
-
-    /**
-     * Gives the hMetis format of this hypergraph.
-     *
-     * @return An integer representing the hMetis format of the hypergraph.
-     *
-     * @implSpec The default implementation returns the identifier of the
-     *           {@link HmetisFormat} specified when creating this instance.
-     */
-    protected int hmetisFormat() {
-        return hmetisFormat.getIdentifier();
+    protected String hmetisHeader() {
+        int format = HmetisFormat.identifierOf(this);
+        if (format == HmetisFormat.UNWEIGHTED.getIdentifier()) {
+            return getNumberOfHyperedges() + " " + getNumberOfVertices();
+        }
+        return getNumberOfHyperedges() + " " + getNumberOfVertices() + " " + format;
     }
 
 }
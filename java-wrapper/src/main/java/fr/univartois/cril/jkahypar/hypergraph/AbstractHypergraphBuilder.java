@@ -19,8 +19,6 @@
 
 package fr.univartois.cril.jkahypar.hypergraph;
 
-import java.util.Arrays;
-
 /**
  * The AbstractHypergraphBuilder provides a base implementation for
  * {@link HypergraphBuilder}.
@@ -62,8 +60,9 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
 
     /**
      * The vertices of the different hyperedges.
+     * Note that the capacity of this array may exceed the number of pins.
      */
-    protected int[] hyperedgeVertices;
+    protected SegmentedIntArray hyperedgeVertices;
 
     /**
      * The index of the current hyperedge.
@@ -74,7 +73,18 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
      * The index at which the vertices of the current hyperedge start in
      * {@link #hyperedgeVertices}.
      */
-    private int hyperedgeVerticesIndex;
+    private long hyperedgeVerticesIndex;
+
+    /**
+     * The number of vertices that can be stored in {@link #hyperedgeVertices} without
+     * growing it.
+     */
+    private long hyperedgeVerticesCapacity;
+
+    /**
+     * The maximum amount of memory used by the arrays of this builder so far.
+     */
+    private long peakMemoryUsage;
 
     /**
      * Creates a new AbstractHypergraphBuilder.
@@ -86,7 +96,33 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
         this.numberOfVertices = nbVertices;
         this.numberOfHyperedges = nbHyperedges;
         this.hyperedgeIndices = new long[nbHyperedges + 1];
-        this.hyperedgeVertices = new int[(nbHyperedges << 1) + 1];
+        this.hyperedgeVertices = SegmentedIntArray.allocate(
+                SegmentedIntArray.DEFAULT_SEGMENT_SHIFT, ((long) nbHyperedges << 1) + 1);
+        this.hyperedgeVerticesCapacity = hyperedgeVertices.capacity();
+        updatePeakMemoryUsage(0);
+    }
+
+    /**
+     * Creates a new AbstractHypergraphBuilder for a hypergraph for which the number of
+     * pins is known.
+     * The vertices of the hyperedges are then stored in an array allocated once with
+     * the exact size, which never needs to be grown nor trimmed.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param nbHyperedges The number of hyperedges in the hypergraph.
+     * @param nbPins The number of pins in the hypergraph, i.e., the sum of the sizes of
+     *        its hyperedges.
+     *        If this number is too small, the array will be grown as needed.
+     *
+     * @since 0.3.0
+     */
+    protected AbstractHypergraphBuilder(int nbVertices, int nbHyperedges, long nbPins) {
+        this.numberOfVertices = nbVertices;
+        this.numberOfHyperedges = nbHyperedges;
+        this.hyperedgeIndices = new long[nbHyperedges + 1];
+        this.hyperedgeVertices = SegmentedIntArray.allocateExactly(nbPins);
+        this.hyperedgeVerticesCapacity = hyperedgeVertices.capacity();
+        updatePeakMemoryUsage(0);
     }
 
     /*
@@ -120,14 +156,32 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
         return hyperedgeIndices;
     }
 
-    /*
-     * (non-Javadoc)
+    /**
+     * Gives the vertices of the hyperedges added so far to the hypergraph.
+     * Before {@link #build()} is invoked, the array storing these vertices may be larger
+     * than their number, in which case they are copied into a new array.
      *
-     * @see
-     * fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getHyperedgeVertices()
+     * @return The vertices of the different hyperedges.
+     *
+     * @throws UnsupportedOperationException If the hypergraph has too many pins for
+     *         them to be stored in a Java array.
      */
     @Override
     public int[] getHyperedgeVertices() {
+        return getPins().toArray();
+    }
+
+    /**
+     * Gives the vertices of the hyperedges added so far to the hypergraph, as an array
+     * addressed by {@code long} indices.
+     * The returned array is not updated when hyperedges are added afterwards.
+     *
+     * @return The vertices of the different hyperedges.
+     */
+    @Override
+    public SegmentedIntArray getPins() {
+        // The length of the array is otherwise only set when building the hypergraph.
+        hyperedgeVertices.setLength(hyperedgeVerticesIndex);
         return hyperedgeVertices;
     }
 
@@ -156,6 +210,68 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
         return this;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withHyperedge(int[])
+     */
+    @Override
+    public HypergraphBuilder withHyperedge(int... vertices) {
+        appendVertices(vertices);
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withWeightedHyperedge(int,
+     * int[])
+     */
+    @Override
+    public HypergraphBuilder withWeightedHyperedge(int weight, int... vertices) {
+        withHyperedgeWeight(hyperedgeIndex, weight);
+        appendVertices(vertices);
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withHyperedges(long[],
+     * int[], int[])
+     */
+    @Override
+    public HypergraphBuilder withHyperedges(long[] offsets, int[] vertices, int[] weights) {
+        CsrValidation.validateHyperedges(offsets, vertices, weights, maxVertex());
+        int nbHyperedges = offsets.length - 1;
+        long firstOffset = offsets[0];
+
+        // Adding the indices and the weights of the hyperedges.
+        for (int h = 0; h < nbHyperedges; h++) {
+            if (weights != null) {
+                withHyperedgeWeight(hyperedgeIndex, weights[h]);
+            }
+            setHyperedgeIndex(hyperedgeIndex, hyperedgeVerticesIndex + offsets[h] - firstOffset);
+            hyperedgeIndex++;
+        }
+
+        // Adding all the vertices at once.
+        appendVertices(vertices, (int) firstOffset, (int) (offsets[nbHyperedges] - firstOffset));
+        return this;
+    }
+
+    /**
+     * Gives the largest vertex that may appear in the hyperedges added to this builder.
+     *
+     * @return The largest vertex allowed in the hyperedges.
+     *
+     * @since 0.3.0
+     */
+    protected int maxVertex() {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Sets the index at which the vertices of a hyperedge start in
      * {@link #hyperedgeIndices}.
@@ -163,7 +279,7 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
      * @param index The index of the hyperedge.
      * @param vertexIndex The index at which the vertices of the hyperedge start.
      */
-    protected abstract void setHyperedgeIndex(int index, int vertexIndex);
+    protected abstract void setHyperedgeIndex(int index, long vertexIndex);
 
     /**
      * Sets the weight of a hyperedge in the hypergraph.
@@ -181,26 +297,64 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
      * @param hyperedge The hyperedge to append the vertices of.
      */
     protected void appendVertices(Hyperedge hyperedge) {
+        appendVertices(hyperedge.getVertices());
+    }
+
+    /**
+     * Appends the vertices of a hyperedge to {@link #hyperedgeVertices}.
+     *
+     * @param vertices The vertices of the hyperedge, numbered from {@code 1}.
+     *
+     * @since 0.3.0
+     */
+    protected void appendVertices(int[] vertices) {
         setHyperedgeIndex(hyperedgeIndex, hyperedgeVerticesIndex);
-        for (int vertex : hyperedge.getVertices()) {
+        for (int vertex : vertices) {
             appendVertex(vertex);
         }
         hyperedgeIndex++;
     }
 
+    /**
+     * Appends vertices of several hyperedges to {@link #hyperedgeVertices}, without
+     * updating the indices of the hyperedges.
+     * The array is grown at most once.
+     *
+     * @param vertices The array containing the vertices to append, numbered from
+     *        {@code 1}.
+     * @param from The index of the first vertex to append in {@code vertices}.
+     * @param count The number of vertices to append.
+     *
+     * @since 0.3.0
+     */
+    protected void appendVertices(int[] vertices, int from, int count) {
+        if (hyperedgeVerticesCapacity < hyperedgeVerticesIndex + count) {
+            // There is not enough room for adding the vertices.
+            long copied = hyperedgeVertices.ensureCapacity(hyperedgeVerticesIndex + count);
+            hyperedgeVerticesCapacity = hyperedgeVertices.capacity();
+            updatePeakMemoryUsage(copied * Integer.BYTES);
+        }
+
+        for (int i = from; i < from + count; i++) {
+            hyperedgeVertices.set(hyperedgeVerticesIndex++, vertices[i] - 1);
+        }
+    }
+
     /**
      * Appends a vertex to {@link #hyperedgeVertices}.
-     * The size of the array is doubled if there is not enough room to add the vertex.
+     * The array is grown if there is not enough room to add the vertex.
      *
      * @param vertex The vertex to append.
      */
     protected void appendVertex(int vertex) {
-        if (hyperedgeVertices.length == hyperedgeVerticesIndex) {
+        if (hyperedgeVerticesCapacity == hyperedgeVerticesIndex) {
             // There is not enough room for adding a vertex.
-            hyperedgeVertices = Arrays.copyOf(hyperedgeVertices, hyperedgeVerticesIndex << 1);
+            long copied = hyperedgeVertices.ensureCapacity(hyperedgeVerticesIndex + 1);
+            hyperedgeVerticesCapacity = hyperedgeVertices.capacity();
+            updatePeakMemoryUsage(copied * Integer.BYTES);
         }
 
-        hyperedgeVertices[hyperedgeVerticesIndex++] = vertex - 1;
+        hyperedgeVertices.set(hyperedgeVerticesIndex++, vertex - 1);
     }
 
     /*
@@ -212,23 +366,58 @@ public abstract class AbstractHypergraphBuilder implements HypergraphBuilder {
     public Hypergraph build() {
         // Terminating the vertices, and making sure all arrays have the correct size.
         setHyperedgeIndex(hyperedgeIndex, hyperedgeVerticesIndex);
-        hyperedgeVertices = Arrays.copyOf(hyperedgeVertices, hyperedgeVerticesIndex);
+        hyperedgeVertices.setLength(hyperedgeVerticesIndex);
         resizeArrays();
+        // The vertices may need to be copied into an array of the exact size.
+        boolean copied = hyperedgeVertices.fitsInArray() && !hyperedgeVertices.isSingleArray();
+        updatePeakMemoryUsage(copied ? (hyperedgeVerticesIndex * Integer.BYTES) : 0);
 
-        // Creating the hypergraph.
-        AbstractHypergraph hypergraph = new UnweightedHypergraph(this);
+        // Creating the hypergraph, using segments only if the pins do not fit in an array.
+        return new FlatHypergraph(numberOfVertices, numberOfHyperedges, hyperedgeIndices,
+                hyperedgeVertices.flattened(), hyperedgeWeights, vertexWeights);
+    }
 
+    /**
+     * Gives the amount of memory currently used by the arrays of this builder.
+     *
+     * @return The number of bytes used by the arrays of this builder.
+     *
+     * @since 0.3.0
+     */
+    protected long memoryUsage() {
+        long bytes = (long) hyperedgeIndices.length * Long.BYTES
+                + hyperedgeVertices.capacity() * Integer.BYTES;
         if (hyperedgeWeights != null) {
-            // The hyperedges of the hypergraph are weighted.
-            hypergraph = new WeightedHyperedgesHypergraph(hypergraph, hyperedgeWeights);
+            bytes += (long) hyperedgeWeights.length * Integer.BYTES;
         }
-
         if (vertexWeights != null) {
-            // The vertices of the hypergraph are weighted.
-            hypergraph = new WeightedVerticesHypergraph(hypergraph, vertexWeights);
+            bytes += (long) vertexWeights.length * Integer.BYTES;
         }
+        return bytes;
+    }
+
+    /**
+     * Updates the peak memory usage of this builder, considering the memory currently
+     * used by its arrays and the memory used by temporary copies.
+     * This method must be invoked each time an array of this builder is replaced, while
+     * its previous version is still reachable.
+     *
+     * @param temporaryBytes The number of bytes used by temporary copies.
+     *
+     * @since 0.3.0
+     */
+    protected void updatePeakMemoryUsage(long temporaryBytes) {
+        peakMemoryUsage = Math.max(peakMemoryUsage, memoryUsage() + temporaryBytes);
+    }
 
-        return hypergraph;
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getPeakMemoryUsage()
+     */
+    @Override
+    public long getPeakMemoryUsage() {
+        return peakMemoryUsage;
     }
 
     /**
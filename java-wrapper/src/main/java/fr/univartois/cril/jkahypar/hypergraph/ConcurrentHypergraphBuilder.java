@@ -0,0 +1,550 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The ConcurrentHypergraphBuilder is a {@link HypergraphBuilder} that may be used by
+ * several threads at the same time.
+ *
+ * To avoid any contention, each thread appends its hyperedges to its own chunk, stored
+ * in compressed (CSR) form.
+ * When the hypergraph is built, the chunks are concatenated in parallel, after having
+ * computed the offsets of each chunk with prefix sums.
+ * The hyperedges added by a given thread appear in the hypergraph in the order in which
+ * they have been added, but the hyperedges of different threads may be interleaved in
+ * any order.
+ *
+ * Methods giving the size or the internal representation of the hypergraph must only be
+ * invoked when no thread is adding hyperedges, and {@link #build()} must be invoked once
+ * all threads are done.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class ConcurrentHypergraphBuilder implements HypergraphBuilder {
+
+    /**
+     * The initial number of hyperedges that can be stored in a chunk.
+     */
+    private static final int INITIAL_CHUNK_SIZE = 1 << 10;
+
+    /**
+     * The minimum number of vertices in the hypergraph.
+     */
+    private final int minNumberOfVertices;
+
+    /**
+     * The chunks in which the threads have added hyperedges.
+     */
+    private final ConcurrentLinkedQueue<Chunk> chunks;
+
+    /**
+     * The chunk of the current thread.
+     */
+    private final ThreadLocal<Chunk> localChunk;
+
+    /**
+     * The hypergraph built by this builder.
+     */
+    private Hypergraph hypergraph;
+
+    /**
+     * The amount of memory used when building the hypergraph, i.e., by both the chunks
+     * and the final arrays.
+     */
+    private long peakMemoryUsage;
+
+    /**
+     * Creates a new ConcurrentHypergraphBuilder.
+     *
+     * @param minNumberOfVertices The minimum number of vertices in the hypergraph.
+     */
+    ConcurrentHypergraphBuilder(int minNumberOfVertices) {
+        this.minNumberOfVertices = minNumberOfVertices;
+        this.chunks = new ConcurrentLinkedQueue<>();
+        this.localChunk = ThreadLocal.withInitial(() -> {
+            var chunk = new Chunk();
+            chunks.add(chunk);
+            return chunk;
+        });
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getNumberOfVertices()
+     */
+    @Override
+    public int getNumberOfVertices() {
+        int nbVertices = minNumberOfVertices;
+        for (var chunk : chunks) {
+            nbVertices = Math.max(nbVertices, chunk.maxVertex);
+        }
+        return nbVertices;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withVertexWeight(int,
+     * int)
+     */
+    @Override
+    public HypergraphBuilder withVertexWeight(int vertex, int weight) {
+        localChunk.get().appendVertexWeight(vertex, weight);
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getNumberOfHyperedges()
+     */
+    @Override
+    public int getNumberOfHyperedges() {
+        int nbHyperedges = 0;
+        for (var chunk : chunks) {
+            nbHyperedges += chunk.numberOfHyperedges;
+        }
+        return nbHyperedges;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getHyperedgeIndices()
+     */
+    @Override
+    public long[] getHyperedgeIndices() {
+        return built().getHyperedgeIndices();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getHyperedgeVertices()
+     */
+    @Override
+    public int[] getHyperedgeVertices() {
+        return built().getHyperedgeVertices();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getPins()
+     */
+    @Override
+    public SegmentedIntArray getPins() {
+        return built().getPins();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#getPeakMemoryUsage()
+     */
+    @Override
+    public long getPeakMemoryUsage() {
+        long chunksMemory = 0;
+        for (var chunk : chunks) {
+            chunksMemory += chunk.memoryUsage();
+        }
+        return Math.max(peakMemoryUsage, chunksMemory);
+    }
+
+    /**
+     * Gives the hypergraph built by this builder.
+     *
+     * @return The built hypergraph.
+     *
+     * @throws IllegalStateException If the hypergraph has not been built yet.
+     */
+    private Hypergraph built() {
+        if (hypergraph == null) {
+            throw new IllegalStateException("The hypergraph has not been built yet");
+        }
+        return hypergraph;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withHyperedge(fr.
+     * univartois.cril.jkahypar.hypergraph.UnweightedHyperedge)
+     */
+    @Override
+    public HypergraphBuilder withHyperedge(UnweightedHyperedge hyperedge) {
+        localChunk.get().appendHyperedge(hyperedge.getVertices());
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withHyperedge(fr.
+     * univartois.cril.jkahypar.hypergraph.WeightedHyperedge)
+     */
+    @Override
+    public HypergraphBuilder withHyperedge(WeightedHyperedge hyperedge) {
+        var chunk = localChunk.get();
+        chunk.setHyperedgeWeight(hyperedge.getWeight());
+        chunk.appendHyperedge(hyperedge.getVertices());
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withHyperedge(int[])
+     */
+    @Override
+    public HypergraphBuilder withHyperedge(int... vertices) {
+        localChunk.get().appendHyperedge(vertices);
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withWeightedHyperedge(int,
+     * int[])
+     */
+    @Override
+    public HypergraphBuilder withWeightedHyperedge(int weight, int... vertices) {
+        var chunk = localChunk.get();
+        chunk.setHyperedgeWeight(weight);
+        chunk.appendHyperedge(vertices);
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#withHyperedges(long[],
+     * int[], int[])
+     */
+    @Override
+    public HypergraphBuilder withHyperedges(long[] offsets, int[] vertices, int[] weights) {
+        localChunk.get().appendHyperedges(offsets, vertices, weights);
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder#build()
+     */
+    @Override
+    public Hypergraph build() {
+        if (hypergraph != null) {
+            // The hypergraph has already been built.
+            return hypergraph;
+        }
+
+        // Computing the offsets of the chunks, both in terms of hyperedges and pins.
+        var allChunks = new ArrayList<>(chunks);
+        var hyperedgeOffsets = new int[allChunks.size() + 1];
+        var pinOffsets = new long[allChunks.size() + 1];
+        boolean weightedHyperedges = false;
+        for (int c = 0; c < allChunks.size(); c++) {
+            var chunk = allChunks.get(c);
+            hyperedgeOffsets[c + 1] = hyperedgeOffsets[c] + chunk.numberOfHyperedges;
+            pinOffsets[c + 1] = pinOffsets[c] + chunk.numberOfPins;
+            weightedHyperedges |= (chunk.hyperedgeWeights != null);
+        }
+
+        // Concatenating the indices and the weights of the hyperedges.
+        int nbHyperedges = hyperedgeOffsets[allChunks.size()];
+        var hyperedgeIndices = new long[nbHyperedges + 1];
+        var hyperedgeWeights = weightedHyperedges ? new int[nbHyperedges] : null;
+        IntStream.range(0, allChunks.size()).parallel().forEach(c -> {
+            var chunk = allChunks.get(c);
+            int hyperedgeOffset = hyperedgeOffsets[c];
+            long pinOffset = pinOffsets[c];
+            ParallelArrays.forEachChunk(chunk.numberOfHyperedges, (from, to) -> {
+                for (int h = from; h < to; h++) {
+                    hyperedgeIndices[hyperedgeOffset + h] =
+                            pinOffset + chunk.hyperedgeIndices[h];
+                }
+            });
+            if (chunk.hyperedgeWeights != null) {
+                // Hyperedges added after the last weighted one have no weight.
+                System.arraycopy(chunk.hyperedgeWeights, 0, hyperedgeWeights, hyperedgeOffset,
+                        Math.min(chunk.hyperedgeWeights.length, chunk.numberOfHyperedges));
+            }
+        });
+        long nbPins = pinOffsets[allChunks.size()];
+        hyperedgeIndices[nbHyperedges] = nbPins;
+
+        // Concatenating the pins, using segments only if they do not fit in an array.
+        SegmentedIntArray pins;
+        int nbVertices = getNumberOfVertices();
+        if (nbPins <= SegmentedIntArray.MAX_ARRAY_LENGTH) {
+            var array = new int[(int) nbPins];
+            IntStream.range(0, allChunks.size()).parallel().forEach(c -> {
+                var chunk = allChunks.get(c);
+                chunk.pins.copyTo(0, array, (int) pinOffsets[c], (int) chunk.numberOfPins);
+            });
+            pins = SegmentedIntArray.wrapping(array);
+
+        } else {
+            var segments = SegmentedIntArray.allocate(
+                    SegmentedIntArray.DEFAULT_SEGMENT_SHIFT, nbPins);
+            segments.setLength(nbPins);
+            IntStream.range(0, allChunks.size()).parallel().forEach(c -> {
+                var chunk = allChunks.get(c);
+                segments.copyFrom(chunk.pins, 0, pinOffsets[c], chunk.numberOfPins);
+            });
+            pins = segments;
+        }
+
+        hypergraph = new FlatHypergraph(nbVertices, nbHyperedges, hyperedgeIndices, pins,
+                hyperedgeWeights, vertexWeights(allChunks, nbVertices));
+
+        // Both the chunks and the hypergraph are in memory at the end of the build.
+        peakMemoryUsage = getPeakMemoryUsage() + ((long) hyperedgeIndices.length * Long.BYTES)
+                + (nbPins * Integer.BYTES)
+                + (weightedHyperedges ? ((long) nbHyperedges * Integer.BYTES) : 0)
+                + ((hypergraph.getVertexWeights() == null)
+                        ? 0 : ((long) nbVertices * Integer.BYTES));
+        return hypergraph;
+    }
+
+    /**
+     * Collects the weights of the vertices that have been set in the different chunks.
+     * When the weight of a vertex is set several times, the last chunk wins.
+     *
+     * @param allChunks The chunks to collect the weights from.
+     * @param nbVertices The number of vertices in the hypergraph.
+     *
+     * @return The weights of the vertices, or {@code null} if vertices are not weighted.
+     */
+    private static int[] vertexWeights(List<Chunk> allChunks, int nbVertices) {
+        int[] vertexWeights = null;
+
+        for (var chunk : allChunks) {
+            if (chunk.numberOfVertexWeights > 0 && vertexWeights == null) {
+                // This is the first chunk in which a weight is specified.
+                vertexWeights = new int[nbVertices];
+            }
+
+            for (int i = 0; i < chunk.numberOfVertexWeights; i++) {
+                vertexWeights[chunk.weightedVertices[i] - 1] = chunk.vertexWeights[i];
+            }
+        }
+
+        return vertexWeights;
+    }
+
+    /**
+     * The Chunk stores the hyperedges added by a single thread.
+     */
+    private static final class Chunk {
+
+        /**
+         * The number of hyperedges in this chunk.
+         */
+        private int numberOfHyperedges;
+
+        /**
+         * The indices at which the vertices of each hyperedge start in {@link #pins}.
+         */
+        private long[] hyperedgeIndices;
+
+        /**
+         * The weights of the hyperedges in this chunk.
+         * If hyperedges are not weighted, this array remains {@code null}.
+         */
+        private int[] hyperedgeWeights;
+
+        /**
+         * The vertices of the hyperedges in this chunk.
+         */
+        private final SegmentedIntArray pins;
+
+        /**
+         * The number of vertices in {@link #pins}.
+         */
+        private long numberOfPins;
+
+        /**
+         * The greatest vertex appearing in this chunk.
+         */
+        private int maxVertex;
+
+        /**
+         * The number of vertices for which a weight has been set in this chunk.
+         */
+        private int numberOfVertexWeights;
+
+        /**
+         * The vertices for which a weight has been set in this chunk.
+         */
+        private int[] weightedVertices;
+
+        /**
+         * The weights set for the vertices in {@link #weightedVertices}.
+         */
+        private int[] vertexWeights;
+
+        /**
+         * Creates a new Chunk.
+         */
+        private Chunk() {
+            this.hyperedgeIndices = new long[INITIAL_CHUNK_SIZE];
+            this.pins = SegmentedIntArray.allocate(
+                    SegmentedIntArray.DEFAULT_SEGMENT_SHIFT, INITIAL_CHUNK_SIZE << 1);
+        }
+
+        /**
+         * Gives the amount of memory used by the arrays of this chunk.
+         *
+         * @return The number of bytes used by this chunk.
+         */
+        private long memoryUsage() {
+            long bytes = (long) hyperedgeIndices.length * Long.BYTES
+                    + pins.capacity() * Integer.BYTES;
+            if (hyperedgeWeights != null) {
+                bytes += (long) hyperedgeWeights.length * Integer.BYTES;
+            }
+            if (weightedVertices != null) {
+                bytes += (long) weightedVertices.length * 2 * Integer.BYTES;
+            }
+            return bytes;
+        }
+
+        /**
+         * Appends a hyperedge to this chunk.
+         *
+         * @param vertices The vertices of the hyperedge to append, numbered from
+         *        {@code 1}.
+         */
+        private void appendHyperedge(int[] vertices) {
+            if (hyperedgeIndices.length == numberOfHyperedges) {
+                // There is not enough room to store the new hyperedge.
+                hyperedgeIndices = Arrays.copyOf(hyperedgeIndices, numberOfHyperedges << 1);
+            }
+            hyperedgeIndices[numberOfHyperedges++] = numberOfPins;
+
+            // Appending the vertices, considering that vertices are shifted.
+            pins.ensureCapacity(numberOfPins + vertices.length);
+            for (int vertex : vertices) {
+                pins.set(numberOfPins++, vertex - 1);
+                maxVertex = Math.max(maxVertex, vertex);
+            }
+        }
+
+        /**
+         * Appends several hyperedges given in compressed (CSR) form to this chunk.
+         *
+         * @param offsets The indices at which the vertices of each hyperedge start in
+         *        {@code vertices}, followed by the index at which the last hyperedge ends.
+         * @param vertices The vertices of the hyperedges, numbered from {@code 1}.
+         * @param weights The weights of the hyperedges, or {@code null} if the
+         *        hyperedges are not weighted.
+         */
+        private void appendHyperedges(long[] offsets, int[] vertices, int[] weights) {
+            CsrValidation.validateHyperedges(offsets, vertices, weights, Integer.MAX_VALUE);
+            int nbHyperedges = offsets.length - 1;
+            if (hyperedgeIndices.length < numberOfHyperedges + nbHyperedges) {
+                // There is not enough room to store the new hyperedges.
+                hyperedgeIndices = Arrays.copyOf(hyperedgeIndices,
+                        Math.max(numberOfHyperedges + nbHyperedges, numberOfHyperedges << 1));
+            }
+
+            // Appending the indices and the weights of the hyperedges.
+            for (int h = 0; h < nbHyperedges; h++) {
+                if (weights != null) {
+                    setHyperedgeWeight(weights[h]);
+                }
+                hyperedgeIndices[numberOfHyperedges++] =
+                        numberOfPins + offsets[h] - offsets[0];
+            }
+
+            // Appending the vertices at once, considering that vertices are shifted.
+            var from = (int) offsets[0];
+            var count = (int) (offsets[nbHyperedges] - offsets[0]);
+            pins.ensureCapacity(numberOfPins + count);
+            for (int i = from; i < from + count; i++) {
+                pins.set(numberOfPins++, vertices[i] - 1);
+                maxVertex = Math.max(maxVertex, vertices[i]);
+            }
+        }
+
+        /**
+         * Sets the weight of the next hyperedge to append to this chunk.
+         *
+         * @param weight The weight of the hyperedge.
+         */
+        private void setHyperedgeWeight(int weight) {
+            if (hyperedgeWeights == null) {
+                // This is the first hyperedge for which a weight is specified.
+                hyperedgeWeights = new int[hyperedgeIndices.length];
+            }
+
+            if (hyperedgeWeights.length <= numberOfHyperedges) {
+                // There is not enough room to store the weight of this hyperedge.
+                hyperedgeWeights = Arrays.copyOf(
+                        hyperedgeWeights, hyperedgeIndices.length << 1);
+            }
+
+            hyperedgeWeights[numberOfHyperedges] = weight;
+        }
+
+        /**
+         * Records the weight of a vertex in this chunk.
+         *
+         * @param vertex The vertex to set the weight of.
+         * @param weight The weight of the vertex.
+         */
+        private void appendVertexWeight(int vertex, int weight) {
+            if (weightedVertices == null) {
+                // This is the first vertex for which a weight is specified.
+                weightedVertices = new int[INITIAL_CHUNK_SIZE];
+                vertexWeights = new int[INITIAL_CHUNK_SIZE];
+
+            } else if (weightedVertices.length == numberOfVertexWeights) {
+                // There is not enough room to store the weight of this vertex.
+                weightedVertices = Arrays.copyOf(weightedVertices, numberOfVertexWeights << 1);
+                vertexWeights = Arrays.copyOf(vertexWeights, numberOfVertexWeights << 1);
+            }
+
+            weightedVertices[numberOfVertexWeights] = vertex;
+            vertexWeights[numberOfVertexWeights++] = weight;
+            maxVertex = Math.max(maxVertex, vertex);
+        }
+
+    }
+
+}
@@ -0,0 +1,173 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The CsrValidation checks that arrays given in compressed (CSR) form represent a valid
+ * hypergraph.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+final class CsrValidation {
+
+    /**
+     * Disables instantiation.
+     */
+    private CsrValidation() {
+        throw new AssertionError("No CsrValidation instances for you!");
+    }
+
+    /**
+     * Checks that the given arrays represent a valid hypergraph.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start in
+     *        {@code hyperedgeVertices}, followed by the number of pins.
+     * @param hyperedgeVertices The vertices of the hyperedges, numbered from {@code 0}.
+     * @param hyperedgeWeights The weights of the hyperedges (may be {@code null}).
+     * @param vertexWeights The weights of the vertices (may be {@code null}).
+     *
+     * @throws IllegalArgumentException If the arrays do not represent a valid hypergraph.
+     */
+    static void validate(int nbVertices, long[] hyperedgeIndices, int[] hyperedgeVertices,
+            int[] hyperedgeWeights, int[] vertexWeights) {
+        validate(nbVertices, hyperedgeIndices, SegmentedIntArray.wrapping(hyperedgeVertices),
+                hyperedgeWeights, vertexWeights);
+    }
+
+    /**
+     * Checks that the given arrays represent a valid hypergraph.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start in
+     *        {@code pins}, followed by the number of pins.
+     * @param pins The vertices of the hyperedges, numbered from {@code 0}.
+     * @param hyperedgeWeights The weights of the hyperedges (may be {@code null}).
+     * @param vertexWeights The weights of the vertices (may be {@code null}).
+     *
+     * @throws IllegalArgumentException If the arrays do not represent a valid hypergraph.
+     */
+    static void validate(int nbVertices, long[] hyperedgeIndices, SegmentedIntArray pins,
+            int[] hyperedgeWeights, int[] vertexWeights) {
+        // Checking the sizes of the arrays.
+        int nbHyperedges = hyperedgeIndices.length - 1;
+        if (nbHyperedges < 0) {
+            throw new IllegalArgumentException(
+                    "Missing the index of the end of the last hyperedge");
+        }
+        if ((hyperedgeIndices[0] != 0)
+                || (hyperedgeIndices[nbHyperedges] != pins.length())) {
+            throw new IllegalArgumentException("Hyperedge indices must range from 0 to "
+                    + pins.length());
+        }
+        if ((hyperedgeWeights != null) && (hyperedgeWeights.length != nbHyperedges)) {
+            throw new IllegalArgumentException("Expected " + nbHyperedges
+                    + " hyperedge weights, got " + hyperedgeWeights.length);
+        }
+        if ((vertexWeights != null) && (vertexWeights.length != nbVertices)) {
+            throw new IllegalArgumentException("Expected " + nbVertices
+                    + " vertex weights, got " + vertexWeights.length);
+        }
+
+        // Checking the indices, which are needed to split the pins among the threads.
+        var error = new AtomicReference<String>();
+        ParallelArrays.forEachChunk(nbHyperedges, (from, to) -> {
+            for (int h = from; (h < to) && (error.get() == null); h++) {
+                if (hyperedgeIndices[h] > hyperedgeIndices[h + 1]) {
+                    error.compareAndSet(null,
+                            "Hyperedge indices must be sorted (hyperedge " + h + ")");
+                }
+            }
+        });
+        if (error.get() != null) {
+            throw new IllegalArgumentException(error.get());
+        }
+
+        // Checking the pins, hyperedge by hyperedge.
+        ParallelArrays.forEachChunk(nbHyperedges, (from, to) -> {
+            for (int h = from; (h < to) && (error.get() == null); h++) {
+                for (long i = hyperedgeIndices[h]; i < hyperedgeIndices[h + 1]; i++) {
+                    int vertex = pins.get(i);
+                    if ((vertex < 0) || (vertex >= nbVertices)) {
+                        error.compareAndSet(null,
+                                "Invalid vertex at index " + i + ": " + vertex);
+                        break;
+                    }
+                }
+            }
+        });
+
+        if (error.get() != null) {
+            throw new IllegalArgumentException(error.get());
+        }
+    }
+
+    /**
+     * Checks that the given arrays represent hyperedges to add to a builder, as expected
+     * by {@link HypergraphBuilder#withHyperedges(long[], int[], int[])}.
+     *
+     * @param offsets The indices at which the vertices of each hyperedge start in
+     *        {@code vertices}, followed by the index at which the last hyperedge ends.
+     * @param vertices The vertices of the hyperedges, numbered from {@code 1}.
+     * @param weights The weights of the hyperedges (may be {@code null}).
+     * @param maxVertex The largest vertex allowed in the hyperedges.
+     *
+     * @throws IllegalArgumentException If the arrays do not represent valid hyperedges.
+     */
+    static void validateHyperedges(long[] offsets, int[] vertices, int[] weights,
+            int maxVertex) {
+        // Checking the offsets, which must delimit hyperedges in the array of vertices.
+        int nbHyperedges = offsets.length - 1;
+        if (nbHyperedges < 0) {
+            throw new IllegalArgumentException(
+                    "Missing the offset of the end of the last hyperedge");
+        }
+        if ((offsets[0] < 0) || (offsets[nbHyperedges] > vertices.length)) {
+            throw new IllegalArgumentException("Hyperedge offsets must range from 0 to "
+                    + vertices.length);
+        }
+        for (int h = 0; h < nbHyperedges; h++) {
+            if (offsets[h] > offsets[h + 1]) {
+                throw new IllegalArgumentException(
+                        "Hyperedge offsets must be sorted (hyperedge " + h + ")");
+            }
+        }
+        if ((weights != null) && (weights.length < nbHyperedges)) {
+            throw new IllegalArgumentException("Expected " + nbHyperedges
+                    + " hyperedge weights, got " + weights.length);
+        }
+
+        // Checking the vertices, which are numbered from 1 here.
+        for (var i = (int) offsets[0]; i < offsets[nbHyperedges]; i++) {
+            if ((vertices[i] < 1) || (vertices[i] > maxVertex)) {
+                throw new IllegalArgumentException(
+                        "Invalid vertex at index " + i + ": " + vertices[i]);
+            }
+        }
+    }
+
+}
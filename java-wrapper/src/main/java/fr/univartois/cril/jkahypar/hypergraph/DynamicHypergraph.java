@@ -0,0 +1,659 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The DynamicHypergraph is a mutable hypergraph, to which vertices and hyperedges may be
+ * added or from which they may be removed without rebuilding it from scratch.
+ *
+ * Removed vertices and hyperedges are marked as such (tombstones), and the vertices of
+ * the hyperedges are stored in an append-only array.
+ * The space used by removed elements is reclaimed by a compaction of this array, which
+ * is either requested explicitly with {@link #compact()}, or performed automatically
+ * when removed elements use more space than the remaining ones.
+ * The identifiers of the vertices and of the hyperedges never change, and are never
+ * reused.
+ *
+ * A DynamicHypergraph is not a {@link Hypergraph} by itself.
+ * Instead, an immutable {@link Snapshot} of its current state can be obtained with
+ * {@link #snapshot()}, and given for instance to a partitioner.
+ * Snapshots are cached until the next modification.
+ *
+ * As other builders, this class is not thread-safe.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class DynamicHypergraph {
+
+    /**
+     * The initial capacity of the arrays of this hypergraph.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The number of vertices that have been created in this hypergraph, including
+     * removed ones.
+     */
+    private int vertexCount;
+
+    /**
+     * The vertices that have been removed from this hypergraph.
+     */
+    private final BitSet removedVertices;
+
+    /**
+     * The number of vertices that have been removed from this hypergraph.
+     */
+    private int numberOfRemovedVertices;
+
+    /**
+     * The weights of the vertices.
+     */
+    private int[] vertexWeights;
+
+    /**
+     * Whether at least one vertex has a weight different from {@code 1}.
+     */
+    private boolean weightedVertices;
+
+    /**
+     * The number of hyperedges in which each vertex appears.
+     */
+    private int[] vertexDegrees;
+
+    /**
+     * The number of hyperedges that have been created in this hypergraph, including
+     * removed ones.
+     */
+    private int hyperedgeCount;
+
+    /**
+     * The hyperedges that have been removed from this hypergraph.
+     */
+    private final BitSet removedHyperedges;
+
+    /**
+     * The number of hyperedges that have been removed from this hypergraph.
+     */
+    private int numberOfRemovedHyperedges;
+
+    /**
+     * The weights of the hyperedges.
+     */
+    private int[] hyperedgeWeights;
+
+    /**
+     * Whether at least one hyperedge has a weight different from {@code 1}.
+     */
+    private boolean weightedHyperedges;
+
+    /**
+     * The indices at which the vertices of each hyperedge start in {@link #pins}.
+     */
+    private long[] hyperedgeIndices;
+
+    /**
+     * The number of vertices in each hyperedge, including removed ones.
+     */
+    private int[] hyperedgeSizes;
+
+    /**
+     * The append-only array storing the vertices of the hyperedges, numbered from
+     * {@code 0}.
+     */
+    private SegmentedIntArray pins;
+
+    /**
+     * The number of elements used in {@link #pins}.
+     */
+    private long numberOfPins;
+
+    /**
+     * The number of elements in {@link #pins} that refer to removed vertices or belong
+     * to removed hyperedges.
+     */
+    private long numberOfGarbagePins;
+
+    /**
+     * The last snapshot taken of this hypergraph, or {@code null} if this hypergraph has
+     * been modified since.
+     */
+    private Snapshot snapshot;
+
+    /**
+     * Creates a new DynamicHypergraph.
+     *
+     * @param nbVertices The number of vertices initially in the hypergraph, which all
+     *        have a weight of {@code 1}.
+     */
+    private DynamicHypergraph(int nbVertices) {
+        this.removedVertices = new BitSet();
+        this.vertexWeights = new int[Math.max(INITIAL_CAPACITY, nbVertices)];
+        this.vertexDegrees = new int[vertexWeights.length];
+        this.removedHyperedges = new BitSet();
+        this.hyperedgeWeights = new int[INITIAL_CAPACITY];
+        this.hyperedgeIndices = new long[INITIAL_CAPACITY];
+        this.hyperedgeSizes = new int[INITIAL_CAPACITY];
+        this.pins = SegmentedIntArray.allocate(
+                SegmentedIntArray.DEFAULT_SEGMENT_SHIFT, INITIAL_CAPACITY);
+        Arrays.fill(vertexWeights, 0, nbVertices, 1);
+        this.vertexCount = nbVertices;
+    }
+
+    /**
+     * Creates a new, empty, DynamicHypergraph.
+     *
+     * @return The created hypergraph.
+     */
+    public static DynamicHypergraph create() {
+        return new DynamicHypergraph(0);
+    }
+
+    /**
+     * Creates a new DynamicHypergraph having the given number of vertices, and no
+     * hyperedge.
+     *
+     * @param nbVertices The number of vertices in the hypergraph, which all have a weight
+     *        of {@code 1}.
+     *
+     * @return The created hypergraph.
+     */
+    public static DynamicHypergraph create(int nbVertices) {
+        return new DynamicHypergraph(nbVertices);
+    }
+
+    /**
+     * Gives the number of (non-removed) vertices in this hypergraph.
+     *
+     * @return The number of vertices.
+     */
+    public int getNumberOfVertices() {
+        return vertexCount - numberOfRemovedVertices;
+    }
+
+    /**
+     * Gives the number of (non-removed) hyperedges in this hypergraph.
+     *
+     * @return The number of hyperedges.
+     */
+    public int getNumberOfHyperedges() {
+        return hyperedgeCount - numberOfRemovedHyperedges;
+    }
+
+    /**
+     * Adds a vertex having a weight of {@code 1} to this hypergraph.
+     *
+     * @return The identifier of the new vertex, numbered from {@code 1}.
+     */
+    public int addVertex() {
+        return addVertex(1);
+    }
+
+    /**
+     * Adds a vertex to this hypergraph.
+     *
+     * @param weight The weight of the vertex.
+     *
+     * @return The identifier of the new vertex, numbered from {@code 1}.
+     */
+    public int addVertex(int weight) {
+        if (vertexCount == vertexWeights.length) {
+            // There is not enough room to store the new vertex.
+            vertexWeights = Arrays.copyOf(vertexWeights, vertexCount << 1);
+            vertexDegrees = Arrays.copyOf(vertexDegrees, vertexCount << 1);
+        }
+
+        vertexWeights[vertexCount] = weight;
+        weightedVertices |= (weight != 1);
+        snapshot = null;
+        return ++vertexCount;
+    }
+
+    /**
+     * Checks whether this hypergraph contains the given vertex.
+     *
+     * @param vertex The vertex to check, numbered from {@code 1}.
+     *
+     * @return Whether the vertex exists and has not been removed.
+     */
+    public boolean containsVertex(int vertex) {
+        return (1 <= vertex) && (vertex <= vertexCount) && !removedVertices.get(vertex - 1);
+    }
+
+    /**
+     * Removes a vertex from this hypergraph.
+     * The vertex is also removed from all the hyperedges in which it appears.
+     * Hyperedges that become empty are ignored in the snapshots of this hypergraph.
+     *
+     * @param vertex The vertex to remove, numbered from {@code 1}.
+     *
+     * @throws IllegalArgumentException If the vertex does not belong to this hypergraph.
+     */
+    public void removeVertex(int vertex) {
+        checkVertex(vertex);
+        removedVertices.set(vertex - 1);
+        numberOfRemovedVertices++;
+        numberOfGarbagePins += vertexDegrees[vertex - 1];
+        vertexDegrees[vertex - 1] = 0;
+        snapshot = null;
+        compactIfNeeded();
+    }
+
+    /**
+     * Adds an unweighted hyperedge to this hypergraph.
+     *
+     * @param vertices The vertices joined by the hyperedge, numbered from {@code 1}.
+     *
+     * @return The identifier of the new hyperedge, numbered from {@code 0}.
+     *
+     * @throws IllegalArgumentException If one of the vertices does not belong to this
+     *         hypergraph.
+     */
+    public int addHyperedge(int... vertices) {
+        return addWeightedHyperedge(1, vertices);
+    }
+
+    /**
+     * Adds a weighted hyperedge to this hypergraph.
+     *
+     * @param weight The weight of the hyperedge.
+     * @param vertices The vertices joined by the hyperedge, numbered from {@code 1}.
+     *
+     * @return The identifier of the new hyperedge, numbered from {@code 0}.
+     *
+     * @throws IllegalArgumentException If one of the vertices does not belong to this
+     *         hypergraph.
+     */
+    public int addWeightedHyperedge(int weight, int... vertices) {
+        for (int vertex : vertices) {
+            checkVertex(vertex);
+        }
+
+        if (hyperedgeCount == hyperedgeIndices.length) {
+            // There is not enough room to store the new hyperedge.
+            hyperedgeWeights = Arrays.copyOf(hyperedgeWeights, hyperedgeCount << 1);
+            hyperedgeIndices = Arrays.copyOf(hyperedgeIndices, hyperedgeCount << 1);
+            hyperedgeSizes = Arrays.copyOf(hyperedgeSizes, hyperedgeCount << 1);
+        }
+
+        // Appending the vertices of the hyperedge.
+        pins.ensureCapacity(numberOfPins + vertices.length);
+        hyperedgeIndices[hyperedgeCount] = numberOfPins;
+        hyperedgeSizes[hyperedgeCount] = vertices.length;
+        for (int vertex : vertices) {
+            pins.set(numberOfPins++, vertex - 1);
+            vertexDegrees[vertex - 1]++;
+        }
+
+        hyperedgeWeights[hyperedgeCount] = weight;
+        weightedHyperedges |= (weight != 1);
+        snapshot = null;
+        return hyperedgeCount++;
+    }
+
+    /**
+     * Checks whether this hypergraph contains the given hyperedge.
+     *
+     * @param hyperedge The hyperedge to check, numbered from {@code 0}.
+     *
+     * @return Whether the hyperedge exists and has not been removed.
+     */
+    public boolean containsHyperedge(int hyperedge) {
+        return (0 <= hyperedge) && (hyperedge < hyperedgeCount)
+                && !removedHyperedges.get(hyperedge);
+    }
+
+    /**
+     * Removes a hyperedge from this hypergraph.
+     *
+     * @param hyperedge The hyperedge to remove, numbered from {@code 0}.
+     *
+     * @throws IllegalArgumentException If the hyperedge does not belong to this
+     *         hypergraph.
+     */
+    public void removeHyperedge(int hyperedge) {
+        if (!containsHyperedge(hyperedge)) {
+            throw new IllegalArgumentException("No such hyperedge: " + hyperedge);
+        }
+
+        // Updating the degrees of the vertices that are still there.
+        long begin = hyperedgeIndices[hyperedge];
+        for (long i = begin, end = begin + hyperedgeSizes[hyperedge]; i < end; i++) {
+            int vertex = pins.get(i);
+            if (!removedVertices.get(vertex)) {
+                vertexDegrees[vertex]--;
+                numberOfGarbagePins++;
+            }
+        }
+
+        removedHyperedges.set(hyperedge);
+        numberOfRemovedHyperedges++;
+        snapshot = null;
+        compactIfNeeded();
+    }
+
+    /**
+     * Checks that the given vertex belongs to this hypergraph.
+     *
+     * @param vertex The vertex to check.
+     *
+     * @throws IllegalArgumentException If the vertex does not belong to this hypergraph.
+     */
+    private void checkVertex(int vertex) {
+        if (!containsVertex(vertex)) {
+            throw new IllegalArgumentException("No such vertex: " + vertex);
+        }
+    }
+
+    /**
+     * Compacts the storage of the vertices of the hyperedges when more than half of it
+     * is wasted by removed elements, so that compaction has an amortized constant cost.
+     */
+    private void compactIfNeeded() {
+        if ((numberOfGarbagePins > INITIAL_CAPACITY)
+                && (numberOfGarbagePins << 1 > numberOfPins)) {
+            compact();
+        }
+    }
+
+    /**
+     * Reclaims the space used by removed vertices and hyperedges in the storage of the
+     * vertices of the hyperedges.
+     * The identifiers of the vertices and hyperedges are not modified.
+     */
+    public void compact() {
+        if (numberOfGarbagePins == 0) {
+            // There is nothing to reclaim.
+            return;
+        }
+
+        var compacted = SegmentedIntArray.allocateExactly(
+                Math.max(INITIAL_CAPACITY, numberOfPins - numberOfGarbagePins));
+        long position = 0;
+        for (int h = 0; h < hyperedgeCount; h++) {
+            long begin = hyperedgeIndices[h];
+            long end = begin + hyperedgeSizes[h];
+            hyperedgeIndices[h] = position;
+
+            if (!removedHyperedges.get(h)) {
+                // Only the vertices that have not been removed are kept.
+                for (long i = begin; i < end; i++) {
+                    int vertex = pins.get(i);
+                    if (!removedVertices.get(vertex)) {
+                        compacted.set(position++, vertex);
+                    }
+                }
+            }
+
+            hyperedgeSizes[h] = (int) (position - hyperedgeIndices[h]);
+        }
+
+        pins = compacted;
+        numberOfPins = position;
+        numberOfGarbagePins = 0;
+    }
+
+    /**
+     * Gives the number of elements used to store the vertices of the hyperedges,
+     * including those that have not been reclaimed yet.
+     *
+     * @return The number of stored pins.
+     */
+    public long getNumberOfStoredPins() {
+        return numberOfPins;
+    }
+
+    /**
+     * Gives an immutable snapshot of the current state of this hypergraph.
+     * In the snapshot, vertices are renumbered so that they are contiguous, and
+     * hyperedges without any vertex are ignored.
+     *
+     * When no vertex has been removed and no removed element is waiting to be
+     * reclaimed, the snapshot shares the pins stored in this hypergraph, and is thus
+     * created in time linear in the number of vertices and hyperedges.
+     * Otherwise, the pins that are still there are copied into the snapshot, which
+     * takes time and memory linear in the number of pins.
+     *
+     * @return The snapshot of this hypergraph.
+     */
+    public Snapshot snapshot() {
+        if (snapshot == null) {
+            snapshot = createSnapshot();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Creates a snapshot of the current state of this hypergraph.
+     *
+     * @return The created snapshot.
+     */
+    private Snapshot createSnapshot() {
+        // Renumbering the vertices that have not been removed.
+        int nbVertices = getNumberOfVertices();
+        var vertices = new int[nbVertices];
+        var newVertices = new int[vertexCount];
+        var weights = weightedVertices ? new int[nbVertices] : null;
+        for (int v = 0, id = 0; v < vertexCount; v++) {
+            if (!removedVertices.get(v)) {
+                newVertices[v] = id;
+                vertices[id] = v + 1;
+                if (weights != null) {
+                    weights[id] = vertexWeights[v];
+                }
+                id++;
+            }
+        }
+
+        if ((numberOfGarbagePins == 0) && (numberOfRemovedVertices == 0)) {
+            // The stored pins are exactly those of the snapshot.
+            return shareSnapshot(vertices, weights);
+        }
+
+        // Counting the pins and the hyperedges that are still there.
+        long nbPins = 0;
+        int nbHyperedges = 0;
+        for (int h = removedHyperedges.nextClearBit(0); h < hyperedgeCount;
+                h = removedHyperedges.nextClearBit(h + 1)) {
+            int size = liveSize(h);
+            if (size > 0) {
+                nbPins += size;
+                nbHyperedges++;
+            }
+        }
+
+        // Copying the hyperedges that are still there.
+        var hyperedges = new int[nbHyperedges];
+        var indices = new long[nbHyperedges + 1];
+        var hWeights = weightedHyperedges ? new int[nbHyperedges] : null;
+        var snapshotPins = SegmentedIntArray.allocateExactly(nbPins);
+        long position = 0;
+        int id = 0;
+        for (int h = removedHyperedges.nextClearBit(0); h < hyperedgeCount;
+                h = removedHyperedges.nextClearBit(h + 1)) {
+            long start = position;
+            for (long i = hyperedgeIndices[h], end = i + hyperedgeSizes[h]; i < end; i++) {
+                int vertex = pins.get(i);
+                if (!removedVertices.get(vertex)) {
+                    snapshotPins.set(position++, newVertices[vertex]);
+                }
+            }
+
+            if (position > start) {
+                hyperedges[id] = h;
+                indices[id] = start;
+                if (hWeights != null) {
+                    hWeights[id] = hyperedgeWeights[h];
+                }
+                id++;
+            }
+        }
+        indices[nbHyperedges] = nbPins;
+        snapshotPins.setLength(nbPins);
+
+        // Creating the hypergraph.
+        var hypergraph = new FlatHypergraph(nbVertices, nbHyperedges, indices,
+                snapshotPins.flattened(), hWeights, weights);
+        return new Snapshot(hypergraph, vertices, hyperedges);
+    }
+
+    /**
+     * Creates a snapshot of the current state of this hypergraph, sharing its pins.
+     * This requires that no vertex has been removed, and that the stored pins do not
+     * contain any garbage, so that the pins of the (non-empty) hyperedges that are still
+     * there are stored contiguously, in the order of the hyperedges.
+     * Since pins are only appended, the shared ones are never modified afterwards.
+     *
+     * @param vertices The vertices of this hypergraph corresponding to those of the
+     *        snapshot.
+     * @param weights The weights of the vertices of the snapshot, or {@code null} if
+     *        vertices are not weighted.
+     *
+     * @return The created snapshot.
+     */
+    private Snapshot shareSnapshot(int[] vertices, int[] weights) {
+        int nbHyperedges = 0;
+        for (int h = removedHyperedges.nextClearBit(0); h < hyperedgeCount;
+                h = removedHyperedges.nextClearBit(h + 1)) {
+            nbHyperedges += (hyperedgeSizes[h] > 0) ? 1 : 0;
+        }
+
+        // Collecting the indices of the hyperedges that are still there.
+        var hyperedges = new int[nbHyperedges];
+        var indices = new long[nbHyperedges + 1];
+        var hWeights = weightedHyperedges ? new int[nbHyperedges] : null;
+        int id = 0;
+        for (int h = removedHyperedges.nextClearBit(0); h < hyperedgeCount;
+                h = removedHyperedges.nextClearBit(h + 1)) {
+            if (hyperedgeSizes[h] > 0) {
+                hyperedges[id] = h;
+                indices[id] = hyperedgeIndices[h];
+                if (hWeights != null) {
+                    hWeights[id] = hyperedgeWeights[h];
+                }
+                id++;
+            }
+        }
+        indices[nbHyperedges] = numberOfPins;
+
+        var hypergraph = new FlatHypergraph(vertices.length, nbHyperedges, indices,
+                pins.prefix(numberOfPins), hWeights, weights);
+        return new Snapshot(hypergraph, vertices, hyperedges);
+    }
+
+    /**
+     * Gives the number of vertices of a hyperedge that have not been removed.
+     *
+     * @param hyperedge The hyperedge to get the size of.
+     *
+     * @return The number of vertices of the hyperedge that are still there.
+     */
+    private int liveSize(int hyperedge) {
+        int size = 0;
+        long end = hyperedgeIndices[hyperedge] + hyperedgeSizes[hyperedge];
+        for (long i = hyperedgeIndices[hyperedge]; i < end; i++) {
+            if (!removedVertices.get(pins.get(i))) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The Snapshot is an immutable view of the state of a {@link DynamicHypergraph} at a
+     * given time.
+     * It associates the vertices and hyperedges of the snapshot {@link Hypergraph} to
+     * those of the dynamic hypergraph.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The hypergraph representing the snapshot.
+         */
+        private final Hypergraph hypergraph;
+
+        /**
+         * The vertices of the dynamic hypergraph corresponding to those of the snapshot.
+         */
+        private final int[] vertices;
+
+        /**
+         * The hyperedges of the dynamic hypergraph corresponding to those of the
+         * snapshot.
+         */
+        private final int[] hyperedges;
+
+        /**
+         * Creates a new Snapshot.
+         *
+         * @param hypergraph The hypergraph representing the snapshot.
+         * @param vertices The vertices of the dynamic hypergraph corresponding to those of
+         *        the snapshot.
+         * @param hyperedges The hyperedges of the dynamic hypergraph corresponding to
+         *        those of the snapshot.
+         */
+        private Snapshot(Hypergraph hypergraph, int[] vertices, int[] hyperedges) {
+            this.hypergraph = hypergraph;
+            this.vertices = vertices;
+            this.hyperedges = hyperedges;
+        }
+
+        /**
+         * Gives the hypergraph representing this snapshot.
+         *
+         * @return The hypergraph of this snapshot.
+         */
+        public Hypergraph getHypergraph() {
+            return hypergraph;
+        }
+
+        /**
+         * Gives the vertex of the dynamic hypergraph corresponding to a vertex of this
+         * snapshot.
+         *
+         * @param vertex The vertex of the snapshot, numbered from {@code 1}.
+         *
+         * @return The vertex of the dynamic hypergraph, numbered from {@code 1}.
+         */
+        public int vertexOf(int vertex) {
+            return vertices[vertex - 1];
+        }
+
+        /**
+         * Gives the hyperedge of the dynamic hypergraph corresponding to a hyperedge of
+         * this snapshot.
+         *
+         * @param hyperedge The hyperedge of the snapshot, numbered from {@code 0}.
+         *
+         * @return The hyperedge of the dynamic hypergraph, numbered from {@code 0}.
+         */
+        public int hyperedgeOf(int hyperedge) {
+            return hyperedges[hyperedge];
+        }
+
+    }
+
+}
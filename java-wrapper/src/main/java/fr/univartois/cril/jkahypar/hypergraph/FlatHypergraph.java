@@ -0,0 +1,304 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.util.function.IntConsumer;
+
+/**
+ * The FlatHypergraph is a {@link Hypergraph} holding all its arrays directly, whether
+ * its vertices and hyperedges are weighted or not.
+ *
+ * Contrary to hypergraphs built by stacking decorators (one for each kind of weights),
+ * accessing this hypergraph does not require any delegation, so that the methods of
+ * this (final) class are easily inlined in hot loops.
+ * This is the implementation created by the builders of this package.
+ * When its pins do not fit in a Java array, they are stored in a
+ * {@link SegmentedIntArray}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+final class FlatHypergraph extends AbstractHypergraph {
+
+    /**
+     * The number of vertices in this hypergraph.
+     */
+    private final int numberOfVertices;
+
+    /**
+     * The number of hyperedges in this hypergraph.
+     */
+    private final int numberOfHyperedges;
+
+    /**
+     * The indices at which the vertices of each hyperedge start in {@link #pins}.
+     */
+    private final long[] hyperedgeIndices;
+
+    /**
+     * The vertices of the different hyperedges.
+     */
+    private final SegmentedIntArray pins;
+
+    /**
+     * The vertices of the different hyperedges, stored in a single array.
+     * This array is {@code null} when the pins are stored in several segments.
+     */
+    private final int[] hyperedgeVertices;
+
+    /**
+     * The weights of the hyperedges, or {@code null} if hyperedges are not weighted.
+     */
+    private final int[] hyperedgeWeights;
+
+    /**
+     * The weights of the vertices, or {@code null} if vertices are not weighted.
+     */
+    private final int[] vertexWeights;
+
+    /**
+     * Creates a new FlatHypergraph.
+     *
+     * @param numberOfVertices The number of vertices in the hypergraph.
+     * @param numberOfHyperedges The number of hyperedges in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code hyperedgeVertices}.
+     * @param hyperedgeVertices The vertices of the different hyperedges.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if
+     *        hyperedges are not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if vertices are
+     *        not weighted.
+     */
+    FlatHypergraph(int numberOfVertices, int numberOfHyperedges, long[] hyperedgeIndices,
+            int[] hyperedgeVertices, int[] hyperedgeWeights, int[] vertexWeights) {
+        this.numberOfVertices = numberOfVertices;
+        this.numberOfHyperedges = numberOfHyperedges;
+        this.hyperedgeIndices = hyperedgeIndices;
+        this.pins = SegmentedIntArray.wrapping(hyperedgeVertices);
+        this.hyperedgeVertices = hyperedgeVertices;
+        this.hyperedgeWeights = hyperedgeWeights;
+        this.vertexWeights = vertexWeights;
+    }
+
+    /**
+     * Creates a new FlatHypergraph.
+     * The pins are not copied, so that they are stored in a single Java array only if
+     * {@code pins} is itself backed by such an array.
+     *
+     * @param numberOfVertices The number of vertices in the hypergraph.
+     * @param numberOfHyperedges The number of hyperedges in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code pins}.
+     * @param pins The vertices of the different hyperedges.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if
+     *        hyperedges are not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if vertices are
+     *        not weighted.
+     */
+    FlatHypergraph(int numberOfVertices, int numberOfHyperedges, long[] hyperedgeIndices,
+            SegmentedIntArray pins, int[] hyperedgeWeights, int[] vertexWeights) {
+        this.numberOfVertices = numberOfVertices;
+        this.numberOfHyperedges = numberOfHyperedges;
+        this.hyperedgeIndices = hyperedgeIndices;
+        this.pins = pins;
+        this.hyperedgeVertices = pins.isSingleArray() ? pins.toArray() : null;
+        this.hyperedgeWeights = hyperedgeWeights;
+        this.vertexWeights = vertexWeights;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getNumberOfVertices()
+     */
+    @Override
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getVertexWeights()
+     */
+    @Override
+    public int[] getVertexWeights() {
+        return vertexWeights;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getNumberOfHyperedges()
+     */
+    @Override
+    public int getNumberOfHyperedges() {
+        return numberOfHyperedges;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getHyperedge(int)
+     */
+    @Override
+    public Hyperedge getHyperedge(int index) {
+        var vertices = new int[hyperedgeSize(index)];
+        pins.copyTo(hyperedgeIndices[index], vertices, 0, vertices.length);
+
+        // Shifting the vertices, as they are currently numbered from 0.
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i]++;
+        }
+
+        var hyperedge = UnweightedHyperedge.joining(vertices);
+        if (hyperedgeWeights == null) {
+            return hyperedge;
+        }
+        return hyperedge.withWeight(hyperedgeWeights[index]);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getHyperedgeWeights()
+     */
+    @Override
+    public int[] getHyperedgeWeights() {
+        return hyperedgeWeights;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getHyperedgeIndices()
+     */
+    @Override
+    public long[] getHyperedgeIndices() {
+        return hyperedgeIndices;
+    }
+
+    /**
+     * Gives the vertices of the hyperedges in this hypergraph.
+     * When the pins are stored in several segments, they are copied into a new array
+     * each time this method is invoked: use {@link #getPins()} to avoid this copy.
+     *
+     * @return The vertices of the different hyperedges.
+     *
+     * @throws UnsupportedOperationException If this hypergraph has too many pins for
+     *         them to be stored in a Java array.
+     */
+    @Override
+    public int[] getHyperedgeVertices() {
+        if (hyperedgeVertices == null) {
+            // The pins are stored in segments, which must be copied.
+            return pins.toArray();
+        }
+        return hyperedgeVertices;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getNumberOfPins()
+     */
+    @Override
+    public long getNumberOfPins() {
+        return hyperedgeIndices[numberOfHyperedges];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getPins()
+     */
+    @Override
+    public SegmentedIntArray getPins() {
+        return pins;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#hyperedgeSize(int)
+     */
+    @Override
+    public int hyperedgeSize(int hyperedge) {
+        return (int) (hyperedgeIndices[hyperedge + 1] - hyperedgeIndices[hyperedge]);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#pin(int, int)
+     */
+    @Override
+    public int pin(int hyperedge, int index) {
+        if (hyperedgeVertices == null) {
+            return pins.get(hyperedgeIndices[hyperedge] + index);
+        }
+        return hyperedgeVertices[(int) hyperedgeIndices[hyperedge] + index];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#forEachPin(int,
+     * java.util.function.IntConsumer)
+     */
+    @Override
+    public void forEachPin(int hyperedge, IntConsumer action) {
+        if (hyperedgeVertices == null) {
+            long end = hyperedgeIndices[hyperedge + 1];
+            for (long i = hyperedgeIndices[hyperedge]; i < end; i++) {
+                action.accept(pins.get(i));
+            }
+            return;
+        }
+
+        var end = (int) hyperedgeIndices[hyperedge + 1];
+        for (int i = (int) hyperedgeIndices[hyperedge]; i < end; i++) {
+            action.accept(hyperedgeVertices[i]);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.AbstractHypergraph#toString()
+     */
+    @Override
+    public String toString() {
+        if (vertexWeights == null) {
+            return super.toString();
+        }
+
+        // Adding the weight of each vertex.
+        var builder = new StringBuilder(super.toString());
+        for (int weight : vertexWeights) {
+            builder.append(weight);
+            builder.append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+}
@@ -66,6 +66,27 @@ public enum HmetisFormat {
         return identifier;
     }
 
+    /**
+     * Gives the identifier of the format of the given hypergraph, which depends on
+     * whether its hyperedges and its vertices are weighted.
+     *
+     * @param hypergraph The hypergraph to give the format of.
+     *
+     * @return The identifier of the format of the hypergraph.
+     *
+     * @since 0.3.0
+     */
+    public static int identifierOf(Hypergraph hypergraph) {
+        int format = UNWEIGHTED.identifier;
+        if (hypergraph.getHyperedgeWeights() != null) {
+            format += WEIGHT_ON_HYPEREDGES.identifier;
+        }
+        if (hypergraph.getVertexWeights() != null) {
+            format += WEIGHT_ON_VERTICES.identifier;
+        }
+        return format;
+    }
+
     /**
      * Checks whether the given integer encodes that the associated hypergraph has
      * this format.
@@ -0,0 +1,198 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.nio.LongBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * The HyperedgeCursor allows to iterate over the vertices (or pins) of the hyperedges of
+ * a {@link Hypergraph} without allocating any object.
+ * A cursor is positioned on a hyperedge using {@link #moveTo(int)}, and may then be moved
+ * to any other hyperedge of the same hypergraph.
+ *
+ * Vertices are identified as in {@link Hypergraph#getHyperedgeVertices()}, i.e., they
+ * are numbered starting from {@code 0}.
+ * A cursor is not thread-safe, but several cursors may be used at the same time on the
+ * same hypergraph.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class HyperedgeCursor {
+
+    /**
+     * The indices at which the vertices of each hyperedge start in
+     * {@link #hyperedgeVertices}, stored in segments of {@code 2^shift} elements.
+     */
+    private final LongBuffer[] hyperedgeIndices;
+
+    /**
+     * The logarithm of the size of the segments of {@link #hyperedgeIndices}.
+     */
+    private final int shift;
+
+    /**
+     * The vertices of the different hyperedges.
+     */
+    private final SegmentedIntArray hyperedgeVertices;
+
+    /**
+     * The hyperedge on which this cursor is currently positioned.
+     */
+    private int hyperedge;
+
+    /**
+     * The index of the first vertex of the current hyperedge.
+     */
+    private long begin;
+
+    /**
+     * The index of the next vertex to read in the current hyperedge.
+     */
+    private long position;
+
+    /**
+     * The index following that of the last vertex of the current hyperedge.
+     */
+    private long end;
+
+    /**
+     * Creates a new HyperedgeCursor.
+     * The cursor is initially positioned on no hyperedge.
+     *
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code hyperedgeVertices}.
+     * @param hyperedgeVertices The vertices of the different hyperedges.
+     */
+    HyperedgeCursor(LongBuffer hyperedgeIndices, SegmentedIntArray hyperedgeVertices) {
+        this(new LongBuffer[] { hyperedgeIndices }, Integer.SIZE - 1, hyperedgeVertices);
+    }
+
+    /**
+     * Creates a new HyperedgeCursor reading the indices of the hyperedges from several
+     * segments.
+     * The cursor is initially positioned on no hyperedge.
+     *
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code hyperedgeVertices}.
+     *        Each segment except the last one contains exactly {@code 2^shift} indices.
+     * @param shift The logarithm of the size of the segments of
+     *        {@code hyperedgeIndices}.
+     * @param hyperedgeVertices The vertices of the different hyperedges.
+     */
+    HyperedgeCursor(LongBuffer[] hyperedgeIndices, int shift,
+            SegmentedIntArray hyperedgeVertices) {
+        this.hyperedgeIndices = hyperedgeIndices;
+        this.shift = shift;
+        this.hyperedgeVertices = hyperedgeVertices;
+        this.hyperedge = -1;
+    }
+
+    /**
+     * Moves this cursor to the first vertex of the given hyperedge.
+     *
+     * @param hyperedge The index of the hyperedge to move to.
+     *
+     * @return This cursor.
+     */
+    public HyperedgeCursor moveTo(int hyperedge) {
+        this.hyperedge = hyperedge;
+        this.begin = index(hyperedge);
+        this.position = begin;
+        this.end = index(hyperedge + 1);
+        return this;
+    }
+
+    /**
+     * Gives the index at which the vertices of the given hyperedge start.
+     *
+     * @param hyperedge The index of the hyperedge.
+     *
+     * @return The index of the first vertex of the hyperedge.
+     */
+    private long index(int hyperedge) {
+        int mask = (int) ((1L << shift) - 1);
+        return hyperedgeIndices[hyperedge >>> shift].get(hyperedge & mask);
+    }
+
+    /**
+     * Gives the hyperedge on which this cursor is currently positioned.
+     *
+     * @return The index of the current hyperedge, or {@code -1} if this cursor has not
+     *         been moved yet.
+     */
+    public int hyperedge() {
+        return hyperedge;
+    }
+
+    /**
+     * Gives the number of vertices in the current hyperedge.
+     *
+     * @return The size of the current hyperedge.
+     */
+    public int size() {
+        return (int) (end - begin);
+    }
+
+    /**
+     * Gives the {@code index}-th vertex of the current hyperedge.
+     * This method does not move the cursor.
+     *
+     * @param index The index of the vertex in the hyperedge.
+     *
+     * @return The identifier of the vertex.
+     *
+     * @throws IndexOutOfBoundsException If {@code index} is not a valid index in the
+     *         current hyperedge.
+     */
+    public int get(int index) {
+        if ((index < 0) || (index >= size())) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return hyperedgeVertices.get(begin + index);
+    }
+
+    /**
+     * Checks whether there remains vertices to read in the current hyperedge.
+     *
+     * @return Whether there is a next vertex.
+     */
+    public boolean hasNext() {
+        return position < end;
+    }
+
+    /**
+     * Reads the next vertex of the current hyperedge.
+     *
+     * @return The identifier of the vertex.
+     *
+     * @throws NoSuchElementException If all vertices of the hyperedge have been read.
+     */
+    public int next() {
+        if (position >= end) {
+            throw new NoSuchElementException();
+        }
+        return hyperedgeVertices.get(position++);
+    }
+
+}
@@ -19,6 +19,9 @@
 
 package fr.univartois.cril.jkahypar.hypergraph;
 
+import java.nio.LongBuffer;
+import java.util.function.IntConsumer;
+
 /**
  * The Hypergraph interface defines the contract of the data structures representing
  * hypergraphs.
@@ -29,6 +32,78 @@ package fr.univartois.cril.jkahypar.hypergraph;
  */
 public interface Hypergraph {
 
+    /**
+     * Creates a new Hypergraph wrapping existing arrays representing a hypergraph in
+     * compressed (CSR) form, such as the row pointers and column indices of a sparse
+     * matrix.
+     * The arrays are not copied, and must thus not be modified while the hypergraph is
+     * used.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start in
+     *        {@code hyperedgeVertices}, followed by the number of pins.
+     * @param hyperedgeVertices The vertices of the hyperedges, numbered from {@code 0}.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if
+     *        hyperedges are not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if vertices are
+     *        not weighted.
+     * @param validate Whether the arrays must be checked to represent a valid hypergraph.
+     *        Validation requires to read all arrays (in parallel), and should only be
+     *        enabled when the arrays come from an untrusted source.
+     *
+     * @return The created hypergraph.
+     *
+     * @throws IllegalArgumentException If {@code validate} is {@code true} and the arrays
+     *         do not represent a valid hypergraph.
+     *
+     * @since 0.3.0
+     */
+    static Hypergraph wrapping(int nbVertices, long[] hyperedgeIndices, int[] hyperedgeVertices,
+            int[] hyperedgeWeights, int[] vertexWeights, boolean validate) {
+        if (validate) {
+            CsrValidation.validate(nbVertices, hyperedgeIndices, hyperedgeVertices,
+                    hyperedgeWeights, vertexWeights);
+        }
+
+        return new FlatHypergraph(nbVertices, hyperedgeIndices.length - 1, hyperedgeIndices,
+                hyperedgeVertices, hyperedgeWeights, vertexWeights);
+    }
+
+    /**
+     * Creates a new hypergraph directly from its arrays in compressed form, when its
+     * pins are stored in a {@link SegmentedIntArray}.
+     * The arrays are not copied, so that, contrary to
+     * {@link #wrapping(int, long[], int[], int[], int[], boolean)}, the hypergraph may
+     * have more pins than the maximum size of a Java array.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start in
+     *        {@code pins}, followed by the number of pins.
+     * @param pins The vertices of the hyperedges, numbered from {@code 0}.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if
+     *        hyperedges are not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if vertices are
+     *        not weighted.
+     * @param validate Whether the arrays must be checked to represent a valid hypergraph.
+     *
+     * @return The created hypergraph.
+     *
+     * @throws IllegalArgumentException If {@code validate} is {@code true} and the arrays
+     *         do not represent a valid hypergraph.
+     *
+     * @since 0.3.0
+     */
+    static Hypergraph wrapping(int nbVertices, long[] hyperedgeIndices, SegmentedIntArray pins,
+            int[] hyperedgeWeights, int[] vertexWeights, boolean validate) {
+        if (validate) {
+            CsrValidation.validate(nbVertices, hyperedgeIndices, pins, hyperedgeWeights,
+                    vertexWeights);
+        }
+
+        return new FlatHypergraph(nbVertices, hyperedgeIndices.length - 1, hyperedgeIndices,
+                pins, hyperedgeWeights, vertexWeights);
+    }
+
     /**
      * Gives the number of vertices in this hypergraph.
      *
@@ -82,10 +157,140 @@ public interface Hypergraph {
      *
      * @return The vertices of the different hyperedges.
      *
+     * @throws UnsupportedOperationException If this hypergraph has too many pins for
+     *         them to be stored in a Java array.
+     *         In this case, use {@link #getPins()} instead, which also avoids copying
+     *         the pins when they are stored in several segments.
+     *
      * @see #getHyperedgeIndices()
+     * @see #getPins()
      */
     int[] getHyperedgeVertices();
 
+    /**
+     * Gives the number of pins in this hypergraph, i.e., the sum of the sizes of its
+     * hyperedges.
+     * This number may exceed the maximum size of a Java array.
+     *
+     * @return The number of pins.
+     *
+     * @since 0.3.0
+     */
+    default long getNumberOfPins() {
+        return getHyperedgeIndices()[getNumberOfHyperedges()];
+    }
+
+    /**
+     * Gives the vertices of the hyperedges in the hypergraph, as an array addressed by
+     * {@code long} indices.
+     * Contrary to {@link #getHyperedgeVertices()}, this method supports hypergraphs
+     * having more than {@code 2^31} pins.
+     *
+     * @return The vertices of the different hyperedges.
+     *
+     * @see #getHyperedgeIndices()
+     *
+     * @since 0.3.0
+     */
+    default SegmentedIntArray getPins() {
+        return SegmentedIntArray.wrapping(getHyperedgeVertices());
+    }
+
+    /**
+     * Gives the number of vertices in the {@code hyperedge}-th hyperedge of this
+     * hypergraph.
+     * Contrary to {@link #getHyperedge(int)}, this method does not allocate any object.
+     *
+     * @param hyperedge The index of the hyperedge.
+     *
+     * @return The size of the hyperedge.
+     *
+     * @since 0.3.0
+     */
+    default int hyperedgeSize(int hyperedge) {
+        var hyperedgeIndices = getHyperedgeIndices();
+        return (int) (hyperedgeIndices[hyperedge + 1] - hyperedgeIndices[hyperedge]);
+    }
+
+    /**
+     * Gives the {@code index}-th vertex (or pin) of the {@code hyperedge}-th hyperedge
+     * of this hypergraph.
+     * Contrary to {@link #getHyperedge(int)}, this method does not allocate any object.
+     * Beware that the vertex is identified as in {@link #getHyperedgeVertices()}, i.e.,
+     * vertices are numbered starting from {@code 0}.
+     *
+     * @param hyperedge The index of the hyperedge.
+     * @param index The index of the vertex in the hyperedge.
+     *
+     * @return The identifier of the vertex, starting from {@code 0}.
+     *
+     * @implSpec The default implementation reads the vertex directly from the array
+     *           returned by {@link #getHyperedgeVertices()}.
+     *           Implementations whose pins may not fit in a Java array must override
+     *           this method, as well as {@link #forEachPin(int, IntConsumer)}.
+     *
+     * @since 0.3.0
+     */
+    default int pin(int hyperedge, int index) {
+        return getHyperedgeVertices()[(int) getHyperedgeIndices()[hyperedge] + index];
+    }
+
+    /**
+     * Applies the given action on each vertex (or pin) of the {@code hyperedge}-th
+     * hyperedge of this hypergraph.
+     * Contrary to {@link #getHyperedge(int)}, this method does not allocate any object.
+     * Beware that vertices are identified as in {@link #getHyperedgeVertices()}, i.e.,
+     * vertices are numbered starting from {@code 0}.
+     *
+     * @param hyperedge The index of the hyperedge.
+     * @param action The action to apply on the vertices of the hyperedge.
+     *
+     * @implSpec The default implementation reads the vertices directly from the array
+     *           returned by {@link #getHyperedgeVertices()}.
+     *           Implementations whose pins may not fit in a Java array must override
+     *           this method, as well as {@link #pin(int, int)}.
+     *
+     * @since 0.3.0
+     */
+    default void forEachPin(int hyperedge, IntConsumer action) {
+        var hyperedgeIndices = getHyperedgeIndices();
+        var hyperedgeVertices = getHyperedgeVertices();
+        var end = (int) hyperedgeIndices[hyperedge + 1];
+        for (int i = (int) hyperedgeIndices[hyperedge]; i < end; i++) {
+            action.accept(hyperedgeVertices[i]);
+        }
+    }
+
+    /**
+     * Creates a new cursor allowing to iterate over the vertices (or pins) of the
+     * hyperedges of this hypergraph.
+     * The same cursor may be moved from a hyperedge to another, so that iterating over
+     * all hyperedges does not allocate any object.
+     *
+     * @return The created cursor.
+     *
+     * @since 0.3.0
+     */
+    default HyperedgeCursor cursor() {
+        return new HyperedgeCursor(LongBuffer.wrap(getHyperedgeIndices()), getPins());
+    }
+
+    /**
+     * Gives the incidence index of this hypergraph, which associates to each vertex the
+     * hyperedges in which it appears.
+     *
+     * @return The incidence index of this hypergraph.
+     *
+     * @implSpec The default implementation computes a new index each time this method
+     *           is invoked.
+     *           Implementations are encouraged to compute it lazily, and to cache it.
+     *
+     * @since 0.3.0
+     */
+    default VertexIncidence getVertexIncidence() {
+        return VertexIncidence.of(this);
+    }
+
     /**
      * Gives a String representation of this hypergraph using the hMetis format.
      *
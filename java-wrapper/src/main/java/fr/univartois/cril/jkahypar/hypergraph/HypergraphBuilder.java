@@ -58,6 +58,60 @@ public interface HypergraphBuilder {
         return new KnownSizeHypergraphBuilder(nbVertices, nbHyperedges);
     }
 
+    /**
+     * Creates a new HypergraphBuilder for a hypergraph for which the size and the
+     * number of pins (i.e., the sum of the sizes of the hyperedges) are known.
+     * The internal data structures are then allocated once with their exact size,
+     * which minimizes the peak memory used to build the hypergraph.
+     * The number of pins may be obtained by a first pass over the input, when it is not
+     * known in advance.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param nbHyperedges The number of hyperedges in the hypergraph.
+     * @param nbPins The number of pins in the hypergraph.
+     *        If this number is too small, the builder grows its data structures as
+     *        needed.
+     *
+     * @return The created HypergraphBuilder.
+     *
+     * @see #getPeakMemoryUsage()
+     *
+     * @since 0.3.0
+     */
+    public static HypergraphBuilder createHypergraph(int nbVertices, int nbHyperedges, long nbPins) {
+        return new KnownSizeHypergraphBuilder(nbVertices, nbHyperedges, nbPins);
+    }
+
+    /**
+     * Creates a new HypergraphBuilder that may be used by several threads at the same
+     * time to add hyperedges to a hypergraph.
+     *
+     * @return The created HypergraphBuilder.
+     *
+     * @see ConcurrentHypergraphBuilder
+     *
+     * @since 0.3.0
+     */
+    public static ConcurrentHypergraphBuilder createConcurrentHypergraph() {
+        return createConcurrentHypergraph(0);
+    }
+
+    /**
+     * Creates a new HypergraphBuilder that may be used by several threads at the same
+     * time to add hyperedges to a hypergraph for which the number of vertices is known.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     *
+     * @return The created HypergraphBuilder.
+     *
+     * @see ConcurrentHypergraphBuilder
+     *
+     * @since 0.3.0
+     */
+    public static ConcurrentHypergraphBuilder createConcurrentHypergraph(int nbVertices) {
+        return new ConcurrentHypergraphBuilder(nbVertices);
+    }
+
     /**
      * Gives the number of vertices in the hypergraph.
      *
@@ -97,10 +151,26 @@ public interface HypergraphBuilder {
      *
      * @return The vertices of the different hyperedges.
      *
+     * @throws UnsupportedOperationException If the hypergraph has too many pins for
+     *         them to be stored in a Java array.
+     *         In this case, use {@link #getPins()} instead.
+     *
      * @see #getHyperedgeIndices()
      */
     int[] getHyperedgeVertices();
 
+    /**
+     * Gives the vertices of the hyperedges in the hypergraph, as an array addressed by
+     * {@code long} indices.
+     * Contrary to {@link #getHyperedgeVertices()}, this method supports hypergraphs
+     * having more than {@code 2^31} pins.
+     *
+     * @return The vertices of the different hyperedges.
+     *
+     * @since 0.3.0
+     */
+    SegmentedIntArray getPins();
+
     /**
      * Adds an {@link UnweightedHyperedge} to the hypergraph.
      *
@@ -119,6 +189,66 @@ public interface HypergraphBuilder {
      */
     HypergraphBuilder withHyperedge(WeightedHyperedge hyperedge);
 
+    /**
+     * Adds an unweighted hyperedge to the hypergraph, without having to create a
+     * {@link Hyperedge} object.
+     *
+     * @param vertices The vertices joined by the hyperedge, numbered from {@code 1}.
+     *
+     * @return This builder.
+     *
+     * @since 0.3.0
+     */
+    HypergraphBuilder withHyperedge(int... vertices);
+
+    /**
+     * Adds a weighted hyperedge to the hypergraph, without having to create a
+     * {@link Hyperedge} object.
+     *
+     * @param weight The weight of the hyperedge.
+     * @param vertices The vertices joined by the hyperedge, numbered from {@code 1}.
+     *
+     * @return This builder.
+     *
+     * @since 0.3.0
+     */
+    HypergraphBuilder withWeightedHyperedge(int weight, int... vertices);
+
+    /**
+     * Adds several hyperedges at once to the hypergraph, given in compressed (CSR) form.
+     * The {@code i}-th hyperedge is made of the vertices stored in {@code vertices} from
+     * index {@code offsets[i]} (inclusive) to index {@code offsets[i + 1]} (exclusive).
+     * As for the other methods of this interface, vertices are numbered from {@code 1}.
+     *
+     * @param offsets The indices at which the vertices of each hyperedge start in
+     *        {@code vertices}, followed by the index at which the last hyperedge ends.
+     * @param vertices The vertices of the hyperedges, numbered from {@code 1}.
+     * @param weights The weights of the hyperedges, or {@code null} if the hyperedges are
+     *        not weighted.
+     *
+     * @return This builder.
+     *
+     * @throws IllegalArgumentException If the offsets are not sorted or do not lie in
+     *         {@code vertices}, or if a vertex is not positive (or, when the number of
+     *         vertices of the hypergraph is known, greater than this number).
+     *
+     * @since 0.3.0
+     */
+    HypergraphBuilder withHyperedges(long[] offsets, int[] vertices, int[] weights);
+
+    /**
+     * Gives the maximum amount of memory used by the data structures of this builder
+     * so far, including the temporary copies made when these data structures are
+     * grown or trimmed.
+     * This amount is an estimate, which does not take into account the overhead of the
+     * JVM.
+     *
+     * @return The peak memory usage of this builder, in bytes.
+     *
+     * @since 0.3.0
+     */
+    long getPeakMemoryUsage();
+
     /**
      * Creates the hypergraph built by this builder.
      *
@@ -41,6 +41,18 @@ final class KnownSizeHypergraphBuilder extends AbstractHypergraphBuilder {
         super(nbVertices, nbHyperedges);
     }
 
+    /**
+     * Creates a new KnownSizeHypergraphBuilder for a hypergraph for which the number of
+     * pins is also known.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param nbHyperedges The number of hyperedges in the hypergraph.
+     * @param nbPins The number of pins in the hypergraph.
+     */
+    KnownSizeHypergraphBuilder(int nbVertices, int nbHyperedges, long nbPins) {
+        super(nbVertices, nbHyperedges, nbPins);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -58,15 +70,25 @@ final class KnownSizeHypergraphBuilder extends AbstractHypergraphBuilder {
         return this;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.AbstractHypergraphBuilder#maxVertex()
+     */
+    @Override
+    protected int maxVertex() {
+        return numberOfVertices;
+    }
+
     /*
      * (non-Javadoc)
      *
      * @see
      * fr.univartois.cril.jkahypar.hypergraph.AbstractHypergraphBuilder#setHyperedgeIndex(
-     * int, int)
+     * int, long)
      */
     @Override
-    protected void setHyperedgeIndex(int index, int vertexIndex) {
+    protected void setHyperedgeIndex(int index, long vertexIndex) {
         hyperedgeIndices[index] = vertexIndex;
     }
 
@@ -0,0 +1,560 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.function.IntConsumer;
+
+/**
+ * The MappedHypergraph is a {@link Hypergraph} whose internal arrays are stored in
+ * (typically memory-mapped) NIO buffers rather than in Java arrays.
+ *
+ * When these buffers are direct and use the native byte order, they can be given as is
+ * to the native implementation of KaHyPar, so that the hypergraph is never copied on
+ * the Java heap.
+ * Large sections may also be split into several buffers (for instance, when a file is
+ * mapped by windows), in which case the pins are read through the
+ * {@link SegmentedIntArray} returned by {@link #getPins()}.
+ *
+ * The methods returning Java arrays are still supported, but they copy the content of
+ * the buffers.
+ * The copies of the indices and of the weights are computed only once, as they are
+ * needed by most algorithms, while the pins are copied each time
+ * {@link #getHyperedgeVertices()} is invoked.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class MappedHypergraph extends AbstractHypergraph {
+
+    /**
+     * The number of vertices in this hypergraph.
+     */
+    private final int numberOfVertices;
+
+    /**
+     * The number of hyperedges in this hypergraph.
+     */
+    private final int numberOfHyperedges;
+
+    /**
+     * The indices at which the vertices of each hyperedge start in {@link #pins}, stored
+     * in segments of {@code 2^indexShift} elements.
+     */
+    private final LongBuffer[] hyperedgeIndices;
+
+    /**
+     * The logarithm of the size of the segments of {@link #hyperedgeIndices}.
+     */
+    private final int indexShift;
+
+    /**
+     * The vertices of the different hyperedges.
+     */
+    private final SegmentedIntArray pins;
+
+    /**
+     * The weights of the hyperedges, or {@code null} if they are not weighted.
+     */
+    private final SegmentedIntArray hyperedgeWeights;
+
+    /**
+     * The weights of the vertices, or {@code null} if they are not weighted.
+     */
+    private final SegmentedIntArray vertexWeights;
+
+    /**
+     * The copy of {@link #hyperedgeIndices} on the heap, computed on demand.
+     */
+    private volatile long[] heapHyperedgeIndices;
+
+    /**
+     * The copy of {@link #hyperedgeWeights} on the heap, computed on demand.
+     */
+    private volatile int[] heapHyperedgeWeights;
+
+    /**
+     * The copy of {@link #vertexWeights} on the heap, computed on demand.
+     */
+    private volatile int[] heapVertexWeights;
+
+    /**
+     * Creates a new MappedHypergraph.
+     *
+     * @param numberOfVertices The number of vertices in the hypergraph.
+     * @param numberOfHyperedges The number of hyperedges in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code pins}.
+     * @param indexShift The logarithm of the size of the segments of
+     *        {@code hyperedgeIndices}.
+     * @param pins The vertices of the different hyperedges.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if they are
+     *        not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if they are not
+     *        weighted.
+     */
+    private MappedHypergraph(int numberOfVertices, int numberOfHyperedges,
+            LongBuffer[] hyperedgeIndices, int indexShift, SegmentedIntArray pins,
+            SegmentedIntArray hyperedgeWeights, SegmentedIntArray vertexWeights) {
+        this.numberOfVertices = numberOfVertices;
+        this.numberOfHyperedges = numberOfHyperedges;
+        this.hyperedgeIndices = hyperedgeIndices;
+        this.indexShift = indexShift;
+        this.pins = pins;
+        this.hyperedgeWeights = hyperedgeWeights;
+        this.vertexWeights = vertexWeights;
+    }
+
+    /**
+     * Creates a new MappedHypergraph from the buffers storing its internal
+     * representation.
+     * These buffers are not copied, and must start at index {@code 0}.
+     *
+     * @param numberOfVertices The number of vertices in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code hyperedgeVertices} (this buffer has one more element than there
+     *        are hyperedges).
+     * @param hyperedgeVertices The vertices of the different hyperedges.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if they are
+     *        not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if they are not
+     *        weighted.
+     *
+     * @return The created hypergraph.
+     */
+    public static MappedHypergraph wrapping(int numberOfVertices, LongBuffer hyperedgeIndices,
+            IntBuffer hyperedgeVertices, IntBuffer hyperedgeWeights, IntBuffer vertexWeights) {
+        return new MappedHypergraph(numberOfVertices, hyperedgeIndices.capacity() - 1,
+                new LongBuffer[] { hyperedgeIndices }, Integer.SIZE - 1,
+                SegmentedIntArray.wrapping(hyperedgeVertices), wrap(hyperedgeWeights),
+                wrap(vertexWeights));
+    }
+
+    /**
+     * Creates a new MappedHypergraph from the segments storing its internal
+     * representation, as when its sections are too large to be stored in a single
+     * buffer.
+     * These segments are not copied, and must start at index {@code 0}.
+     *
+     * @param numberOfVertices The number of vertices in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code pins} (these buffers have one more element than there are
+     *        hyperedges).
+     *        Each buffer except the last one must contain the same number of indices,
+     *        which must be a power of two.
+     * @param pins The vertices of the different hyperedges.
+     * @param hyperedgeWeights The weights of the hyperedges, or {@code null} if they are
+     *        not weighted.
+     * @param vertexWeights The weights of the vertices, or {@code null} if they are not
+     *        weighted.
+     *
+     * @return The created hypergraph.
+     *
+     * @throws IllegalArgumentException If a buffer of {@code hyperedgeIndices} does not
+     *         have the expected size.
+     */
+    public static MappedHypergraph wrapping(int numberOfVertices,
+            LongBuffer[] hyperedgeIndices, SegmentedIntArray pins,
+            SegmentedIntArray hyperedgeWeights, SegmentedIntArray vertexWeights) {
+        // The size of the segments is given by the first one, unless it is the only one.
+        int shift = Integer.SIZE - 1;
+        if (hyperedgeIndices.length > 1) {
+            shift = Integer.numberOfTrailingZeros(hyperedgeIndices[0].capacity());
+        }
+
+        long nbIndices = 0;
+        for (int i = 0; i < hyperedgeIndices.length; i++) {
+            int capacity = hyperedgeIndices[i].capacity();
+            boolean last = (i == hyperedgeIndices.length - 1);
+            if ((capacity > (1L << shift)) || (!last && (capacity != (1L << shift)))) {
+                throw new IllegalArgumentException(
+                        "Segment " + i + " has an invalid size: " + capacity);
+            }
+            nbIndices += capacity;
+        }
+
+        return new MappedHypergraph(numberOfVertices, (int) (nbIndices - 1),
+                hyperedgeIndices.clone(), shift, pins, hyperedgeWeights, vertexWeights);
+    }
+
+    /**
+     * Wraps a buffer into a {@link SegmentedIntArray}.
+     *
+     * @param buffer The buffer to wrap (may be {@code null}).
+     *
+     * @return The wrapped buffer, or {@code null} if {@code buffer} is {@code null}.
+     */
+    private static SegmentedIntArray wrap(IntBuffer buffer) {
+        return (buffer == null) ? null : SegmentedIntArray.wrapping(buffer);
+    }
+
+    /**
+     * Checks whether the buffers of this hypergraph can be given as is to native code,
+     * i.e., whether each section is stored in a single buffer that is direct and uses
+     * the native byte order.
+     *
+     * @return Whether the buffers of this hypergraph are native.
+     */
+    public boolean isNative() {
+        return (hyperedgeIndices.length == 1)
+                && isNative(hyperedgeIndices[0].isDirect(), hyperedgeIndices[0].order())
+                && isNative(pins) && isNative(hyperedgeWeights)
+                && isNative(vertexWeights);
+    }
+
+    /**
+     * Checks whether an array can be given as is to native code.
+     *
+     * @param array The array to check (may be {@code null}).
+     *
+     * @return Whether the array is stored in a single native buffer.
+     */
+    private static boolean isNative(SegmentedIntArray array) {
+        if (array == null) {
+            return true;
+        }
+
+        if (array.numberOfSegments() != 1) {
+            return false;
+        }
+
+        var buffer = array.segment(0);
+        return isNative(buffer.isDirect(), buffer.order());
+    }
+
+    /**
+     * Checks whether a buffer can be given as is to native code.
+     *
+     * @param direct Whether the buffer is direct.
+     * @param order The byte order of the buffer.
+     *
+     * @return Whether the buffer is native.
+     */
+    private static boolean isNative(boolean direct, ByteOrder order) {
+        return direct && (order == ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Gives the single buffer storing the elements of an array.
+     *
+     * @param array The array to get the buffer of (may be {@code null}).
+     *
+     * @return The buffer storing the array, or {@code null} if {@code array} is
+     *         {@code null}.
+     *
+     * @throws UnsupportedOperationException If the array is stored in several buffers.
+     */
+    private static IntBuffer singleBuffer(SegmentedIntArray array) {
+        if (array == null) {
+            return null;
+        }
+
+        if (array.numberOfSegments() != 1) {
+            throw new UnsupportedOperationException("Section stored in several buffers");
+        }
+        return array.segment(0);
+    }
+
+    /**
+     * Gives the index at which the vertices of the given hyperedge start in
+     * {@link #pins}.
+     *
+     * @param hyperedge The index of the hyperedge.
+     *
+     * @return The index of the first vertex of the hyperedge.
+     */
+    private long index(int hyperedge) {
+        int mask = (int) ((1L << indexShift) - 1);
+        return hyperedgeIndices[hyperedge >>> indexShift].get(hyperedge & mask);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getNumberOfVertices()
+     */
+    @Override
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getVertexWeights()
+     */
+    @Override
+    public int[] getVertexWeights() {
+        var weights = heapVertexWeights;
+        if ((weights == null) && (vertexWeights != null)) {
+            synchronized (this) {
+                weights = heapVertexWeights;
+                if (weights == null) {
+                    // The weights have not been copied yet.
+                    weights = vertexWeights.toArray();
+                    heapVertexWeights = weights;
+                }
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * Gives the buffer storing the weights of the vertices in this hypergraph.
+     *
+     * @return The weights of the vertices, or {@code null} if vertices are not weighted.
+     *
+     * @throws UnsupportedOperationException If the weights are stored in several
+     *         buffers.
+     */
+    public IntBuffer getVertexWeightsBuffer() {
+        return singleBuffer(vertexWeights);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getNumberOfHyperedges()
+     */
+    @Override
+    public int getNumberOfHyperedges() {
+        return numberOfHyperedges;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getHyperedge(int)
+     */
+    @Override
+    public Hyperedge getHyperedge(int index) {
+        var vertices = new int[hyperedgeSize(index)];
+        pins.copyTo(index(index), vertices, 0, vertices.length);
+
+        // Shifting the vertices, as they are currently numbered from 0.
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i]++;
+        }
+
+        var hyperedge = UnweightedHyperedge.joining(vertices);
+        if (hyperedgeWeights == null) {
+            return hyperedge;
+        }
+        return hyperedge.withWeight(hyperedgeWeights.get(index));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#hyperedgeSize(int)
+     */
+    @Override
+    public int hyperedgeSize(int hyperedge) {
+        return (int) (index(hyperedge + 1) - index(hyperedge));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#pin(int, int)
+     */
+    @Override
+    public int pin(int hyperedge, int index) {
+        return pins.get(index(hyperedge) + index);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#forEachPin(int,
+     * java.util.function.IntConsumer)
+     */
+    @Override
+    public void forEachPin(int hyperedge, IntConsumer action) {
+        for (long i = index(hyperedge), end = index(hyperedge + 1); i < end; i++) {
+            action.accept(pins.get(i));
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getNumberOfPins()
+     */
+    @Override
+    public long getNumberOfPins() {
+        return index(numberOfHyperedges);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getPins()
+     */
+    @Override
+    public SegmentedIntArray getPins() {
+        return pins;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#cursor()
+     */
+    @Override
+    public HyperedgeCursor cursor() {
+        return new HyperedgeCursor(hyperedgeIndices, indexShift, pins);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getHyperedgeWeights()
+     */
+    @Override
+    public int[] getHyperedgeWeights() {
+        var weights = heapHyperedgeWeights;
+        if ((weights == null) && (hyperedgeWeights != null)) {
+            synchronized (this) {
+                weights = heapHyperedgeWeights;
+                if (weights == null) {
+                    // The weights have not been copied yet.
+                    weights = hyperedgeWeights.toArray();
+                    heapHyperedgeWeights = weights;
+                }
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * Gives the buffer storing the weights of the hyperedges in this hypergraph.
+     *
+     * @return The weights of the hyperedges, or {@code null} if hyperedges are not
+     *         weighted.
+     *
+     * @throws UnsupportedOperationException If the weights are stored in several
+     *         buffers.
+     */
+    public IntBuffer getHyperedgeWeightsBuffer() {
+        return singleBuffer(hyperedgeWeights);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getHyperedgeIndices()
+     */
+    @Override
+    public long[] getHyperedgeIndices() {
+        var indices = heapHyperedgeIndices;
+        if (indices == null) {
+            synchronized (this) {
+                indices = heapHyperedgeIndices;
+                if (indices == null) {
+                    // The indices have not been copied yet.
+                    indices = new long[numberOfHyperedges + 1];
+                    for (int i = 0, from = 0; i < hyperedgeIndices.length; i++) {
+                        var segment = hyperedgeIndices[i].duplicate().clear();
+                        int length = segment.remaining();
+                        segment.get(indices, from, length);
+                        from += length;
+                    }
+                    heapHyperedgeIndices = indices;
+                }
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Gives the buffer storing the indices at which the vertices of each hyperedge start
+     * in the buffer returned by {@link #getHyperedgeVerticesBuffer()}.
+     *
+     * @return The indices of the vertices for each hyperedge.
+     *
+     * @throws UnsupportedOperationException If the indices are stored in several
+     *         buffers.
+     */
+    public LongBuffer getHyperedgeIndicesBuffer() {
+        if (hyperedgeIndices.length != 1) {
+            throw new UnsupportedOperationException("Section stored in several buffers");
+        }
+        return hyperedgeIndices[0].duplicate();
+    }
+
+    /**
+     * Gives the vertices of the hyperedges in the hypergraph.
+     * Contrary to the other arrays, the pins are not cached on the heap, and are thus
+     * copied each time this method is invoked.
+     * Prefer {@link #getPins()}, which reads the buffers directly.
+     *
+     * @return A copy of the vertices of the different hyperedges.
+     *
+     * @throws UnsupportedOperationException If this hypergraph has too many pins for
+     *         them to be stored in a Java array.
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.Hypergraph#getHyperedgeVertices()
+     */
+    @Override
+    public int[] getHyperedgeVertices() {
+        return pins.toArray();
+    }
+
+    /**
+     * Gives the buffer storing the vertices of the hyperedges in this hypergraph.
+     *
+     * @return The vertices of the different hyperedges.
+     *
+     * @throws UnsupportedOperationException If the vertices are stored in several
+     *         buffers.
+     */
+    public IntBuffer getHyperedgeVerticesBuffer() {
+        return singleBuffer(pins);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.hypergraph.AbstractHypergraph#toString()
+     */
+    @Override
+    public String toString() {
+        if (vertexWeights == null) {
+            return super.toString();
+        }
+
+        // Adding the weight of each vertex.
+        var builder = new StringBuilder(super.toString());
+        for (int v = 0; v < numberOfVertices; v++) {
+            builder.append(vertexWeights.get(v));
+            builder.append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+}
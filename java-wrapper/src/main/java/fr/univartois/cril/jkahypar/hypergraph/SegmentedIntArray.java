@@ -0,0 +1,492 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The SegmentedIntArray is an array of ints addressed by {@code long} indices, so that
+ * it may contain more than {@code 2^31} elements.
+ * It is used to store the vertices (or pins) of the hyperedges of large hypergraphs.
+ *
+ * The elements are stored in segments, which may be either on-heap or off-heap (for
+ * instance, when mapped from a file).
+ * All segments but the last one contain exactly {@code 2^shift} elements, so that
+ * accessing an element only requires a shift and a mask.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class SegmentedIntArray {
+
+    /**
+     * The maximum number of elements that can be stored in a Java array.
+     */
+    public static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * The default logarithm of the size of the segments, which gives segments of 512 MiB.
+     */
+    static final int DEFAULT_SEGMENT_SHIFT = 27;
+
+    /**
+     * The logarithm of the size of the segments of an array stored in a single segment.
+     * Such a segment cannot exceed {@link #MAX_ARRAY_LENGTH} elements.
+     */
+    static final int SINGLE_SEGMENT_SHIFT = Integer.SIZE - 1;
+
+    /**
+     * The maximum logarithm of the size of the segments allocated by this class when the
+     * elements do not fit in a single segment, which gives segments of 4 GiB.
+     */
+    static final int MAX_SEGMENT_SHIFT = 30;
+
+    /**
+     * The logarithm of the size of the segments.
+     * It only changes when an array stored in a single segment grows beyond
+     * {@link #MAX_ARRAY_LENGTH} elements.
+     */
+    private int shift;
+
+    /**
+     * The mask used to compute the index of an element inside its segment.
+     */
+    private long mask;
+
+    /**
+     * The segments storing the elements of this array.
+     */
+    private IntBuffer[] segments;
+
+    /**
+     * The number of elements in this array.
+     */
+    private long length;
+
+    /**
+     * Creates a new SegmentedIntArray.
+     *
+     * @param shift The logarithm of the size of the segments.
+     * @param segments The segments storing the elements of the array.
+     * @param length The number of elements in the array.
+     */
+    private SegmentedIntArray(int shift, IntBuffer[] segments, long length) {
+        this.shift = shift;
+        this.mask = (1L << shift) - 1;
+        this.segments = segments;
+        this.length = length;
+    }
+
+    /**
+     * Creates a new on-heap SegmentedIntArray.
+     *
+     * @param shift The logarithm of the size of the segments.
+     * @param initialCapacity The number of elements the array must be able to store
+     *        initially.
+     *
+     * @return The created array, with a length of {@code 0}.
+     */
+    static SegmentedIntArray allocate(int shift, long initialCapacity) {
+        var array = new SegmentedIntArray(shift, new IntBuffer[0], 0);
+        array.ensureCapacity(initialCapacity);
+        return array;
+    }
+
+    /**
+     * Creates a new on-heap SegmentedIntArray that can store exactly the given number
+     * of elements.
+     * Whenever the elements fit in a Java array, they are stored in a single segment,
+     * which can then be adopted by {@link #toArray()} without being copied.
+     *
+     * @param capacity The number of elements the array must be able to store.
+     *
+     * @return The created array, with a length of {@code 0}.
+     */
+    static SegmentedIntArray allocateExactly(long capacity) {
+        if (capacity <= MAX_ARRAY_LENGTH) {
+            return allocate(SINGLE_SEGMENT_SHIFT, capacity);
+        }
+        return allocate(MAX_SEGMENT_SHIFT, capacity);
+    }
+
+    /**
+     * Creates a new SegmentedIntArray wrapping a Java array.
+     * The array is not copied.
+     *
+     * @param array The array to wrap.
+     *
+     * @return The created array.
+     */
+    public static SegmentedIntArray wrapping(int[] array) {
+        return wrapping(IntBuffer.wrap(array));
+    }
+
+    /**
+     * Creates a new SegmentedIntArray wrapping a buffer.
+     * The content of the buffer is not copied, and the created array contains all the
+     * elements from index {@code 0} to the capacity of the buffer.
+     *
+     * @param buffer The buffer to wrap.
+     *
+     * @return The created array.
+     */
+    public static SegmentedIntArray wrapping(IntBuffer buffer) {
+        return new SegmentedIntArray(SINGLE_SEGMENT_SHIFT, new IntBuffer[] { buffer },
+                buffer.capacity());
+    }
+
+    /**
+     * Creates a new SegmentedIntArray made of several buffers.
+     * The content of the buffers is not copied.
+     *
+     * @param shift The logarithm of the size of the segments.
+     * @param segments The buffers storing the elements of the array.
+     *        Each buffer except the last one must have a capacity of exactly
+     *        {@code 2^shift} elements.
+     *
+     * @return The created array.
+     *
+     * @throws IllegalArgumentException If a segment does not have the expected size.
+     */
+    public static SegmentedIntArray wrapping(int shift, IntBuffer... segments) {
+        long length = 0;
+        for (int i = 0; i < segments.length; i++) {
+            int capacity = segments[i].capacity();
+            boolean last = (i == segments.length - 1);
+            if ((capacity > (1L << shift)) || (!last && (capacity != (1L << shift)))) {
+                throw new IllegalArgumentException(
+                        "Segment " + i + " has an invalid size: " + capacity);
+            }
+            length += capacity;
+        }
+        return new SegmentedIntArray(shift, segments.clone(), length);
+    }
+
+    /**
+     * Gives the number of elements in this array.
+     *
+     * @return The length of this array.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Gives the number of segments storing the elements of this array.
+     *
+     * @return The number of segments.
+     */
+    int numberOfSegments() {
+        return segments.length;
+    }
+
+    /**
+     * Gives a segment storing the elements of this array.
+     * The segment is not copied, and must thus not be modified.
+     *
+     * @param index The index of the segment to get.
+     *
+     * @return A view of the {@code index}-th segment.
+     */
+    IntBuffer segment(int index) {
+        return segments[index].duplicate();
+    }
+
+    /**
+     * Gives a view of the first elements of this array.
+     * The elements are not copied, and the view is not affected by the growth of this
+     * array, as long as its first {@code length} elements are not modified.
+     *
+     * @param length The number of elements in the view.
+     *
+     * @return The view of the first {@code length} elements of this array.
+     */
+    SegmentedIntArray prefix(long length) {
+        var nbSegments = (int) ((length + mask) >>> shift);
+        return new SegmentedIntArray(shift, Arrays.copyOf(segments, nbSegments), length);
+    }
+
+    /**
+     * Checks whether the elements of this array can be stored in a Java array.
+     *
+     * @return Whether {@link #toArray()} can be invoked on this array.
+     */
+    public boolean fitsInArray() {
+        return length <= MAX_ARRAY_LENGTH;
+    }
+
+    /**
+     * Gives the element at the given index in this array.
+     *
+     * @param index The index of the element to get.
+     *
+     * @return The element at the given index.
+     */
+    public int get(long index) {
+        return segments[(int) (index >>> shift)].get((int) (index & mask));
+    }
+
+    /**
+     * Sets the element at the given index in this array.
+     * The capacity of the array must be large enough.
+     *
+     * @param index The index of the element to set.
+     * @param value The value of the element.
+     */
+    void set(long index, int value) {
+        segments[(int) (index >>> shift)].put((int) (index & mask), value);
+    }
+
+    /**
+     * Copies elements of this array into a Java array.
+     *
+     * @param from The index of the first element to copy.
+     * @param destination The array in which to copy the elements.
+     * @param offset The index at which to start writing in {@code destination}.
+     * @param count The number of elements to copy.
+     */
+    public void copyTo(long from, int[] destination, int offset, int count) {
+        while (count > 0) {
+            // Copying the elements of the current segment.
+            int indexInSegment = (int) (from & mask);
+            var segment = segments[(int) (from >>> shift)];
+            int n = Math.min(count, segment.capacity() - indexInSegment);
+            segment.duplicate().position(indexInSegment).get(destination, offset, n);
+
+            // Moving to the next segment.
+            from += n;
+            offset += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Copies elements from a Java array into this array.
+     * The capacity of this array must be large enough.
+     *
+     * @param source The array to copy the elements from.
+     * @param from The index of the first element to copy in {@code source}.
+     * @param to The index at which to start writing in this array.
+     * @param count The number of elements to copy.
+     */
+    void copyFrom(int[] source, int from, long to, int count) {
+        while (count > 0) {
+            // Copying as many elements as possible in the current segment.
+            int indexInSegment = (int) (to & mask);
+            var segment = segments[(int) (to >>> shift)];
+            int n = Math.min(count, segment.capacity() - indexInSegment);
+            segment.duplicate().position(indexInSegment).put(source, from, n);
+
+            // Moving to the next segment.
+            from += n;
+            to += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Copies elements from another array into this array.
+     * The capacity of this array must be large enough.
+     *
+     * @param source The array to copy the elements from.
+     * @param from The index of the first element to copy in {@code source}.
+     * @param to The index at which to start writing in this array.
+     * @param count The number of elements to copy.
+     */
+    void copyFrom(SegmentedIntArray source, long from, long to, long count) {
+        while (count > 0) {
+            // Copying as many elements as possible without changing of segments.
+            int indexInSource = (int) (from & source.mask);
+            var sourceSegment = source.segments[(int) (from >>> source.shift)];
+            int indexInThis = (int) (to & mask);
+            var segment = segments[(int) (to >>> shift)];
+            var n = (int) Math.min(count, Math.min(sourceSegment.capacity() - indexInSource,
+                    segment.capacity() - indexInThis));
+            var slice = sourceSegment.duplicate().position(indexInSource)
+                    .limit(indexInSource + n);
+            segment.duplicate().position(indexInThis).put(slice);
+
+            // Moving to the next elements.
+            from += n;
+            to += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Checks whether the elements of this array are exactly those of a Java array, in
+     * which case {@link #toArray()} does not need to copy them.
+     *
+     * @return Whether this array is backed by a single Java array of the same length.
+     */
+    public boolean isSingleArray() {
+        return (segments.length == 1) && segments[0].hasArray()
+                && (segments[0].arrayOffset() == 0)
+                && (segments[0].array().length == length);
+    }
+
+    /**
+     * Gives an array containing the same elements as this array, stored in a single
+     * Java array whenever they fit in such an array.
+     * This array is returned as is if it is already backed by a single Java array, or
+     * if its elements do not fit in a Java array.
+     *
+     * @return The flattened array.
+     */
+    SegmentedIntArray flattened() {
+        if (isSingleArray() || !fitsInArray()) {
+            return this;
+        }
+        return wrapping(toArray());
+    }
+
+    /**
+     * Gives a Java array containing the elements of this array.
+     * The returned array may be backed by this array if it has exactly the same
+     * elements.
+     *
+     * @return The Java array containing the elements of this array.
+     *
+     * @throws UnsupportedOperationException If this array is too large to be stored in a
+     *         Java array.
+     *
+     * @see #fitsInArray()
+     */
+    public int[] toArray() {
+        if (!fitsInArray()) {
+            throw new UnsupportedOperationException(
+                    "Too many elements for a Java array: " + length);
+        }
+
+        if (isSingleArray()) {
+            // The array can be given directly.
+            return segments[0].array();
+        }
+
+        var array = new int[(int) length];
+        copyTo(0, array, 0, array.length);
+        return array;
+    }
+
+    /**
+     * Gives the number of elements that this array can store without allocating new
+     * memory.
+     *
+     * @return The capacity of this array.
+     */
+    long capacity() {
+        if (segments.length == 0) {
+            return 0;
+        }
+        int last = segments.length - 1;
+        return ((long) last << shift) + segments[last].capacity();
+    }
+
+    /**
+     * Makes sure that this array can store at least the given number of elements.
+     * The last segment of this array is doubled until it reaches the size of a segment,
+     * after which new segments are added.
+     * An array stored in a single segment is grown up to {@link #MAX_ARRAY_LENGTH}
+     * elements, after which it is split into segments of {@code 2^MAX_SEGMENT_SHIFT}
+     * elements.
+     *
+     * @param minCapacity The minimum number of elements that the array must be able to
+     *        store.
+     *
+     * @return The number of elements that had to be copied to grow the array.
+     */
+    long ensureCapacity(long minCapacity) {
+        long capacity = capacity();
+        if (minCapacity <= capacity) {
+            return 0;
+        }
+
+        long copied = 0;
+        if ((shift > MAX_SEGMENT_SHIFT) && (minCapacity > MAX_ARRAY_LENGTH)) {
+            // The elements do not fit in a single segment anymore.
+            copied = split();
+            capacity = capacity();
+        }
+
+        long segmentSize = Math.min(1L << shift, MAX_ARRAY_LENGTH);
+        int last = segments.length - 1;
+        if ((last >= 0) && (segments[last].capacity() < segmentSize)) {
+            // The last segment is grown, up to the size of a segment.
+            long needed = minCapacity - ((long) last << shift);
+            var newSize = (int) Math.min(segmentSize,
+                    Math.max(needed, (long) segments[last].capacity() << 1));
+            copied += segments[last].capacity();
+            segments[last] = IntBuffer.wrap(Arrays.copyOf(segments[last].array(), newSize));
+            capacity = capacity();
+        }
+
+        while (capacity < minCapacity) {
+            // New segments are needed.
+            long remaining = minCapacity - capacity;
+            var newSize = (int) Math.min(segmentSize, remaining);
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            segments[segments.length - 1] = IntBuffer.wrap(new int[newSize]);
+            capacity += newSize;
+        }
+
+        return copied;
+    }
+
+    /**
+     * Splits the single segment of this array into segments of
+     * {@code 2^MAX_SEGMENT_SHIFT} elements.
+     *
+     * @return The number of elements that had to be copied.
+     */
+    private long split() {
+        long capacity = capacity();
+        long segmentSize = 1L << MAX_SEGMENT_SHIFT;
+        var newSegments = new IntBuffer[(int) ((capacity + segmentSize - 1) / segmentSize)];
+        for (int i = 0; i < newSegments.length; i++) {
+            long remaining = capacity - ((long) i << MAX_SEGMENT_SHIFT);
+            newSegments[i] = IntBuffer.wrap(new int[(int) Math.min(segmentSize, remaining)]);
+        }
+
+        for (int i = 0; i < newSegments.length; i++) {
+            int from = i << MAX_SEGMENT_SHIFT;
+            newSegments[i].put(segments[0].duplicate().position(from)
+                    .limit(from + newSegments[i].capacity()));
+        }
+
+        this.shift = MAX_SEGMENT_SHIFT;
+        this.mask = (1L << MAX_SEGMENT_SHIFT) - 1;
+        this.segments = newSegments;
+        return capacity;
+    }
+
+    /**
+     * Sets the number of elements in this array.
+     * The capacity of the array must be large enough.
+     *
+     * @param length The new length of the array.
+     */
+    void setLength(long length) {
+        this.length = length;
+    }
+
+}
@@ -55,7 +55,9 @@ final class UnknownSizeHypergraphBuilder extends AbstractHypergraphBuilder {
 
         if (vertexWeights.length < vertex) {
             // There is not enough room to store the weight of this vertex.
+            int previousLength = vertexWeights.length;
             vertexWeights = Arrays.copyOf(vertexWeights, vertex << 1);
+            updatePeakMemoryUsage((long) previousLength * Integer.BYTES);
         }
 
         numberOfVertices = Math.max(numberOfVertices, vertex);
@@ -68,15 +70,17 @@ final class UnknownSizeHypergraphBuilder extends AbstractHypergraphBuilder {
      *
      * @see
      * fr.univartois.cril.jkahypar.hypergraph.AbstractHypergraphBuilder#setHyperedgeIndex(
-     * int, int)
+     * int, long)
      */
     @Override
-    protected void setHyperedgeIndex(int index, int vertexIndex) {
+    protected void setHyperedgeIndex(int index, long vertexIndex) {
         int hyperedgeId = index + 1;
 
         if (hyperedgeIndices.length < hyperedgeId) {
             // There is not enough room to store the new hyperedge.
+            int previousLength = hyperedgeIndices.length;
             hyperedgeIndices = Arrays.copyOf(hyperedgeIndices, hyperedgeId << 1);
+            updatePeakMemoryUsage((long) previousLength * Long.BYTES);
         }
 
         numberOfHyperedges = Math.max(numberOfHyperedges, hyperedgeId);
@@ -99,7 +103,9 @@ final class UnknownSizeHypergraphBuilder extends AbstractHypergraphBuilder {
         int hyperedgeId = hyperedge + 1;
         if (hyperedgeWeights.length < hyperedgeId) {
             // There is not enough room to store the weight of this hyperedge.
+            int previousLength = hyperedgeWeights.length;
             hyperedgeWeights = Arrays.copyOf(hyperedgeWeights, hyperedgeId << 1);
+            updatePeakMemoryUsage((long) previousLength * Integer.BYTES);
         }
 
         numberOfHyperedges = Math.max(numberOfHyperedges, hyperedgeId);
@@ -119,6 +125,21 @@ final class UnknownSizeHypergraphBuilder extends AbstractHypergraphBuilder {
         numberOfVertices = Math.max(numberOfVertices, vertex);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.jkahypar.hypergraph.AbstractHypergraphBuilder#appendVertices(int[],
+     * int, int)
+     */
+    @Override
+    protected void appendVertices(int[] vertices, int from, int count) {
+        super.appendVertices(vertices, from, count);
+        for (int i = from; i < from + count; i++) {
+            numberOfVertices = Math.max(numberOfVertices, vertices[i]);
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -129,16 +150,19 @@ final class UnknownSizeHypergraphBuilder extends AbstractHypergraphBuilder {
     protected void resizeArrays() {
         // The array storing the vertices must be resized.
         // Note that it has one more element to store the position of the last vertex.
+        updatePeakMemoryUsage((long) numberOfHyperedges * Long.BYTES);
         hyperedgeIndices = Arrays.copyOf(hyperedgeIndices, numberOfHyperedges);
         numberOfHyperedges--;
 
         if (vertexWeights != null) {
             // The array storing the weights of the vertices must be resized.
+            updatePeakMemoryUsage((long) numberOfVertices * Integer.BYTES);
             vertexWeights = Arrays.copyOf(vertexWeights, numberOfVertices);
         }
 
         if (hyperedgeWeights != null) {
             // The array storing the weights of the hyperedges must be resized.
+            updatePeakMemoryUsage((long) numberOfHyperedges * Integer.BYTES);
             hyperedgeWeights = Arrays.copyOf(hyperedgeWeights, numberOfHyperedges);
         }
     }
@@ -0,0 +1,222 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import java.util.function.IntConsumer;
+
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The VertexIncidence is the transpose of the internal representation of a
+ * {@link Hypergraph}: it associates to each vertex the hyperedges in which it appears.
+ *
+ * Like hypergraphs, the incidence index is represented in a compressed (CSR) form, made
+ * of an array of offsets (one per vertex) and an array of hyperedges.
+ * Vertices are identified as in {@link Hypergraph#getHyperedgeVertices()}, i.e.,
+ * starting from {@code 0}, and the hyperedges of each vertex are sorted in increasing order.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class VertexIncidence {
+
+    /**
+     * The indices at which the hyperedges of each vertex start in
+     * {@link #incidentHyperedges}.
+     */
+    private final long[] vertexIndices;
+
+    /**
+     * The hyperedges in which the different vertices appear.
+     */
+    private final SegmentedIntArray incidentHyperedges;
+
+    /**
+     * Creates a new VertexIncidence.
+     *
+     * @param vertexIndices The indices at which the hyperedges of each vertex start in
+     *        {@code incidentHyperedges}.
+     * @param incidentHyperedges The hyperedges in which the different vertices appear.
+     */
+    private VertexIncidence(long[] vertexIndices, SegmentedIntArray incidentHyperedges) {
+        this.vertexIndices = vertexIndices;
+        this.incidentHyperedges = incidentHyperedges;
+    }
+
+    /**
+     * Computes the incidence index of the given hypergraph.
+     * This index is computed in parallel, using a stable counting sort in which each
+     * chunk of hyperedges counts the pins of the vertices on its own.
+     * Prefer using {@link Hypergraph#getVertexIncidence()}, which caches the index
+     * whenever possible.
+     *
+     * @param hypergraph The hypergraph to compute the incidence index of.
+     *
+     * @return The incidence index of the hypergraph.
+     */
+    public static VertexIncidence of(Hypergraph hypergraph) {
+        var hyperedgeIndices = hypergraph.getHyperedgeIndices();
+        var pins = hypergraph.getPins();
+        int nbVertices = hypergraph.getNumberOfVertices();
+        int nbHyperedges = hypergraph.getNumberOfHyperedges();
+
+        // Counting the pins of each vertex, for each chunk of hyperedges.
+        // The number of chunks is bounded so that the counts of all chunks do not take
+        // more memory than the incidences themselves.
+        long nbPins = pins.length();
+        int nbChunks = (int) Math.min(ParallelArrays.numberOfChunks(nbPins),
+                Math.max(1, nbPins / Math.max(1, nbVertices)));
+        var counts = new int[nbChunks][];
+        ParallelArrays.forEachChunk(nbHyperedges, nbChunks, (c, from, to) -> {
+            var chunkCounts = new int[nbVertices];
+            long end = hyperedgeIndices[to];
+            for (long i = hyperedgeIndices[from]; i < end; i++) {
+                chunkCounts[pins.get(i)]++;
+            }
+            counts[c] = chunkCounts;
+        });
+
+        // Computing the degree of each vertex, and where each chunk writes its hyperedges.
+        var vertexIndices = new long[nbVertices + 1];
+        ParallelArrays.forEachChunk(nbVertices, (from, to) -> {
+            for (var chunkCounts : counts) {
+                for (int v = from; v < to; v++) {
+                    int count = chunkCounts[v];
+                    chunkCounts[v] = (int) vertexIndices[v];
+                    vertexIndices[v] += count;
+                }
+            }
+        });
+        ParallelArrays.countsToOffsets(vertexIndices);
+
+        // Putting each hyperedge in the lists of its vertices.
+        // As chunks are ordered, so are the hyperedges of each vertex.
+        var incidentHyperedges = SegmentedIntArray.allocateExactly(nbPins);
+        incidentHyperedges.setLength(nbPins);
+        ParallelArrays.forEachChunk(nbHyperedges, nbChunks, (c, from, to) -> {
+            var positions = counts[c];
+            for (int h = from; h < to; h++) {
+                long end = hyperedgeIndices[h + 1];
+                for (long i = hyperedgeIndices[h]; i < end; i++) {
+                    int vertex = pins.get(i);
+                    incidentHyperedges.set(vertexIndices[vertex] + positions[vertex]++, h);
+                }
+            }
+        });
+
+        return new VertexIncidence(vertexIndices, incidentHyperedges);
+    }
+
+    /**
+     * Gives the number of vertices in this incidence index.
+     *
+     * @return The number of vertices.
+     */
+    public int getNumberOfVertices() {
+        return vertexIndices.length - 1;
+    }
+
+    /**
+     * Gives the degree of the given vertex, i.e., the number of hyperedges in which it
+     * appears.
+     *
+     * @param vertex The vertex to get the degree of.
+     *
+     * @return The degree of the vertex.
+     */
+    public int degree(int vertex) {
+        return (int) (vertexIndices[vertex + 1] - vertexIndices[vertex]);
+    }
+
+    /**
+     * Gives the {@code index}-th hyperedge in which the given vertex appears.
+     *
+     * @param vertex The vertex to get the hyperedge of.
+     * @param index The index of the hyperedge among those of the vertex.
+     *
+     * @return The identifier of the hyperedge.
+     */
+    public int incidentHyperedge(int vertex, int index) {
+        return incidentHyperedges.get(vertexIndices[vertex] + index);
+    }
+
+    /**
+     * Applies the given action on each hyperedge in which the given vertex appears.
+     *
+     * @param vertex The vertex to consider the hyperedges of.
+     * @param action The action to apply on the hyperedges.
+     */
+    public void forEachIncidentHyperedge(int vertex, IntConsumer action) {
+        for (long i = vertexIndices[vertex]; i < vertexIndices[vertex + 1]; i++) {
+            action.accept(incidentHyperedges.get(i));
+        }
+    }
+
+    /**
+     * Gives the indices at which the hyperedges of each vertex start in the array
+     * returned by {@link #getIncidentHyperedges()}.
+     * The returned array must not be modified.
+     *
+     * @return The indices of the hyperedges for each vertex.
+     */
+    public long[] getVertexIndices() {
+        return vertexIndices;
+    }
+
+    /**
+     * Gives the hyperedges in which the different vertices appear.
+     * The returned array must not be modified.
+     *
+     * @return The hyperedges of the different vertices.
+     *
+     * @throws UnsupportedOperationException If there are too many incidences for them
+     *         to be stored in a Java array.
+     *         In this case, use {@link #getIncidences()} instead.
+     */
+    public int[] getIncidentHyperedges() {
+        return incidentHyperedges.toArray();
+    }
+
+    /**
+     * Gives the hyperedges in which the different vertices appear, as an array
+     * addressed by {@code long} indices.
+     * Contrary to {@link #getIncidentHyperedges()}, this method supports indices having
+     * more than {@code 2^31} incidences.
+     * The returned array must not be modified.
+     *
+     * @return The hyperedges of the different vertices.
+     */
+    public SegmentedIntArray getIncidences() {
+        return incidentHyperedges;
+    }
+
+    /**
+     * Gives the amount of memory used by this incidence index.
+     *
+     * @return The number of bytes used by the arrays of this index.
+     */
+    public long memoryUsage() {
+        return (long) vertexIndices.length * Long.BYTES
+                + incidentHyperedges.length() * Integer.BYTES;
+    }
+
+}
@@ -79,6 +79,27 @@ interface INativeKahypar extends Library {
             int[] vertexWeights, int[] hyperedgeWeights, long[] hyperedgeIndices, int[] hyperedges,
             int[] objective, Pointer context, int[] partition);
 
+    /**
+     * Computes a partition of a hypergraph using KaHyPar native implementation, reading
+     * the hypergraph from native memory.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param nbHyperedges The number of hyperedges in the hypergraph.
+     * @param imbalance The imbalance parameter for the partitioning algorithm.
+     * @param nbBlocks The number of blocks in the partition.
+     * @param vertexWeights The weights of the vertices in the hypergraph.
+     * @param hyperedgeWeights The weights of the hyperedges in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code hyperedges}.
+     * @param hyperedges The vertices of the hyperedges in the hypergraph.
+     * @param objective The array for storing the value of the objective function.
+     * @param context The context in which the partition is computed.
+     * @param partition The array in which to store the computed partition.
+     */
+    void kahypar_partition(int nbVertices, int nbHyperedges, double imbalance, int nbBlocks,
+            Pointer vertexWeights, Pointer hyperedgeWeights, Pointer hyperedgeIndices,
+            Pointer hyperedges, int[] objective, Pointer context, int[] partition);
+
     /**
      * Improves a partition computed by KaHyPar.
      *
@@ -103,6 +124,31 @@ interface INativeKahypar extends Library {
             int[] initialPartition, long nbIterations, int[] objective, Pointer context,
             int[] improvedPartition);
 
+    /**
+     * Improves a partition computed by KaHyPar, reading the hypergraph from native
+     * memory.
+     *
+     * @param nbVertices The number of vertices in the hypergraph.
+     * @param nbHyperedges The number of hyperedges in the hypergraph.
+     * @param imbalance The imbalance parameter for the partitioning algorithm.
+     * @param nbBlocks The number of blocks in the partition.
+     * @param vertexWeights The weights of the vertices in the hypergraph.
+     * @param hyperedgeWeights The weights of the hyperedges in the hypergraph.
+     * @param hyperedgeIndices The indices at which the vertices of each hyperedge start
+     *        in {@code hyperedges}.
+     * @param hyperedges The vertices of the hyperedges in the hypergraph.
+     * @param initialPartition The partition to improve.
+     * @param nbIterations The number of iterations to perform for improving the
+     *        partition.
+     * @param objective The array for storing the value of the objective function.
+     * @param context The context in which the partition is computed.
+     * @param improvedPartition The array in which to store the improved partition.
+     */
+    void kahypar_improve_partition(int nbVertices, int nbHyperedges, double imbalance, int nbBlocks,
+            Pointer vertexWeights, Pointer hyperedgeWeights, Pointer hyperedgeIndices,
+            Pointer hyperedges, int[] initialPartition, long nbIterations, int[] objective,
+            Pointer context, int[] improvedPartition);
+
     /**
      * Frees the memory used by a context from KaHyPar.
      *
@@ -19,9 +19,15 @@
 
 package fr.univartois.cril.jkahypar.kahypar;
 
+import java.nio.Buffer;
+
+import com.sun.jna.Memory;
 import com.sun.jna.Native;
+import com.sun.jna.Pointer;
 
 import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.MappedHypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
 
 /**
  * The NativeKahypar class provides a user-friendly and Java-ish way of
@@ -42,6 +48,12 @@ public final class NativeKahypar {
     private static final INativeKahypar NATIVE_LIBRARY =
             Native.load("kahypar", INativeKahypar.class);
 
+    /**
+     * The number of pins copied at once when copying the pins of a hypergraph to native
+     * memory.
+     */
+    private static final int COPY_CHUNK_SIZE = 1 << 20;
+
     /**
      * Disables instantiation.
      */
@@ -91,6 +103,36 @@ public final class NativeKahypar {
      */
     static int kahyparPartition(NativeKahyparContext context, Hypergraph hypergraph, int[] partition) {
         var objective = new int[1];
+
+        if (isNative(hypergraph)) {
+            // The hypergraph is given to KaHyPar without being copied.
+            var mapped = (MappedHypergraph) hypergraph;
+            NATIVE_LIBRARY.kahypar_partition(
+                    mapped.getNumberOfVertices(), mapped.getNumberOfHyperedges(),
+                    context.getImbalance(), context.getNumberOfBlocks(),
+                    pointerTo(mapped.getVertexWeightsBuffer()),
+                    pointerTo(mapped.getHyperedgeWeightsBuffer()),
+                    pointerTo(mapped.getHyperedgeIndicesBuffer()),
+                    pointerTo(mapped.getHyperedgeVerticesBuffer()),
+                    objective, context.getNativeContext(), partition);
+            return objective[0];
+        }
+
+        if (isSegmented(hypergraph)) {
+            // The pins are stored in segments, so they are copied to native memory.
+            try (var vertexWeights = toNativeMemory(hypergraph.getVertexWeights());
+                    var hyperedgeWeights = toNativeMemory(hypergraph.getHyperedgeWeights());
+                    var hyperedgeIndices = toNativeMemory(hypergraph.getHyperedgeIndices());
+                    var hyperedgeVertices = toNativeMemory(hypergraph.getPins())) {
+                NATIVE_LIBRARY.kahypar_partition(
+                        hypergraph.getNumberOfVertices(), hypergraph.getNumberOfHyperedges(),
+                        context.getImbalance(), context.getNumberOfBlocks(),
+                        vertexWeights, hyperedgeWeights, hyperedgeIndices, hyperedgeVertices,
+                        objective, context.getNativeContext(), partition);
+                return objective[0];
+            }
+        }
+
         NATIVE_LIBRARY.kahypar_partition(
                 hypergraph.getNumberOfVertices(), hypergraph.getNumberOfHyperedges(),
                 context.getImbalance(), context.getNumberOfBlocks(),
@@ -115,6 +157,38 @@ public final class NativeKahypar {
     static int kahyparImprovePartition(NativeKahyparContext context, Hypergraph hypergraph,
             int[] initialPartition, long nbIterations, int[] improvedPartition) {
         var objective = new int[1];
+
+        if (isNative(hypergraph)) {
+            // The hypergraph is given to KaHyPar without being copied.
+            var mapped = (MappedHypergraph) hypergraph;
+            NATIVE_LIBRARY.kahypar_improve_partition(
+                    mapped.getNumberOfVertices(), mapped.getNumberOfHyperedges(),
+                    context.getImbalance(), context.getNumberOfBlocks(),
+                    pointerTo(mapped.getVertexWeightsBuffer()),
+                    pointerTo(mapped.getHyperedgeWeightsBuffer()),
+                    pointerTo(mapped.getHyperedgeIndicesBuffer()),
+                    pointerTo(mapped.getHyperedgeVerticesBuffer()),
+                    initialPartition, nbIterations, objective, context.getNativeContext(),
+                    improvedPartition);
+            return objective[0];
+        }
+
+        if (isSegmented(hypergraph)) {
+            // The pins are stored in segments, so they are copied to native memory.
+            try (var vertexWeights = toNativeMemory(hypergraph.getVertexWeights());
+                    var hyperedgeWeights = toNativeMemory(hypergraph.getHyperedgeWeights());
+                    var hyperedgeIndices = toNativeMemory(hypergraph.getHyperedgeIndices());
+                    var hyperedgeVertices = toNativeMemory(hypergraph.getPins())) {
+                NATIVE_LIBRARY.kahypar_improve_partition(
+                        hypergraph.getNumberOfVertices(), hypergraph.getNumberOfHyperedges(),
+                        context.getImbalance(), context.getNumberOfBlocks(),
+                        vertexWeights, hyperedgeWeights, hyperedgeIndices, hyperedgeVertices,
+                        initialPartition, nbIterations, objective, context.getNativeContext(),
+                        improvedPartition);
+                return objective[0];
+            }
+        }
+
         NATIVE_LIBRARY.kahypar_improve_partition(
                 hypergraph.getNumberOfVertices(), hypergraph.getNumberOfHyperedges(),
                 context.getImbalance(), context.getNumberOfBlocks(),
@@ -125,6 +199,91 @@ public final class NativeKahypar {
         return objective[0];
     }
 
+    /**
+     * Checks whether the given hypergraph is stored in native memory, so that it can be
+     * given to KaHyPar without being copied.
+     *
+     * @param hypergraph The hypergraph to check.
+     *
+     * @return Whether the hypergraph is stored in native memory.
+     */
+    private static boolean isNative(Hypergraph hypergraph) {
+        return (hypergraph instanceof MappedHypergraph) && ((MappedHypergraph) hypergraph).isNative();
+    }
+
+    /**
+     * Checks whether the pins of the given hypergraph are stored in segments rather than
+     * in a single Java array, either because there are too many of them or because they
+     * are read from a file.
+     *
+     * @param hypergraph The hypergraph to check.
+     *
+     * @return Whether the pins of the hypergraph are not stored in a Java array.
+     */
+    private static boolean isSegmented(Hypergraph hypergraph) {
+        return !hypergraph.getPins().isSingleArray();
+    }
+
+    /**
+     * Copies an array of ints to native memory.
+     *
+     * @param array The array to copy (may be {@code null}).
+     *
+     * @return The native memory containing the array, or {@code null} if the array is
+     *         {@code null}.
+     */
+    private static Memory toNativeMemory(int[] array) {
+        if (array == null) {
+            return null;
+        }
+
+        var memory = new Memory((long) array.length * Integer.BYTES);
+        memory.write(0, array, 0, array.length);
+        return memory;
+    }
+
+    /**
+     * Copies an array of longs to native memory.
+     *
+     * @param array The array to copy.
+     *
+     * @return The native memory containing the array.
+     */
+    private static Memory toNativeMemory(long[] array) {
+        var memory = new Memory((long) array.length * Long.BYTES);
+        memory.write(0, array, 0, array.length);
+        return memory;
+    }
+
+    /**
+     * Copies a segmented array of ints to native memory.
+     *
+     * @param array The array to copy.
+     *
+     * @return The native memory containing the array.
+     */
+    private static Memory toNativeMemory(SegmentedIntArray array) {
+        var memory = new Memory(array.length() * Integer.BYTES);
+        var chunk = new int[(int) Math.min(COPY_CHUNK_SIZE, array.length())];
+        for (long from = 0; from < array.length(); from += chunk.length) {
+            var n = (int) Math.min(chunk.length, array.length() - from);
+            array.copyTo(from, chunk, 0, n);
+            memory.write(from * Integer.BYTES, chunk, 0, n);
+        }
+        return memory;
+    }
+
+    /**
+     * Gives the pointer to the native memory of a direct buffer.
+     *
+     * @param buffer The buffer to get the pointer of (may be {@code null}).
+     *
+     * @return The pointer to the content of the buffer.
+     */
+    private static Pointer pointerTo(Buffer buffer) {
+        return (buffer == null) ? null : Native.getDirectBufferPointer(buffer);
+    }
+
     /**
      * Frees the memory used for a native context.
      *
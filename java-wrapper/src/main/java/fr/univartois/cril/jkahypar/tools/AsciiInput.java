@@ -0,0 +1,309 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * The AsciiInput reads integers written in their decimal representation from a
+ * channel.
+ * Bytes are scanned directly from a large direct buffer and integers are decoded in
+ * place, so that no object is created while reading.
+ *
+ * Integers are separated by blanks (spaces, tabulations and carriage returns), and are
+ * organized in lines ended by {@code '\n'}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+final class AsciiInput implements Closeable {
+
+    /**
+     * The value returned when the end of the input has been reached.
+     */
+    static final int END_OF_INPUT = -1;
+
+    /**
+     * The default size of the buffer used to read from the channel.
+     */
+    static final int DEFAULT_BUFFER_SIZE = 1 << 22;
+
+    /**
+     * The channel to read from, or {@code null} if all the input is in the buffer.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * The buffer containing the bytes that are being read.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Whether the end of the channel has been reached.
+     */
+    private boolean endOfChannel;
+
+    /**
+     * Creates a new AsciiInput.
+     *
+     * @param channel The channel to read from.
+     */
+    AsciiInput(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new AsciiInput.
+     *
+     * @param channel The channel to read from.
+     * @param bufferSize The size of the buffer to use.
+     */
+    AsciiInput(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Creates a new AsciiInput reading all its input from the given buffer (which may,
+     * for instance, be a memory-mapped file).
+     *
+     * @param buffer The buffer to read from.
+     */
+    AsciiInput(ByteBuffer buffer) {
+        this.channel = null;
+        this.buffer = buffer;
+        this.endOfChannel = true;
+    }
+
+    /**
+     * Gives the next byte to read, without consuming it.
+     *
+     * @return The next byte, or {@link #END_OF_INPUT} if there is no more byte to read.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    int peek() throws IOException {
+        if (buffer.hasRemaining() || fill()) {
+            return buffer.get(buffer.position());
+        }
+        return END_OF_INPUT;
+    }
+
+    /**
+     * Consumes the next byte.
+     * This method must only be invoked after {@link #peek()} returned a byte.
+     */
+    void skip() {
+        buffer.position(buffer.position() + 1);
+    }
+
+    /**
+     * Skips the blanks preceding the next integer in the current line.
+     *
+     * @return Whether an integer is to be read in the current line.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    boolean skipBlanks() throws IOException {
+        do {
+            int position = buffer.position();
+            for (int limit = buffer.limit(); position < limit; position++) {
+                byte b = buffer.get(position);
+                if ((b != ' ') && (b != '\t') && (b != '\r')) {
+                    buffer.position(position);
+                    return b != '\n';
+                }
+            }
+            buffer.position(position);
+        } while (fill());
+        return false;
+    }
+
+    /**
+     * Skips all the blanks and line separators preceding the next integer.
+     *
+     * @return Whether there is an integer to read.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    boolean skipWhitespaces() throws IOException {
+        for (int b = peek(); b != END_OF_INPUT; b = peek()) {
+            if ((b != ' ') && (b != '\t') && (b != '\r') && (b != '\n')) {
+                return true;
+            }
+            skip();
+        }
+        return false;
+    }
+
+    /**
+     * Skips the remaining bytes of the current line, including its line separator.
+     *
+     * @return Whether there is a line after the skipped one.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    boolean nextLine() throws IOException {
+        for (int b = peek(); b != END_OF_INPUT; b = peek()) {
+            skip();
+            if (b == '\n') {
+                return peek() != END_OF_INPUT;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the lines that are empty or start with the given comment character.
+     *
+     * @param comment The character starting a comment line.
+     *
+     * @return Whether there is a line that is neither empty nor a comment to read.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    boolean skipEmptyAndCommentLines(char comment) throws IOException {
+        while (true) {
+            if (skipBlanks()) {
+                if (peek() != comment) {
+                    return true;
+                }
+                nextLine();
+
+            } else if ((peek() == END_OF_INPUT) || !nextLine()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads the next integer.
+     * Blanks preceding the integer are skipped.
+     *
+     * @return The read integer.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the input does not
+     *         contain an integer.
+     */
+    int readInt() throws IOException {
+        long value = readLong();
+        if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE)) {
+            throw new IOException("Integer value out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the next long integer.
+     * Blanks preceding the integer are skipped.
+     *
+     * @return The read integer.
+     *
+     * @throws IOException If an I/O error occurs while reading, if the input does not
+     *         contain an integer, or if this integer does not fit in a {@code long}.
+     */
+    long readLong() throws IOException {
+        if (!skipBlanks()) {
+            throw new IOException("Missing integer at end of line");
+        }
+
+        boolean negative = false;
+        int b = peek();
+        if ((b == '-') || (b == '+')) {
+            negative = (b == '-');
+            skip();
+            b = peek();
+        }
+
+        if ((b < '0') || (b > '9')) {
+            throw new IOException("Unexpected character: '" + (char) b + "'");
+        }
+
+        // Decoding the digits directly from the buffer.
+        // As in Long.parseLong(), the value is accumulated negatively, so that
+        // Long.MIN_VALUE can be read, and overflows are detected before they occur.
+        long min = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        do {
+            int position = buffer.position();
+            for (int limit = buffer.limit(); position < limit; position++) {
+                b = buffer.get(position);
+                if ((b < '0') || (b > '9')) {
+                    buffer.position(position);
+                    return negative ? value : -value;
+                }
+
+                int digit = b - '0';
+                if ((value < min / 10) || (value * 10 < min + digit)) {
+                    throw new IOException("Integer value out of range");
+                }
+                value = value * 10 - digit;
+            }
+            buffer.position(position);
+        } while (fill());
+
+        return negative ? value : -value;
+    }
+
+    /**
+     * Fills the buffer with bytes read from the channel.
+     *
+     * @return Whether bytes have been read.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private boolean fill() throws IOException {
+        if (endOfChannel) {
+            return false;
+        }
+
+        buffer.compact();
+        try {
+            while (buffer.position() == 0) {
+                if (channel.read(buffer) < 0) {
+                    endOfChannel = true;
+                    break;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return buffer.hasRemaining();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+}
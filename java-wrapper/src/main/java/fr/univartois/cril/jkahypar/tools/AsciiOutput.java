@@ -0,0 +1,222 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The AsciiOutput writes integers in their decimal representation to a channel.
+ * Integers are formatted directly into a large direct buffer, without creating any
+ * intermediate String.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+final class AsciiOutput implements Closeable {
+
+    /**
+     * The default size of the buffer used to write to the channel.
+     */
+    static final int DEFAULT_BUFFER_SIZE = 1 << 22;
+
+    /**
+     * The maximum number of bytes needed to write a {@code long} value.
+     */
+    private static final int MAX_LONG_LENGTH = 20;
+
+    /**
+     * The channel to write to.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * The buffer in which bytes are written before being sent to the channel.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a new AsciiOutput.
+     *
+     * @param channel The channel to write to.
+     */
+    AsciiOutput(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new AsciiOutput.
+     *
+     * @param channel The channel to write to.
+     * @param bufferSize The size of the buffer to use.
+     */
+    AsciiOutput(WritableByteChannel channel, int bufferSize) {
+        this(channel, ByteBuffer.allocateDirect(Math.max(bufferSize, MAX_LONG_LENGTH + 1)));
+    }
+
+    /**
+     * Creates a new AsciiOutput using the given buffer.
+     * This is typically useful to format data in memory using a heap buffer, which is
+     * cheaper to allocate than a direct buffer.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer in which to write bytes before sending them to the
+     *        channel, which must have room for at least {@code 21} bytes.
+     */
+    AsciiOutput(WritableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer.clear();
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param b The byte to write.
+     *
+     * @return This output.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    AsciiOutput write(char b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flushBuffer();
+        }
+        buffer.put((byte) b);
+        return this;
+    }
+
+    /**
+     * Writes the decimal representation of an integer.
+     *
+     * @param value The value to write.
+     *
+     * @return This output.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    AsciiOutput writeInt(int value) throws IOException {
+        return writeLong(value);
+    }
+
+    /**
+     * Writes the decimal representation of a long integer.
+     *
+     * @param value The value to write.
+     *
+     * @return This output.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    AsciiOutput writeLong(long value) throws IOException {
+        if (buffer.remaining() < MAX_LONG_LENGTH) {
+            flushBuffer();
+        }
+
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                // This value cannot be negated.
+                for (char c : Long.toString(value).toCharArray()) {
+                    buffer.put((byte) c);
+                }
+                return this;
+            }
+            buffer.put((byte) '-');
+            value = -value;
+        }
+
+        // Writing the digits from the last to the first one.
+        int position = buffer.position();
+        int end = position + numberOfDigits(value);
+        for (int i = end - 1; i >= position; i--) {
+            buffer.put(i, (byte) ('0' + (value % 10)));
+            value /= 10;
+        }
+        buffer.position(end);
+        return this;
+    }
+
+    /**
+     * Writes a line separator.
+     *
+     * @return This output.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    AsciiOutput newLine() throws IOException {
+        return write('\n');
+    }
+
+    /**
+     * Gives the number of digits in the decimal representation of a non-negative
+     * value.
+     *
+     * @param value The value to give the number of digits of.
+     *
+     * @return The number of digits of the value.
+     */
+    private static int numberOfDigits(long value) {
+        int digits = 1;
+        for (long bound = 10; (digits < 19) && (value >= bound); bound *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Sends the content of the buffer to the channel.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Sends all pending bytes to the channel.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void flush() throws IOException {
+        flushBuffer();
+    }
+
+    /**
+     * Flushes this output, and closes the underlying channel.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,378 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.MappedHypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
+
+/**
+ * The BinaryHypergraphFormat allows to store {@link Hypergraph} instances in a binary
+ * file mirroring their internal (CSR) representation, so that they can later be loaded
+ * instantly by memory-mapping this file.
+ *
+ * A file in this format starts with a header of {@value #HEADER_SIZE} bytes, storing a
+ * magic number, the version of the format, the byte order of the file, flags telling
+ * which weights are stored, the number of vertices, the number of hyperedges and the
+ * number of pins of the hypergraph.
+ * It is followed by the indices of the hyperedges, their vertices, and (if any) the
+ * weights of the hyperedges and of the vertices, each section starting at an offset
+ * aligned on 8 bytes.
+ * Files are written using the native byte order, so that the mapped buffers can be
+ * given as is to the native implementation of KaHyPar.
+ * Sections are mapped by windows of at most {@value #MAX_MAPPED_BYTES} bytes, so that
+ * they may exceed the maximum size of a buffer.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class BinaryHypergraphFormat {
+
+    /**
+     * The magic number identifying files in this format.
+     */
+    private static final int MAGIC_NUMBER = 0x4A4B4847;
+
+    /**
+     * The version of the format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header, in bytes.
+     */
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * The flag telling that hyperedges are weighted.
+     */
+    private static final int WEIGHTED_HYPEREDGES = 1;
+
+    /**
+     * The flag telling that vertices are weighted.
+     */
+    private static final int WEIGHTED_VERTICES = 2;
+
+    /**
+     * The size of the buffer used to write the file.
+     */
+    private static final int BUFFER_SIZE = 1 << 22;
+
+    /**
+     * The maximum number of bytes that are mapped at once when mapping a file.
+     */
+    private static final int MAX_MAPPED_BYTES = 1 << 30;
+
+    /**
+     * Disables instantiation.
+     */
+    private BinaryHypergraphFormat() {
+        throw new AssertionError("No BinaryHypergraphFormat instances for you!");
+    }
+
+    /**
+     * Writes a hypergraph to a file.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param file The path of the file to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(Hypergraph hypergraph, Path file) throws IOException {
+        var hyperedgeIndices = hypergraph.getHyperedgeIndices();
+        var hyperedgeWeights = hypergraph.getHyperedgeWeights();
+        var vertexWeights = hypergraph.getVertexWeights();
+        int flags = ((hyperedgeWeights == null) ? 0 : WEIGHTED_HYPEREDGES)
+                | ((vertexWeights == null) ? 0 : WEIGHTED_VERTICES);
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+
+            // Writing the header.
+            buffer.putInt(MAGIC_NUMBER)
+                    .putInt(VERSION)
+                    .putInt(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 0 : 1)
+                    .putInt(flags)
+                    .putInt(hypergraph.getNumberOfVertices())
+                    .putInt(hypergraph.getNumberOfHyperedges())
+                    .putLong(hyperedgeIndices[hypergraph.getNumberOfHyperedges()]);
+
+            // Writing the different sections.
+            write(channel, buffer, hyperedgeIndices);
+            write(channel, buffer, hypergraph.getPins());
+            if (hyperedgeWeights != null) {
+                write(channel, buffer, SegmentedIntArray.wrapping(hyperedgeWeights));
+            }
+            if (vertexWeights != null) {
+                write(channel, buffer, SegmentedIntArray.wrapping(vertexWeights));
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes a section of long values.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer in which values are written before being sent to the
+     *        channel.
+     * @param values The values to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer, long[] values)
+            throws IOException {
+        for (int i = 0; i < values.length;) {
+            if (buffer.remaining() < Long.BYTES) {
+                flush(channel, buffer);
+            }
+            int length = Math.min(values.length - i, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().put(values, i, length);
+            buffer.position(buffer.position() + length * Long.BYTES);
+            i += length;
+        }
+    }
+
+    /**
+     * Writes a section of int values.
+     * The section is padded so that the next section is aligned on 8 bytes.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer in which values are written before being sent to the
+     *        channel.
+     * @param values The values to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer,
+            SegmentedIntArray values) throws IOException {
+        var chunk = new int[(int) Math.min(BUFFER_SIZE / Integer.BYTES, values.length())];
+        for (long i = 0; i < values.length();) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush(channel, buffer);
+            }
+            int length = (int) Math.min(values.length() - i,
+                    buffer.remaining() / Integer.BYTES);
+            values.copyTo(i, chunk, 0, length);
+            buffer.asIntBuffer().put(chunk, 0, length);
+            buffer.position(buffer.position() + length * Integer.BYTES);
+            i += length;
+        }
+
+        if ((values.length() & 1) != 0) {
+            // Adding padding to keep sections aligned.
+            if (!buffer.hasRemaining()) {
+                flush(channel, buffer);
+            }
+            buffer.putInt(0);
+        }
+    }
+
+    /**
+     * Sends the content of a buffer to a channel.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer to send.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Loads a hypergraph by memory-mapping the given file.
+     *
+     * @param file The path of the file to map.
+     *
+     * @return The mapped hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while mapping the file, or if the file
+     *         is not in the expected format.
+     */
+    public static MappedHypergraph map(Path file) throws IOException {
+        return map(file, MAX_MAPPED_BYTES);
+    }
+
+    /**
+     * Loads a hypergraph by memory-mapping the given file by windows of the given size.
+     *
+     * @param file The path of the file to map.
+     * @param windowSize The maximum number of bytes to map at once, which must be a
+     *        power of two that is at least {@code 8}.
+     *
+     * @return The mapped hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while mapping the file, or if the file
+     *         is not in the expected format.
+     */
+    static MappedHypergraph map(Path file, int windowSize) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Reading the header, and detecting the byte order of the file.
+            var header = map(channel, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC_NUMBER) {
+                header.order(ByteOrder.BIG_ENDIAN);
+            }
+            if ((header.getInt(0) != MAGIC_NUMBER) || (header.getInt(4) != VERSION)) {
+                throw new IOException("Not a hypergraph in the binary format");
+            }
+
+            var order = header.order();
+            int flags = header.getInt(12);
+            int nbVertices = header.getInt(16);
+            int nbHyperedges = header.getInt(20);
+            long nbPins = header.getLong(24);
+
+            // Mapping the different sections.
+            long offset = HEADER_SIZE;
+            long size = (nbHyperedges + 1L) * Long.BYTES;
+            var windows = mapWindows(channel, offset, size, windowSize);
+            var hyperedgeIndices = new LongBuffer[windows.length];
+            for (int i = 0; i < windows.length; i++) {
+                hyperedgeIndices[i] = windows[i].order(order).asLongBuffer();
+            }
+            offset += size;
+
+            size = nbPins * Integer.BYTES;
+            var pins = mapInts(channel, offset, size, windowSize, order);
+            offset += aligned(size);
+
+            SegmentedIntArray hyperedgeWeights = null;
+            if ((flags & WEIGHTED_HYPEREDGES) != 0) {
+                size = (long) nbHyperedges * Integer.BYTES;
+                hyperedgeWeights = mapInts(channel, offset, size, windowSize, order);
+                offset += aligned(size);
+            }
+
+            SegmentedIntArray vertexWeights = null;
+            if ((flags & WEIGHTED_VERTICES) != 0) {
+                size = (long) nbVertices * Integer.BYTES;
+                vertexWeights = mapInts(channel, offset, size, windowSize, order);
+            }
+
+            return MappedHypergraph.wrapping(nbVertices, hyperedgeIndices, pins,
+                    hyperedgeWeights, vertexWeights);
+        }
+    }
+
+    /**
+     * Maps a section of a file storing int values into memory, by windows of the given
+     * size.
+     *
+     * @param channel The channel of the file to map.
+     * @param offset The offset of the section in the file.
+     * @param size The size of the section.
+     * @param windowSize The maximum number of bytes to map at once.
+     * @param order The byte order of the file.
+     *
+     * @return The array made of the mapped windows.
+     *
+     * @throws IOException If an I/O error occurs while mapping the file, or if the
+     *         section cannot be mapped.
+     */
+    private static SegmentedIntArray mapInts(FileChannel channel, long offset, long size,
+            int windowSize, ByteOrder order) throws IOException {
+        var windows = mapWindows(channel, offset, size, windowSize);
+        var segments = new IntBuffer[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            segments[i] = windows[i].order(order).asIntBuffer();
+        }
+
+        if (segments.length == 1) {
+            return SegmentedIntArray.wrapping(segments[0]);
+        }
+        int shift = Integer.numberOfTrailingZeros(windowSize / Integer.BYTES);
+        return SegmentedIntArray.wrapping(shift, segments);
+    }
+
+    /**
+     * Maps a section of a file into memory, by windows of the given size.
+     *
+     * @param channel The channel of the file to map.
+     * @param offset The offset of the section in the file.
+     * @param size The size of the section.
+     * @param windowSize The maximum number of bytes to map at once.
+     *
+     * @return The mapped windows, all of them (except the last one) having exactly
+     *         {@code windowSize} bytes.
+     *
+     * @throws IOException If an I/O error occurs while mapping the file, or if the
+     *         section cannot be mapped.
+     */
+    private static ByteBuffer[] mapWindows(FileChannel channel, long offset, long size,
+            int windowSize) throws IOException {
+        long nbWindows = Math.max(1, (size + windowSize - 1) / windowSize);
+        var windows = new ByteBuffer[(int) nbWindows];
+        for (int i = 0; i < windows.length; i++) {
+            long start = (long) i * windowSize;
+            windows[i] = map(channel, offset + start, Math.min(windowSize, size - start));
+        }
+        return windows;
+    }
+
+    /**
+     * Maps a section of a file into memory.
+     *
+     * @param channel The channel of the file to map.
+     * @param offset The offset of the section in the file.
+     * @param size The size of the section.
+     *
+     * @return The mapped section.
+     *
+     * @throws IOException If an I/O error occurs while mapping the file, or if the
+     *         section cannot be mapped.
+     */
+    private static ByteBuffer map(FileChannel channel, long offset, long size)
+            throws IOException {
+        if (offset + size > channel.size()) {
+            throw new IOException("Truncated hypergraph file");
+        }
+        return channel.map(MapMode.READ_ONLY, offset, size);
+    }
+
+    /**
+     * Gives the smallest multiple of 8 that is greater than or equal to the given size.
+     *
+     * @param size The size to align.
+     *
+     * @return The aligned size.
+     */
+    private static long aligned(long size) {
+        return (size + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+}
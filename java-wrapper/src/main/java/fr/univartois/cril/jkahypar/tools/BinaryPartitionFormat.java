@@ -0,0 +1,567 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
+
+/**
+ * The BinaryPartitionFormat allows to write and read {@link HypergraphPartition}
+ * instances using a compact binary format.
+ *
+ * A file in this format starts with a header of {@value #HEADER_SIZE} bytes, storing
+ * (in little-endian order) a magic number, the version of the format, the number of
+ * blocks, the number of bits used to store each block identifier, the number of
+ * vertices, the value of the objective function and a fingerprint of the partitioned
+ * hypergraph.
+ * The header is followed by the block identifiers of the vertices, bit-packed into
+ * 64-bit words.
+ *
+ * Reading a file memory-maps it and unpacks the block identifiers in parallel.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class BinaryPartitionFormat {
+
+    /**
+     * The magic number identifying files in this format.
+     */
+    private static final int MAGIC_NUMBER = 0x4A4B4850;
+
+    /**
+     * The version of the format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header, in bytes.
+     */
+    public static final int HEADER_SIZE = 40;
+
+    /**
+     * The number of block identifiers that are packed in a group of words.
+     * Each group uses exactly as many words as bits per identifier, so that groups can
+     * be packed and unpacked independently.
+     */
+    private static final int GROUP_SIZE = Long.SIZE;
+
+    /**
+     * The minimum number of groups considered by each parallel task.
+     */
+    private static final int MIN_GROUPS_PER_TASK = 1 << 10;
+
+    /**
+     * The maximum number of bytes that are mapped at once when reading a file.
+     */
+    private static final int MAX_MAPPED_BYTES = 1 << 30;
+
+    /**
+     * The number of values considered in each chunk when computing a fingerprint.
+     * This number is fixed so that the fingerprint does not depend on the number of
+     * available processors.
+     */
+    private static final int FINGERPRINT_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Disables instantiation.
+     */
+    private BinaryPartitionFormat() {
+        throw new AssertionError("No BinaryPartitionFormat instances for you!");
+    }
+
+    /**
+     * Writes a partition of the given hypergraph to a file.
+     *
+     * @param partition The partition to write.
+     * @param hypergraph The partitioned hypergraph, used to compute the fingerprint
+     *        stored in the file.
+     * @param file The path of the file to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(HypergraphPartition partition, Hypergraph hypergraph, Path file)
+            throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(partition, fingerprint(hypergraph), channel);
+        }
+    }
+
+    /**
+     * Writes a partition to a channel.
+     *
+     * @param partition The partition to write.
+     * @param fingerprint The fingerprint of the partitioned hypergraph.
+     * @param channel The channel to write the partition to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(HypergraphPartition partition, long fingerprint,
+            WritableByteChannel channel) throws IOException {
+        int bits = bitsPerBlock(partition.numberOfBlocks());
+
+        // Writing the header.
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC_NUMBER)
+                .putInt(VERSION)
+                .putInt(partition.numberOfBlocks())
+                .putInt(bits)
+                .putLong(partition.numberOfVertices())
+                .putInt(partition.objectiveValue())
+                .putInt(0)
+                .putLong(fingerprint)
+                .flip();
+        writeFully(channel, header);
+
+        // Writing the packed block identifiers.
+        var words = pack(partition, bits);
+        var buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        var longs = buffer.asLongBuffer();
+        for (int i = 0; i < words.length; i += longs.capacity()) {
+            int length = Math.min(longs.capacity(), words.length - i);
+            longs.clear();
+            longs.put(words, i, length);
+            buffer.clear().limit(length << 3);
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Packs the block identifiers of a partition into 64-bit words.
+     *
+     * @param partition The partition to pack.
+     * @param bits The number of bits used to store each block identifier.
+     *
+     * @return The packed block identifiers.
+     */
+    private static long[] pack(HypergraphPartition partition, int bits) {
+        int nbVertices = partition.numberOfVertices();
+        int nbGroups = (nbVertices + GROUP_SIZE - 1) / GROUP_SIZE;
+        var words = new long[Math.multiplyExact(nbGroups, bits)];
+
+        forEachGroupRange(nbGroups, (from, to) -> {
+            for (int g = from; g < to; g++) {
+                int firstVertex = g * GROUP_SIZE;
+                int lastVertex = Math.min(nbVertices, firstVertex + GROUP_SIZE);
+                long position = (long) g * bits * Long.SIZE;
+                for (int v = firstVertex; v < lastVertex; v++, position += bits) {
+                    long block = partition.blockOf(v + 1);
+                    int word = (int) (position >>> 6);
+                    int shift = (int) (position & 63);
+                    words[word] |= block << shift;
+                    if (shift + bits > Long.SIZE) {
+                        words[word + 1] |= block >>> (Long.SIZE - shift);
+                    }
+                }
+            }
+        });
+
+        return words;
+    }
+
+    /**
+     * Reads a partition from a file, by memory-mapping it.
+     *
+     * @param file The path of the file to read.
+     *
+     * @return The read partition.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the file is not
+     *         in the expected format.
+     */
+    public static HypergraphPartition read(Path file) throws IOException {
+        return read(file, null);
+    }
+
+    /**
+     * Reads a partition of the given hypergraph from a file, by memory-mapping it.
+     *
+     * @param file The path of the file to read.
+     * @param hypergraph The hypergraph that is expected to be partitioned, or
+     *        {@code null} if it must not be checked.
+     *
+     * @return The read partition.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the file is not
+     *         in the expected format.
+     * @throws IllegalArgumentException If the partition does not correspond to the
+     *         given hypergraph.
+     */
+    public static HypergraphPartition read(Path file, Hypergraph hypergraph)
+            throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+            var info = new Header(header.flip(), hypergraph);
+
+            // Mapping the file by windows containing whole groups of words.
+            var blockIdentifiers = new int[info.numberOfVertices];
+            int nbGroups = (info.numberOfVertices + GROUP_SIZE - 1) / GROUP_SIZE;
+            int groupsPerWindow = MAX_MAPPED_BYTES / (info.bits * Long.BYTES);
+            for (int first = 0; first < nbGroups; first += groupsPerWindow) {
+                int last = Math.min(nbGroups, first + groupsPerWindow);
+                long offset = HEADER_SIZE + (long) first * info.bits * Long.BYTES;
+                long size = (long) (last - first) * info.bits * Long.BYTES;
+                var words = channel.map(MapMode.READ_ONLY, offset, size)
+                        .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                unpack(words, first, last, info.bits, blockIdentifiers);
+            }
+
+            return info.toPartition(blockIdentifiers);
+        }
+    }
+
+    /**
+     * Reads a partition from a channel.
+     * Prefer {@link #read(Path)} when reading from a file, as it allows to map the file
+     * into memory.
+     *
+     * @param channel The channel to read the partition from.
+     *
+     * @return The read partition.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the data is not
+     *         in the expected format.
+     */
+    public static HypergraphPartition read(ReadableByteChannel channel) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header);
+        var info = new Header(header.flip(), null);
+
+        // Reading the packed block identifiers.
+        int nbGroups = (info.numberOfVertices + GROUP_SIZE - 1) / GROUP_SIZE;
+        var buffer = ByteBuffer.allocateDirect(
+                Math.multiplyExact(nbGroups, info.bits * Long.BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer);
+
+        var blockIdentifiers = new int[info.numberOfVertices];
+        unpack(buffer.flip().asLongBuffer(), 0, nbGroups, info.bits, blockIdentifiers);
+        return info.toPartition(blockIdentifiers);
+    }
+
+    /**
+     * Unpacks the block identifiers stored in the given groups of words.
+     *
+     * @param words The words to unpack, starting with the first group to unpack.
+     * @param firstGroup The index of the first group to unpack.
+     * @param lastGroup The index of the group at which to stop unpacking (exclusive).
+     * @param bits The number of bits used to store each block identifier.
+     * @param blockIdentifiers The array in which to store the unpacked identifiers.
+     */
+    private static void unpack(LongBuffer words, int firstGroup, int lastGroup, int bits,
+            int[] blockIdentifiers) {
+        long mask = (1L << bits) - 1;
+        forEachGroupRange(lastGroup - firstGroup, (from, to) -> {
+            for (int g = from; g < to; g++) {
+                int firstVertex = (firstGroup + g) * GROUP_SIZE;
+                int lastVertex = Math.min(blockIdentifiers.length, firstVertex + GROUP_SIZE);
+                long position = (long) g * bits * Long.SIZE;
+                for (int v = firstVertex; v < lastVertex; v++, position += bits) {
+                    int word = (int) (position >>> 6);
+                    int shift = (int) (position & 63);
+                    long block = words.get(word) >>> shift;
+                    if (shift + bits > Long.SIZE) {
+                        block |= words.get(word + 1) << (Long.SIZE - shift);
+                    }
+                    blockIdentifiers[v] = (int) (block & mask);
+                }
+            }
+        });
+    }
+
+    /**
+     * Computes a fingerprint of the given hypergraph.
+     * This fingerprint is stored in the files written by this class, so as to detect
+     * when a partition is read for the wrong hypergraph.
+     *
+     * @param hypergraph The hypergraph to compute the fingerprint of.
+     *
+     * @return The fingerprint of the hypergraph.
+     */
+    public static long fingerprint(Hypergraph hypergraph) {
+        long hash = mix(hypergraph.getNumberOfVertices(), hypergraph.getNumberOfHyperedges());
+        hash = mix(hash, fingerprint(hypergraph.getHyperedgeIndices()));
+        hash = mix(hash, fingerprint(hypergraph.getPins()));
+        hash = mix(hash, fingerprint(hypergraph.getHyperedgeWeights()));
+        return mix(hash, fingerprint(hypergraph.getVertexWeights()));
+    }
+
+    /**
+     * Computes a fingerprint of the given array.
+     *
+     * @param array The array to compute the fingerprint of (may be {@code null}).
+     *
+     * @return The fingerprint of the array.
+     */
+    private static long fingerprint(int[] array) {
+        if (array == null) {
+            return 0;
+        }
+        return fingerprint(SegmentedIntArray.wrapping(array));
+    }
+
+    /**
+     * Computes a fingerprint of the given array.
+     *
+     * @param array The array to compute the fingerprint of.
+     *
+     * @return The fingerprint of the array.
+     */
+    private static long fingerprint(SegmentedIntArray array) {
+        long length = array.length();
+        var nbChunks = (int) ((length + FINGERPRINT_CHUNK_SIZE - 1) / FINGERPRINT_CHUNK_SIZE);
+        var hashes = new long[nbChunks];
+        IntStream.range(0, nbChunks).parallel().forEach(c -> {
+            long hash = c;
+            for (long i = (long) c * FINGERPRINT_CHUNK_SIZE,
+                    end = Math.min(length, i + FINGERPRINT_CHUNK_SIZE); i < end; i++) {
+                hash = mix(hash, array.get(i));
+            }
+            hashes[c] = hash;
+        });
+
+        return combine(length, hashes);
+    }
+
+    /**
+     * Computes a fingerprint of the given array.
+     *
+     * @param array The array to compute the fingerprint of.
+     *
+     * @return The fingerprint of the array.
+     */
+    private static long fingerprint(long[] array) {
+        var nbChunks = (int) (((long) array.length + FINGERPRINT_CHUNK_SIZE - 1)
+                / FINGERPRINT_CHUNK_SIZE);
+        var hashes = new long[nbChunks];
+        IntStream.range(0, nbChunks).parallel().forEach(c -> {
+            long hash = c;
+            for (int i = c * FINGERPRINT_CHUNK_SIZE,
+                    end = Math.min(array.length, i + FINGERPRINT_CHUNK_SIZE); i < end; i++) {
+                hash = mix(hash, array[i]);
+            }
+            hashes[c] = hash;
+        });
+
+        return combine(array.length, hashes);
+    }
+
+    /**
+     * Combines the fingerprints computed on the chunks of an array.
+     *
+     * @param length The length of the array.
+     * @param hashes The fingerprints of the chunks.
+     *
+     * @return The fingerprint of the array.
+     */
+    private static long combine(long length, long[] hashes) {
+        long hash = length;
+        for (long chunkHash : hashes) {
+            hash = mix(hash, chunkHash);
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes a value into a hash.
+     *
+     * @param hash The current hash.
+     * @param value The value to mix into the hash.
+     *
+     * @return The new hash.
+     */
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Gives the number of bits needed to store the identifier of a block.
+     *
+     * @param numberOfBlocks The number of blocks.
+     *
+     * @return The number of bits needed per block identifier.
+     */
+    private static int bitsPerBlock(int numberOfBlocks) {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(numberOfBlocks - 1));
+    }
+
+    /**
+     * Executes the given action in parallel on ranges of groups of words.
+     *
+     * @param nbGroups The number of groups.
+     * @param action The action to execute on each range of groups.
+     */
+    private static void forEachGroupRange(int nbGroups, GroupRangeAction action) {
+        int nbTasks = Math.max(1, nbGroups / MIN_GROUPS_PER_TASK);
+        int groupsPerTask = nbGroups / nbTasks + 1;
+        IntStream.range(0, nbTasks).parallel().forEach(t -> action.execute(
+                Math.min(nbGroups, t * groupsPerTask), Math.min(nbGroups, (t + 1) * groupsPerTask)));
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer to a channel.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Fills a buffer with bytes read from a channel.
+     *
+     * @param channel The channel to read from.
+     * @param buffer The buffer to fill.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the end of the
+     *         channel is reached before the buffer is full.
+     */
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of partition data");
+            }
+        }
+    }
+
+    /**
+     * The GroupRangeAction is an action applied on a range of groups of words.
+     */
+    @FunctionalInterface
+    private interface GroupRangeAction {
+
+        /**
+         * Executes this action.
+         *
+         * @param from The first group of the range.
+         * @param to The group at which the range stops (exclusive).
+         */
+        void execute(int from, int to);
+
+    }
+
+    /**
+     * The Header represents the header of a file in this format.
+     */
+    private static final class Header {
+
+        /**
+         * The number of blocks in the partition.
+         */
+        private final int numberOfBlocks;
+
+        /**
+         * The number of bits used to store each block identifier.
+         */
+        private final int bits;
+
+        /**
+         * The number of vertices in the partition.
+         */
+        private final int numberOfVertices;
+
+        /**
+         * The value of the objective function on the partition.
+         */
+        private final int objectiveValue;
+
+        /**
+         * Reads and checks a Header.
+         *
+         * @param buffer The buffer containing the header.
+         * @param hypergraph The hypergraph that is expected to be partitioned, or
+         *        {@code null} if it must not be checked.
+         *
+         * @throws IOException If the header is not in the expected format.
+         */
+        Header(ByteBuffer buffer, Hypergraph hypergraph) throws IOException {
+            if ((buffer.getInt() != MAGIC_NUMBER) || (buffer.getInt() != VERSION)) {
+                throw new IOException("Not a partition in the binary format");
+            }
+
+            this.numberOfBlocks = buffer.getInt();
+            this.bits = buffer.getInt();
+            long vertices = buffer.getLong();
+            this.objectiveValue = buffer.getInt();
+            buffer.getInt();
+            long fingerprint = buffer.getLong();
+
+            if ((numberOfBlocks < 1) || (bits != bitsPerBlock(numberOfBlocks))
+                    || (vertices < 0) || (vertices > Integer.MAX_VALUE)) {
+                throw new IOException("Corrupted header in partition data");
+            }
+            this.numberOfVertices = (int) vertices;
+
+            if ((hypergraph != null) && (fingerprint != fingerprint(hypergraph))) {
+                throw new IllegalArgumentException(
+                        "The partition does not match the hypergraph!");
+            }
+        }
+
+        /**
+         * Creates the partition described by this header, after having checked that
+         * the unpacked block identifiers are those of existing blocks.
+         *
+         * @param blockIdentifiers The unpacked identifiers of the blocks of the vertices.
+         *
+         * @return The read partition.
+         *
+         * @throws IOException If a block identifier is not that of a block of the
+         *         partition.
+         */
+        HypergraphPartition toPartition(int[] blockIdentifiers) throws IOException {
+            // Identifiers are unpacked from at most 31 bits, and are thus non-negative.
+            if (Arrays.stream(blockIdentifiers).parallel().anyMatch(b -> b >= numberOfBlocks)) {
+                throw new IOException("Corrupted block identifiers in partition data");
+            }
+            return HypergraphPartition.of(numberOfBlocks, blockIdentifiers, objectiveValue);
+        }
+
+    }
+
+}
@@ -0,0 +1,535 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The CutHyperedges identifies the hyperedges of a {@link Hypergraph} that are cut by a
+ * {@link HypergraphPartition}, together with the set of blocks spanned by each of them
+ * (also known as their connectivity set).
+ *
+ * All the cut hyperedges are identified in a single (parallel) pass over the internal
+ * representation of the hypergraph.
+ * Connectivity sets are stored as bitsets when the partition has at most
+ * {@value #MAX_BLOCKS_FOR_BITSETS} blocks, and as sorted lists of blocks otherwise.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class CutHyperedges {
+
+    /**
+     * The maximum number of blocks for which connectivity sets are stored as bitsets.
+     */
+    public static final int MAX_BLOCKS_FOR_BITSETS = Long.SIZE;
+
+    /**
+     * The identifiers of the cut hyperedges, in increasing order.
+     */
+    private final int[] hyperedges;
+
+    /**
+     * The connectivity sets of the cut hyperedges, stored as bitsets.
+     * This array is {@code null} when the partition has too many blocks.
+     */
+    private final long[] blockSets;
+
+    /**
+     * The indices at which the blocks spanned by each cut hyperedge start in
+     * {@link #blockLists}.
+     * This array is {@code null} when connectivity sets are stored as bitsets.
+     */
+    private final long[] blockIndices;
+
+    /**
+     * The (sorted) blocks spanned by the different cut hyperedges.
+     * This array is {@code null} when connectivity sets are stored as bitsets.
+     */
+    private final int[] blockLists;
+
+    /**
+     * The total weight of the cut hyperedges.
+     */
+    private final long cutWeight;
+
+    /**
+     * The sum, over all cut hyperedges, of their weight multiplied by their
+     * connectivity minus one.
+     */
+    private final long connectivityWeight;
+
+    /**
+     * Creates a new CutHyperedges.
+     *
+     * @param hyperedges The identifiers of the cut hyperedges.
+     * @param blockSets The connectivity sets of the cut hyperedges, stored as bitsets.
+     * @param blockIndices The indices at which the blocks spanned by each cut hyperedge
+     *        start in {@code blockLists}.
+     * @param blockLists The blocks spanned by the different cut hyperedges.
+     * @param cutWeight The total weight of the cut hyperedges.
+     * @param connectivityWeight The connectivity weight of the cut hyperedges.
+     */
+    private CutHyperedges(int[] hyperedges, long[] blockSets, long[] blockIndices,
+            int[] blockLists, long cutWeight, long connectivityWeight) {
+        this.hyperedges = hyperedges;
+        this.blockSets = blockSets;
+        this.blockIndices = blockIndices;
+        this.blockLists = blockLists;
+        this.cutWeight = cutWeight;
+        this.connectivityWeight = connectivityWeight;
+    }
+
+    /**
+     * Identifies the hyperedges of the given hypergraph that are cut by the given
+     * partition.
+     *
+     * @param hypergraph The partitioned hypergraph.
+     * @param partition The partition of the hypergraph.
+     *
+     * @return The hyperedges cut by the partition.
+     *
+     * @throws IllegalArgumentException If the partition does not correspond to the
+     *         hypergraph.
+     */
+    public static CutHyperedges of(Hypergraph hypergraph, HypergraphPartition partition) {
+        if (hypergraph.getNumberOfVertices() != partition.numberOfVertices()) {
+            throw new IllegalArgumentException("The partition does not match the hypergraph!");
+        }
+
+        // Each chunk of hyperedges is analyzed independently.
+        int nbHyperedges = hypergraph.getNumberOfHyperedges();
+        int nbChunks = ParallelArrays.numberOfChunks(nbHyperedges);
+        var chunks = new Chunk[nbChunks];
+        ParallelArrays.forEachChunk(nbHyperedges, nbChunks, (c, from, to) -> {
+            chunks[c] = new Chunk(hypergraph, partition);
+            chunks[c].analyze(from, to);
+        });
+
+        return merge(chunks, partition.numberOfBlocks() <= MAX_BLOCKS_FOR_BITSETS);
+    }
+
+    /**
+     * Merges the results computed on the different chunks of hyperedges.
+     *
+     * @param chunks The chunks to merge.
+     * @param bitsets Whether connectivity sets are stored as bitsets.
+     *
+     * @return The merged cut hyperedges.
+     */
+    private static CutHyperedges merge(Chunk[] chunks, boolean bitsets) {
+        // Computing the size of the result.
+        int nbCut = 0;
+        long nbBlocks = 0;
+        long cutWeight = 0;
+        long connectivityWeight = 0;
+        for (var chunk : chunks) {
+            nbCut += chunk.nbCut;
+            nbBlocks += chunk.nbBlocks;
+            cutWeight += chunk.cutWeight;
+            connectivityWeight += chunk.connectivityWeight;
+        }
+
+        // Concatenating the chunks.
+        var hyperedges = new int[nbCut];
+        var blockSets = bitsets ? new long[nbCut] : null;
+        var blockIndices = bitsets ? null : new long[nbCut + 1];
+        var blockLists = bitsets ? null : new int[Math.toIntExact(nbBlocks)];
+        int cutIndex = 0;
+        int blockIndex = 0;
+        for (var chunk : chunks) {
+            System.arraycopy(chunk.hyperedges, 0, hyperedges, cutIndex, chunk.nbCut);
+            if (bitsets) {
+                System.arraycopy(chunk.blockSets, 0, blockSets, cutIndex, chunk.nbCut);
+
+            } else {
+                for (int i = 0; i < chunk.nbCut; i++) {
+                    blockIndices[cutIndex + i] = blockIndex + chunk.blockIndices[i];
+                }
+                System.arraycopy(chunk.blockLists, 0, blockLists, blockIndex, chunk.nbBlocks);
+                blockIndex += chunk.nbBlocks;
+            }
+            cutIndex += chunk.nbCut;
+        }
+
+        if (!bitsets) {
+            blockIndices[nbCut] = blockIndex;
+        }
+
+        return new CutHyperedges(hyperedges, blockSets, blockIndices, blockLists,
+                cutWeight, connectivityWeight);
+    }
+
+    /**
+     * Gives the number of hyperedges that are cut by the partition.
+     *
+     * @return The number of cut hyperedges.
+     */
+    public int size() {
+        return hyperedges.length;
+    }
+
+    /**
+     * Gives the identifiers of the hyperedges that are cut by the partition, in
+     * increasing order.
+     * The returned array must not be modified.
+     *
+     * @return The identifiers of the cut hyperedges.
+     */
+    public int[] getHyperedges() {
+        return hyperedges;
+    }
+
+    /**
+     * Gives the identifier of the {@code index}-th cut hyperedge.
+     *
+     * @param index The index of the cut hyperedge.
+     *
+     * @return The identifier of the hyperedge, as used in
+     *         {@link Hypergraph#getHyperedge(int)}.
+     */
+    public int getHyperedge(int index) {
+        return hyperedges[index];
+    }
+
+    /**
+     * Gives the index of the given hyperedge among the cut hyperedges.
+     *
+     * @param hyperedge The identifier of the hyperedge to look for.
+     *
+     * @return The index of the hyperedge, or a negative value if this hyperedge is not
+     *         cut.
+     */
+    public int indexOf(int hyperedge) {
+        return Arrays.binarySearch(hyperedges, hyperedge);
+    }
+
+    /**
+     * Checks whether the given hyperedge is cut by the partition.
+     *
+     * @param hyperedge The identifier of the hyperedge to check.
+     *
+     * @return Whether the hyperedge is cut.
+     */
+    public boolean isCut(int hyperedge) {
+        return indexOf(hyperedge) >= 0;
+    }
+
+    /**
+     * Gives the connectivity of the {@code index}-th cut hyperedge, i.e., the number of
+     * blocks it spans.
+     *
+     * @param index The index of the cut hyperedge.
+     *
+     * @return The connectivity of the hyperedge.
+     */
+    public int connectivity(int index) {
+        if (blockSets != null) {
+            return Long.bitCount(blockSets[index]);
+        }
+        return (int) (blockIndices[index + 1] - blockIndices[index]);
+    }
+
+    /**
+     * Checks whether the {@code index}-th cut hyperedge spans the given block.
+     *
+     * @param index The index of the cut hyperedge.
+     * @param block The identifier of the block.
+     *
+     * @return Whether the hyperedge has a vertex in the block.
+     */
+    public boolean spans(int index, int block) {
+        if (blockSets != null) {
+            return (block < MAX_BLOCKS_FOR_BITSETS) && ((blockSets[index] & (1L << block)) != 0);
+        }
+        return Arrays.binarySearch(blockLists, (int) blockIndices[index],
+                (int) blockIndices[index + 1], block) >= 0;
+    }
+
+    /**
+     * Applies the given action on each block spanned by the {@code index}-th cut
+     * hyperedge, in increasing order.
+     *
+     * @param index The index of the cut hyperedge.
+     * @param action The action to apply on the blocks.
+     */
+    public void forEachBlock(int index, IntConsumer action) {
+        if (blockSets != null) {
+            for (long set = blockSets[index]; set != 0; set &= set - 1) {
+                action.accept(Long.numberOfTrailingZeros(set));
+            }
+
+        } else {
+            var end = (int) blockIndices[index + 1];
+            for (int i = (int) blockIndices[index]; i < end; i++) {
+                action.accept(blockLists[i]);
+            }
+        }
+    }
+
+    /**
+     * Gives the blocks spanned by the {@code index}-th cut hyperedge, in increasing
+     * order.
+     *
+     * @param index The index of the cut hyperedge.
+     *
+     * @return The connectivity set of the hyperedge.
+     */
+    public int[] getBlocks(int index) {
+        if (blockSets != null) {
+            var blocks = new int[connectivity(index)];
+            int i = 0;
+            for (long set = blockSets[index]; set != 0; set &= set - 1) {
+                blocks[i++] = Long.numberOfTrailingZeros(set);
+            }
+            return blocks;
+        }
+        return Arrays.copyOfRange(blockLists, (int) blockIndices[index],
+                (int) blockIndices[index + 1]);
+    }
+
+    /**
+     * Gives the total weight of the cut hyperedges.
+     *
+     * @return The weight of the cut.
+     */
+    public long cutWeight() {
+        return cutWeight;
+    }
+
+    /**
+     * Gives the sum, over all cut hyperedges, of their weight multiplied by their
+     * connectivity minus one (also known as the {@code km1} metric).
+     *
+     * @return The connectivity weight of the cut hyperedges.
+     */
+    public long connectivityWeight() {
+        return connectivityWeight;
+    }
+
+    /**
+     * The Chunk collects the cut hyperedges of a contiguous range of hyperedges.
+     */
+    private static final class Chunk {
+
+        /**
+         * The vertices of the different hyperedges.
+         */
+        private final SegmentedIntArray pins;
+
+        /**
+         * The indices at which the vertices of each hyperedge start in {@link #pins}.
+         */
+        private final long[] hyperedgeIndices;
+
+        /**
+         * The weights of the hyperedges, or {@code null} if they are not weighted.
+         */
+        private final int[] hyperedgeWeights;
+
+        /**
+         * The analyzed partition.
+         */
+        private final HypergraphPartition partition;
+
+        /**
+         * The number of blocks in the partition.
+         */
+        private final int numberOfBlocks;
+
+        /**
+         * The identifiers of the cut hyperedges found in this chunk.
+         */
+        private int[] hyperedges = new int[16];
+
+        /**
+         * The number of cut hyperedges found in this chunk.
+         */
+        private int nbCut;
+
+        /**
+         * The connectivity sets of the cut hyperedges, stored as bitsets.
+         */
+        private long[] blockSets;
+
+        /**
+         * The indices at which the blocks of each cut hyperedge start in
+         * {@link #blockLists}.
+         */
+        private int[] blockIndices;
+
+        /**
+         * The blocks spanned by the cut hyperedges found in this chunk.
+         */
+        private int[] blockLists;
+
+        /**
+         * The number of blocks stored in {@link #blockLists}.
+         */
+        private int nbBlocks;
+
+        /**
+         * For each block, the last hyperedge (shifted by one) in which it has been seen.
+         */
+        private int[] lastSeen;
+
+        /**
+         * The total weight of the cut hyperedges found in this chunk.
+         */
+        private long cutWeight;
+
+        /**
+         * The connectivity weight of the cut hyperedges found in this chunk.
+         */
+        private long connectivityWeight;
+
+        /**
+         * Creates a new Chunk.
+         *
+         * @param hypergraph The partitioned hypergraph.
+         * @param partition The partition of the hypergraph.
+         */
+        Chunk(Hypergraph hypergraph, HypergraphPartition partition) {
+            this.pins = hypergraph.getPins();
+            this.hyperedgeIndices = hypergraph.getHyperedgeIndices();
+            this.hyperedgeWeights = hypergraph.getHyperedgeWeights();
+            this.partition = partition;
+            this.numberOfBlocks = partition.numberOfBlocks();
+
+            if (numberOfBlocks <= MAX_BLOCKS_FOR_BITSETS) {
+                this.blockSets = new long[16];
+
+            } else {
+                this.blockIndices = new int[17];
+                this.blockLists = new int[32];
+                this.lastSeen = new int[numberOfBlocks];
+            }
+        }
+
+        /**
+         * Analyzes the hyperedges in the given range.
+         *
+         * @param from The first hyperedge to analyze.
+         * @param to The hyperedge at which to stop the analysis (exclusive).
+         */
+        void analyze(int from, int to) {
+            for (int h = from; h < to; h++) {
+                long begin = hyperedgeIndices[h];
+                long end = hyperedgeIndices[h + 1];
+                int connectivity = (blockSets == null)
+                        ? collectBlockList(h, begin, end)
+                        : collectBlockSet(begin, end);
+
+                if (connectivity > 1) {
+                    // The hyperedge is cut.
+                    long weight = (hyperedgeWeights == null) ? 1 : hyperedgeWeights[h];
+                    cutWeight += weight;
+                    connectivityWeight += weight * (connectivity - 1);
+                    hyperedges[nbCut++] = h;
+                }
+            }
+        }
+
+        /**
+         * Computes the bitset of the blocks spanned by a hyperedge.
+         *
+         * @param begin The index of the first vertex of the hyperedge.
+         * @param end The index following the last vertex of the hyperedge.
+         *
+         * @return The connectivity of the hyperedge.
+         */
+        private int collectBlockSet(long begin, long end) {
+            long set = 0;
+            for (long i = begin; i < end; i++) {
+                set |= 1L << partition.blockOf(pins.get(i) + 1);
+            }
+
+            int connectivity = Long.bitCount(set);
+            if (connectivity > 1) {
+                ensureCapacity();
+                blockSets[nbCut] = set;
+            }
+            return connectivity;
+        }
+
+        /**
+         * Computes the sorted list of the blocks spanned by a hyperedge.
+         *
+         * @param hyperedge The hyperedge to compute the blocks of.
+         * @param begin The index of the first vertex of the hyperedge.
+         * @param end The index following the last vertex of the hyperedge.
+         *
+         * @return The connectivity of the hyperedge.
+         */
+        private int collectBlockList(int hyperedge, long begin, long end) {
+            ensureCapacity();
+            int first = nbBlocks;
+            for (long i = begin; i < end; i++) {
+                int block = partition.blockOf(pins.get(i) + 1);
+                if (lastSeen[block] != hyperedge + 1) {
+                    // This is the first time the block is seen in this hyperedge.
+                    lastSeen[block] = hyperedge + 1;
+                    if (nbBlocks == blockLists.length) {
+                        blockLists = Arrays.copyOf(blockLists, nbBlocks << 1);
+                    }
+                    blockLists[nbBlocks++] = block;
+                }
+            }
+
+            int connectivity = nbBlocks - first;
+            if (connectivity > 1) {
+                // The blocks are kept, in increasing order.
+                Arrays.sort(blockLists, first, nbBlocks);
+                blockIndices[nbCut] = first;
+                blockIndices[nbCut + 1] = nbBlocks;
+
+            } else {
+                // The hyperedge is not cut, so its block is forgotten.
+                nbBlocks = first;
+            }
+            return connectivity;
+        }
+
+        /**
+         * Makes sure that there is enough room to store one more cut hyperedge.
+         */
+        private void ensureCapacity() {
+            if (nbCut + 1 >= hyperedges.length) {
+                int newLength = hyperedges.length << 1;
+                hyperedges = Arrays.copyOf(hyperedges, newLength);
+                if (blockSets != null) {
+                    blockSets = Arrays.copyOf(blockSets, newLength);
+                } else {
+                    blockIndices = Arrays.copyOf(blockIndices, newLength + 1);
+                }
+            }
+        }
+
+    }
+
+}
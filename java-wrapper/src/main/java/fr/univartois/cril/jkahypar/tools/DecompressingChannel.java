@@ -0,0 +1,364 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ServiceLoader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The DecompressingChannel is a channel transparently decompressing its input when it
+ * is compressed in a format supported by a {@link Decompressor}.
+ *
+ * The format of the input is detected from its first bytes when the channel is first
+ * read.
+ * If the input is compressed, it is decompressed by a separate thread, which fills a
+ * bounded ring of buffers that are consumed by the reader of the channel, so that
+ * decompression and parsing overlap.
+ * Otherwise, the input is read as is.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+final class DecompressingChannel implements ReadableByteChannel {
+
+    /**
+     * The number of buffers in the ring filled by the decompression thread.
+     */
+    private static final int RING_SIZE = 4;
+
+    /**
+     * The size of the buffers in the ring.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The buffer marking the end of the decompressed input.
+     */
+    private static final ByteBuffer END_OF_INPUT = ByteBuffer.allocate(0);
+
+    /**
+     * The decompressor for the gzip format, which is always available.
+     */
+    private static final Decompressor GZIP = new GzipDecompressor();
+
+    /**
+     * The stream to read the (possibly compressed) input from.
+     */
+    private final InputStream stream;
+
+    /**
+     * The channel reading the input as is, if it is not compressed.
+     */
+    private ReadableByteChannel plain;
+
+    /**
+     * The buffers that have been filled by the decompression thread, and are waiting to
+     * be read.
+     */
+    private BlockingQueue<ByteBuffer> filled;
+
+    /**
+     * The buffers that have been read, and are waiting to be filled again.
+     */
+    private BlockingQueue<ByteBuffer> free;
+
+    /**
+     * The thread decompressing the input, if it is compressed.
+     */
+    private Thread decompression;
+
+    /**
+     * The error that occurred while decompressing the input, if any.
+     */
+    private volatile IOException error;
+
+    /**
+     * The buffer that is currently being read.
+     */
+    private ByteBuffer current;
+
+    /**
+     * Whether this channel is open.
+     */
+    private boolean open;
+
+    /**
+     * Creates a new DecompressingChannel.
+     *
+     * @param stream The stream to read the (possibly compressed) input from.
+     */
+    DecompressingChannel(InputStream stream) {
+        this.stream = stream;
+        this.open = true;
+    }
+
+    /**
+     * Gives a channel reading the decompressed content of a file.
+     * If the file is not compressed, the file channel itself is returned, so that it
+     * may still be memory-mapped.
+     *
+     * @param channel The channel to read the file from.
+     *
+     * @return The channel to read the decompressed content of the file from.
+     *
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    static ReadableByteChannel open(FileChannel channel) throws IOException {
+        var header = ByteBuffer.allocate(Decompressor.HEADER_SIZE);
+        while (header.hasRemaining() && (channel.read(header, header.position()) > 0)) {
+            // Reading as many bytes as possible to detect the format.
+        }
+
+        if (find(header.array(), header.position()) == null) {
+            return channel;
+        }
+        return new DecompressingChannel(Channels.newInputStream(channel));
+    }
+
+    /**
+     * Finds the decompressor handling the compression format of an input.
+     * The gzip format is checked first, followed by the formats of the decompressors
+     * available as services.
+     *
+     * @param header The array containing the first bytes of the input.
+     * @param length The number of bytes in {@code header}.
+     *
+     * @return The decompressor accepting the input, or {@code null} if the input is
+     *         not compressed in a supported format.
+     */
+    static Decompressor find(byte[] header, int length) {
+        if (GZIP.accepts(header, length)) {
+            return GZIP;
+        }
+
+        for (var decompressor : ServiceLoader.load(Decompressor.class)) {
+            if (decompressor.accepts(header, length)) {
+                return decompressor;
+            }
+        }
+
+        return null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.nio.channels.ReadableByteChannel#read(java.nio.ByteBuffer)
+     */
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+
+        if ((plain == null) && (filled == null)) {
+            // This is the first read, so the format of the input must be detected.
+            start();
+        }
+
+        if (plain != null) {
+            return plain.read(dst);
+        }
+
+        // Moving to the next filled buffer if the current one has been read.
+        while ((current == null) || !current.hasRemaining()) {
+            if (current == END_OF_INPUT) {
+                return endOfInput();
+            }
+            if (current != null) {
+                free.add(current);
+            }
+            current = take();
+        }
+
+        int count = Math.min(dst.remaining(), current.remaining());
+        dst.put(current.slice().limit(count));
+        current.position(current.position() + count);
+        return count;
+    }
+
+    /**
+     * Detects the format of the input, and starts decompressing it if needed.
+     *
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void start() throws IOException {
+        // Reading the first bytes of the input, before pushing them back.
+        var input = new PushbackInputStream(stream, Decompressor.HEADER_SIZE);
+        var header = new byte[Decompressor.HEADER_SIZE];
+        int length = 0;
+        while (length < header.length) {
+            int n = input.read(header, length, header.length - length);
+            if (n < 0) {
+                break;
+            }
+            length += n;
+        }
+        input.unread(header, 0, length);
+
+        var decompressor = find(header, length);
+        if (decompressor == null) {
+            // The input is not compressed.
+            plain = Channels.newChannel(input);
+            return;
+        }
+
+        // Starting the decompression in a separate thread.
+        var decompressed = decompressor.decompress(input);
+        filled = new ArrayBlockingQueue<>(RING_SIZE + 1);
+        free = new ArrayBlockingQueue<>(RING_SIZE);
+        for (int i = 0; i < RING_SIZE; i++) {
+            free.add(ByteBuffer.allocate(BUFFER_SIZE));
+        }
+        decompression = new Thread(() -> decompress(decompressed), "jkahypar-decompression");
+        decompression.setDaemon(true);
+        decompression.start();
+    }
+
+    /**
+     * Decompresses the input into the buffers of the ring.
+     * This method is executed by the decompression thread.
+     *
+     * @param decompressed The stream giving the decompressed input.
+     */
+    private void decompress(InputStream decompressed) {
+        boolean interrupted = false;
+        boolean endOfStream = false;
+        try (decompressed) {
+            while (!endOfStream) {
+                var buffer = free.take();
+                var bytes = buffer.array();
+
+                // Filling the whole buffer, so as to hand off as few buffers as possible.
+                int size = 0;
+                while (size < bytes.length) {
+                    int n = decompressed.read(bytes, size, bytes.length - size);
+                    if (n < 0) {
+                        endOfStream = true;
+                        break;
+                    }
+                    size += n;
+                }
+
+                if (size > 0) {
+                    filled.put(buffer.clear().limit(size));
+                }
+            }
+
+        } catch (IOException | RuntimeException e) {
+            // Any failure of the decompressor must be reported to the reader.
+            error = (e instanceof IOException) ? (IOException) e
+                    : new IOException("Could not decompress the input", e);
+
+        } catch (InterruptedException e) {
+            // The channel has been closed, so nobody is waiting for the input anymore.
+            interrupted = true;
+
+        } finally {
+            if (!interrupted) {
+                if (!endOfStream && (error == null)) {
+                    // An error has been thrown, and the input must not look truncated.
+                    error = new IOException("Decompression stopped unexpectedly");
+                }
+
+                // There is always room for this buffer, as the ring has fewer buffers.
+                filled.add(END_OF_INPUT);
+            }
+        }
+    }
+
+    /**
+     * Takes the next buffer filled by the decompression thread.
+     *
+     * @return The next filled buffer.
+     *
+     * @throws InterruptedIOException If the current thread is interrupted while waiting.
+     */
+    private ByteBuffer take() throws InterruptedIOException {
+        try {
+            return filled.take();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for decompression");
+        }
+    }
+
+    /**
+     * Notifies that the end of the decompressed input has been reached.
+     *
+     * @return The value {@code -1}.
+     *
+     * @throws IOException If an error occurred while decompressing the input.
+     */
+    private int endOfInput() throws IOException {
+        if (error != null) {
+            throw error;
+        }
+        return -1;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.nio.channels.Channel#isOpen()
+     */
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.nio.channels.Channel#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+
+        if (decompression != null) {
+            // The decompression thread closes the input when it terminates.
+            decompression.interrupt();
+
+        } else if (plain != null) {
+            plain.close();
+
+        } else {
+            stream.close();
+        }
+    }
+
+}
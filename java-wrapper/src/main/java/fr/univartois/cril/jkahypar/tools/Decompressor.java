@@ -0,0 +1,71 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The Decompressor is the service provider interface allowing to read compressed
+ * hypergraph files.
+ *
+ * The gzip format is supported out of the box.
+ * Other formats (such as xz) may be supported by registering an implementation of this
+ * interface with a {@code provides} clause in a module declaration, or in a
+ * {@code META-INF/services} file, so that it is found by {@link java.util.ServiceLoader}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public interface Decompressor {
+
+    /**
+     * The maximum number of bytes given to {@link #accepts(byte[], int)} to detect a
+     * compression format.
+     */
+    int HEADER_SIZE = 16;
+
+    /**
+     * Checks whether this decompressor handles the compression format of an input, based
+     * on its first bytes (typically, the magic number of the format).
+     *
+     * @param header The array containing the first bytes of the input.
+     * @param length The number of bytes in {@code header}, which is at most
+     *        {@link #HEADER_SIZE}, and may be smaller if the input is shorter.
+     *
+     * @return Whether this decompressor accepts the input.
+     */
+    boolean accepts(byte[] header, int length);
+
+    /**
+     * Creates a stream decompressing the given input.
+     *
+     * @param input The compressed input, which starts with the bytes that have been
+     *        given to {@link #accepts(byte[], int)}.
+     *
+     * @return The stream giving the decompressed bytes.
+     *
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    InputStream decompress(InputStream input) throws IOException;
+
+}
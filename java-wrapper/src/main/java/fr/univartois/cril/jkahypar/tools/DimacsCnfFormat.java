@@ -0,0 +1,315 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.VertexIncidence;
+
+/**
+ * The DimacsCnfFormat allows to read SAT instances in the DIMACS CNF format (or
+ * weighted instances in the {@code wcnf} format) directly as {@link Hypergraph}
+ * instances, without converting them to the hMetis format first.
+ *
+ * The input is scanned byte by byte, and the literals of the clauses are decoded in
+ * place and stored in a {@link HyperedgeBatch}.
+ * Literals appearing several times in a clause are only considered once, and clauses
+ * may span several lines.
+ * When instances are weighted, the weight of each clause is given to the
+ * corresponding hyperedge or vertex.
+ * As KaHyPar sums these weights as 32-bit integers, hard clauses (those weighing at least
+ * the {@code top} weight given on the problem line, if any) are all given the same weight
+ * {@code floor((2^31 - 1) / m)}, where {@code m} is the number of clauses, and formulas
+ * whose total weight exceeds the range of integers are rejected.
+ * Compressed files are transparently decompressed, as with {@link HypergraphParser}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class DimacsCnfFormat {
+
+    /**
+     * The Model enumerates the different hypergraphs that can represent a CNF formula.
+     */
+    public enum Model {
+
+        /**
+         * The model in which vertices are the variables, and hyperedges are the clauses.
+         * Variable {@code x} is represented by vertex {@code x}.
+         */
+        PRIMAL,
+
+        /**
+         * The model in which vertices are the clauses, and hyperedges are the variables
+         * (each hyperedge contains the clauses in which the variable appears).
+         * The {@code i}-th clause is represented by vertex {@code i} (starting from
+         * {@code 1}), and variable {@code x} by hyperedge {@code x - 1}.
+         */
+        DUAL,
+
+        /**
+         * The model in which vertices are the literals, and hyperedges are the clauses.
+         * Literal {@code x} is represented by vertex {@code 2x - 1}, and literal
+         * {@code -x} by vertex {@code 2x}.
+         */
+        LITERAL
+
+    }
+
+    /**
+     * Disables instantiation.
+     */
+    private DimacsCnfFormat() {
+        throw new AssertionError("No DimacsCnfFormat instances for you!");
+    }
+
+    /**
+     * Reads a CNF formula from a file, which may be compressed.
+     *
+     * @param file The path of the file to read.
+     * @param model The hypergraph model representing the formula.
+     *
+     * @return The hypergraph representing the formula.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the file is not a
+     *         valid CNF formula.
+     */
+    public static Hypergraph read(Path file, Model model) throws IOException {
+        return read(DecompressingChannel.open(FileChannel.open(file, StandardOpenOption.READ)),
+                model);
+    }
+
+    /**
+     * Reads a CNF formula from a channel.
+     * The channel is closed once the formula has been read.
+     *
+     * @param channel The channel to read the formula from.
+     * @param model The hypergraph model representing the formula.
+     *
+     * @return The hypergraph representing the formula.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the channel does
+     *         not contain a valid CNF formula.
+     */
+    public static Hypergraph read(ReadableByteChannel channel, Model model) throws IOException {
+        try (var input = new AsciiInput(channel)) {
+            // Reading the problem line, which follows the comments.
+            if (!skipComments(input) || (input.peek() != 'p')) {
+                throw new IOException("Missing problem line");
+            }
+            input.skip();
+            var format = readWord(input);
+            if (!"cnf".equals(format) && !"wcnf".equals(format)) {
+                throw new IOException("Unsupported format: " + format);
+            }
+            boolean weighted = "wcnf".equals(format);
+            int nbVariables = input.readInt();
+            int nbClauses = input.readInt();
+            if ((model == Model.LITERAL) && (nbVariables > (Integer.MAX_VALUE >> 1))) {
+                throw new IOException("Too many variables: " + nbVariables);
+            }
+            long top = (weighted && input.skipBlanks()) ? input.readLong() : Long.MAX_VALUE;
+            if (top < 1) {
+                throw new IOException("Invalid top weight: " + top);
+            }
+            input.nextLine();
+
+            // Reading the clauses as hyperedges (they are transposed in the dual model).
+            int nbVertices = (model == Model.LITERAL) ? (nbVariables << 1) : nbVariables;
+            var builder = createHypergraph(nbVertices, nbClauses);
+            var batch = new HyperedgeBatch(builder, nbClauses, weighted && (model != Model.DUAL));
+            var clauseWeights = (weighted && (model == Model.DUAL)) ? new int[nbClauses] : null;
+            var lastClauses = new int[nbVertices];
+            int hardWeight = Integer.MAX_VALUE / Math.max(1, nbClauses);
+            long totalWeight = 0;
+            int nbReadClauses = 0;
+
+            while (skipComments(input)) {
+                if (nbReadClauses == nbClauses) {
+                    throw new IOException("Too many clauses: " + nbClauses + " expected");
+                }
+                nbReadClauses++;
+
+                if (weighted) {
+                    int weight = readWeight(input, top, hardWeight);
+                    totalWeight += weight;
+                    if (totalWeight > Integer.MAX_VALUE) {
+                        throw new IOException("Total clause weight exceeds "
+                                + Integer.MAX_VALUE + " at clause " + nbReadClauses);
+                    }
+                    if (clauseWeights == null) {
+                        batch.setWeight(weight);
+                    } else {
+                        clauseWeights[nbReadClauses - 1] = weight;
+                    }
+                }
+
+                for (int literal = readLiteral(input, nbVariables); literal != 0;
+                        literal = readLiteral(input, nbVariables)) {
+                    // Duplicate literals are detected by marking the vertices of the clause.
+                    int vertex = vertexOf(literal, model);
+                    if (lastClauses[vertex] != nbReadClauses) {
+                        lastClauses[vertex] = nbReadClauses;
+                        batch.addVertex(vertex + 1);
+                    }
+                }
+                batch.endHyperedge();
+            }
+
+            if (nbReadClauses < nbClauses) {
+                throw new IOException("Missing clauses: " + nbClauses + " expected");
+            }
+            batch.flush();
+            var hypergraph = builder.build();
+            if (model != Model.DUAL) {
+                return hypergraph;
+            }
+
+            // In the dual model, the hypergraph is the transpose of the primal one.
+            var incidence = VertexIncidence.of(hypergraph);
+            return Hypergraph.wrapping(nbClauses, incidence.getVertexIndices(),
+                    incidence.getIncidences(), null, clauseWeights, false);
+        }
+    }
+
+    /**
+     * Skips the whitespaces and the comment lines preceding the next token.
+     * The input is considered to end at a line starting with {@code '%'}, as in the
+     * SATLIB benchmarks.
+     *
+     * @param input The input to read from.
+     *
+     * @return Whether there is a token to read.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private static boolean skipComments(AsciiInput input) throws IOException {
+        while (input.skipWhitespaces()) {
+            int b = input.peek();
+            if (b == '%') {
+                return false;
+            }
+            if (b != 'c') {
+                return true;
+            }
+            input.nextLine();
+        }
+        return false;
+    }
+
+    /**
+     * Reads a word made of letters.
+     * Blanks preceding the word are skipped.
+     *
+     * @param input The input to read from.
+     *
+     * @return The read word.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private static String readWord(AsciiInput input) throws IOException {
+        var word = new StringBuilder();
+        if (input.skipBlanks()) {
+            for (int b = input.peek(); ((b >= 'a') && (b <= 'z')) || ((b >= 'A') && (b <= 'Z'));
+                    b = input.peek()) {
+                word.append((char) b);
+                input.skip();
+            }
+        }
+        return word.toString();
+    }
+
+    /**
+     * Reads the weight of a clause.
+     *
+     * @param input The input to read from.
+     * @param top The weight from which clauses are hard.
+     * @param hardWeight The weight given to hard clauses.
+     *
+     * @return The read weight, or {@code hardWeight} if the clause is hard.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the weight is not
+     *         positive, or exceeds the range of integers while the clause is soft.
+     */
+    private static int readWeight(AsciiInput input, long top, int hardWeight)
+            throws IOException {
+        long weight = input.readLong();
+        if (weight < 1) {
+            throw new IOException("Invalid clause weight: " + weight);
+        }
+        if (weight >= top) {
+            return hardWeight;
+        }
+        if (weight > Integer.MAX_VALUE) {
+            throw new IOException("Clause weight exceeds " + Integer.MAX_VALUE + ": " + weight);
+        }
+        return (int) weight;
+    }
+
+    /**
+     * Reads a literal of a clause, which may appear on a subsequent line.
+     *
+     * @param input The input to read from.
+     * @param nbVariables The number of variables in the formula.
+     *
+     * @return The read literal, or {@code 0} at the end of the clause.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the literal is
+     *         not valid.
+     */
+    private static int readLiteral(AsciiInput input, int nbVariables) throws IOException {
+        if (!input.skipWhitespaces()) {
+            throw new IOException("Unterminated clause");
+        }
+
+        int literal = input.readInt();
+        if ((literal < -nbVariables) || (literal > nbVariables)) {
+            throw new IOException("Invalid literal: " + literal);
+        }
+        return literal;
+    }
+
+    /**
+     * Gives the vertex (numbered from {@code 0}) representing a literal in the
+     * hypergraph read from the formula.
+     *
+     * @param literal The literal to get the vertex of.
+     * @param model The hypergraph model representing the formula.
+     *
+     * @return The vertex representing the literal.
+     */
+    private static int vertexOf(int literal, Model model) {
+        int variable = Math.abs(literal) - 1;
+        if (model == Model.LITERAL) {
+            return (variable << 1) | ((literal < 0) ? 1 : 0);
+        }
+        return variable;
+    }
+
+}
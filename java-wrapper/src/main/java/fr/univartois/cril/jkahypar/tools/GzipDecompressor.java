@@ -0,0 +1,62 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The GzipDecompressor is the {@link Decompressor} for the gzip format, which is
+ * supported natively by the JDK.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+final class GzipDecompressor implements Decompressor {
+
+    /**
+     * The size of the buffer used to read the compressed input.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.tools.Decompressor#accepts(byte[], int)
+     */
+    @Override
+    public boolean accepts(byte[] header, int length) {
+        return (length >= 2) && ((header[0] & 0xff) == 0x1f) && ((header[1] & 0xff) == 0x8b);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.tools.Decompressor#decompress(java.io.InputStream)
+     */
+    @Override
+    public InputStream decompress(InputStream input) throws IOException {
+        return new GZIPInputStream(input, BUFFER_SIZE);
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.util.Arrays;
+
+import fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder;
+
+/**
+ * The HyperedgeBatch collects hyperedges read by a parser in reusable arrays
+ * representing them in compressed (CSR) form, and adds them to a
+ * {@link HypergraphBuilder} all at once when the batch is full.
+ * This way, pins go from the decoded input to the arrays of the builder without
+ * creating any object for each hyperedge.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+final class HyperedgeBatch {
+
+    /**
+     * The maximum number of hyperedges in a batch.
+     */
+    private static final int BATCH_SIZE = 1 << 12;
+
+    /**
+     * The initial capacity of the array storing the pins of a batch.
+     */
+    private static final int BATCH_CAPACITY = 1 << 16;
+
+    /**
+     * The builder to which the hyperedges are added.
+     */
+    private final HypergraphBuilder builder;
+
+    /**
+     * The offsets of the hyperedges in the batch.
+     */
+    private final long[] offsets;
+
+    /**
+     * The vertices (numbered from {@code 1}) of the hyperedges in the batch.
+     */
+    private int[] vertices;
+
+    /**
+     * The weights of the hyperedges in the batch, or {@code null} if hyperedges are not
+     * weighted.
+     */
+    private final int[] weights;
+
+    /**
+     * The number of hyperedges in the batch.
+     */
+    private int size;
+
+    /**
+     * The number of vertices in the batch.
+     */
+    private int end;
+
+    /**
+     * Creates a new HyperedgeBatch.
+     *
+     * @param builder The builder to which the hyperedges are added.
+     * @param nbHyperedges The number of hyperedges that will be added, used to avoid
+     *        allocating arrays larger than needed.
+     * @param weighted Whether the hyperedges are weighted.
+     */
+    HyperedgeBatch(HypergraphBuilder builder, int nbHyperedges, boolean weighted) {
+        this.builder = builder;
+        this.offsets = new long[Math.max(1, Math.min(BATCH_SIZE, nbHyperedges)) + 1];
+        this.vertices = new int[BATCH_CAPACITY];
+        this.weights = weighted ? new int[offsets.length - 1] : null;
+    }
+
+    /**
+     * Sets the weight of the current hyperedge.
+     *
+     * @param weight The weight of the hyperedge.
+     */
+    void setWeight(int weight) {
+        weights[size] = weight;
+    }
+
+    /**
+     * Adds a vertex to the current hyperedge.
+     *
+     * @param vertex The vertex to add, numbered from {@code 1}.
+     */
+    void addVertex(int vertex) {
+        if (end == vertices.length) {
+            vertices = Arrays.copyOf(vertices, end << 1);
+        }
+        vertices[end++] = vertex;
+    }
+
+    /**
+     * Terminates the current hyperedge.
+     * The batch is added to the builder if it is full.
+     */
+    void endHyperedge() {
+        size++;
+        offsets[size] = end;
+        if ((size == offsets.length - 1) || (end >= BATCH_CAPACITY)) {
+            flush();
+        }
+    }
+
+    /**
+     * Adds the hyperedges of this batch to the builder, and starts a new batch.
+     */
+    void flush() {
+        if (size == 0) {
+            return;
+        }
+
+        // The offsets of a partial batch must be trimmed.
+        var batchOffsets = offsets;
+        if (size < offsets.length - 1) {
+            batchOffsets = Arrays.copyOf(offsets, size + 1);
+        }
+        builder.withHyperedges(batchOffsets, vertices, weights);
+        size = 0;
+        end = 0;
+    }
+
+}
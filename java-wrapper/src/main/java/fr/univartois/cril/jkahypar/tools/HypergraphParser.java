@@ -20,25 +20,42 @@
 package fr.univartois.cril.jkahypar.tools;
 
 import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
-import static fr.univartois.cril.jkahypar.hypergraph.UnweightedHyperedge.joining;
-import static java.util.Arrays.copyOfRange;
 
-import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import fr.univartois.cril.jkahypar.hypergraph.HmetisFormat;
 import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
 import fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
 
 /**
  * The HypergraphParser allows to parse a file in the hMetis format so as to read a
  * {@link Hypergraph} instance.
  *
+ * The input is scanned byte by byte, and integers are decoded in place.
+ * The pins of the hyperedges are collected in a reusable {@link HyperedgeBatch}, so
+ * that no object is created for each line of the input.
+ * Lines starting with {@code '%'} are considered as comments, and are ignored.
+ *
+ * Files and streams compressed with gzip (or with any format supported by a
+ * {@link Decompressor} available as a service) are transparently decompressed by a
+ * separate thread, so that decompression and parsing overlap.
+ *
+ * When the input is a file or a buffer, it may also be parsed in parallel with
+ * {@link #parseInParallel()}.
+ * In this case, the input is memory-mapped and split into chunks at line boundaries,
+ * each chunk being parsed by a different task.
+ *
  * @author Romain WALLON
  *
  * @version 0.2.0
@@ -46,9 +63,44 @@ import fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder;
 public final class HypergraphParser implements Closeable {
 
     /**
-     * The reader used to read the hypergraph.
+     * The character starting a comment line.
+     */
+    private static final char COMMENT = '%';
+
+    /**
+     * The minimum number of bytes in a chunk parsed in parallel.
+     */
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * The maximum number of bytes in a chunk parsed in parallel.
+     */
+    private static final long MAX_CHUNK_BYTES = 1 << 28;
+
+    /**
+     * The number of bytes mapped at once when looking for the end of a line.
      */
-    private final BufferedReader reader;
+    private static final int SCAN_WINDOW = 1 << 16;
+
+    /**
+     * The input from which the hypergraph is read.
+     */
+    private final AsciiInput input;
+
+    /**
+     * The file from which the hypergraph is read, if any.
+     */
+    private final FileChannel file;
+
+    /**
+     * The position of the input in {@link #file}.
+     */
+    private final long fileStart;
+
+    /**
+     * The buffer from which the hypergraph is read, if any.
+     */
+    private final ByteBuffer buffer;
 
     /**
      * The number of hyperedges in the read hypergraph.
@@ -71,41 +123,188 @@ public final class HypergraphParser implements Closeable {
     private HypergraphBuilder builder;
 
     /**
-     * The array to use to read the integers in a line of the input stream.
+     * The hypergraph that has been read, if it has not been built by {@link #builder}.
+     */
+    private Hypergraph hypergraph;
+
+    /**
+     * The batch in which the hyperedges are read.
      */
-    private int[] integerLine;
+    private HyperedgeBatch batch;
 
     /**
      * Creates a new HypergraphParser.
      *
-     * @param inputFile The path of the input file to read the hypergraph from.
+     * @param inputFile The path of the input file to read the hypergraph from, which
+     *        may be compressed.
      *
      * @throws IOException If an I/O error occurs while opening the file.
      */
     public HypergraphParser(String inputFile) throws IOException {
-        this(Files.newInputStream(Path.of(inputFile)));
+        this(DecompressingChannel.open(
+                FileChannel.open(Path.of(inputFile), StandardOpenOption.READ)));
     }
 
     /**
      * Creates a new HypergraphParser.
      *
-     * @param stream The input stream to read the hypergraph from.
+     * @param stream The input stream to read the hypergraph from, which may be
+     *        compressed.
      */
     public HypergraphParser(InputStream stream) {
-        this.reader = new BufferedReader(new InputStreamReader(stream));
-        this.integerLine = new int[3];
+        this(new DecompressingChannel(stream));
+    }
+
+    /**
+     * Creates a new HypergraphParser.
+     *
+     * @param channel The channel to read the hypergraph from, which is read as is.
+     *
+     * @since 0.3.0
+     */
+    public HypergraphParser(ReadableByteChannel channel) {
+        this.input = new AsciiInput(channel);
+        this.file = (channel instanceof FileChannel) ? (FileChannel) channel : null;
+        this.fileStart = (file == null) ? 0 : position(file);
+        this.buffer = null;
+    }
+
+    /**
+     * Creates a new HypergraphParser reading all its input from the given buffer (which
+     * may, for instance, be a memory-mapped file).
+     *
+     * @param buffer The buffer to read the hypergraph from.
+     *
+     * @since 0.3.0
+     */
+    public HypergraphParser(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+        this.input = new AsciiInput(this.buffer.duplicate());
+        this.file = null;
+        this.fileStart = 0;
+    }
+
+    /**
+     * Gives the current position of a file channel.
+     *
+     * @param channel The channel to give the position of.
+     *
+     * @return The position of the channel.
+     *
+     * @throws UncheckedIOException If an I/O error occurs while getting the position.
+     */
+    private static long position(FileChannel channel) {
+        try {
+            return channel.position();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
      * Parses the input stream to read a hypergraph instance.
      *
-     * @throws IOException If an I/O error occurs while reading.
+     * @throws IOException If an I/O error occurs while reading, or if the input is not
+     *         a valid hypergraph.
      */
     public void parse() throws IOException {
-        // Initializing the internal data structure.
-        readHypergraphSize();
+        readHypergraphSize(input);
         builder = createHypergraph(numberOfVertices, numberOfHyperedges);
-        integerLine = new int[numberOfVertices + 1];
+        readBody();
+    }
+
+    /**
+     * Parses the input to read a hypergraph instance, allocating the arrays storing
+     * the hypergraph only once.
+     * To do so, the number of pins in the hypergraph is first counted by scanning the
+     * bytes of the (memory-mapped) input, so that the builder can allocate its arrays
+     * with their exact size.
+     * The memory used while reading the hypergraph is thus its final size, plus the
+     * (constant) size of the batches used to decode the hyperedges.
+     * Whenever the pins fit in a Java array, they are stored in a single array, which
+     * is adopted by the built hypergraph without being copied.
+     *
+     * If the input is neither a file nor a buffer, it cannot be read twice, and is
+     * thus parsed as with {@link #parse()}.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the input is not
+     *         a valid hypergraph.
+     *
+     * @since 0.3.0
+     */
+    public void parseWithExactAllocation() throws IOException {
+        if ((file == null) && (buffer == null)) {
+            parse();
+            return;
+        }
+
+        long nbPins = countPins();
+        readHypergraphSize(input);
+        builder = createHypergraph(numberOfVertices, numberOfHyperedges, nbPins);
+        readBody();
+    }
+
+    /**
+     * Counts the pins of the hypergraph, by scanning the bytes of the input without
+     * decoding them.
+     * The position of {@link #input} is not modified.
+     *
+     * @return The number of pins in the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private long countPins() throws IOException {
+        long size = size();
+        var header = region(0, Math.min(size, Integer.MAX_VALUE));
+        readHypergraphSize(new AsciiInput(header));
+
+        // Counting the integers appearing in the lines representing hyperedges.
+        long nbIntegers = 0;
+        int nbLines = 0;
+        boolean lineStart = true;
+        boolean comment = false;
+        boolean integer = false;
+        for (long from = header.position(); (from < size) && (nbLines < numberOfHyperedges);
+                from += Integer.MAX_VALUE) {
+            var region = region(from, Math.min(size, from + Integer.MAX_VALUE));
+            int limit = region.limit();
+            for (int i = 0; (i < limit) && (nbLines < numberOfHyperedges); i++) {
+                byte b = region.get(i);
+                if (b == '\n') {
+                    nbLines += comment ? 0 : 1;
+                    lineStart = true;
+                    comment = false;
+                    integer = false;
+
+                } else if (lineStart && (b == COMMENT)) {
+                    comment = true;
+
+                } else if (!comment) {
+                    boolean blank = (b == ' ') || (b == '\t') || (b == '\r');
+                    nbIntegers += (!blank && !integer) ? 1 : 0;
+                    lineStart = false;
+                    integer = !blank;
+                }
+            }
+        }
+
+        // The weights of the hyperedges are not pins.
+        if (hasWeightsOnHyperedges()) {
+            nbIntegers -= numberOfHyperedges;
+        }
+        return Math.max(0, nbIntegers);
+    }
+
+    /**
+     * Reads the hyperedges and the weights of the vertices, once the header has been
+     * read and the builder has been created.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private void readBody() throws IOException {
+        // Initializing the internal data structure.
+        batch = new HyperedgeBatch(builder, numberOfHyperedges, hasWeightsOnHyperedges());
 
         // Reading the hyperedges of the hypergraph.
         readHyperedges();
@@ -119,20 +318,24 @@ public final class HypergraphParser implements Closeable {
     /**
      * Reads the size of the hypergraph.
      *
+     * @param input The input to read the size from.
+     *
      * @throws IOException If an I/O error occurs while reading.
      */
-    private void readHypergraphSize() throws IOException {
-        // Reading the next line.
-        int nb = readLine();
+    private void readHypergraphSize(AsciiInput input) throws IOException {
+        if (!input.skipEmptyAndCommentLines(COMMENT)) {
+            throw new IOException("Missing hypergraph header");
+        }
 
         // Getting the size of the hypergraph.
-        numberOfHyperedges = integerLine[0];
-        numberOfVertices = integerLine[1];
+        numberOfHyperedges = input.readInt();
+        numberOfVertices = input.readInt();
 
         // Getting the hypergraph format, if any.
-        if (nb == 3) {
-            hmetisFormat = integerLine[2];
+        if (input.skipBlanks()) {
+            hmetisFormat = input.readInt();
         }
+        input.nextLine();
     }
 
     /**
@@ -144,76 +347,266 @@ public final class HypergraphParser implements Closeable {
         for (int i = 0; i < numberOfHyperedges; i++) {
             readHyperedge();
         }
+        batch.flush();
     }
 
     /**
-     * Reads a hyperedge of the hypergraph.
+     * Reads a hyperedge of the hypergraph, and adds it to the current batch.
      *
      * @throws IOException If an I/O error occurs while reading.
      */
     private void readHyperedge() throws IOException {
-        // Reading the next line.
-        int nb = readLine();
+        while (input.peek() == COMMENT) {
+            input.nextLine();
+        }
+
+        if (input.peek() == AsciiInput.END_OF_INPUT) {
+            throw new IOException("Missing hyperedges: " + numberOfHyperedges + " expected");
+        }
 
         if (hasWeightsOnHyperedges()) {
             // The hyperedge to read has a weight.
-            var hyperedge = joining(copyOfRange(integerLine, 1, nb));
-            builder.withHyperedge(hyperedge.withWeight(integerLine[0]));
+            batch.setWeight(input.readInt());
+        }
 
-        } else {
-            // The hyperedge to read has no weight.
-            var hyperedge = joining(copyOfRange(integerLine, 0, nb));
-            builder.withHyperedge(hyperedge);
+        // Reading the vertices directly in the batch.
+        while (input.skipBlanks()) {
+            int vertex = input.readInt();
+            if ((vertex < 1) || (vertex > numberOfVertices)) {
+                throw new IOException("Invalid vertex in hyperedge: " + vertex);
+            }
+            batch.addVertex(vertex);
         }
+        input.nextLine();
+        batch.endHyperedge();
     }
 
     /**
      * Reads the weights of the vertices in the hypergraph.
+     * As for hyperedges, lines starting with a comment are ignored, and a line may
+     * contain several weights.
      *
      * @throws IOException If an I/O error occurs while reading.
      */
     private void readVertexWeights() throws IOException {
-        for (int v = 1; v <= numberOfVertices; v++) {
-            readLine();
-            builder.withVertexWeight(v, integerLine[0]);
+        int v = 1;
+        while (v <= numberOfVertices) {
+            if (input.peek() == AsciiInput.END_OF_INPUT) {
+                throw new IOException(
+                        "Missing vertex weights: " + numberOfVertices + " expected");
+            }
+
+            if (input.peek() != COMMENT) {
+                // Reading the weights on this line.
+                while ((v <= numberOfVertices) && input.skipBlanks()) {
+                    builder.withVertexWeight(v++, input.readInt());
+                }
+            }
+            input.nextLine();
         }
     }
 
     /**
-     * Checks whether the read hypergraph has weights on its hyperedges.
+     * Parses the input in parallel to read a hypergraph instance.
+     * The input is split into chunks at line boundaries, and each chunk is parsed by a
+     * fork/join task into a local fragment.
+     * The fragments are then concatenated in parallel, after having computed with
+     * prefix sums the index of the first line of each fragment (which tells whether its
+     * lines are hyperedges or vertex weights), and the offsets of their pins.
      *
-     * @return Whether hyperedges are weighted.
+     * If the input is neither a file nor a buffer, it cannot be split, and is thus
+     * parsed sequentially, as with {@link #parse()}.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the input is not
+     *         a valid hypergraph.
+     *
+     * @since 0.3.0
      */
-    private boolean hasWeightsOnHyperedges() {
-        return HmetisFormat.WEIGHT_ON_HYPEREDGES.isEncodedIn(hmetisFormat);
+    public void parseInParallel() throws IOException {
+        if ((file == null) && (buffer == null)) {
+            parse();
+            return;
+        }
+
+        // Reading the header sequentially.
+        long size = size();
+        var header = region(0, Math.min(size, Integer.MAX_VALUE));
+        readHypergraphSize(new AsciiInput(header));
+        long bodyStart = header.position();
+
+        // Parsing the chunks in parallel.
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES,
+                (size - bodyStart) / (Runtime.getRuntime().availableProcessors() << 2) + 1));
+        int nbChunks = (int) ((size - bodyStart + chunkBytes - 1) / chunkBytes);
+        var fragments = new Fragment[nbChunks];
+        try {
+            IntStream.range(0, nbChunks).parallel().forEach(c -> {
+                try {
+                    long from = lineStart(bodyStart + c * chunkBytes, bodyStart, size);
+                    long to = lineStart(bodyStart + (c + 1) * chunkBytes, bodyStart, size);
+                    fragments[c] = Fragment.parse(region(from, Math.max(from, to)));
+
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            concatenate(fragments);
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     /**
-     * Checks whether the read hypergraph has weights on its vertices.
+     * Concatenates the fragments parsed in parallel to build the hypergraph.
      *
-     * @return Whether vertices are weighted.
+     * @param fragments The fragments to concatenate, in the order of the input.
+     *
+     * @throws IOException If the fragments do not represent a valid hypergraph.
      */
-    private boolean hasWeightsOnVertices() {
-        return HmetisFormat.WEIGHT_ON_VERTICES.isEncodedIn(hmetisFormat);
+    private void concatenate(Fragment[] fragments) throws IOException {
+        // Computing the offsets of the fragments with prefix sums.
+        boolean weighted = hasWeightsOnHyperedges();
+        var lineOffsets = new long[fragments.length + 1];
+        var pinOffsets = new long[fragments.length + 1];
+        var weightOffsets = new long[fragments.length + 1];
+        var nbHyperedgeLines = new int[fragments.length];
+        for (int c = 0; c < fragments.length; c++) {
+            var fragment = fragments[c];
+            lineOffsets[c + 1] = lineOffsets[c] + fragment.nbLines;
+            nbHyperedgeLines[c] = (int) Math.max(0,
+                    Math.min(fragment.nbLines, numberOfHyperedges - lineOffsets[c]));
+            if (weighted && (fragment.firstEmptyLine >= 0)
+                    && (fragment.firstEmptyLine < nbHyperedgeLines[c])) {
+                throw new IOException("Missing hyperedge weight");
+            }
+            int nbValues = fragment.valuesBefore(nbHyperedgeLines[c]);
+            pinOffsets[c + 1] = pinOffsets[c] + nbValues - (weighted ? nbHyperedgeLines[c] : 0);
+            weightOffsets[c + 1] = weightOffsets[c] + fragment.nbValues - nbValues;
+        }
+
+        if (lineOffsets[fragments.length] < numberOfHyperedges) {
+            throw new IOException("Missing hyperedges: " + numberOfHyperedges + " expected");
+        }
+        if (hasWeightsOnVertices() && (weightOffsets[fragments.length] < numberOfVertices)) {
+            throw new IOException("Missing vertex weights: " + numberOfVertices + " expected");
+        }
+
+        // Concatenating the hyperedges.
+        long nbPins = pinOffsets[fragments.length];
+        var hyperedgeIndices = new long[numberOfHyperedges + 1];
+        var hyperedgeWeights = weighted ? new int[numberOfHyperedges] : null;
+        var vertexWeights = hasWeightsOnVertices() ? new int[numberOfVertices] : null;
+        if (nbPins <= SegmentedIntArray.MAX_ARRAY_LENGTH) {
+            var pins = new int[(int) nbPins];
+            IntStream.range(0, fragments.length).parallel().forEach(c -> {
+                fragments[c].copyHyperedges(nbHyperedgeLines[c], weighted, numberOfVertices,
+                        hyperedgeIndices, (int) lineOffsets[c], pinOffsets[c], pins,
+                        (int) pinOffsets[c], 0, hyperedgeWeights);
+                fragments[c].copyVertexWeights(nbHyperedgeLines[c], vertexWeights,
+                        weightOffsets[c]);
+            });
+            hyperedgeIndices[numberOfHyperedges] = nbPins;
+            hypergraph = Hypergraph.wrapping(numberOfVertices, hyperedgeIndices, pins,
+                    hyperedgeWeights, vertexWeights, false);
+            return;
+        }
+
+        // The pins do not fit in an array, so the builder must store them in segments.
+        builder = createHypergraph(numberOfVertices, numberOfHyperedges, nbPins);
+        for (int c = 0; c < fragments.length; c++) {
+            int nbLines = nbHyperedgeLines[c];
+            var indices = new long[nbLines + 1];
+            var pins = new int[(int) (pinOffsets[c + 1] - pinOffsets[c])];
+            var weights = weighted ? new int[nbLines] : null;
+            fragments[c].copyHyperedges(nbLines, weighted, numberOfVertices,
+                    indices, 0, 0, pins, 0, 1, weights);
+            indices[nbLines] = pins.length;
+            builder.withHyperedges(indices, pins, weights);
+            fragments[c].copyVertexWeights(nbLines, vertexWeights, weightOffsets[c]);
+        }
+        for (int v = 0; (vertexWeights != null) && (v < numberOfVertices); v++) {
+            builder.withVertexWeight(v + 1, vertexWeights[v]);
+        }
+    }
+
+    /**
+     * Gives the number of bytes in the input.
+     *
+     * @return The size of the input.
+     *
+     * @throws IOException If an I/O error occurs while getting the size of the input.
+     */
+    private long size() throws IOException {
+        if (buffer != null) {
+            return buffer.limit();
+        }
+        return file.size() - fileStart;
+    }
+
+    /**
+     * Gives a buffer containing a region of the input.
+     * When the input is a file, the region is memory-mapped.
+     *
+     * @param from The position of the first byte of the region (inclusive).
+     * @param to The position of the last byte of the region (exclusive).
+     *
+     * @return The buffer containing the region.
+     *
+     * @throws IOException If an I/O error occurs while mapping the region.
+     */
+    private ByteBuffer region(long from, long to) throws IOException {
+        if (buffer != null) {
+            return buffer.duplicate().position((int) from).limit((int) to).slice();
+        }
+        return file.map(FileChannel.MapMode.READ_ONLY, fileStart + from, to - from);
     }
 
     /**
-     * Reads the integers of the next line, and stores them in {@link #integerLine}.
+     * Gives the position of the first line starting at or after the given position.
+     *
+     * @param position The position from which to look for a line.
+     * @param bodyStart The position of the first line after the header.
+     * @param size The number of bytes in the input.
      *
-     * @return The number of integers that have been read.
+     * @return The position at which the line starts, or {@code size} if there is no
+     *         such line.
      *
      * @throws IOException If an I/O error occurs while reading.
      */
-    private int readLine() throws IOException {
-        // Reading the next line of the input stream.
-        var line = reader.readLine();
+    private long lineStart(long position, long bodyStart, long size) throws IOException {
+        if (position <= bodyStart) {
+            return bodyStart;
+        }
 
-        // Converting the integers of the line.
-        int nb = 0;
-        for (var number : line.split("\\s+")) {
-            integerLine[nb++] = Integer.parseInt(number);
+        // Looking for the end of the line containing the previous byte.
+        for (long from = position - 1; from < size; from += SCAN_WINDOW) {
+            var window = region(from, Math.min(size, from + SCAN_WINDOW));
+            for (int i = 0, limit = window.limit(); i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    return from + i + 1;
+                }
+            }
         }
-        return nb;
+        return size;
+    }
+
+    /**
+     * Checks whether the read hypergraph has weights on its hyperedges.
+     *
+     * @return Whether hyperedges are weighted.
+     */
+    private boolean hasWeightsOnHyperedges() {
+        return HmetisFormat.WEIGHT_ON_HYPEREDGES.isEncodedIn(hmetisFormat);
+    }
+
+    /**
+     * Checks whether the read hypergraph has weights on its vertices.
+     *
+     * @return Whether vertices are weighted.
+     */
+    private boolean hasWeightsOnVertices() {
+        return HmetisFormat.WEIGHT_ON_VERTICES.isEncodedIn(hmetisFormat);
     }
 
     /**
@@ -222,6 +615,10 @@ public final class HypergraphParser implements Closeable {
      * @return The hypergraph that has been read.
      */
     public Hypergraph getHypergraph() {
+        if (hypergraph != null) {
+            // The hypergraph has been read in parallel.
+            return hypergraph;
+        }
         return builder.build();
     }
 
@@ -232,7 +629,170 @@ public final class HypergraphParser implements Closeable {
      */
     @Override
     public void close() throws IOException {
-        reader.close();
+        input.close();
+    }
+
+    /**
+     * The Fragment stores the integers read from a chunk of the input, line by line,
+     * without interpreting them.
+     * Whether a line represents a hyperedge or vertex weights depends on the number of
+     * lines in the previous chunks, and is only known once all chunks have been parsed.
+     */
+    private static final class Fragment {
+
+        /**
+         * The initial capacity of the arrays of a fragment.
+         */
+        private static final int INITIAL_CAPACITY = 1 << 12;
+
+        /**
+         * The integers read from the chunk.
+         */
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        /**
+         * The number of integers read from the chunk.
+         */
+        private int nbValues;
+
+        /**
+         * The indices at which each line ends in {@link #values}.
+         */
+        private int[] lineEnds = new int[INITIAL_CAPACITY];
+
+        /**
+         * The number of lines read from the chunk.
+         */
+        private int nbLines;
+
+        /**
+         * The index of the first line of the chunk that does not contain any integer, or
+         * {@code -1} if there is no such line.
+         */
+        private int firstEmptyLine = -1;
+
+        /**
+         * Parses a chunk of the input.
+         *
+         * @param chunk The buffer containing the chunk, which starts at the beginning of
+         *        a line.
+         *
+         * @return The parsed fragment.
+         *
+         * @throws IOException If the chunk contains an invalid integer.
+         */
+        static Fragment parse(ByteBuffer chunk) throws IOException {
+            var fragment = new Fragment();
+            var input = new AsciiInput(chunk);
+
+            for (int b = input.peek(); b != AsciiInput.END_OF_INPUT; b = input.peek()) {
+                if (b != COMMENT) {
+                    while (input.skipBlanks()) {
+                        fragment.add(input.readInt());
+                    }
+                    fragment.endLine();
+                }
+                input.nextLine();
+            }
+
+            return fragment;
+        }
+
+        /**
+         * Adds an integer to the current line.
+         *
+         * @param value The integer to add.
+         */
+        private void add(int value) {
+            if (nbValues == values.length) {
+                values = Arrays.copyOf(values, nbValues << 1);
+            }
+            values[nbValues++] = value;
+        }
+
+        /**
+         * Terminates the current line.
+         */
+        private void endLine() {
+            if (nbLines == lineEnds.length) {
+                lineEnds = Arrays.copyOf(lineEnds, nbLines << 1);
+            }
+            if ((firstEmptyLine < 0) && (nbValues == valuesBefore(nbLines))) {
+                firstEmptyLine = nbLines;
+            }
+            lineEnds[nbLines++] = nbValues;
+        }
+
+        /**
+         * Gives the number of integers in the first lines of this fragment.
+         *
+         * @param line The number of lines to consider.
+         *
+         * @return The number of integers before the given line.
+         */
+        int valuesBefore(int line) {
+            return (line == 0) ? 0 : lineEnds[line - 1];
+        }
+
+        /**
+         * Copies the first lines of this fragment as hyperedges.
+         *
+         * @param nbHyperedges The number of lines representing hyperedges.
+         * @param weighted Whether each line starts with the weight of the hyperedge.
+         * @param nbVertices The number of vertices in the hypergraph.
+         * @param indices The array in which to store the indices of the hyperedges.
+         * @param firstHyperedge The index of the first hyperedge of this fragment.
+         * @param pinOffset The index of the first pin of this fragment in the hypergraph.
+         * @param pins The array in which to store the pins.
+         * @param firstPin The index at which to store the first pin in {@code pins}.
+         * @param firstVertex The number given to the first vertex in {@code pins}.
+         * @param weights The array in which to store the weights of the hyperedges.
+         *
+         * @throws UncheckedIOException If a line contains an invalid vertex.
+         */
+        void copyHyperedges(int nbHyperedges, boolean weighted, int nbVertices, long[] indices,
+                int firstHyperedge, long pinOffset, int[] pins, int firstPin, int firstVertex,
+                int[] weights) {
+            int pin = firstPin;
+            for (int h = 0; h < nbHyperedges; h++) {
+                int from = valuesBefore(h);
+                if (weighted) {
+                    weights[firstHyperedge + h] = values[from++];
+                }
+
+                // Vertices are shifted, as they are numbered from 1 in the hMetis format.
+                indices[firstHyperedge + h] = pinOffset + pin - firstPin;
+                for (int i = from; i < lineEnds[h]; i++) {
+                    int vertex = values[i];
+                    if ((vertex < 1) || (vertex > nbVertices)) {
+                        throw new UncheckedIOException(
+                                new IOException("Invalid vertex in hyperedge: " + vertex));
+                    }
+                    pins[pin++] = vertex - 1 + firstVertex;
+                }
+            }
+        }
+
+        /**
+         * Copies the integers following the first lines of this fragment as vertex
+         * weights.
+         *
+         * @param nbHyperedges The number of lines representing hyperedges.
+         * @param vertexWeights The array in which to store the weights of the vertices,
+         *        or {@code null} if vertices are not weighted.
+         * @param firstVertex The index of the first vertex having its weight in this
+         *        fragment.
+         */
+        void copyVertexWeights(int nbHyperedges, int[] vertexWeights, long firstVertex) {
+            if ((vertexWeights == null) || (firstVertex >= vertexWeights.length)) {
+                return;
+            }
+
+            int from = valuesBefore(nbHyperedges);
+            int count = (int) Math.min(nbValues - from, vertexWeights.length - firstVertex);
+            System.arraycopy(values, from, vertexWeights, (int) firstVertex, count);
+        }
+
     }
 
 }
@@ -0,0 +1,756 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The HypergraphStatistics is a compact report describing the structure of a
+ * {@link Hypergraph}: its size, the distributions of the sizes of its hyperedges and of
+ * the degrees of its vertices, its largest hyperedges, the total weights of its
+ * hyperedges and vertices, and its number of connected components.
+ *
+ * All statistics are computed in parallel, directly on the internal representation of
+ * the hypergraph, without allocating any object per vertex or hyperedge.
+ * Distributions are summarized by histograms with logarithmic buckets: bucket {@code 0}
+ * counts the elements of value {@code 0}, and bucket {@code i > 0} counts the elements
+ * whose value lies in {@code [2^(i-1), 2^i)}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class HypergraphStatistics {
+
+    /**
+     * The default number of largest hyperedges reported by the statistics.
+     */
+    public static final int DEFAULT_LARGEST_HYPEREDGES = 10;
+
+    /**
+     * The number of buckets in the histograms.
+     */
+    private static final int NB_BUCKETS = Integer.SIZE + 1;
+
+    /**
+     * The handle used to atomically update the elements of an array of ints.
+     */
+    private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * The number of vertices in the hypergraph.
+     */
+    private final int numberOfVertices;
+
+    /**
+     * The number of hyperedges in the hypergraph.
+     */
+    private final int numberOfHyperedges;
+
+    /**
+     * The number of pins in the hypergraph.
+     */
+    private final long numberOfPins;
+
+    /**
+     * The minimum size of the hyperedges.
+     */
+    private final int minHyperedgeSize;
+
+    /**
+     * The maximum size of the hyperedges.
+     */
+    private final int maxHyperedgeSize;
+
+    /**
+     * The histogram of the sizes of the hyperedges.
+     */
+    private final long[] hyperedgeSizeHistogram;
+
+    /**
+     * The minimum degree of the vertices.
+     */
+    private final int minVertexDegree;
+
+    /**
+     * The maximum degree of the vertices.
+     */
+    private final int maxVertexDegree;
+
+    /**
+     * The histogram of the degrees of the vertices.
+     */
+    private final long[] vertexDegreeHistogram;
+
+    /**
+     * The largest hyperedges, by decreasing size.
+     */
+    private final int[] largestHyperedges;
+
+    /**
+     * The sizes of the largest hyperedges.
+     */
+    private final int[] largestHyperedgeSizes;
+
+    /**
+     * The total weight of the hyperedges.
+     */
+    private final long totalHyperedgeWeight;
+
+    /**
+     * The total weight of the vertices.
+     */
+    private final long totalVertexWeight;
+
+    /**
+     * The maximum weight of the vertices.
+     */
+    private final int maxVertexWeight;
+
+    /**
+     * The number of connected components of the hypergraph.
+     */
+    private final int numberOfComponents;
+
+    /**
+     * Creates a new HypergraphStatistics.
+     *
+     * @param hypergraph The hypergraph described by the statistics.
+     * @param hyperedges The statistics about the hyperedges.
+     * @param degrees The degree of each vertex.
+     * @param numberOfComponents The number of connected components of the hypergraph.
+     */
+    private HypergraphStatistics(Hypergraph hypergraph, HyperedgeChunk hyperedges,
+            int[] degrees, int numberOfComponents) {
+        this.numberOfVertices = hypergraph.getNumberOfVertices();
+        this.numberOfHyperedges = hypergraph.getNumberOfHyperedges();
+        this.numberOfPins = hypergraph.getNumberOfPins();
+        this.minHyperedgeSize = (numberOfHyperedges == 0) ? 0 : hyperedges.minSize;
+        this.maxHyperedgeSize = hyperedges.maxSize;
+        this.hyperedgeSizeHistogram = trim(hyperedges.histogram);
+        this.largestHyperedges = hyperedges.largest();
+        this.largestHyperedgeSizes = new int[largestHyperedges.length];
+        for (int i = 0; i < largestHyperedges.length; i++) {
+            largestHyperedgeSizes[i] = hypergraph.hyperedgeSize(largestHyperedges[i]);
+        }
+        this.totalHyperedgeWeight = hyperedges.totalWeight;
+        this.numberOfComponents = numberOfComponents;
+
+        // Summarizing the degrees and weights of the vertices.
+        var vertices = summarizeVertices(degrees, hypergraph.getVertexWeights());
+        this.minVertexDegree = (numberOfVertices == 0) ? 0 : vertices.minDegree;
+        this.maxVertexDegree = vertices.maxDegree;
+        this.vertexDegreeHistogram = trim(vertices.histogram);
+        this.totalVertexWeight = vertices.totalWeight;
+        this.maxVertexWeight = vertices.maxWeight;
+    }
+
+    /**
+     * Computes the statistics of the given hypergraph, reporting its
+     * {@value #DEFAULT_LARGEST_HYPEREDGES} largest hyperedges.
+     *
+     * @param hypergraph The hypergraph to compute the statistics of.
+     *
+     * @return The statistics of the hypergraph.
+     */
+    public static HypergraphStatistics of(Hypergraph hypergraph) {
+        return of(hypergraph, DEFAULT_LARGEST_HYPEREDGES);
+    }
+
+    /**
+     * Computes the statistics of the given hypergraph.
+     *
+     * @param hypergraph The hypergraph to compute the statistics of.
+     * @param nbLargestHyperedges The number of largest hyperedges to report.
+     *
+     * @return The statistics of the hypergraph.
+     */
+    public static HypergraphStatistics of(Hypergraph hypergraph, int nbLargestHyperedges) {
+        var indices = hypergraph.getHyperedgeIndices();
+        var pins = hypergraph.getPins();
+        var hyperedgeWeights = hypergraph.getHyperedgeWeights();
+        int nbVertices = hypergraph.getNumberOfVertices();
+        int nbHyperedges = hypergraph.getNumberOfHyperedges();
+
+        // Analyzing the hyperedges, and computing the components of the vertices.
+        var parents = IntStream.range(0, nbVertices).parallel().toArray();
+        int nbChunks = ParallelArrays.numberOfChunks(hypergraph.getNumberOfPins());
+        var chunks = new HyperedgeChunk[nbChunks];
+        ParallelArrays.forEachChunk(nbHyperedges, nbChunks, (c, from, to) -> {
+            var chunk = new HyperedgeChunk(nbLargestHyperedges);
+            for (int h = from; h < to; h++) {
+                long begin = indices[h];
+                long stop = indices[h + 1];
+                chunk.add(h, (int) (stop - begin),
+                        (hyperedgeWeights == null) ? 1 : hyperedgeWeights[h]);
+
+                // Each pin joins the component of its vertex.
+                int first = (begin < stop) ? pins.get(begin) : -1;
+                for (long p = begin + 1; p < stop; p++) {
+                    union(parents, first, pins.get(p));
+                }
+            }
+            chunks[c] = chunk;
+        });
+
+        // Merging the statistics of the chunks.
+        for (int c = 1; c < nbChunks; c++) {
+            chunks[0].merge(chunks[c]);
+        }
+
+        // Counting the components.
+        int nbComponents = (int) IntStream.range(0, nbVertices)
+                .parallel()
+                .filter(v -> find(parents, v) == v)
+                .count();
+
+        return new HypergraphStatistics(hypergraph, chunks[0], countDegrees(hypergraph),
+                nbComponents);
+    }
+
+    /**
+     * Counts the degree of each vertex of a hypergraph.
+     * Each chunk of hyperedges counts the degrees in its own array, so that the chunks
+     * do not contend on shared counters.
+     * The number of chunks is bounded so that these arrays do not take more memory than
+     * the pins of the hypergraph.
+     *
+     * @param hypergraph The hypergraph to count the degrees of the vertices of.
+     *
+     * @return The degree of each vertex.
+     */
+    private static int[] countDegrees(Hypergraph hypergraph) {
+        var indices = hypergraph.getHyperedgeIndices();
+        var pins = hypergraph.getPins();
+        int nbVertices = hypergraph.getNumberOfVertices();
+        long nbPins = hypergraph.getNumberOfPins();
+        int nbChunks = (int) Math.min(ParallelArrays.numberOfChunks(nbPins),
+                Math.max(1, nbPins / Math.max(1, nbVertices)));
+
+        // Counting the pins of each vertex, for each chunk of hyperedges.
+        var counts = new int[nbChunks][];
+        ParallelArrays.forEachChunk(hypergraph.getNumberOfHyperedges(), nbChunks,
+                (c, from, to) -> {
+                    var chunkCounts = new int[nbVertices];
+                    for (long p = indices[from], end = indices[to]; p < end; p++) {
+                        chunkCounts[pins.get(p)]++;
+                    }
+                    counts[c] = chunkCounts;
+                });
+
+        // Summing up the counts of the chunks.
+        var degrees = counts[0];
+        ParallelArrays.forEachChunk(nbVertices, (from, to) -> {
+            for (int c = 1; c < nbChunks; c++) {
+                for (int v = from; v < to; v++) {
+                    degrees[v] += counts[c][v];
+                }
+            }
+        });
+        return degrees;
+    }
+
+    /**
+     * Finds the representative of the component of a vertex, compressing the path to
+     * this representative on the way.
+     * This method may be invoked concurrently.
+     *
+     * @param parents The parent of each vertex in the union-find structure.
+     * @param vertex The vertex to find the representative of.
+     *
+     * @return The representative of the component of the vertex.
+     */
+    private static int find(int[] parents, int vertex) {
+        int current = vertex;
+        int parent = (int) INT_ARRAY.getVolatile(parents, current);
+        while (parent != current) {
+            // Path halving: the vertex is linked to its grandparent.
+            int grandParent = (int) INT_ARRAY.getVolatile(parents, parent);
+            INT_ARRAY.compareAndSet(parents, current, parent, grandParent);
+            current = grandParent;
+            parent = (int) INT_ARRAY.getVolatile(parents, current);
+        }
+        return current;
+    }
+
+    /**
+     * Merges the components of two vertices.
+     * This method may be invoked concurrently.
+     *
+     * @param parents The parent of each vertex in the union-find structure.
+     * @param first The first vertex.
+     * @param second The second vertex.
+     */
+    private static void union(int[] parents, int first, int second) {
+        while (true) {
+            int firstRoot = find(parents, first);
+            int secondRoot = find(parents, second);
+            if (firstRoot == secondRoot) {
+                return;
+            }
+
+            // The largest root is always linked to the smallest one, so that no cycle
+            // may be created by concurrent unions.
+            int child = Math.max(firstRoot, secondRoot);
+            int root = Math.min(firstRoot, secondRoot);
+            if (INT_ARRAY.compareAndSet(parents, child, child, root)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Summarizes the degrees and weights of the vertices.
+     *
+     * @param degrees The degree of each vertex.
+     * @param weights The weight of each vertex, or {@code null} if vertices are not
+     *        weighted.
+     *
+     * @return The summary of the vertices.
+     */
+    private static VertexChunk summarizeVertices(int[] degrees, int[] weights) {
+        int nbChunks = ParallelArrays.numberOfChunks(degrees.length);
+        var chunks = new VertexChunk[nbChunks];
+        ParallelArrays.forEachChunk(degrees.length, nbChunks, (c, from, to) -> {
+            var chunk = new VertexChunk();
+            for (int v = from; v < to; v++) {
+                chunk.add(degrees[v], (weights == null) ? 1 : weights[v]);
+            }
+            chunks[c] = chunk;
+        });
+
+        for (int c = 1; c < nbChunks; c++) {
+            chunks[0].merge(chunks[c]);
+        }
+        return chunks[0];
+    }
+
+    /**
+     * Gives the bucket of a value in a histogram.
+     *
+     * @param value The value to give the bucket of.
+     *
+     * @return The bucket of the value.
+     */
+    private static int bucketOf(int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Removes the empty buckets at the end of a histogram.
+     *
+     * @param histogram The histogram to trim.
+     *
+     * @return The trimmed histogram.
+     */
+    private static long[] trim(long[] histogram) {
+        int length = histogram.length;
+        while ((length > 0) && (histogram[length - 1] == 0)) {
+            length--;
+        }
+        return Arrays.copyOf(histogram, length);
+    }
+
+    /**
+     * Gives the number of vertices in the hypergraph.
+     *
+     * @return The number of vertices.
+     */
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    /**
+     * Gives the number of hyperedges in the hypergraph.
+     *
+     * @return The number of hyperedges.
+     */
+    public int getNumberOfHyperedges() {
+        return numberOfHyperedges;
+    }
+
+    /**
+     * Gives the number of pins in the hypergraph.
+     *
+     * @return The number of pins.
+     */
+    public long getNumberOfPins() {
+        return numberOfPins;
+    }
+
+    /**
+     * Gives the minimum size of the hyperedges.
+     *
+     * @return The minimum size, or {@code 0} if there is no hyperedge.
+     */
+    public int getMinHyperedgeSize() {
+        return minHyperedgeSize;
+    }
+
+    /**
+     * Gives the maximum size of the hyperedges.
+     *
+     * @return The maximum size, or {@code 0} if there is no hyperedge.
+     */
+    public int getMaxHyperedgeSize() {
+        return maxHyperedgeSize;
+    }
+
+    /**
+     * Gives the average size of the hyperedges.
+     *
+     * @return The average size, or {@code 0} if there is no hyperedge.
+     */
+    public double getAverageHyperedgeSize() {
+        return (numberOfHyperedges == 0) ? 0 : ((double) numberOfPins / numberOfHyperedges);
+    }
+
+    /**
+     * Gives the histogram of the sizes of the hyperedges.
+     *
+     * @return The histogram of the sizes, with logarithmic buckets.
+     */
+    public long[] getHyperedgeSizeHistogram() {
+        return hyperedgeSizeHistogram;
+    }
+
+    /**
+     * Gives the minimum degree of the vertices.
+     *
+     * @return The minimum degree, or {@code 0} if there is no vertex.
+     */
+    public int getMinVertexDegree() {
+        return minVertexDegree;
+    }
+
+    /**
+     * Gives the maximum degree of the vertices.
+     *
+     * @return The maximum degree, or {@code 0} if there is no vertex.
+     */
+    public int getMaxVertexDegree() {
+        return maxVertexDegree;
+    }
+
+    /**
+     * Gives the average degree of the vertices.
+     *
+     * @return The average degree, or {@code 0} if there is no vertex.
+     */
+    public double getAverageVertexDegree() {
+        return (numberOfVertices == 0) ? 0 : ((double) numberOfPins / numberOfVertices);
+    }
+
+    /**
+     * Gives the histogram of the degrees of the vertices.
+     *
+     * @return The histogram of the degrees, with logarithmic buckets.
+     */
+    public long[] getVertexDegreeHistogram() {
+        return vertexDegreeHistogram;
+    }
+
+    /**
+     * Gives the largest hyperedges of the hypergraph.
+     *
+     * @return The largest hyperedges, by decreasing size (hyperedges having the same
+     *         size are sorted by increasing identifier).
+     */
+    public int[] getLargestHyperedges() {
+        return largestHyperedges;
+    }
+
+    /**
+     * Gives the sizes of the largest hyperedges of the hypergraph.
+     *
+     * @return The sizes of the hyperedges returned by {@link #getLargestHyperedges()}.
+     */
+    public int[] getLargestHyperedgeSizes() {
+        return largestHyperedgeSizes;
+    }
+
+    /**
+     * Gives the total weight of the hyperedges.
+     *
+     * @return The total weight of the hyperedges.
+     */
+    public long getTotalHyperedgeWeight() {
+        return totalHyperedgeWeight;
+    }
+
+    /**
+     * Gives the total weight of the vertices.
+     *
+     * @return The total weight of the vertices.
+     */
+    public long getTotalVertexWeight() {
+        return totalVertexWeight;
+    }
+
+    /**
+     * Gives the maximum weight of the vertices.
+     *
+     * @return The maximum weight of the vertices.
+     */
+    public int getMaxVertexWeight() {
+        return maxVertexWeight;
+    }
+
+    /**
+     * Gives the number of connected components of the hypergraph.
+     * Isolated vertices are components on their own.
+     *
+     * @return The number of connected components.
+     */
+    public int getNumberOfComponents() {
+        return numberOfComponents;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        var builder = new StringBuilder();
+        builder.append("vertices: ").append(numberOfVertices)
+                .append(", hyperedges: ").append(numberOfHyperedges)
+                .append(", pins: ").append(numberOfPins)
+                .append(", components: ").append(numberOfComponents).append('\n');
+        builder.append("hyperedge sizes: min ").append(minHyperedgeSize)
+                .append(", max ").append(maxHyperedgeSize)
+                .append(String.format(", avg %.2f, histogram ", getAverageHyperedgeSize()))
+                .append(Arrays.toString(hyperedgeSizeHistogram)).append('\n');
+        builder.append("vertex degrees: min ").append(minVertexDegree)
+                .append(", max ").append(maxVertexDegree)
+                .append(String.format(", avg %.2f, histogram ", getAverageVertexDegree()))
+                .append(Arrays.toString(vertexDegreeHistogram)).append('\n');
+        builder.append("weights: hyperedges ").append(totalHyperedgeWeight)
+                .append(", vertices ").append(totalVertexWeight)
+                .append(" (max ").append(maxVertexWeight).append(")\n");
+        builder.append("largest hyperedges:");
+        for (int i = 0; i < largestHyperedges.length; i++) {
+            builder.append(' ').append(largestHyperedges[i])
+                    .append(" (").append(largestHyperedgeSizes[i]).append(')');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The HyperedgeChunk collects the statistics about a chunk of hyperedges.
+     */
+    private static final class HyperedgeChunk {
+
+        /**
+         * The minimum size of the hyperedges.
+         */
+        private int minSize = Integer.MAX_VALUE;
+
+        /**
+         * The maximum size of the hyperedges.
+         */
+        private int maxSize;
+
+        /**
+         * The histogram of the sizes of the hyperedges.
+         */
+        private final long[] histogram = new long[NB_BUCKETS];
+
+        /**
+         * The total weight of the hyperedges.
+         */
+        private long totalWeight;
+
+        /**
+         * The min-heap of the largest hyperedges.
+         * Each hyperedge is packed with its size, so that larger hyperedges (and, for the
+         * same size, smaller identifiers) have larger keys.
+         */
+        private final long[] largest;
+
+        /**
+         * The number of hyperedges in {@link #largest}.
+         */
+        private int nbLargest;
+
+        /**
+         * Creates a new HyperedgeChunk.
+         *
+         * @param nbLargest The number of largest hyperedges to keep.
+         */
+        HyperedgeChunk(int nbLargest) {
+            this.largest = new long[nbLargest];
+        }
+
+        /**
+         * Adds a hyperedge to this chunk.
+         *
+         * @param hyperedge The hyperedge to add.
+         * @param size The size of the hyperedge.
+         * @param weight The weight of the hyperedge.
+         */
+        void add(int hyperedge, int size, int weight) {
+            minSize = Math.min(minSize, size);
+            maxSize = Math.max(maxSize, size);
+            histogram[bucketOf(size)]++;
+            totalWeight += weight;
+            offer(((long) size << Integer.SIZE) | (Integer.MAX_VALUE - hyperedge));
+        }
+
+        /**
+         * Merges the statistics of another chunk into this chunk.
+         *
+         * @param other The chunk to merge.
+         */
+        void merge(HyperedgeChunk other) {
+            minSize = Math.min(minSize, other.minSize);
+            maxSize = Math.max(maxSize, other.maxSize);
+            for (int i = 0; i < NB_BUCKETS; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            totalWeight += other.totalWeight;
+            for (int i = 0; i < other.nbLargest; i++) {
+                offer(other.largest[i]);
+            }
+        }
+
+        /**
+         * Offers a hyperedge to the heap of the largest hyperedges.
+         *
+         * @param key The key of the hyperedge.
+         */
+        private void offer(long key) {
+            if (nbLargest < largest.length) {
+                // The heap is not full: the key is sifted up.
+                int i = nbLargest++;
+                while ((i > 0) && (largest[(i - 1) >> 1] > key)) {
+                    largest[i] = largest[(i - 1) >> 1];
+                    i = (i - 1) >> 1;
+                }
+                largest[i] = key;
+
+            } else if ((nbLargest > 0) && (key > largest[0])) {
+                // The smallest key is replaced, and the new key is sifted down.
+                int i = 0;
+                while (true) {
+                    int child = (i << 1) + 1;
+                    if (child >= nbLargest) {
+                        break;
+                    }
+                    if ((child + 1 < nbLargest) && (largest[child + 1] < largest[child])) {
+                        child++;
+                    }
+                    if (largest[child] >= key) {
+                        break;
+                    }
+                    largest[i] = largest[child];
+                    i = child;
+                }
+                largest[i] = key;
+            }
+        }
+
+        /**
+         * Gives the largest hyperedges of this chunk.
+         *
+         * @return The largest hyperedges, by decreasing size.
+         */
+        int[] largest() {
+            var keys = Arrays.copyOf(largest, nbLargest);
+            Arrays.sort(keys);
+            var hyperedges = new int[nbLargest];
+            for (int i = 0; i < nbLargest; i++) {
+                hyperedges[i] = Integer.MAX_VALUE - (int) keys[nbLargest - 1 - i];
+            }
+            return hyperedges;
+        }
+
+    }
+
+    /**
+     * The VertexChunk collects the statistics about a chunk of vertices.
+     */
+    private static final class VertexChunk {
+
+        /**
+         * The minimum degree of the vertices.
+         */
+        private int minDegree = Integer.MAX_VALUE;
+
+        /**
+         * The maximum degree of the vertices.
+         */
+        private int maxDegree;
+
+        /**
+         * The histogram of the degrees of the vertices.
+         */
+        private final long[] histogram = new long[NB_BUCKETS];
+
+        /**
+         * The total weight of the vertices.
+         */
+        private long totalWeight;
+
+        /**
+         * The maximum weight of the vertices.
+         */
+        private int maxWeight;
+
+        /**
+         * Adds a vertex to this chunk.
+         *
+         * @param degree The degree of the vertex.
+         * @param weight The weight of the vertex.
+         */
+        void add(int degree, int weight) {
+            minDegree = Math.min(minDegree, degree);
+            maxDegree = Math.max(maxDegree, degree);
+            histogram[bucketOf(degree)]++;
+            totalWeight += weight;
+            maxWeight = Math.max(maxWeight, weight);
+        }
+
+        /**
+         * Merges the statistics of another chunk into this chunk.
+         *
+         * @param other The chunk to merge.
+         */
+        void merge(VertexChunk other) {
+            minDegree = Math.min(minDegree, other.minDegree);
+            maxDegree = Math.max(maxDegree, other.maxDegree);
+            for (int i = 0; i < NB_BUCKETS; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            totalWeight += other.totalWeight;
+            maxWeight = Math.max(maxWeight, other.maxWeight);
+        }
+
+    }
+
+}
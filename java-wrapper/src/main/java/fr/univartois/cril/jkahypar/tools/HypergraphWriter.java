@@ -0,0 +1,482 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import fr.univartois.cril.jkahypar.hypergraph.HmetisFormat;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The HypergraphWriter allows to write {@link Hypergraph} instances in the hMetis
+ * format in a streaming fashion.
+ *
+ * Contrary to {@link Hypergraph#toString()}, which builds the whole representation of
+ * the hypergraph in memory, integers are formatted directly from the arrays storing
+ * the hypergraph into a reusable buffer, which is flushed whenever it is full.
+ * In parallel mode, chunks of the hypergraph are formatted concurrently, and written
+ * in order as soon as they are ready, so that only a bounded number of formatted
+ * chunks are kept in memory at any time.
+ *
+ * Note that lines are always separated by {@code '\n'}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class HypergraphWriter {
+
+    /**
+     * The number of pins (or of vertex weights) formatted by each parallel task.
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The size of the heap buffers used to format the chunks in parallel mode.
+     */
+    private static final int CHUNK_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Disables instantiation.
+     */
+    private HypergraphWriter() {
+        throw new AssertionError("No HypergraphWriter instances for you!");
+    }
+
+    /**
+     * Writes a hypergraph to a file.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param file The path of the file to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(Hypergraph hypergraph, Path file) throws IOException {
+        write(hypergraph, open(file));
+    }
+
+    /**
+     * Writes a hypergraph to a writer.
+     * The writer is closed once the hypergraph has been written.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param writer The writer to write the hypergraph to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(Hypergraph hypergraph, Writer writer) throws IOException {
+        write(hypergraph, new WriterChannel(writer));
+    }
+
+    /**
+     * Writes a hypergraph to a channel.
+     * The channel is closed once the hypergraph has been written.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param channel The channel to write the hypergraph to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(Hypergraph hypergraph, WritableByteChannel channel)
+            throws IOException {
+        try (var output = new AsciiOutput(channel)) {
+            writeHeader(hypergraph, output);
+            writeHyperedges(hypergraph, 0, hypergraph.getNumberOfHyperedges(), output);
+            var vertexWeights = hypergraph.getVertexWeights();
+            if (vertexWeights != null) {
+                writeWeights(vertexWeights, 0, vertexWeights.length, output);
+            }
+        }
+    }
+
+    /**
+     * Writes a hypergraph to a file, formatting its chunks in parallel.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param file The path of the file to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void writeInParallel(Hypergraph hypergraph, Path file) throws IOException {
+        writeInParallel(hypergraph, open(file));
+    }
+
+    /**
+     * Writes a hypergraph to a channel, formatting its chunks in parallel.
+     * The channel is closed once the hypergraph has been written.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param channel The channel to write the hypergraph to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void writeInParallel(Hypergraph hypergraph, WritableByteChannel channel)
+            throws IOException {
+        try (channel) {
+            var chunks = chunksOf(hypergraph);
+            var pending = new ArrayDeque<CompletableFuture<ByteBuffer>>();
+            int window = Runtime.getRuntime().availableProcessors() << 1;
+            int next = 0;
+
+            while ((next < chunks.size()) || !pending.isEmpty()) {
+                // Keeping at most a window of chunks being formatted or waiting to be written.
+                while ((next < chunks.size()) && (pending.size() < window)) {
+                    pending.add(CompletableFuture.supplyAsync(chunks.get(next)));
+                    next++;
+                }
+
+                // Writing the oldest chunk, so that the chunks are written in order.
+                var bytes = join(pending.remove());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the file to which a hypergraph is to be written.
+     *
+     * @param file The path of the file to open.
+     *
+     * @return The channel to write to.
+     *
+     * @throws IOException If an I/O error occurs while opening the file.
+     */
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Splits the hMetis representation of a hypergraph into chunks that can be
+     * formatted independently.
+     * The first chunk contains the header, and each hyperedge chunk contains roughly
+     * the same number of pins.
+     *
+     * @param hypergraph The hypergraph to split.
+     *
+     * @return The tasks formatting each chunk, in the order of the representation.
+     */
+    private static List<Supplier<ByteBuffer>> chunksOf(Hypergraph hypergraph) {
+        var chunks = new ArrayList<Supplier<ByteBuffer>>();
+        chunks.add(() -> format(output -> writeHeader(hypergraph, output)));
+
+        // Splitting the hyperedges at the pins that are multiples of the chunk size.
+        var hyperedgeIndices = hypergraph.getHyperedgeIndices();
+        int nbHyperedges = hypergraph.getNumberOfHyperedges();
+        for (int from = 0; from < nbHyperedges;) {
+            int to = Arrays.binarySearch(hyperedgeIndices, from + 1, nbHyperedges + 1,
+                    hyperedgeIndices[from] + CHUNK_SIZE);
+            to = Math.max(from + 1, Math.min(nbHyperedges, (to < 0) ? (-to - 1) : to));
+            int begin = from;
+            int end = to;
+            chunks.add(() -> format(output -> writeHyperedges(hypergraph, begin, end, output)));
+            from = to;
+        }
+
+        // Splitting the vertex weights into chunks of the same size.
+        var vertexWeights = hypergraph.getVertexWeights();
+        if (vertexWeights != null) {
+            for (int from = 0; from < vertexWeights.length; from += CHUNK_SIZE) {
+                int begin = from;
+                int end = Math.min(vertexWeights.length, from + CHUNK_SIZE);
+                chunks.add(() -> format(output -> writeWeights(vertexWeights, begin, end, output)));
+            }
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Formats a chunk of the hMetis representation of a hypergraph in memory.
+     *
+     * @param action The action writing the chunk.
+     *
+     * @return The buffer containing the formatted chunk, ready to be written.
+     *
+     * @throws UncheckedIOException If an I/O error occurs while formatting.
+     */
+    private static ByteBuffer format(ChunkAction action) {
+        var chunk = new ChunkChannel();
+        try (var output = new AsciiOutput(chunk, ByteBuffer.allocate(CHUNK_BUFFER_SIZE))) {
+            action.writeTo(output);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return chunk.toByteBuffer();
+    }
+
+    /**
+     * Waits for a chunk to be formatted.
+     *
+     * @param future The future computing the chunk.
+     *
+     * @return The formatted chunk.
+     *
+     * @throws IOException If an I/O error occurred while formatting the chunk.
+     */
+    private static ByteBuffer join(CompletableFuture<ByteBuffer> future) throws IOException {
+        try {
+            return future.join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the hMetis header of a hypergraph.
+     *
+     * @param hypergraph The hypergraph to write the header of.
+     * @param output The output to write to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    private static void writeHeader(Hypergraph hypergraph, AsciiOutput output)
+            throws IOException {
+        output.writeInt(hypergraph.getNumberOfHyperedges()).write(' ');
+        output.writeInt(hypergraph.getNumberOfVertices());
+
+        // The format is only written when the hypergraph is weighted.
+        int format = HmetisFormat.identifierOf(hypergraph);
+        if (format != HmetisFormat.UNWEIGHTED.getIdentifier()) {
+            output.write(' ').writeInt(format);
+        }
+        output.newLine();
+    }
+
+    /**
+     * Writes a range of hyperedges of a hypergraph, one per line.
+     * Each line contains the weight of the hyperedge (if any), followed by its
+     * vertices numbered from {@code 1}.
+     *
+     * @param hypergraph The hypergraph to write the hyperedges of.
+     * @param from The index of the first hyperedge to write (inclusive).
+     * @param to The index of the last hyperedge to write (exclusive).
+     * @param output The output to write to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    static void writeHyperedges(Hypergraph hypergraph, int from, int to,
+            AsciiOutput output) throws IOException {
+        var hyperedgeWeights = hypergraph.getHyperedgeWeights();
+        var hyperedgeIndices = hypergraph.getHyperedgeIndices();
+        var pins = hypergraph.getPins();
+
+        for (int h = from; h < to; h++) {
+            if (hyperedgeWeights != null) {
+                output.writeInt(hyperedgeWeights[h]).write(' ');
+            }
+
+            // Vertices are shifted, as they are numbered from 1 in the hMetis format.
+            long end = hyperedgeIndices[h + 1];
+            for (long p = hyperedgeIndices[h]; p < end; p++) {
+                output.writeInt(pins.get(p) + 1);
+                if (p + 1 < end) {
+                    output.write(' ');
+                }
+            }
+            output.newLine();
+        }
+    }
+
+    /**
+     * Writes a range of weights, one per line.
+     *
+     * @param weights The weights to write.
+     * @param from The index of the first weight to write (inclusive).
+     * @param to The index of the last weight to write (exclusive).
+     * @param output The output to write to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    static void writeWeights(int[] weights, int from, int to, AsciiOutput output)
+            throws IOException {
+        for (int i = from; i < to; i++) {
+            output.writeInt(weights[i]).newLine();
+        }
+    }
+
+    /**
+     * The ChunkAction writes a chunk of the hMetis representation of a hypergraph.
+     */
+    @FunctionalInterface
+    private interface ChunkAction {
+
+        /**
+         * Writes the chunk to the given output.
+         *
+         * @param output The output to write to.
+         *
+         * @throws IOException If an I/O error occurs while writing.
+         */
+        void writeTo(AsciiOutput output) throws IOException;
+
+    }
+
+    /**
+     * The ChunkChannel is a channel collecting the bytes written to it in a growable
+     * array.
+     */
+    private static final class ChunkChannel implements WritableByteChannel {
+
+        /**
+         * The bytes written to this channel.
+         */
+        private byte[] bytes = new byte[CHUNK_BUFFER_SIZE];
+
+        /**
+         * The number of bytes written to this channel.
+         */
+        private int size;
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.nio.channels.WritableByteChannel#write(java.nio.ByteBuffer)
+         */
+        @Override
+        public int write(ByteBuffer src) {
+            int length = src.remaining();
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + length, bytes.length << 1));
+            }
+            src.get(bytes, size, length);
+            size += length;
+            return length;
+        }
+
+        /**
+         * Gives a buffer wrapping the bytes written to this channel.
+         *
+         * @return The buffer containing the written bytes.
+         */
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.nio.channels.Channel#isOpen()
+         */
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.nio.channels.Channel#close()
+         */
+        @Override
+        public void close() {
+            // Nothing to release: the bytes are kept until they are written.
+        }
+
+    }
+
+    /**
+     * The WriterChannel is an adapter turning a {@link Writer} into a channel, by
+     * decoding the (ASCII) bytes written to it as characters.
+     */
+    private static final class WriterChannel implements WritableByteChannel {
+
+        /**
+         * The writer to which characters are written.
+         */
+        private final Writer writer;
+
+        /**
+         * The reusable array in which bytes are decoded.
+         */
+        private final char[] characters = new char[1 << 13];
+
+        /**
+         * Creates a new WriterChannel.
+         *
+         * @param writer The writer to which characters are written.
+         */
+        WriterChannel(Writer writer) {
+            this.writer = writer;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.nio.channels.WritableByteChannel#write(java.nio.ByteBuffer)
+         */
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int length = src.remaining();
+            while (src.hasRemaining()) {
+                int count = Math.min(characters.length, src.remaining());
+                for (int i = 0; i < count; i++) {
+                    characters[i] = (char) (src.get() & 0xff);
+                }
+                writer.write(characters, 0, count);
+            }
+            return length;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.nio.channels.Channel#isOpen()
+         */
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.nio.channels.Channel#close()
+         */
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+    }
+
+}
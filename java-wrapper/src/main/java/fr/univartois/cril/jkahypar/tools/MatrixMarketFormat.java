@@ -0,0 +1,224 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
+import fr.univartois.cril.jkahypar.tools.SparseMatrixHypergraph.Model;
+
+/**
+ * The MatrixMarketFormat allows to read sparse matrices in the coordinate Matrix Market
+ * format directly as {@link Hypergraph} instances, following one of the models defined
+ * in {@link SparseMatrixHypergraph}.
+ *
+ * The input is scanned byte by byte, and the coordinates of the nonzeros are decoded
+ * in place (their values, if any, are ignored).
+ * The nonzeros are then sorted by row with a counting sort to get the CSR form of the
+ * matrix.
+ * Symmetric matrices (including skew-symmetric and Hermitian ones) are expanded, so
+ * that each nonzero outside the diagonal appears in both its row and its column.
+ * Compressed files are transparently decompressed, as with {@link HypergraphParser}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class MatrixMarketFormat {
+
+    /**
+     * The banner starting the first line of a Matrix Market file.
+     */
+    private static final String BANNER = "%%MatrixMarket";
+
+    /**
+     * Disables instantiation.
+     */
+    private MatrixMarketFormat() {
+        throw new AssertionError("No MatrixMarketFormat instances for you!");
+    }
+
+    /**
+     * Reads a sparse matrix from a file, which may be compressed.
+     *
+     * @param file The path of the file to read.
+     * @param model The hypergraph model representing the matrix.
+     *
+     * @return The hypergraph representing the matrix.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the file is not a
+     *         valid sparse matrix.
+     */
+    public static Hypergraph read(Path file, Model model) throws IOException {
+        return read(DecompressingChannel.open(FileChannel.open(file, StandardOpenOption.READ)),
+                model);
+    }
+
+    /**
+     * Reads a sparse matrix from a channel.
+     * The channel is closed once the matrix has been read.
+     *
+     * @param channel The channel to read the matrix from.
+     * @param model The hypergraph model representing the matrix.
+     *
+     * @return The hypergraph representing the matrix.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the channel does
+     *         not contain a valid sparse matrix.
+     */
+    public static Hypergraph read(ReadableByteChannel channel, Model model) throws IOException {
+        try (var input = new AsciiInput(channel)) {
+            // Reading the banner describing the matrix.
+            if (!BANNER.equalsIgnoreCase(readWord(input))
+                    || !"matrix".equalsIgnoreCase(readWord(input))) {
+                throw new IOException("Missing Matrix Market banner");
+            }
+            var format = readWord(input);
+            if (!"coordinate".equalsIgnoreCase(format)) {
+                throw new IOException("Unsupported matrix format: " + format);
+            }
+            readWord(input);
+            boolean symmetric = !"general".equalsIgnoreCase(readWord(input));
+            input.nextLine();
+
+            // Reading the size of the matrix.
+            if (!input.skipEmptyAndCommentLines('%')) {
+                throw new IOException("Missing matrix size");
+            }
+            int nbRows = input.readInt();
+            int nbColumns = input.readInt();
+            long nbEntries = input.readLong();
+            if (symmetric && (nbRows != nbColumns)) {
+                throw new IOException("Symmetric matrix is not square: " + nbRows + "x"
+                        + nbColumns);
+            }
+            long nbNonzeros = symmetric ? (nbEntries << 1) : nbEntries;
+            if ((nbEntries < 0) || (nbNonzeros > SegmentedIntArray.MAX_ARRAY_LENGTH)) {
+                throw new IOException("Invalid number of nonzeros: " + nbEntries);
+            }
+            input.nextLine();
+
+            // Reading the coordinates of the nonzeros.
+            var rows = new int[(int) nbNonzeros];
+            var columns = new int[(int) nbNonzeros];
+            int nbRead = 0;
+            for (long e = 0; e < nbEntries; e++) {
+                if (!input.skipEmptyAndCommentLines('%')) {
+                    throw new IOException("Missing nonzeros: " + nbEntries + " expected");
+                }
+                int row = readIndex(input, nbRows);
+                int column = readIndex(input, nbColumns);
+                input.nextLine();
+
+                rows[nbRead] = row;
+                columns[nbRead++] = column;
+                if (symmetric && (row != column)) {
+                    rows[nbRead] = column;
+                    columns[nbRead++] = row;
+                }
+            }
+
+            return toCsr(nbRows, nbColumns, rows, columns, nbRead, model);
+        }
+    }
+
+    /**
+     * Sorts the nonzeros of a matrix by row to build its hypergraph from its CSR form.
+     *
+     * @param nbRows The number of rows in the matrix.
+     * @param nbColumns The number of columns in the matrix.
+     * @param rows The rows of the nonzeros.
+     * @param columns The columns of the nonzeros.
+     * @param nbNonzeros The number of nonzeros.
+     * @param model The hypergraph model representing the matrix.
+     *
+     * @return The hypergraph representing the matrix.
+     */
+    private static Hypergraph toCsr(int nbRows, int nbColumns, int[] rows, int[] columns,
+            int nbNonzeros, Model model) {
+        // Counting the nonzeros of each row.
+        var rowPointers = new long[nbRows + 1];
+        for (int i = 0; i < nbNonzeros; i++) {
+            rowPointers[rows[i] + 1]++;
+        }
+        for (int r = 0; r < nbRows; r++) {
+            rowPointers[r + 1] += rowPointers[r];
+        }
+
+        // Putting each column in its row, preserving the order of the input.
+        var cursors = new int[nbRows];
+        var columnIndices = new int[nbNonzeros];
+        for (int i = 0; i < nbNonzeros; i++) {
+            int row = rows[i];
+            columnIndices[(int) rowPointers[row] + cursors[row]++] = columns[i];
+        }
+
+        // The indices have already been checked while reading the matrix.
+        return SparseMatrixHypergraph.of(nbRows, nbColumns, rowPointers, columnIndices,
+                model, false);
+    }
+
+    /**
+     * Reads a word, i.e., a sequence of non-blank characters.
+     * Blanks preceding the word are skipped.
+     *
+     * @param input The input to read from.
+     *
+     * @return The read word, which is empty at the end of the line.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private static String readWord(AsciiInput input) throws IOException {
+        var word = new StringBuilder();
+        if (input.skipBlanks()) {
+            for (int b = input.peek(); b > ' '; b = input.peek()) {
+                word.append((char) b);
+                input.skip();
+            }
+        }
+        return word.toString();
+    }
+
+    /**
+     * Reads the (1-based) index of a row or a column.
+     *
+     * @param input The input to read from.
+     * @param max The number of rows or columns in the matrix.
+     *
+     * @return The read index, numbered from {@code 0}.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the index is not
+     *         valid.
+     */
+    private static int readIndex(AsciiInput input, int max) throws IOException {
+        int index = input.readInt();
+        if ((index < 1) || (index > max)) {
+            throw new IOException("Invalid index: " + index);
+        }
+        return index - 1;
+    }
+
+}
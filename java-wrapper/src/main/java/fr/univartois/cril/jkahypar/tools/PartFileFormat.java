@@ -0,0 +1,172 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+
+/**
+ * The PartFileFormat allows to write and read {@link HypergraphPartition} instances
+ * in the {@code .part} format used by KaHyPar and hMetis, in which the {@code i}-th line
+ * contains the identifier of the block of the {@code i}-th vertex.
+ *
+ * Partitions are written and read in a streaming fashion, by formatting and decoding
+ * integers directly in large direct buffers.
+ * Note that this format does not store the value of the objective function, so that
+ * read partitions have an objective value of {@code -1}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class PartFileFormat {
+
+    /**
+     * The initial capacity of the array storing the block identifiers, when the number
+     * of vertices is not known in advance.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * Disables instantiation.
+     */
+    private PartFileFormat() {
+        throw new AssertionError("No PartFileFormat instances for you!");
+    }
+
+    /**
+     * Writes a partition to a file.
+     *
+     * @param partition The partition to write.
+     * @param file The path of the file to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(HypergraphPartition partition, Path file) throws IOException {
+        write(partition, FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Writes a partition to a channel.
+     * The channel is closed once the partition has been written.
+     *
+     * @param partition The partition to write.
+     * @param channel The channel to write the partition to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(HypergraphPartition partition, WritableByteChannel channel)
+            throws IOException {
+        try (var output = new AsciiOutput(channel)) {
+            for (int v = 1, n = partition.numberOfVertices(); v <= n; v++) {
+                output.writeInt(partition.blockOf(v)).newLine();
+            }
+        }
+    }
+
+    /**
+     * Reads a partition from a file.
+     * The number of blocks of the partition is computed from the largest block
+     * identifier appearing in the file.
+     *
+     * @param file The path of the file to read.
+     *
+     * @return The read partition.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    public static HypergraphPartition read(Path file) throws IOException {
+        return read(FileChannel.open(file, StandardOpenOption.READ), -1);
+    }
+
+    /**
+     * Reads a partition of a hypergraph having the given number of vertices from a file.
+     * The number of blocks of the partition is computed from the largest block
+     * identifier appearing in the file.
+     *
+     * @param file The path of the file to read.
+     * @param numberOfVertices The number of vertices in the partitioned hypergraph.
+     *
+     * @return The read partition.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the file does not
+     *         contain the expected number of vertices.
+     */
+    public static HypergraphPartition read(Path file, int numberOfVertices) throws IOException {
+        return read(FileChannel.open(file, StandardOpenOption.READ), numberOfVertices);
+    }
+
+    /**
+     * Reads a partition from a channel.
+     * The channel is closed once the partition has been read.
+     *
+     * @param channel The channel to read the partition from.
+     * @param numberOfVertices The number of vertices in the partitioned hypergraph, or
+     *        a negative value if it is not known.
+     *
+     * @return The read partition.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the channel does
+     *         not contain the expected number of vertices.
+     */
+    public static HypergraphPartition read(ReadableByteChannel channel, int numberOfVertices)
+            throws IOException {
+        try (var input = new AsciiInput(channel)) {
+            var blockIdentifiers = new int[(numberOfVertices < 0) ? INITIAL_CAPACITY : numberOfVertices];
+            int nbVertices = 0;
+            int maxBlock = -1;
+
+            while (input.skipWhitespaces()) {
+                if (nbVertices == blockIdentifiers.length) {
+                    if (numberOfVertices >= 0) {
+                        throw new IOException("Too many vertices in partition");
+                    }
+                    blockIdentifiers = Arrays.copyOf(blockIdentifiers, nbVertices + (nbVertices >> 1));
+                }
+
+                int block = input.readInt();
+                if (block < 0) {
+                    throw new IOException("Negative block identifier: " + block);
+                }
+                blockIdentifiers[nbVertices++] = block;
+                maxBlock = Math.max(maxBlock, block);
+            }
+
+            if (nbVertices != blockIdentifiers.length) {
+                if (numberOfVertices >= 0) {
+                    throw new IOException("Missing vertices in partition");
+                }
+                blockIdentifiers = Arrays.copyOf(blockIdentifiers, nbVertices);
+            }
+
+            return HypergraphPartition.of(maxBlock + 1, blockIdentifiers, -1);
+        }
+    }
+
+}
@@ -0,0 +1,575 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.util.Arrays;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The PartitionRelabeling renames the blocks of a {@link HypergraphPartition} so that it
+ * matches as much as possible a previous partition of the same hypergraph.
+ *
+ * Block identifiers are arbitrary, so that two consecutive partitions of the same
+ * hypergraph may look completely different even if their blocks are almost the same.
+ * To avoid useless data migrations, the blocks of the new partition are relabeled so as
+ * to maximize the weight of the vertices that stay in the same block.
+ * This is done by computing the overlap between the blocks of both partitions, and by
+ * solving the corresponding assignment problem, either exactly (using the Hungarian
+ * algorithm) or greedily when there are too many blocks.
+ * In the latter case, only the non-empty cells of the overlap matrix are computed, so
+ * that the memory needed remains linear in the number of vertices and of blocks.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class PartitionRelabeling {
+
+    /**
+     * The maximum number of blocks for which the assignment problem is solved exactly.
+     * For more blocks, a greedy assignment is used.
+     */
+    public static final int MAX_BLOCKS_FOR_EXACT_ASSIGNMENT = 512;
+
+    /**
+     * The minimum number of vertices considered by each parallel task.
+     */
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The maximum number of cells in all the overlap matrices computed in parallel.
+     */
+    private static final long MAX_OVERLAP_CELLS = 1L << 24;
+
+    /**
+     * The relabeled partition.
+     */
+    private final HypergraphPartition partition;
+
+    /**
+     * The new identifier of each block of the original (new) partition.
+     */
+    private final int[] labels;
+
+    /**
+     * The total weight of the vertices that remain in the same block.
+     */
+    private final long retainedWeight;
+
+    /**
+     * The total weight of the vertices that have to be moved to another block.
+     */
+    private final long migratedWeight;
+
+    /**
+     * The indices at which the vertices moved to each block start in {@link #moves}.
+     */
+    private final int[] moveIndices;
+
+    /**
+     * The vertices that have to be moved, grouped by destination block.
+     */
+    private final int[] moves;
+
+    /**
+     * Creates a new PartitionRelabeling.
+     *
+     * @param partition The relabeled partition.
+     * @param labels The new identifier of each block of the original partition.
+     * @param retainedWeight The weight of the vertices remaining in the same block.
+     * @param migratedWeight The weight of the vertices to move.
+     * @param moveIndices The indices at which the vertices moved to each block start.
+     * @param moves The vertices to move, grouped by destination block.
+     */
+    private PartitionRelabeling(HypergraphPartition partition, int[] labels,
+            long retainedWeight, long migratedWeight, int[] moveIndices, int[] moves) {
+        this.partition = partition;
+        this.labels = labels;
+        this.retainedWeight = retainedWeight;
+        this.migratedWeight = migratedWeight;
+        this.moveIndices = moveIndices;
+        this.moves = moves;
+    }
+
+    /**
+     * Relabels the blocks of a partition to match a previous partition, considering
+     * that all vertices have the same weight.
+     *
+     * @param previous The previous partition.
+     * @param current The partition to relabel.
+     *
+     * @return The relabeling of the partition.
+     *
+     * @throws IllegalArgumentException If the partitions do not have the same number of
+     *         vertices.
+     */
+    public static PartitionRelabeling relabel(HypergraphPartition previous,
+            HypergraphPartition current) {
+        return relabel(previous, current, null);
+    }
+
+    /**
+     * Relabels the blocks of a partition to match a previous partition of the given
+     * hypergraph, taking into account the weights of its vertices.
+     *
+     * @param previous The previous partition.
+     * @param current The partition to relabel.
+     * @param hypergraph The partitioned hypergraph.
+     *
+     * @return The relabeling of the partition.
+     *
+     * @throws IllegalArgumentException If the partitions do not have the same number of
+     *         vertices.
+     */
+    public static PartitionRelabeling relabel(HypergraphPartition previous,
+            HypergraphPartition current, Hypergraph hypergraph) {
+        int nbVertices = current.numberOfVertices();
+        if (previous.numberOfVertices() != nbVertices) {
+            throw new IllegalArgumentException("The partitions do not have the same vertices!");
+        }
+
+        // Computing the best labels for the blocks of the new partition.
+        var vertexWeights = (hypergraph == null) ? null : hypergraph.getVertexWeights();
+        int nbPrevious = previous.numberOfBlocks();
+        int nbCurrent = current.numberOfBlocks();
+        var labels = (Math.max(nbPrevious, nbCurrent) <= MAX_BLOCKS_FOR_EXACT_ASSIGNMENT)
+                ? assignExactly(computeOverlap(previous, current, vertexWeights),
+                        nbCurrent, nbPrevious)
+                : assignGreedily(SparseOverlap.compute(previous, current, vertexWeights),
+                        nbCurrent, nbPrevious);
+
+        // Relabeling the vertices, and computing the migration plan.
+        int nbLabels = Math.max(nbPrevious, nbCurrent);
+        var blockIdentifiers = new int[nbVertices];
+        var moveIndices = new int[nbLabels + 1];
+        long retainedWeight = 0;
+        long migratedWeight = 0;
+        for (int v = 0; v < nbVertices; v++) {
+            int block = labels[current.blockOf(v + 1)];
+            blockIdentifiers[v] = block;
+            long weight = (vertexWeights == null) ? 1 : vertexWeights[v];
+            if (block == previous.blockOf(v + 1)) {
+                retainedWeight += weight;
+            } else {
+                migratedWeight += weight;
+                moveIndices[block + 1]++;
+            }
+        }
+
+        for (int b = 0; b < nbLabels; b++) {
+            moveIndices[b + 1] += moveIndices[b];
+        }
+
+        var moves = new int[moveIndices[nbLabels]];
+        var positions = Arrays.copyOf(moveIndices, nbLabels);
+        for (int v = 0; v < nbVertices; v++) {
+            int block = blockIdentifiers[v];
+            if (block != previous.blockOf(v + 1)) {
+                moves[positions[block]++] = v + 1;
+            }
+        }
+
+        var partition = HypergraphPartition.of(nbLabels, blockIdentifiers,
+                current.objectiveValue());
+        return new PartitionRelabeling(partition, labels, retainedWeight, migratedWeight,
+                moveIndices, moves);
+    }
+
+    /**
+     * Computes the overlap matrix between the blocks of two partitions.
+     *
+     * @param previous The previous partition.
+     * @param current The new partition.
+     * @param vertexWeights The weights of the vertices, or {@code null} if they are not
+     *        weighted.
+     *
+     * @return The overlap matrix, in which the cell {@code c * k + p} stores the weight
+     *         of the vertices in both block {@code c} of {@code current} and block
+     *         {@code p} of {@code previous}, where {@code k} is the number of blocks of
+     *         {@code previous}.
+     */
+    private static long[] computeOverlap(HypergraphPartition previous,
+            HypergraphPartition current, int[] vertexWeights) {
+        int nbVertices = current.numberOfVertices();
+        int nbPrevious = previous.numberOfBlocks();
+        int nbCells = Math.multiplyExact(nbPrevious, current.numberOfBlocks());
+
+        // Each chunk of vertices is considered independently.
+        int nbChunks = (int) Math.max(1, Math.min(Math.min(nbVertices / MIN_CHUNK_SIZE,
+                Runtime.getRuntime().availableProcessors()), MAX_OVERLAP_CELLS / nbCells));
+        var overlaps = new long[nbChunks][];
+        ParallelArrays.forEachChunk(nbVertices, nbChunks, (c, from, to) -> {
+            var overlap = new long[nbCells];
+            for (int v = from; v < to; v++) {
+                int cell = current.blockOf(v + 1) * nbPrevious + previous.blockOf(v + 1);
+                overlap[cell] += (vertexWeights == null) ? 1 : vertexWeights[v];
+            }
+            overlaps[c] = overlap;
+        });
+
+        // Summing up the overlaps computed by the chunks.
+        var overlap = overlaps[0];
+        for (int c = 1; c < nbChunks; c++) {
+            for (int i = 0; i < nbCells; i++) {
+                overlap[i] += overlaps[c][i];
+            }
+        }
+        return overlap;
+    }
+
+    /**
+     * Computes an optimal assignment of labels to the blocks of the new partition, using
+     * the Hungarian algorithm.
+     *
+     * @param overlap The overlap matrix between the blocks of both partitions.
+     * @param nbCurrent The number of blocks in the new partition.
+     * @param nbPrevious The number of blocks in the previous partition.
+     *
+     * @return The label assigned to each block of the new partition.
+     */
+    private static int[] assignExactly(long[] overlap, int nbCurrent, int nbPrevious) {
+        // The assignment problem is considered on a square matrix, with 1-based indices.
+        int n = Math.max(nbCurrent, nbPrevious);
+        long max = 0;
+        for (long weight : overlap) {
+            max = Math.max(max, weight);
+        }
+
+        // Potentials of the rows and columns, and matching of the columns.
+        var rowPotentials = new long[n + 1];
+        var columnPotentials = new long[n + 1];
+        var matchedRow = new int[n + 1];
+        var way = new int[n + 1];
+        var minSlack = new long[n + 1];
+        var used = new boolean[n + 1];
+
+        for (int row = 1; row <= n; row++) {
+            // Looking for an augmenting path starting from this row.
+            matchedRow[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+
+            do {
+                used[column] = true;
+                int currentRow = matchedRow[column];
+                long delta = Long.MAX_VALUE;
+                int nextColumn = 0;
+                for (int j = 1; j <= n; j++) {
+                    if (!used[j]) {
+                        long cost = max - weightOf(overlap, currentRow - 1, j - 1,
+                                nbCurrent, nbPrevious);
+                        long slack = cost - rowPotentials[currentRow] - columnPotentials[j];
+                        if (slack < minSlack[j]) {
+                            minSlack[j] = slack;
+                            way[j] = column;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            nextColumn = j;
+                        }
+                    }
+                }
+
+                // Updating the potentials.
+                for (int j = 0; j <= n; j++) {
+                    if (used[j]) {
+                        rowPotentials[matchedRow[j]] += delta;
+                        columnPotentials[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (matchedRow[column] != 0);
+
+            // Applying the augmenting path.
+            do {
+                int previousColumn = way[column];
+                matchedRow[column] = matchedRow[previousColumn];
+                column = previousColumn;
+            } while (column != 0);
+        }
+
+        // Retrieving the label of each block.
+        var labels = new int[nbCurrent];
+        for (int j = 1; j <= n; j++) {
+            if (matchedRow[j] <= nbCurrent) {
+                labels[matchedRow[j] - 1] = j - 1;
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Gives the weight of a cell in the overlap matrix, considered as a square matrix
+     * padded with zeros.
+     *
+     * @param overlap The overlap matrix.
+     * @param current The block in the new partition.
+     * @param previous The block in the previous partition.
+     * @param nbCurrent The number of blocks in the new partition.
+     * @param nbPrevious The number of blocks in the previous partition.
+     *
+     * @return The weight of the cell.
+     */
+    private static long weightOf(long[] overlap, int current, int previous, int nbCurrent,
+            int nbPrevious) {
+        if ((current >= nbCurrent) || (previous >= nbPrevious)) {
+            return 0;
+        }
+        return overlap[current * nbPrevious + previous];
+    }
+
+    /**
+     * Computes an assignment of labels to the blocks of the new partition, by greedily
+     * matching the blocks having the largest overlaps.
+     *
+     * @param overlap The non-empty cells of the overlap matrix between the blocks of
+     *        both partitions.
+     * @param nbCurrent The number of blocks in the new partition.
+     * @param nbPrevious The number of blocks in the previous partition.
+     *
+     * @return The label assigned to each block of the new partition.
+     */
+    private static int[] assignGreedily(SparseOverlap overlap, int nbCurrent,
+            int nbPrevious) {
+        // Ranking the distinct weights of the cells, from the largest to the smallest.
+        int nbCells = overlap.size;
+        var distinct = Arrays.copyOf(overlap.weights, nbCells);
+        Arrays.sort(distinct);
+        int nbDistinct = 0;
+        for (int i = 0; i < nbCells; i++) {
+            if ((nbDistinct == 0) || (distinct[nbDistinct - 1] != distinct[i])) {
+                distinct[nbDistinct++] = distinct[i];
+            }
+        }
+
+        // Sorting the cells by decreasing weight, packing the rank and the cell in a key.
+        var keys = new long[nbCells];
+        for (int i = 0; i < nbCells; i++) {
+            int rank = nbDistinct - 1
+                    - Arrays.binarySearch(distinct, 0, nbDistinct, overlap.weights[i]);
+            keys[i] = ((long) rank << Integer.SIZE) | i;
+        }
+        Arrays.sort(keys);
+
+        // Matching the blocks of the cells having the largest weights.
+        var labels = new int[nbCurrent];
+        Arrays.fill(labels, -1);
+        var usedLabels = new boolean[Math.max(nbCurrent, nbPrevious)];
+        for (long key : keys) {
+            int current = overlap.currentBlocks[(int) key];
+            int previous = overlap.previousBlocks[(int) key];
+            if ((labels[current] < 0) && !usedLabels[previous]) {
+                labels[current] = previous;
+                usedLabels[previous] = true;
+            }
+        }
+
+        // The remaining blocks receive the remaining labels.
+        int nextLabel = 0;
+        for (int b = 0; b < nbCurrent; b++) {
+            if (labels[b] < 0) {
+                while (usedLabels[nextLabel]) {
+                    nextLabel++;
+                }
+                labels[b] = nextLabel;
+                usedLabels[nextLabel] = true;
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * The SparseOverlap stores the non-empty cells of the overlap matrix between the
+     * blocks of two partitions.
+     */
+    private static final class SparseOverlap {
+
+        /**
+         * The blocks of the new partition of the cells.
+         */
+        private final int[] currentBlocks;
+
+        /**
+         * The blocks of the previous partition of the cells.
+         */
+        private final int[] previousBlocks;
+
+        /**
+         * The weights of the cells.
+         */
+        private final long[] weights;
+
+        /**
+         * The number of cells.
+         */
+        private int size;
+
+        /**
+         * Creates a new SparseOverlap.
+         *
+         * @param capacity The maximum number of cells to store.
+         */
+        private SparseOverlap(int capacity) {
+            this.currentBlocks = new int[capacity];
+            this.previousBlocks = new int[capacity];
+            this.weights = new long[capacity];
+        }
+
+        /**
+         * Computes the non-empty cells of the overlap matrix between the blocks of two
+         * partitions.
+         * The vertices are grouped by block of the new partition, so that the weights
+         * of the cells of a block are accumulated in an array indexed by the blocks of
+         * the previous partition, which is reset after each group.
+         *
+         * @param previous The previous partition.
+         * @param current The new partition.
+         * @param vertexWeights The weights of the vertices, or {@code null} if they are
+         *        not weighted.
+         *
+         * @return The non-empty cells of the overlap matrix, ordered by block of
+         *         {@code current}, then by block of {@code previous}.
+         */
+        static SparseOverlap compute(HypergraphPartition previous,
+                HypergraphPartition current, int[] vertexWeights) {
+            int nbVertices = current.numberOfVertices();
+            int nbCurrent = current.numberOfBlocks();
+            int nbPrevious = previous.numberOfBlocks();
+
+            // Grouping the vertices by block of the new partition (counting sort).
+            var starts = new int[nbCurrent + 1];
+            for (int v = 1; v <= nbVertices; v++) {
+                starts[current.blockOf(v) + 1]++;
+            }
+            for (int b = 0; b < nbCurrent; b++) {
+                starts[b + 1] += starts[b];
+            }
+            var vertices = new int[nbVertices];
+            var positions = Arrays.copyOf(starts, nbCurrent);
+            for (int v = 0; v < nbVertices; v++) {
+                vertices[positions[current.blockOf(v + 1)]++] = v;
+            }
+
+            // Accumulating the weights of the previous blocks met in each group.
+            var overlap = new SparseOverlap(nbVertices);
+            var weights = new long[nbPrevious];
+            var stamps = new int[nbPrevious];
+            var touched = new int[Math.min(nbVertices, nbPrevious)];
+            for (int c = 0; c < nbCurrent; c++) {
+                int nbTouched = 0;
+                for (int i = starts[c]; i < starts[c + 1]; i++) {
+                    int v = vertices[i];
+                    int p = previous.blockOf(v + 1);
+                    if (stamps[p] != c + 1) {
+                        stamps[p] = c + 1;
+                        touched[nbTouched++] = p;
+                    }
+                    weights[p] += (vertexWeights == null) ? 1 : vertexWeights[v];
+                }
+
+                // Storing the non-empty cells of the group, and resetting the weights.
+                Arrays.sort(touched, 0, nbTouched);
+                for (int i = 0; i < nbTouched; i++) {
+                    int p = touched[i];
+                    if (weights[p] > 0) {
+                        overlap.currentBlocks[overlap.size] = c;
+                        overlap.previousBlocks[overlap.size] = p;
+                        overlap.weights[overlap.size] = weights[p];
+                        overlap.size++;
+                    }
+                    weights[p] = 0;
+                }
+            }
+            return overlap;
+        }
+
+    }
+
+    /**
+     * Gives the relabeled partition.
+     * Its number of blocks is the maximum of the numbers of blocks of both partitions,
+     * so that some of its blocks may be empty.
+     *
+     * @return The relabeled partition.
+     */
+    public HypergraphPartition getPartition() {
+        return partition;
+    }
+
+    /**
+     * Gives the new identifier of the given block of the partition that has been
+     * relabeled.
+     *
+     * @param block The identifier of the block in the original partition.
+     *
+     * @return The identifier of the block in the relabeled partition.
+     */
+    public int labelOf(int block) {
+        return labels[block];
+    }
+
+    /**
+     * Gives the total weight of the vertices that remain in the same block.
+     *
+     * @return The weight of the vertices that do not move.
+     */
+    public long retainedWeight() {
+        return retainedWeight;
+    }
+
+    /**
+     * Gives the total weight of the vertices that have to move to another block.
+     *
+     * @return The weight of the vertices that move.
+     */
+    public long migratedWeight() {
+        return migratedWeight;
+    }
+
+    /**
+     * Gives the number of vertices that have to move to another block.
+     *
+     * @return The number of moves.
+     */
+    public int numberOfMoves() {
+        return moves.length;
+    }
+
+    /**
+     * Gives the vertices that have to be moved to the given block of the relabeled
+     * partition.
+     * The block from which each vertex comes is given by the previous partition.
+     *
+     * @param block The identifier of the destination block.
+     *
+     * @return The vertices to move to the block, in increasing order.
+     */
+    public int[] getMovesTo(int block) {
+        return Arrays.copyOfRange(moves, moveIndices[block], moveIndices[block + 1]);
+    }
+
+}
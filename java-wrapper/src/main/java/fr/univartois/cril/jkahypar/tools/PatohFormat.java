@@ -0,0 +1,232 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The PatohFormat allows to write and read {@link Hypergraph} instances in the format
+ * used by PaToH, in which vertices are called cells, and hyperedges are called nets.
+ *
+ * A file in this format starts with a header giving the index base ({@code 0} or
+ * {@code 1}), the number of cells, the number of nets, the number of pins and,
+ * optionally, the weighting scheme ({@code 1} for weights on cells, {@code 2} for
+ * weights on nets, and {@code 3} for both) and the number of constraints (i.e., of
+ * weights per cell).
+ * The following lines give, for each net, its weight (if any) followed by its cells.
+ * The weights of the cells follow the nets.
+ * Only the first constraint is kept when cells have several weights.
+ *
+ * Hypergraphs are read and written in a streaming fashion, by decoding and formatting
+ * integers directly in large buffers, as with {@link HypergraphParser} and
+ * {@link HypergraphWriter}.
+ * As the number of pins is known from the header, the arrays storing the read
+ * hypergraph are allocated only once.
+ * Written files always use {@code 1} as index base.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class PatohFormat {
+
+    /**
+     * The character starting a comment line.
+     */
+    private static final char COMMENT = '%';
+
+    /**
+     * The weighting scheme flag telling that cells are weighted.
+     */
+    private static final int WEIGHTED_CELLS = 1;
+
+    /**
+     * The weighting scheme flag telling that nets are weighted.
+     */
+    private static final int WEIGHTED_NETS = 2;
+
+    /**
+     * Disables instantiation.
+     */
+    private PatohFormat() {
+        throw new AssertionError("No PatohFormat instances for you!");
+    }
+
+    /**
+     * Writes a hypergraph to a file.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param file The path of the file to write.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(Hypergraph hypergraph, Path file) throws IOException {
+        write(hypergraph, FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Writes a hypergraph to a channel.
+     * The channel is closed once the hypergraph has been written.
+     *
+     * @param hypergraph The hypergraph to write.
+     * @param channel The channel to write the hypergraph to.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(Hypergraph hypergraph, WritableByteChannel channel)
+            throws IOException {
+        try (var output = new AsciiOutput(channel)) {
+            // Writing the header, with the weighting scheme only if it is needed.
+            var vertexWeights = hypergraph.getVertexWeights();
+            int scheme = (vertexWeights == null) ? 0 : WEIGHTED_CELLS;
+            if (hypergraph.getHyperedgeWeights() != null) {
+                scheme |= WEIGHTED_NETS;
+            }
+            output.writeInt(1).write(' ');
+            output.writeInt(hypergraph.getNumberOfVertices()).write(' ');
+            output.writeInt(hypergraph.getNumberOfHyperedges()).write(' ');
+            output.writeLong(hypergraph.getNumberOfPins());
+            if (scheme != 0) {
+                output.write(' ').writeInt(scheme);
+            }
+            output.newLine();
+
+            // The nets are written as the hyperedges of the hMetis format.
+            HypergraphWriter.writeHyperedges(hypergraph, 0,
+                    hypergraph.getNumberOfHyperedges(), output);
+            if (vertexWeights != null) {
+                HypergraphWriter.writeWeights(vertexWeights, 0, vertexWeights.length,
+                        output);
+            }
+        }
+    }
+
+    /**
+     * Reads a hypergraph from a file, which may be compressed.
+     *
+     * @param file The path of the file to read.
+     *
+     * @return The read hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the file is not a
+     *         valid hypergraph.
+     */
+    public static Hypergraph read(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        return read(DecompressingChannel.open(channel));
+    }
+
+    /**
+     * Reads a hypergraph from a channel.
+     * The channel is closed once the hypergraph has been read.
+     *
+     * @param channel The channel to read the hypergraph from.
+     *
+     * @return The read hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while reading, or if the channel does
+     *         not contain a valid hypergraph.
+     */
+    public static Hypergraph read(ReadableByteChannel channel) throws IOException {
+        try (var input = new AsciiInput(channel)) {
+            // Reading the header.
+            if (!input.skipEmptyAndCommentLines(COMMENT)) {
+                throw new IOException("Missing hypergraph header");
+            }
+            int base = input.readInt();
+            if ((base != 0) && (base != 1)) {
+                throw new IOException("Invalid index base: " + base);
+            }
+            int nbCells = input.readInt();
+            int nbNets = input.readInt();
+            long nbPins = input.readLong();
+            int scheme = input.skipBlanks() ? input.readInt() : 0;
+            int nbConstraints = input.skipBlanks() ? input.readInt() : 1;
+            if ((scheme < 0) || (scheme > (WEIGHTED_CELLS | WEIGHTED_NETS))
+                    || (nbConstraints < 1)) {
+                throw new IOException("Invalid weighting scheme: " + scheme
+                        + " with " + nbConstraints + " constraints");
+            }
+            input.nextLine();
+
+            // Reading the nets directly in arrays of the exact size.
+            var builder = createHypergraph(nbCells, nbNets, nbPins);
+            boolean weightedNets = (scheme & WEIGHTED_NETS) != 0;
+            var batch = new HyperedgeBatch(builder, nbNets, weightedNets);
+            long nbReadPins = 0;
+            for (int h = 0; h < nbNets; h++) {
+                while (input.peek() == COMMENT) {
+                    input.nextLine();
+                }
+                if (input.peek() == AsciiInput.END_OF_INPUT) {
+                    throw new IOException("Missing nets: " + nbNets + " expected");
+                }
+
+                if (weightedNets) {
+                    batch.setWeight(input.readInt());
+                }
+                while (input.skipBlanks()) {
+                    int cell = input.readInt() - base;
+                    if ((cell < 0) || (cell >= nbCells)) {
+                        throw new IOException("Invalid cell in net: " + (cell + base));
+                    }
+                    batch.addVertex(cell + 1);
+                    nbReadPins++;
+                }
+                input.nextLine();
+                batch.endHyperedge();
+            }
+            batch.flush();
+
+            if (nbReadPins != nbPins) {
+                throw new IOException("Wrong number of pins: " + nbPins + " expected, "
+                        + nbReadPins + " read");
+            }
+
+            // Reading the weights of the cells, keeping only the first constraint.
+            for (int v = 1; ((scheme & WEIGHTED_CELLS) != 0) && (v <= nbCells); v++) {
+                for (int c = 0; c < nbConstraints; c++) {
+                    if (!input.skipWhitespaces()) {
+                        throw new IOException("Missing cell weights: " + nbCells
+                                + " expected");
+                    }
+                    int weight = input.readInt();
+                    if (c == 0) {
+                        builder.withVertexWeight(v, weight);
+                    }
+                }
+            }
+
+            return builder.build();
+        }
+    }
+
+}
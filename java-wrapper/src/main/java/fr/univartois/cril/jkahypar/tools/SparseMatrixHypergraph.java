@@ -0,0 +1,186 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.VertexIncidence;
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The SparseMatrixHypergraph allows to build the hypergraph models of a sparse matrix
+ * given in compressed sparse row (CSR) form, as used for partitioning the matrix for
+ * parallel sparse matrix-vector multiplication.
+ *
+ * In both models, each vertex is weighted by its number of nonzeros, i.e., by the
+ * amount of computation associated to the corresponding row or column.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class SparseMatrixHypergraph {
+
+    /**
+     * The Model enumerates the different hypergraphs that can represent a sparse
+     * matrix.
+     */
+    public enum Model {
+
+        /**
+         * The model in which vertices are the columns of the matrix, and hyperedges are
+         * its rows (each hyperedge contains the columns of the nonzeros of the row).
+         * This model is the CSR representation of the matrix itself, which is thus
+         * used without being copied.
+         */
+        ROW_NET,
+
+        /**
+         * The model in which vertices are the rows of the matrix, and hyperedges are its
+         * columns (each hyperedge contains the rows of the nonzeros of the column).
+         * This model is obtained by transposing the matrix in parallel.
+         */
+        COLUMN_NET
+
+    }
+
+    /**
+     * The handle used to atomically update the elements of an array of ints.
+     */
+    private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Disables instantiation.
+     */
+    private SparseMatrixHypergraph() {
+        throw new AssertionError("No SparseMatrixHypergraph instances for you!");
+    }
+
+    /**
+     * Creates the hypergraph representing a sparse matrix given in CSR form with
+     * {@code int} row pointers.
+     * The row pointers are converted to {@code long}, but the column indices are not
+     * copied.
+     *
+     * @param nbRows The number of rows in the matrix.
+     * @param nbColumns The number of columns in the matrix.
+     * @param rowPointers The indices at which the nonzeros of each row start in
+     *        {@code columnIndices}, followed by the number of nonzeros.
+     * @param columnIndices The columns of the nonzeros, numbered from {@code 0}.
+     * @param model The hypergraph model representing the matrix.
+     * @param validate Whether the arrays must be checked to represent a valid matrix.
+     *        Validation requires to read all arrays (in parallel), and should only be
+     *        enabled when the arrays come from an untrusted source.
+     *
+     * @return The hypergraph representing the matrix.
+     *
+     * @throws IllegalArgumentException If there are not {@code nbRows + 1} row pointers,
+     *         or if {@code validate} is {@code true} and the arrays do not represent a
+     *         valid matrix.
+     */
+    public static Hypergraph of(int nbRows, int nbColumns, int[] rowPointers,
+            int[] columnIndices, Model model, boolean validate) {
+        if (rowPointers.length != nbRows + 1) {
+            throw new IllegalArgumentException("Expected " + (nbRows + 1) + " row pointers");
+        }
+
+        var longRowPointers = new long[nbRows + 1];
+        ParallelArrays.forEachChunk(longRowPointers.length, (from, to) -> {
+            for (int r = from; r < to; r++) {
+                longRowPointers[r] = rowPointers[r];
+            }
+        });
+        return of(nbRows, nbColumns, longRowPointers, columnIndices, model, validate);
+    }
+
+    /**
+     * Creates the hypergraph representing a sparse matrix given in CSR form.
+     * The arrays are not copied, and must thus not be modified while the hypergraph is
+     * used.
+     *
+     * @param nbRows The number of rows in the matrix.
+     * @param nbColumns The number of columns in the matrix.
+     * @param rowPointers The indices at which the nonzeros of each row start in
+     *        {@code columnIndices}, followed by the number of nonzeros.
+     * @param columnIndices The columns of the nonzeros, numbered from {@code 0}.
+     * @param model The hypergraph model representing the matrix.
+     * @param validate Whether the arrays must be checked to represent a valid matrix.
+     *        Validation requires to read all arrays (in parallel), and should only be
+     *        enabled when the arrays come from an untrusted source.
+     *
+     * @return The hypergraph representing the matrix.
+     *
+     * @throws IllegalArgumentException If there are not {@code nbRows + 1} row pointers,
+     *         or if {@code validate} is {@code true} and the arrays do not represent a
+     *         valid matrix.
+     */
+    public static Hypergraph of(int nbRows, int nbColumns, long[] rowPointers,
+            int[] columnIndices, Model model, boolean validate) {
+        if (rowPointers.length != nbRows + 1) {
+            throw new IllegalArgumentException("Expected " + (nbRows + 1) + " row pointers");
+        }
+
+        // Validating the matrix before the arrays are read to compute the model.
+        var rowNet = Hypergraph.wrapping(nbColumns, rowPointers, columnIndices, null, null,
+                validate);
+        if (model == Model.ROW_NET) {
+            // The matrix already represents the hypergraph.
+            return Hypergraph.wrapping(nbColumns, rowPointers, columnIndices, null,
+                    columnCounts(nbColumns, rowPointers, columnIndices), false);
+        }
+
+        // The hyperedges of the columns are obtained by transposing the matrix.
+        var transpose = VertexIncidence.of(rowNet);
+        var rowCounts = new int[nbRows];
+        ParallelArrays.forEachChunk(nbRows, (from, to) -> {
+            for (int r = from; r < to; r++) {
+                rowCounts[r] = (int) (rowPointers[r + 1] - rowPointers[r]);
+            }
+        });
+        return Hypergraph.wrapping(nbRows, transpose.getVertexIndices(),
+                transpose.getIncidences(), null, rowCounts, false);
+    }
+
+    /**
+     * Counts in parallel the nonzeros in each column of a sparse matrix.
+     *
+     * @param nbColumns The number of columns in the matrix.
+     * @param rowPointers The indices at which the nonzeros of each row start in
+     *        {@code columnIndices}, followed by the number of nonzeros.
+     * @param columnIndices The columns of the nonzeros, numbered from {@code 0}.
+     *
+     * @return The number of nonzeros in each column.
+     */
+    private static int[] columnCounts(int nbColumns, long[] rowPointers, int[] columnIndices) {
+        var counts = new int[nbColumns];
+        int from = (int) rowPointers[0];
+        int to = (int) rowPointers[rowPointers.length - 1];
+        ParallelArrays.forEachChunk(to - from, (start, end) -> {
+            for (int i = from + start; i < from + end; i++) {
+                INT_ARRAY.getAndAdd(counts, columnIndices[i], 1);
+            }
+        });
+        return counts;
+    }
+
+}
@@ -0,0 +1,581 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The SubHypergraph is the sub-hypergraph of a {@link Hypergraph} induced by a subset
+ * of its vertices, such as a block of a {@link HypergraphPartition}.
+ *
+ * The vertices of the sub-hypergraph are densely renumbered, by increasing original
+ * identifier.
+ * By default, only the hyperedges whose vertices all belong to the subset are kept.
+ * Cut hyperedges may also be trimmed to the vertices they have in the subset, in which
+ * case they are kept as long as at least two of their vertices remain, since smaller
+ * hyperedges can never be cut.
+ *
+ * Extraction works directly on the CSR arrays of the hypergraph, in parallel, using a
+ * counting pass followed by a filling pass.
+ * All the blocks of a partition can be extracted in the same sweep.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class SubHypergraph {
+
+    /**
+     * The extracted sub-hypergraph.
+     */
+    private final Hypergraph hypergraph;
+
+    /**
+     * The original identifier of each vertex of the sub-hypergraph (numbered from
+     * {@code 0}).
+     */
+    private final int[] originalVertices;
+
+    /**
+     * The original identifier of each hyperedge of the sub-hypergraph.
+     */
+    private final int[] originalHyperedges;
+
+    /**
+     * The identifier in its sub-hypergraph of each original vertex (numbered from
+     * {@code 0}), shared by all the sub-hypergraphs extracted in the same sweep.
+     */
+    private final int[] subVertices;
+
+    /**
+     * The subset of each original vertex, shared by all the sub-hypergraphs extracted in
+     * the same sweep.
+     */
+    private final int[] subsets;
+
+    /**
+     * The subset of the original vertices inducing this sub-hypergraph.
+     */
+    private final int subset;
+
+    /**
+     * Creates a new SubHypergraph.
+     *
+     * @param hypergraph The extracted sub-hypergraph.
+     * @param originalVertices The original identifier of each vertex of the
+     *        sub-hypergraph.
+     * @param originalHyperedges The original identifier of each hyperedge of the
+     *        sub-hypergraph.
+     * @param subVertices The identifier in its sub-hypergraph of each original vertex.
+     * @param subsets The subset of each original vertex.
+     * @param subset The subset inducing the sub-hypergraph.
+     */
+    private SubHypergraph(Hypergraph hypergraph, int[] originalVertices,
+            int[] originalHyperedges, int[] subVertices, int[] subsets, int subset) {
+        this.hypergraph = hypergraph;
+        this.originalVertices = originalVertices;
+        this.originalHyperedges = originalHyperedges;
+        this.subVertices = subVertices;
+        this.subsets = subsets;
+        this.subset = subset;
+    }
+
+    /**
+     * Extracts the sub-hypergraph induced by the given vertices.
+     *
+     * @param hypergraph The hypergraph to extract the sub-hypergraph from.
+     * @param vertices The vertices (numbered from {@code 1}) inducing the sub-hypergraph.
+     * @param trimCutHyperedges Whether cut hyperedges must be trimmed to the given
+     *        vertices (instead of being dropped).
+     *
+     * @return The induced sub-hypergraph.
+     *
+     * @throws IllegalArgumentException If one of the vertices does not exist, or appears
+     *         more than once.
+     */
+    public static SubHypergraph induced(Hypergraph hypergraph, int[] vertices,
+            boolean trimCutHyperedges) {
+        var subsets = new int[hypergraph.getNumberOfVertices()];
+        Arrays.fill(subsets, -1);
+        for (int v : vertices) {
+            if ((v < 1) || (v > subsets.length)) {
+                throw new IllegalArgumentException("Vertex " + v + " does not exist!");
+            }
+            if (subsets[v - 1] == 0) {
+                throw new IllegalArgumentException("Vertex " + v + " appears more than once!");
+            }
+            subsets[v - 1] = 0;
+        }
+
+        return extract(hypergraph, subsets, 1, trimCutHyperedges)[0];
+    }
+
+    /**
+     * Extracts the sub-hypergraph induced by the given block of a partition.
+     *
+     * @param hypergraph The partitioned hypergraph.
+     * @param partition The partition of the hypergraph.
+     * @param block The block inducing the sub-hypergraph.
+     * @param trimCutHyperedges Whether cut hyperedges must be trimmed to the vertices of
+     *        the block (instead of being dropped).
+     *
+     * @return The induced sub-hypergraph.
+     *
+     * @throws IllegalArgumentException If the partition does not match the hypergraph.
+     */
+    public static SubHypergraph ofBlock(Hypergraph hypergraph, HypergraphPartition partition,
+            int block, boolean trimCutHyperedges) {
+        var subsets = subsetsOf(hypergraph, partition);
+        ParallelArrays.forEachChunk(subsets.length, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                subsets[v] = (subsets[v] == block) ? 0 : -1;
+            }
+        });
+        return extract(hypergraph, subsets, 1, trimCutHyperedges)[0];
+    }
+
+    /**
+     * Extracts the sub-hypergraphs induced by all the blocks of a partition, in a single
+     * sweep over the hypergraph.
+     *
+     * @param hypergraph The partitioned hypergraph.
+     * @param partition The partition of the hypergraph.
+     * @param trimCutHyperedges Whether cut hyperedges must be trimmed to the vertices of
+     *        each block (instead of being dropped).
+     *
+     * @return The sub-hypergraph induced by each block, in the order of the blocks.
+     *
+     * @throws IllegalArgumentException If the partition does not match the hypergraph.
+     */
+    public static List<SubHypergraph> ofBlocks(Hypergraph hypergraph,
+            HypergraphPartition partition, boolean trimCutHyperedges) {
+        var subsets = subsetsOf(hypergraph, partition);
+        return List.of(extract(hypergraph, subsets, partition.numberOfBlocks(), trimCutHyperedges));
+    }
+
+    /**
+     * Gives the block of each vertex of a partitioned hypergraph.
+     *
+     * @param hypergraph The partitioned hypergraph.
+     * @param partition The partition of the hypergraph.
+     *
+     * @return The block of each vertex (numbered from {@code 0}).
+     *
+     * @throws IllegalArgumentException If the partition does not match the hypergraph.
+     */
+    private static int[] subsetsOf(Hypergraph hypergraph, HypergraphPartition partition) {
+        if (partition.numberOfVertices() != hypergraph.getNumberOfVertices()) {
+            throw new IllegalArgumentException("The partition does not match the hypergraph!");
+        }
+
+        var subsets = new int[partition.numberOfVertices()];
+        ParallelArrays.forEachChunk(subsets.length, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                subsets[v] = partition.blockOf(v + 1);
+            }
+        });
+        return subsets;
+    }
+
+    /**
+     * Extracts the sub-hypergraphs induced by disjoint subsets of vertices.
+     *
+     * @param hypergraph The hypergraph to extract the sub-hypergraphs from.
+     * @param subsets The subset of each vertex (numbered from {@code 0}), or {@code -1}
+     *        if the vertex does not belong to any subset.
+     * @param nbSubsets The number of subsets.
+     * @param trim Whether cut hyperedges must be trimmed.
+     *
+     * @return The sub-hypergraph induced by each subset.
+     */
+    private static SubHypergraph[] extract(Hypergraph hypergraph, int[] subsets,
+            int nbSubsets, boolean trim) {
+        var subVertices = new int[subsets.length];
+        var originalVertices = renumberVertices(subsets, nbSubsets, subVertices);
+
+        // Counting the hyperedges and pins of each subset, for each chunk of hyperedges.
+        int nbHyperedges = hypergraph.getNumberOfHyperedges();
+        int nbChunks = ParallelArrays.numberOfChunks(nbHyperedges);
+        var chunks = new HyperedgeChunk[nbChunks];
+        ParallelArrays.forEachChunk(nbHyperedges, nbChunks, (c, from, to) -> {
+            chunks[c] = new HyperedgeChunk(hypergraph, subsets, nbSubsets, trim, from, to);
+            chunks[c].count();
+        });
+
+        // Computing where each chunk writes its hyperedges in each subset.
+        var indices = new long[nbSubsets][];
+        var pins = new int[nbSubsets][];
+        var originalHyperedges = new int[nbSubsets][];
+        var weights = new int[nbSubsets][];
+        var hyperedgeWeights = hypergraph.getHyperedgeWeights();
+        for (int s = 0; s < nbSubsets; s++) {
+            int hyperedgeOffset = 0;
+            long pinOffset = 0;
+            for (var chunk : chunks) {
+                int count = chunk.hyperedgeCounts[s];
+                chunk.hyperedgeCounts[s] = hyperedgeOffset;
+                hyperedgeOffset += count;
+                long pinCount = chunk.pinCounts[s];
+                chunk.pinCounts[s] = pinOffset;
+                pinOffset += pinCount;
+            }
+            indices[s] = new long[hyperedgeOffset + 1];
+            indices[s][hyperedgeOffset] = pinOffset;
+            pins[s] = new int[Math.toIntExact(pinOffset)];
+            originalHyperedges[s] = new int[hyperedgeOffset];
+            weights[s] = (hyperedgeWeights == null) ? null : new int[hyperedgeOffset];
+        }
+
+        // Filling the hyperedges of the sub-hypergraphs.
+        IntStream.range(0, nbChunks).parallel().forEach(c -> chunks[c].fill(
+                subVertices, indices, pins, originalHyperedges, weights));
+
+        // Creating the sub-hypergraphs.
+        var vertexWeights = hypergraph.getVertexWeights();
+        var subHypergraphs = new SubHypergraph[nbSubsets];
+        IntStream.range(0, nbSubsets).parallel().forEach(s -> {
+            int[] subVertexWeights = null;
+            if (vertexWeights != null) {
+                subVertexWeights = new int[originalVertices[s].length];
+                for (int v = 0; v < subVertexWeights.length; v++) {
+                    subVertexWeights[v] = vertexWeights[originalVertices[s][v]];
+                }
+            }
+            var subHypergraph = Hypergraph.wrapping(originalVertices[s].length, indices[s],
+                    pins[s], weights[s], subVertexWeights, false);
+            subHypergraphs[s] = new SubHypergraph(subHypergraph, originalVertices[s],
+                    originalHyperedges[s], subVertices, subsets, s);
+        });
+        return subHypergraphs;
+    }
+
+    /**
+     * Renumbers the vertices of each subset, by increasing original identifier.
+     *
+     * @param subsets The subset of each vertex, or {@code -1} if the vertex does not
+     *        belong to any subset.
+     * @param nbSubsets The number of subsets.
+     * @param subVertices The array in which to store the new identifier of each vertex.
+     *
+     * @return The original identifier of the vertices of each subset.
+     */
+    private static int[][] renumberVertices(int[] subsets, int nbSubsets, int[] subVertices) {
+        // Counting the vertices of each subset, for each chunk of vertices.
+        int nbVertices = subsets.length;
+        int nbChunks = ParallelArrays.numberOfChunks(nbVertices);
+        var counts = new int[nbChunks][nbSubsets];
+        ParallelArrays.forEachChunk(nbVertices, nbChunks, (c, from, to) -> {
+            for (int v = from; v < to; v++) {
+                if (subsets[v] >= 0) {
+                    counts[c][subsets[v]]++;
+                }
+            }
+        });
+
+        // Computing where each chunk writes its vertices in each subset.
+        var originalVertices = new int[nbSubsets][];
+        for (int s = 0; s < nbSubsets; s++) {
+            int offset = 0;
+            for (int c = 0; c < nbChunks; c++) {
+                int count = counts[c][s];
+                counts[c][s] = offset;
+                offset += count;
+            }
+            originalVertices[s] = new int[offset];
+        }
+
+        // Renumbering the vertices, using the same chunks as when counting them.
+        ParallelArrays.forEachChunk(nbVertices, nbChunks, (c, from, to) -> {
+            var positions = counts[c];
+            for (int v = from; v < to; v++) {
+                int subset = subsets[v];
+                if (subset >= 0) {
+                    int position = positions[subset]++;
+                    subVertices[v] = position;
+                    originalVertices[subset][position] = v;
+                }
+            }
+        });
+        return originalVertices;
+    }
+
+    /**
+     * Gives the extracted sub-hypergraph.
+     *
+     * @return The sub-hypergraph.
+     */
+    public Hypergraph getHypergraph() {
+        return hypergraph;
+    }
+
+    /**
+     * Gives the original identifier of a vertex of the sub-hypergraph.
+     *
+     * @param vertex The vertex of the sub-hypergraph (numbered from {@code 1}).
+     *
+     * @return The original identifier of the vertex (numbered from {@code 1}).
+     */
+    public int originalVertexOf(int vertex) {
+        return originalVertices[vertex - 1] + 1;
+    }
+
+    /**
+     * Gives the identifier of an original vertex in the sub-hypergraph.
+     *
+     * @param vertex The original vertex (numbered from {@code 1}).
+     *
+     * @return The identifier of the vertex in the sub-hypergraph (numbered from
+     *         {@code 1}), or {@code 0} if the vertex does not belong to the
+     *         sub-hypergraph.
+     */
+    public int subVertexOf(int vertex) {
+        if (subsets[vertex - 1] != subset) {
+            return 0;
+        }
+        return subVertices[vertex - 1] + 1;
+    }
+
+    /**
+     * Gives the original identifier of a hyperedge of the sub-hypergraph.
+     *
+     * @param hyperedge The hyperedge of the sub-hypergraph.
+     *
+     * @return The original identifier of the hyperedge.
+     */
+    public int originalHyperedgeOf(int hyperedge) {
+        return originalHyperedges[hyperedge];
+    }
+
+    /**
+     * Gives the original identifiers of the vertices of the sub-hypergraph.
+     *
+     * @return The original identifier (numbered from {@code 0}) of each vertex of the
+     *         sub-hypergraph.
+     */
+    public int[] getOriginalVertices() {
+        return originalVertices;
+    }
+
+    /**
+     * Gives the original identifiers of the hyperedges of the sub-hypergraph.
+     *
+     * @return The original identifier of each hyperedge of the sub-hypergraph.
+     */
+    public int[] getOriginalHyperedges() {
+        return originalHyperedges;
+    }
+
+    /**
+     * The HyperedgeChunk extracts the parts of a chunk of hyperedges that belong to the
+     * different subsets.
+     */
+    private static final class HyperedgeChunk {
+
+        /**
+         * The indices at which the vertices of each hyperedge start.
+         */
+        private final long[] hyperedgeIndices;
+
+        /**
+         * The vertices of the hyperedges.
+         */
+        private final SegmentedIntArray hyperedgeVertices;
+
+        /**
+         * The weights of the hyperedges, or {@code null} if they are not weighted.
+         */
+        private final int[] hyperedgeWeights;
+
+        /**
+         * The subset of each vertex.
+         */
+        private final int[] subsets;
+
+        /**
+         * Whether cut hyperedges must be trimmed.
+         */
+        private final boolean trim;
+
+        /**
+         * The first hyperedge of this chunk.
+         */
+        private final int from;
+
+        /**
+         * The hyperedge at which this chunk stops (exclusive).
+         */
+        private final int to;
+
+        /**
+         * The number of hyperedges of this chunk in each subset, which then becomes the
+         * position at which this chunk writes its hyperedges.
+         */
+        private final int[] hyperedgeCounts;
+
+        /**
+         * The number of pins of this chunk in each subset, which then becomes the
+         * position at which this chunk writes its pins.
+         */
+        private final long[] pinCounts;
+
+        /**
+         * The number of vertices of the current hyperedge in each subset.
+         */
+        private final int[] sizes;
+
+        /**
+         * The subsets in which the current hyperedge has vertices.
+         */
+        private final int[] touched;
+
+        /**
+         * Creates a new HyperedgeChunk.
+         *
+         * @param hypergraph The hypergraph to extract the sub-hypergraphs from.
+         * @param subsets The subset of each vertex.
+         * @param nbSubsets The number of subsets.
+         * @param trim Whether cut hyperedges must be trimmed.
+         * @param from The first hyperedge of the chunk.
+         * @param to The hyperedge at which the chunk stops (exclusive).
+         */
+        HyperedgeChunk(Hypergraph hypergraph, int[] subsets, int nbSubsets, boolean trim,
+                int from, int to) {
+            this.hyperedgeIndices = hypergraph.getHyperedgeIndices();
+            this.hyperedgeVertices = hypergraph.getPins();
+            this.hyperedgeWeights = hypergraph.getHyperedgeWeights();
+            this.subsets = subsets;
+            this.trim = trim;
+            this.from = from;
+            this.to = to;
+            this.hyperedgeCounts = new int[nbSubsets];
+            this.pinCounts = new long[nbSubsets];
+            this.sizes = new int[nbSubsets];
+            this.touched = new int[nbSubsets];
+        }
+
+        /**
+         * Counts the hyperedges and pins of this chunk in each subset.
+         */
+        void count() {
+            for (int h = from; h < to; h++) {
+                int nbTouched = analyze(h);
+                for (int t = 0; t < nbTouched; t++) {
+                    int subset = touched[t];
+                    if (isKept(h, subset)) {
+                        hyperedgeCounts[subset]++;
+                        pinCounts[subset] += sizes[subset];
+                    }
+                    sizes[subset] = 0;
+                }
+            }
+        }
+
+        /**
+         * Fills the sub-hypergraphs with the hyperedges of this chunk.
+         *
+         * @param subVertices The identifier in its subset of each vertex.
+         * @param indices The indices of the hyperedges of each sub-hypergraph.
+         * @param pins The pins of each sub-hypergraph.
+         * @param originalHyperedges The original identifier of the hyperedges of each
+         *        sub-hypergraph.
+         * @param weights The weights of the hyperedges of each sub-hypergraph.
+         */
+        void fill(int[] subVertices, long[][] indices, int[][] pins,
+                int[][] originalHyperedges, int[][] weights) {
+            for (int h = from; h < to; h++) {
+                // Reserving room for the hyperedge in the subsets in which it is kept.
+                int nbTouched = analyze(h);
+                boolean kept = false;
+                for (int t = 0; t < nbTouched; t++) {
+                    int subset = touched[t];
+                    if (isKept(h, subset)) {
+                        int hyperedge = hyperedgeCounts[subset]++;
+                        indices[subset][hyperedge] = pinCounts[subset];
+                        originalHyperedges[subset][hyperedge] = h;
+                        if (hyperedgeWeights != null) {
+                            weights[subset][hyperedge] = hyperedgeWeights[h];
+                        }
+                        kept = true;
+                    } else {
+                        // The size is reset to mark the hyperedge as dropped.
+                        sizes[subset] = 0;
+                    }
+                }
+
+                // Copying the pins of the hyperedge in these subsets.
+                for (long p = hyperedgeIndices[h], end = hyperedgeIndices[h + 1];
+                        kept && (p < end); p++) {
+                    int vertex = hyperedgeVertices.get(p);
+                    int subset = subsets[vertex];
+                    if ((subset >= 0) && (sizes[subset] > 0)) {
+                        pins[subset][(int) pinCounts[subset]++] = subVertices[vertex];
+                    }
+                }
+
+                for (int t = 0; t < nbTouched; t++) {
+                    sizes[touched[t]] = 0;
+                }
+            }
+        }
+
+        /**
+         * Counts the vertices of a hyperedge in each subset.
+         *
+         * @param hyperedge The hyperedge to analyze.
+         *
+         * @return The number of subsets in which the hyperedge has vertices, which are
+         *         stored in {@link #touched}.
+         */
+        private int analyze(int hyperedge) {
+            int nbTouched = 0;
+            for (long p = hyperedgeIndices[hyperedge],
+                    end = hyperedgeIndices[hyperedge + 1]; p < end; p++) {
+                int subset = subsets[hyperedgeVertices.get(p)];
+                if ((subset >= 0) && (sizes[subset]++ == 0)) {
+                    touched[nbTouched++] = subset;
+                }
+            }
+            return nbTouched;
+        }
+
+        /**
+         * Checks whether (a part of) a hyperedge is kept in a subset.
+         *
+         * @param hyperedge The hyperedge to check.
+         * @param subset The subset to check.
+         *
+         * @return Whether the hyperedge is kept.
+         */
+        private boolean isKept(int hyperedge, int subset) {
+            int size = (int) (hyperedgeIndices[hyperedge + 1] - hyperedgeIndices[hyperedge]);
+            return (sizes[subset] == size) || (trim && (sizes[subset] >= 2));
+        }
+
+    }
+
+}
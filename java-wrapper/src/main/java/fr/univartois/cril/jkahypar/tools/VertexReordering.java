@@ -0,0 +1,550 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import java.util.Arrays;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.HypergraphTransformation;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.VertexIncidence;
+import fr.univartois.cril.jkahypar.util.ParallelArrays;
+
+/**
+ * The VertexReordering renumbers the vertices of a {@link Hypergraph} (and optionally
+ * sorts its hyperedges) so that vertices appearing in the same hyperedges get close
+ * identifiers.
+ *
+ * Partitioning algorithms repeatedly scan the pins of the hyperedges and access the
+ * data associated to the corresponding vertices.
+ * When neighboring vertices are numbered close to each other, these accesses hit the
+ * same cache lines, which often speeds up partitioning.
+ * The reordered hypergraph is partitioned instead of the original one, and the
+ * computed partitions are mapped back to the original vertices using
+ * {@link #restore(HypergraphPartition)} (this is done automatically by the partitioners
+ * created with {@link fr.univartois.cril.jkahypar.KahyparContext#createPartitionerFor(
+ * HypergraphTransformation)}).
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class VertexReordering implements HypergraphTransformation {
+
+    /**
+     * The reordered hypergraph.
+     */
+    private final Hypergraph hypergraph;
+
+    /**
+     * The new identifier of each original vertex (numbered from {@code 0}).
+     */
+    private final int[] newVertices;
+
+    /**
+     * The original identifier of each new vertex (numbered from {@code 0}).
+     */
+    private final int[] originalVertices;
+
+    /**
+     * The original identifier of each new hyperedge.
+     * This array is {@code null} when hyperedges are not reordered.
+     */
+    private final int[] originalHyperedges;
+
+    /**
+     * Creates a new VertexReordering.
+     *
+     * @param hypergraph The reordered hypergraph.
+     * @param newVertices The new identifier of each original vertex.
+     * @param originalVertices The original identifier of each new vertex.
+     * @param originalHyperedges The original identifier of each new hyperedge, or
+     *        {@code null} if hyperedges are not reordered.
+     */
+    private VertexReordering(Hypergraph hypergraph, int[] newVertices,
+            int[] originalVertices, int[] originalHyperedges) {
+        this.hypergraph = hypergraph;
+        this.newVertices = newVertices;
+        this.originalVertices = originalVertices;
+        this.originalHyperedges = originalHyperedges;
+    }
+
+    /**
+     * Reorders the vertices of the given hypergraph, without reordering its hyperedges.
+     *
+     * @param hypergraph The hypergraph to reorder.
+     * @param strategy The strategy used to order the vertices.
+     *
+     * @return The reordering of the hypergraph.
+     *
+     * @throws UnsupportedOperationException If the hypergraph has too many pins for the
+     *         reordered pins to be stored in a Java array.
+     */
+    public static VertexReordering of(Hypergraph hypergraph, Strategy strategy) {
+        return of(hypergraph, strategy, false);
+    }
+
+    /**
+     * Reorders the vertices of the given hypergraph.
+     * When hyperedges are also reordered, they are sorted by increasing smallest vertex,
+     * and the vertices of each hyperedge are sorted, so that the hyperedges are scanned
+     * in the same order as the vertices they contain.
+     *
+     * @param hypergraph The hypergraph to reorder.
+     * @param strategy The strategy used to order the vertices.
+     * @param sortHyperedges Whether the hyperedges must also be reordered.
+     *
+     * @return The reordering of the hypergraph.
+     *
+     * @throws UnsupportedOperationException If the hypergraph has too many pins for the
+     *         reordered pins to be stored in a Java array.
+     */
+    public static VertexReordering of(Hypergraph hypergraph, Strategy strategy,
+            boolean sortHyperedges) {
+        // Computing the new order of the vertices.
+        var incidence = hypergraph.getVertexIncidence();
+        var originalVertices = strategy.order(hypergraph, incidence);
+        var newVertices = new int[originalVertices.length];
+        ParallelArrays.forEachChunk(originalVertices.length, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                newVertices[originalVertices[v]] = v;
+            }
+        });
+
+        // Computing the new order of the hyperedges, if needed.
+        var originalHyperedges = sortHyperedges
+                ? sortHyperedges(hypergraph, newVertices)
+                : null;
+
+        // Building the reordered hypergraph.
+        var reordered = reorder(hypergraph, newVertices, originalVertices, originalHyperedges);
+        return new VertexReordering(reordered, newVertices, originalVertices, originalHyperedges);
+    }
+
+    /**
+     * Orders the vertices of a hypergraph by traversing it in breadth-first order.
+     * Each hyperedge is expanded only once, so that the traversal runs in time linear in
+     * the number of pins.
+     *
+     * @param hypergraph The hypergraph to traverse.
+     * @param incidence The incidence index of the hypergraph.
+     * @param starts The vertices from which to start a traversal, in the order in which
+     *        they must be considered, or {@code null} to consider them by increasing
+     *        identifier.
+     * @param sortByDegree Whether the vertices discovered from the same vertex must be
+     *        sorted by increasing degree.
+     *
+     * @return The vertices in the order in which they have been visited.
+     */
+    private static int[] breadthFirst(Hypergraph hypergraph, VertexIncidence incidence,
+            int[] starts, boolean sortByDegree) {
+        var hyperedgeIndices = hypergraph.getHyperedgeIndices();
+        var pins = hypergraph.getPins();
+        int nbVertices = hypergraph.getNumberOfVertices();
+        var order = new int[nbVertices];
+        var visited = new boolean[nbVertices];
+        var expanded = new boolean[hypergraph.getNumberOfHyperedges()];
+        int head = 0;
+        int tail = 0;
+
+        for (int s = 0; s < nbVertices; s++) {
+            int start = (starts == null) ? s : starts[s];
+            if (visited[start]) {
+                // This vertex belongs to an already traversed component.
+                continue;
+            }
+
+            // Traversing the component of this vertex.
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int vertex = order[head++];
+                int firstDiscovered = tail;
+                for (int i = 0, degree = incidence.degree(vertex); i < degree; i++) {
+                    int hyperedge = incidence.incidentHyperedge(vertex, i);
+                    if (expanded[hyperedge]) {
+                        continue;
+                    }
+
+                    expanded[hyperedge] = true;
+                    for (long p = hyperedgeIndices[hyperedge],
+                            end = hyperedgeIndices[hyperedge + 1]; p < end; p++) {
+                        int neighbor = pins.get(p);
+                        if (!visited[neighbor]) {
+                            visited[neighbor] = true;
+                            order[tail++] = neighbor;
+                        }
+                    }
+                }
+
+                if (sortByDegree) {
+                    sortByDegree(order, firstDiscovered, tail, incidence);
+                }
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Sorts a range of vertices by increasing degree.
+     * Vertices having the same degree are sorted by increasing identifier.
+     *
+     * @param vertices The array containing the vertices to sort.
+     * @param from The index of the first vertex to sort.
+     * @param to The index of the last vertex to sort (exclusive).
+     * @param incidence The incidence index giving the degrees of the vertices.
+     */
+    private static void sortByDegree(int[] vertices, int from, int to,
+            VertexIncidence incidence) {
+        if (to - from < 2) {
+            return;
+        }
+
+        // Both the degree and the vertex are packed in a single key.
+        var keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = ((long) incidence.degree(vertices[i]) << Integer.SIZE) | vertices[i];
+        }
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++) {
+            vertices[i] = (int) keys[i - from];
+        }
+    }
+
+    /**
+     * Orders all the vertices of a hypergraph by degree, using a (stable) counting sort.
+     *
+     * @param incidence The incidence index giving the degrees of the vertices.
+     * @param decreasing Whether the vertices must be sorted by decreasing degree.
+     *
+     * @return The sorted vertices.
+     */
+    private static int[] orderByDegree(VertexIncidence incidence, boolean decreasing) {
+        int nbVertices = incidence.getNumberOfVertices();
+        int maxDegree = 0;
+        for (int v = 0; v < nbVertices; v++) {
+            maxDegree = Math.max(maxDegree, incidence.degree(v));
+        }
+
+        // Counting the vertices having each degree.
+        var positions = new int[maxDegree + 2];
+        for (int v = 0; v < nbVertices; v++) {
+            int key = decreasing ? (maxDegree - incidence.degree(v)) : incidence.degree(v);
+            positions[key + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            positions[d + 1] += positions[d];
+        }
+
+        // Putting the vertices at their position.
+        var order = new int[nbVertices];
+        for (int v = 0; v < nbVertices; v++) {
+            int key = decreasing ? (maxDegree - incidence.degree(v)) : incidence.degree(v);
+            order[positions[key]++] = v;
+        }
+        return order;
+    }
+
+    /**
+     * Sorts the hyperedges of a hypergraph by increasing smallest (new) vertex.
+     * Empty hyperedges are put at the end.
+     *
+     * @param hypergraph The hypergraph to sort the hyperedges of.
+     * @param newVertices The new identifier of each original vertex.
+     *
+     * @return The original identifier of each sorted hyperedge.
+     */
+    private static int[] sortHyperedges(Hypergraph hypergraph, int[] newVertices) {
+        var hyperedgeIndices = hypergraph.getHyperedgeIndices();
+        var pins = hypergraph.getPins();
+        int nbVertices = hypergraph.getNumberOfVertices();
+        int nbHyperedges = hypergraph.getNumberOfHyperedges();
+
+        // Computing the smallest new vertex of each hyperedge.
+        var keys = new int[nbHyperedges];
+        ParallelArrays.forEachChunk(nbHyperedges, (from, to) -> {
+            for (int h = from; h < to; h++) {
+                int min = nbVertices;
+                for (long p = hyperedgeIndices[h]; p < hyperedgeIndices[h + 1]; p++) {
+                    min = Math.min(min, newVertices[pins.get(p)]);
+                }
+                keys[h] = min;
+            }
+        });
+
+        // Sorting the hyperedges using a (stable) counting sort.
+        var positions = new int[nbVertices + 2];
+        for (int h = 0; h < nbHyperedges; h++) {
+            positions[keys[h] + 1]++;
+        }
+        for (int v = 0; v <= nbVertices; v++) {
+            positions[v + 1] += positions[v];
+        }
+        var order = new int[nbHyperedges];
+        for (int h = 0; h < nbHyperedges; h++) {
+            order[positions[keys[h]]++] = h;
+        }
+        return order;
+    }
+
+    /**
+     * Builds the reordered hypergraph.
+     *
+     * @param hypergraph The original hypergraph.
+     * @param newVertices The new identifier of each original vertex.
+     * @param originalVertices The original identifier of each new vertex.
+     * @param originalHyperedges The original identifier of each new hyperedge, or
+     *        {@code null} if hyperedges are not reordered.
+     *
+     * @return The reordered hypergraph.
+     */
+    private static Hypergraph reorder(Hypergraph hypergraph, int[] newVertices,
+            int[] originalVertices, int[] originalHyperedges) {
+        var hyperedgeIndices = hypergraph.getHyperedgeIndices();
+        var pins = hypergraph.getPins();
+        int nbVertices = hypergraph.getNumberOfVertices();
+        int nbHyperedges = hypergraph.getNumberOfHyperedges();
+
+        // Computing the indices of the reordered hyperedges.
+        var indices = new long[nbHyperedges + 1];
+        ParallelArrays.forEachChunk(nbHyperedges, (from, to) -> {
+            for (int h = from; h < to; h++) {
+                int original = (originalHyperedges == null) ? h : originalHyperedges[h];
+                indices[h] = hyperedgeIndices[original + 1] - hyperedgeIndices[original];
+            }
+        });
+        ParallelArrays.countsToOffsets(indices);
+
+        // Renumbering the vertices of the hyperedges.
+        if (!pins.fitsInArray()) {
+            throw new UnsupportedOperationException(
+                    "Too many pins to reorder the hypergraph: " + pins.length());
+        }
+        var vertices = new int[(int) pins.length()];
+        ParallelArrays.forEachChunk(nbHyperedges, (from, to) -> {
+            for (int h = from; h < to; h++) {
+                int original = (originalHyperedges == null) ? h : originalHyperedges[h];
+                var start = (int) indices[h];
+                var end = (int) indices[h + 1];
+                pins.copyTo(hyperedgeIndices[original], vertices, start, end - start);
+                for (int p = start; p < end; p++) {
+                    vertices[p] = newVertices[vertices[p]];
+                }
+                if (originalHyperedges != null) {
+                    Arrays.sort(vertices, start, end);
+                }
+            }
+        });
+
+        // Reordering the weights.
+        int[] hyperedgeWeights = hypergraph.getHyperedgeWeights();
+        if ((hyperedgeWeights != null) && (originalHyperedges != null)) {
+            hyperedgeWeights = permute(hyperedgeWeights, originalHyperedges);
+        }
+        int[] vertexWeights = hypergraph.getVertexWeights();
+        if (vertexWeights != null) {
+            vertexWeights = permute(vertexWeights, originalVertices);
+        }
+
+        return Hypergraph.wrapping(nbVertices, indices, vertices, hyperedgeWeights,
+                vertexWeights, false);
+    }
+
+    /**
+     * Permutes the elements of an array.
+     *
+     * @param array The array to permute.
+     * @param originals The original index of each element of the permuted array.
+     *
+     * @return The permuted array.
+     */
+    private static int[] permute(int[] array, int[] originals) {
+        var permuted = new int[array.length];
+        ParallelArrays.forEachChunk(array.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                permuted[i] = array[originals[i]];
+            }
+        });
+        return permuted;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.jkahypar.HypergraphTransformation#getHypergraph()
+     */
+    @Override
+    public Hypergraph getHypergraph() {
+        return hypergraph;
+    }
+
+    /**
+     * Gives the identifier of an original vertex in the reordered hypergraph.
+     *
+     * @param vertex The original vertex (numbered from {@code 1}).
+     *
+     * @return The new identifier of the vertex (numbered from {@code 1}).
+     */
+    public int newVertexOf(int vertex) {
+        return newVertices[vertex - 1] + 1;
+    }
+
+    /**
+     * Gives the original identifier of a vertex of the reordered hypergraph.
+     *
+     * @param vertex The vertex of the reordered hypergraph (numbered from {@code 1}).
+     *
+     * @return The original identifier of the vertex (numbered from {@code 1}).
+     */
+    public int originalVertexOf(int vertex) {
+        return originalVertices[vertex - 1] + 1;
+    }
+
+    /**
+     * Gives the original identifier of a hyperedge of the reordered hypergraph.
+     *
+     * @param hyperedge The hyperedge of the reordered hypergraph.
+     *
+     * @return The original identifier of the hyperedge.
+     */
+    public int originalHyperedgeOf(int hyperedge) {
+        return (originalHyperedges == null) ? hyperedge : originalHyperedges[hyperedge];
+    }
+
+    /**
+     * Maps a partition of the reordered hypergraph back to the original vertices.
+     *
+     * @param partition The partition of the reordered hypergraph.
+     *
+     * @return The corresponding partition of the original hypergraph.
+     *
+     * @throws IllegalArgumentException If the partition does not have the same number of
+     *         vertices as the hypergraph.
+     */
+    @Override
+    public HypergraphPartition restore(HypergraphPartition partition) {
+        if (partition.numberOfVertices() != newVertices.length) {
+            throw new IllegalArgumentException("The partition does not match the hypergraph!");
+        }
+
+        var blockIdentifiers = new int[newVertices.length];
+        ParallelArrays.forEachChunk(newVertices.length, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                blockIdentifiers[v] = partition.blockOf(newVertices[v] + 1);
+            }
+        });
+        return HypergraphPartition.of(partition.numberOfBlocks(), blockIdentifiers,
+                partition.objectiveValue());
+    }
+
+    /**
+     * The Strategy enumerates the strategies that can be used to order the vertices of
+     * a hypergraph.
+     *
+     * @author Romain WALLON
+     *
+     * @version 0.2.0
+     * @since 0.3.0
+     */
+    public enum Strategy {
+
+        /**
+         * Vertices are numbered in the order in which they are visited by a
+         * breadth-first traversal of the hypergraph.
+         */
+        BREADTH_FIRST {
+
+            /*
+             * (non-Javadoc)
+             *
+             * @see fr.univartois.cril.jkahypar.tools.VertexReordering.Strategy#order(fr.
+             * univartois.cril.jkahypar.hypergraph.Hypergraph,
+             * fr.univartois.cril.jkahypar.hypergraph.VertexIncidence)
+             */
+            @Override
+            int[] order(Hypergraph hypergraph, VertexIncidence incidence) {
+                return breadthFirst(hypergraph, incidence, null, false);
+            }
+
+        },
+
+        /**
+         * Vertices are numbered following the Reverse Cuthill-McKee ordering, i.e., by
+         * reversing a breadth-first traversal starting from vertices of minimum degree,
+         * and visiting neighbors by increasing degree.
+         */
+        REVERSE_CUTHILL_MCKEE {
+
+            /*
+             * (non-Javadoc)
+             *
+             * @see fr.univartois.cril.jkahypar.tools.VertexReordering.Strategy#order(fr.
+             * univartois.cril.jkahypar.hypergraph.Hypergraph,
+             * fr.univartois.cril.jkahypar.hypergraph.VertexIncidence)
+             */
+            @Override
+            int[] order(Hypergraph hypergraph, VertexIncidence incidence) {
+                var starts = orderByDegree(incidence, false);
+                var order = breadthFirst(hypergraph, incidence, starts, true);
+                for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                }
+                return order;
+            }
+
+        },
+
+        /**
+         * Vertices are numbered by decreasing degree, so that the data of the vertices
+         * appearing in the largest number of hyperedges is stored together.
+         */
+        DECREASING_DEGREE {
+
+            /*
+             * (non-Javadoc)
+             *
+             * @see fr.univartois.cril.jkahypar.tools.VertexReordering.Strategy#order(fr.
+             * univartois.cril.jkahypar.hypergraph.Hypergraph,
+             * fr.univartois.cril.jkahypar.hypergraph.VertexIncidence)
+             */
+            @Override
+            int[] order(Hypergraph hypergraph, VertexIncidence incidence) {
+                return orderByDegree(incidence, true);
+            }
+
+        };
+
+        /**
+         * Orders the vertices of a hypergraph following this strategy.
+         *
+         * @param hypergraph The hypergraph to order the vertices of.
+         * @param incidence The incidence index of the hypergraph.
+         *
+         * @return The vertices (numbered from {@code 0}) in their new order.
+         */
+        abstract int[] order(Hypergraph hypergraph, VertexIncidence incidence);
+
+    }
+
+}
@@ -0,0 +1,186 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.util;
+
+import java.util.stream.IntStream;
+
+/**
+ * The ParallelArrays provides parallel algorithms on the arrays used to represent
+ * hypergraphs, and on those computed by the tools operating on them.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+public final class ParallelArrays {
+
+    /**
+     * The minimum number of elements considered by each parallel task.
+     */
+    public static final int MIN_CHUNK_SIZE = 1 << 14;
+
+    /**
+     * Disables instantiation.
+     */
+    private ParallelArrays() {
+        throw new AssertionError("No ParallelArrays instances for you!");
+    }
+
+    /**
+     * Gives the number of chunks into which a range of elements should be split to be
+     * processed in parallel.
+     *
+     * @param nbElements The number of elements to process.
+     *
+     * @return The number of chunks to use.
+     */
+    public static int numberOfChunks(long nbElements) {
+        long maxChunks = Runtime.getRuntime().availableProcessors() << 2;
+        return (int) Math.max(1, Math.min(maxChunks, nbElements / MIN_CHUNK_SIZE));
+    }
+
+    /**
+     * Executes the given action in parallel on chunks of a range of elements.
+     *
+     * @param nbElements The number of elements to process.
+     * @param action The action to execute on each chunk.
+     */
+    public static void forEachChunk(int nbElements, ChunkAction action) {
+        forEachChunk(nbElements, numberOfChunks(nbElements), action);
+    }
+
+    /**
+     * Executes the given action in parallel on a given number of chunks of a range of
+     * elements.
+     *
+     * @param nbElements The number of elements to process.
+     * @param nbChunks The number of chunks to use.
+     * @param action The action to execute on each chunk.
+     */
+    static void forEachChunk(int nbElements, int nbChunks, ChunkAction action) {
+        forEachChunk(nbElements, nbChunks, (c, from, to) -> action.execute(from, to));
+    }
+
+    /**
+     * Executes the given action in parallel on a given number of chunks of a range of
+     * elements, giving the action the index of the chunk it is executed on.
+     * This allows the action to store its results in arrays indexed by chunk, which are
+     * then combined in the order of the chunks.
+     *
+     * @param nbElements The number of elements to process.
+     * @param nbChunks The number of chunks to use, typically given by
+     *        {@link #numberOfChunks(long)}.
+     * @param action The action to execute on each chunk.
+     */
+    public static void forEachChunk(int nbElements, int nbChunks, IndexedChunkAction action) {
+        long chunkSize = nbElements / nbChunks + 1;
+        IntStream.range(0, nbChunks).parallel().forEach(c -> action.execute(c,
+                chunkBound(nbElements, c * chunkSize),
+                chunkBound(nbElements, (c + 1) * chunkSize)));
+    }
+
+    /**
+     * Gives the bound of a chunk of a range of elements.
+     * The bound is computed as a {@code long}, as it may not fit in an {@code int} for
+     * the last chunks of the largest arrays.
+     *
+     * @param nbElements The number of elements in the range.
+     * @param bound The bound of the chunk, which may exceed the number of elements.
+     *
+     * @return The bound of the chunk, within the range of elements.
+     */
+    private static int chunkBound(int nbElements, long bound) {
+        return (int) Math.min(nbElements, bound);
+    }
+
+    /**
+     * Turns, in parallel, the counts stored in the first {@code n} elements of an array
+     * of size {@code n + 1} into offsets, so that each element becomes the sum of the
+     * counts preceding it, and the last element becomes the sum of all counts.
+     *
+     * @param array The array storing the counts, and in which to store the offsets.
+     */
+    public static void countsToOffsets(long[] array) {
+        int n = array.length - 1;
+        int nbChunks = numberOfChunks(n);
+
+        // Computing the sum of each chunk.
+        var sums = new long[nbChunks + 1];
+        forEachChunk(n, nbChunks, (c, from, to) -> {
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += array[i];
+            }
+            sums[c + 1] = sum;
+        });
+
+        // Computing the offset of each chunk.
+        for (int c = 0; c < nbChunks; c++) {
+            sums[c + 1] += sums[c];
+        }
+
+        // Computing the offsets inside each chunk.
+        forEachChunk(n, nbChunks, (c, from, to) -> {
+            long offset = sums[c];
+            for (int i = from; i < to; i++) {
+                long count = array[i];
+                array[i] = offset;
+                offset += count;
+            }
+        });
+        array[n] = sums[nbChunks];
+    }
+
+    /**
+     * The ChunkAction is an action applied on a chunk of a range of elements.
+     */
+    @FunctionalInterface
+    public interface ChunkAction {
+
+        /**
+         * Executes this action.
+         *
+         * @param from The first element of the chunk.
+         * @param to The element at which the chunk stops (exclusive).
+         */
+        void execute(int from, int to);
+
+    }
+
+    /**
+     * The IndexedChunkAction is an action applied on a chunk of a range of elements,
+     * knowing the index of this chunk.
+     */
+    @FunctionalInterface
+    public interface IndexedChunkAction {
+
+        /**
+         * Executes this action.
+         *
+         * @param chunk The index of the chunk.
+         * @param from The first element of the chunk.
+         * @param to The element at which the chunk stops (exclusive).
+         */
+        void execute(int chunk, int from, int to);
+
+    }
+
+}
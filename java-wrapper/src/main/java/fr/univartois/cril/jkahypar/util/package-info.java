@@ -0,0 +1,14 @@
+/**
+ * The {@code fr.univartois.cril.jkahypar.util} package provides utility classes
+ * shared by the other packages of JKaHyPar, such as parallel algorithms on arrays.
+ *
+ * This package is an implementation detail of the library.
+ * As a consequence, it is NOT exported.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ * @since 0.3.0
+ */
+
+package fr.univartois.cril.jkahypar.util;
@@ -22,4 +22,8 @@ module fr.univartois.cril.jkahypar {
 
     requires com.sun.jna;
 
+    // Services allowing to read compressed inputs.
+
+    uses fr.univartois.cril.jkahypar.tools.Decompressor;
+
 }
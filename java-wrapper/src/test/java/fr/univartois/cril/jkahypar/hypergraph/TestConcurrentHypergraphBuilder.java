@@ -0,0 +1,122 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createConcurrentHypergraph;
+import static fr.univartois.cril.jkahypar.hypergraph.UnweightedHyperedge.joining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The TestConcurrentHypergraphBuilder is a JUnit test case for testing
+ * {@link ConcurrentHypergraphBuilder}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestConcurrentHypergraphBuilder {
+
+    /**
+     * Test method for a concurrent builder used by a single thread.
+     */
+    @Test
+    @DisplayName("Concurrent builders behave as usual builders in a single thread")
+    void testSingleThread() {
+        var builder = createConcurrentHypergraph(7);
+        assertThrows(IllegalStateException.class, builder::getHyperedgeIndices);
+
+        var hypergraph = builder
+                .withHyperedge(joining(1, 2).withWeight(2))
+                .withHyperedge(joining(List.of(1, 7, 5, 6)).withWeight(3))
+                .withHyperedge(joining(5, 6, 4).withWeight(8))
+                .withHyperedge(joining(List.of(2, 3, 4)).withWeight(7))
+                .withVertexWeight(1, 5)
+                .withVertexWeight(2, 1)
+                .withVertexWeight(3, 8)
+                .withVertexWeight(4, 7)
+                .withVertexWeight(5, 3)
+                .withVertexWeight(6, 9)
+                .withVertexWeight(7, 3)
+                .build();
+        TestHypergraph.testHypergraphWithWeightsOnHyperedgesAndVertices(hypergraph);
+    }
+
+    /**
+     * Test method for a concurrent builder used by several threads.
+     *
+     * @throws Exception If a thread fails to add its hyperedges.
+     */
+    @Test
+    @DisplayName("Concurrent builders collect the hyperedges of all threads")
+    void testMultipleThreads() throws Exception {
+        int nbThreads = 8;
+        int nbHyperedgesPerThread = 5_000;
+        var builder = createConcurrentHypergraph();
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+
+        // Adding hyperedges from several threads.
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < nbThreads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < nbHyperedgesPerThread; i++) {
+                        int first = (thread * nbHyperedgesPerThread) + i + 1;
+                        builder.withHyperedge(joining(first, first + 1, first + 2).withWeight(first));
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        var hypergraph = builder.build();
+
+        // Checking that all hyperedges are there, with the appropriate weight.
+        assertEquals(nbThreads * nbHyperedgesPerThread, hypergraph.getNumberOfHyperedges());
+        assertEquals(nbThreads * nbHyperedgesPerThread + 2, hypergraph.getNumberOfVertices());
+        Map<Integer, Integer> weights = new HashMap<>();
+        for (int h = 0; h < hypergraph.getNumberOfHyperedges(); h++) {
+            int first = hypergraph.pin(h, 0) + 1;
+            assertEquals(3, hypergraph.hyperedgeSize(h));
+            assertEquals(first + 1, hypergraph.pin(h, 1) + 1);
+            assertEquals(first + 2, hypergraph.pin(h, 2) + 1);
+            weights.put(first, hypergraph.getHyperedgeWeights()[h]);
+        }
+        for (int first = 1; first <= nbThreads * nbHyperedgesPerThread; first++) {
+            assertEquals(first, weights.get(first));
+        }
+    }
+
+}
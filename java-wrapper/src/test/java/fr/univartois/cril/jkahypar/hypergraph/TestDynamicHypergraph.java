@@ -0,0 +1,146 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The TestDynamicHypergraph is a JUnit test case for testing {@link DynamicHypergraph}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestDynamicHypergraph {
+
+    /**
+     * Test method for snapshots of a hypergraph to which elements are only added.
+     */
+    @Test
+    @DisplayName("Snapshots of dynamic hypergraphs contain the added elements")
+    void testAdditions() {
+        var dynamic = DynamicHypergraph.create(7);
+        dynamic.addWeightedHyperedge(2, 1, 2);
+        dynamic.addWeightedHyperedge(3, 1, 7, 5, 6);
+        dynamic.addWeightedHyperedge(8, 5, 6, 4);
+        dynamic.addWeightedHyperedge(7, 2, 3, 4);
+
+        var snapshot = dynamic.snapshot();
+        TestHypergraph.testHypergraphWithWeightsOnHyperedges(snapshot.getHypergraph());
+        assertSame(snapshot, dynamic.snapshot());
+    }
+
+    /**
+     * Test method for snapshots sharing the pins of a hypergraph to which elements are
+     * added afterwards.
+     */
+    @Test
+    @DisplayName("Shared snapshots are not affected by later additions")
+    void testSharedSnapshot() {
+        var dynamic = DynamicHypergraph.create(7);
+        dynamic.addHyperedge(1, 2);
+        dynamic.addHyperedge(1, 7, 5, 6);
+        var hypergraph = dynamic.snapshot().getHypergraph();
+        var expected = hypergraph.toString();
+
+        // Adding enough pins for the storage of the hypergraph to grow.
+        for (int i = 0; i < 1000; i++) {
+            dynamic.addHyperedge(2, 3, 4);
+        }
+
+        assertEquals(expected, hypergraph.toString());
+        assertArrayEquals(new int[] { 0, 1, 0, 6, 4, 5 }, hypergraph.getHyperedgeVertices());
+        assertEquals(1002, dynamic.snapshot().getHypergraph().getNumberOfHyperedges());
+        assertEquals(3006, dynamic.snapshot().getHypergraph().getNumberOfPins());
+    }
+
+    /**
+     * Test method for snapshots of a hypergraph from which elements are removed.
+     */
+    @Test
+    @DisplayName("Removed elements do not appear in snapshots")
+    void testRemovals() {
+        var dynamic = DynamicHypergraph.create(7);
+        int removed = dynamic.addHyperedge(3, 7);
+        dynamic.addHyperedge(1, 2);
+        dynamic.addHyperedge(1, 7, 5, 6);
+        dynamic.addHyperedge(5, 6, 4);
+        dynamic.addHyperedge(7);
+        dynamic.addHyperedge(2, 3, 4);
+        int weighted = dynamic.addVertex(4);
+
+        dynamic.removeHyperedge(removed);
+        dynamic.removeVertex(7);
+        assertFalse(dynamic.containsHyperedge(removed));
+        assertFalse(dynamic.containsVertex(7));
+        assertThrows(IllegalArgumentException.class, () -> dynamic.addHyperedge(1, 7));
+        assertEquals(7, dynamic.getNumberOfVertices());
+        assertEquals(5, dynamic.getNumberOfHyperedges());
+
+        // The hyperedge containing only vertex 7 is ignored.
+        var snapshot = dynamic.snapshot();
+        var hypergraph = snapshot.getHypergraph();
+        assertEquals(7, hypergraph.getNumberOfVertices());
+        assertEquals(4, hypergraph.getNumberOfHyperedges());
+        assertArrayEquals(new long[] { 0, 2, 5, 8, 11 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 0, 4, 5, 4, 5, 3, 1, 2, 3 },
+                hypergraph.getHyperedgeVertices());
+        assertNull(hypergraph.getHyperedgeWeights());
+        assertArrayEquals(new int[] { 1, 1, 1, 1, 1, 1, 4 }, hypergraph.getVertexWeights());
+        assertEquals(weighted, snapshot.vertexOf(7));
+        assertEquals(6, snapshot.vertexOf(6));
+        assertEquals(2, snapshot.hyperedgeOf(1));
+        assertEquals(5, snapshot.hyperedgeOf(3));
+
+        // Compacting the hypergraph does not change its snapshots.
+        dynamic.compact();
+        assertEquals(11, dynamic.getNumberOfStoredPins());
+        assertEquals(hypergraph.toString(), dynamic.snapshot().getHypergraph().toString());
+    }
+
+    /**
+     * Test method for the automatic compaction of a hypergraph.
+     */
+    @Test
+    @DisplayName("Dynamic hypergraphs are compacted automatically")
+    void testAutomaticCompaction() {
+        var dynamic = DynamicHypergraph.create(10);
+        for (int i = 0; i < 1000; i++) {
+            int hyperedge = dynamic.addHyperedge(1, 2, 3);
+            if (i % 10 != 0) {
+                dynamic.removeHyperedge(hyperedge);
+            }
+        }
+
+        assertEquals(100, dynamic.getNumberOfHyperedges());
+        assertEquals(100, dynamic.snapshot().getHypergraph().getNumberOfHyperedges());
+        assertTrue(dynamic.getNumberOfStoredPins() < 2 * 300 + 3);
+    }
+
+}
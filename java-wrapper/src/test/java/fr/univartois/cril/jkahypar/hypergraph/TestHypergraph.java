@@ -21,7 +21,14 @@ package fr.univartois.cril.jkahypar.hypergraph;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -39,7 +46,7 @@ public final class TestHypergraph {
     /**
      * Test method for unweighted hypergraphs.
      *
-     * @see UnweightedHypergraph
+     * @see FlatHypergraph
      */
     @Test
     @DisplayName("Unweighted hypergraphs are properly built")
@@ -55,7 +62,7 @@ public final class TestHypergraph {
      */
     public static void testUnweightedHypergraph(Hypergraph hypergraph) {
         // Checking the class of the hypergraph.
-        assertEquals(UnweightedHypergraph.class, hypergraph.getClass());
+        assertEquals(FlatHypergraph.class, hypergraph.getClass());
 
         // Checking the vertices.
         assertEquals(7, hypergraph.getNumberOfVertices());
@@ -89,6 +96,9 @@ public final class TestHypergraph {
         assertEquals(3, hyperedge3.size());
         assertArrayEquals(new int[] { 2, 3, 4 }, hyperedge3.getVertices());
 
+        // Checking the allocation-free views of the hyperedges.
+        testHyperedgeAccess(hypergraph);
+
         // Checking the hMetis representation.
         var string = "4 7" + System.lineSeparator()
                    + "1 2" + System.lineSeparator()
@@ -101,7 +111,7 @@ public final class TestHypergraph {
     /**
      * Test method for hypergraphs with weights on hyperedges.
      *
-     * @see WeightedHyperedgesHypergraph
+     * @see FlatHypergraph
      */
     @Test
     @DisplayName("Hypergraphs with weights on hyperedges are properly built")
@@ -118,7 +128,7 @@ public final class TestHypergraph {
      */
     public static void testHypergraphWithWeightsOnHyperedges(Hypergraph hypergraph) {
         // Checking the class of the hypergraph.
-        assertEquals(WeightedHyperedgesHypergraph.class, hypergraph.getClass());
+        assertEquals(FlatHypergraph.class, hypergraph.getClass());
 
         // Checking the vertices.
         assertEquals(7, hypergraph.getNumberOfVertices());
@@ -156,6 +166,9 @@ public final class TestHypergraph {
         assertArrayEquals(new int[] { 2, 3, 4 }, hyperedge3.getVertices());
         assertEquals(7, ((WeightedHyperedge) hyperedge3).getWeight());
 
+        // Checking the allocation-free views of the hyperedges.
+        testHyperedgeAccess(hypergraph);
+
         // Checking the hMetis representation.
         var string = "4 7 1" + System.lineSeparator()
                    + "2 1 2" + System.lineSeparator()
@@ -168,7 +181,7 @@ public final class TestHypergraph {
     /**
      * Test method for hypergraphs with weights on vertices.
      *
-     * @see WeightedVerticesHypergraph
+     * @see FlatHypergraph
      */
     @Test
     @DisplayName("Hypergraphs with weights on vertices are properly built")
@@ -185,7 +198,7 @@ public final class TestHypergraph {
      */
     public static void testHypergraphWithWeightsOnVertices(Hypergraph hypergraph) {
         // Checking the class of the hypergraph.
-        assertEquals(WeightedVerticesHypergraph.class, hypergraph.getClass());
+        assertEquals(FlatHypergraph.class, hypergraph.getClass());
 
         // Checking the vertices.
         assertEquals(7, hypergraph.getNumberOfVertices());
@@ -219,6 +232,9 @@ public final class TestHypergraph {
         assertEquals(3, hyperedge3.size());
         assertArrayEquals(new int[] { 2, 3, 4 }, hyperedge3.getVertices());
 
+        // Checking the allocation-free views of the hyperedges.
+        testHyperedgeAccess(hypergraph);
+
         // Checking the hMetis representation.
         var string = "4 7 10" + System.lineSeparator()
                    + "1 2" + System.lineSeparator()
@@ -238,8 +254,7 @@ public final class TestHypergraph {
     /**
      * Test method for hypergraphs with weights on hyperedges and vertices.
      *
-     * @see WeightedVerticesHypergraph
-     * @see WeightedHyperedgesHypergraph
+     * @see FlatHypergraph
      */
     @Test
     @DisplayName("Hypergraphs with weights on hyperedges and vertices are properly built")
@@ -256,7 +271,7 @@ public final class TestHypergraph {
      */
     public static void testHypergraphWithWeightsOnHyperedgesAndVertices(Hypergraph hypergraph) {
         // Checking the class of the hypergraph.
-        assertEquals(WeightedVerticesHypergraph.class, hypergraph.getClass());
+        assertEquals(FlatHypergraph.class, hypergraph.getClass());
 
         // Checking the vertices.
         assertEquals(7, hypergraph.getNumberOfVertices());
@@ -294,6 +309,9 @@ public final class TestHypergraph {
         assertArrayEquals(new int[] { 2, 3, 4 }, hyperedge3.getVertices());
         assertEquals(7, ((WeightedHyperedge) hyperedge3).getWeight());
 
+        // Checking the allocation-free views of the hyperedges.
+        testHyperedgeAccess(hypergraph);
+
         // Checking the hMetis representation.
         var string = "4 7 11" + System.lineSeparator()
                    + "2 1 2" + System.lineSeparator()
@@ -310,4 +328,163 @@ public final class TestHypergraph {
         assertEquals(string, hypergraph.toString());
     }
 
+    /**
+     * Test method for hypergraphs wrapping existing arrays.
+     */
+    @Test
+    @DisplayName("Hypergraphs may wrap existing arrays without copying them")
+    void testWrapping() {
+        var indices = new long[] { 0, 2, 6, 9, 12 };
+        var vertices = new int[] { 0, 1, 0, 6, 4, 5, 4, 5, 3, 1, 2, 3 };
+        var hyperedgeWeights = new int[] { 2, 3, 8, 7 };
+        var vertexWeights = new int[] { 5, 1, 8, 7, 3, 9, 3 };
+
+        var hypergraph = Hypergraph.wrapping(7, indices, vertices, hyperedgeWeights,
+                vertexWeights, true);
+        testHypergraphWithWeightsOnHyperedgesAndVertices(hypergraph);
+        assertSame(indices, hypergraph.getHyperedgeIndices());
+        assertSame(vertices, hypergraph.getHyperedgeVertices());
+
+        testUnweightedHypergraph(Hypergraph.wrapping(7, indices, vertices, null, null, false));
+    }
+
+    /**
+     * Test method for invalid arrays given to wrap a hypergraph.
+     */
+    @Test
+    @DisplayName("Invalid arrays are detected when wrapping them as a hypergraph")
+    void testInvalidWrapping() {
+        var indices = new long[] { 0, 2, 6, 9, 12 };
+        var vertices = new int[] { 0, 1, 0, 6, 4, 5, 4, 5, 3, 1, 2, 7 };
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Hypergraph.wrapping(7, indices, vertices, null, null, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> Hypergraph.wrapping(8, new long[] { 0, 6, 2, 12 }, vertices, null, null, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> Hypergraph.wrapping(8, indices, vertices, new int[3], null, true));
+        assertEquals(7, Hypergraph.wrapping(7, indices, vertices, null, null, false)
+                .getNumberOfVertices());
+    }
+
+    /**
+     * Test method for the hMetis format of hypergraphs, which depends on their weights.
+     */
+    @Test
+    @DisplayName("The hMetis format of hypergraphs depends on their weights")
+    void testHmetisFormat() {
+        assertEquals(0, HmetisFormat.identifierOf(
+                HypergraphFactory.createUnweightedHypergraph()));
+        assertEquals(1, HmetisFormat.identifierOf(
+                HypergraphFactory.createHypergraphWithWeightsOnHyperedges()));
+        assertEquals(10, HmetisFormat.identifierOf(
+                HypergraphFactory.createHypergraphWithWeightsOnVertices()));
+        assertEquals(11, HmetisFormat.identifierOf(
+                HypergraphFactory.createHypergraphWithWeightsOnHyperedgesAndVertices()));
+        assertEquals("2 3", HypergraphBuilder.createHypergraph(3, 2)
+                .withHyperedge(UnweightedHyperedge.joining(1, 2))
+                .withHyperedge(UnweightedHyperedge.joining(2, 3))
+                .build().toString().lines().findFirst().orElseThrow());
+    }
+
+    /**
+     * Test method for the default methods giving the pins of a hypergraph, which must
+     * read its array of vertices directly instead of wrapping it.
+     */
+    @Test
+    @DisplayName("Default pin accessors read the array of vertices directly")
+    void testDefaultPinAccess() {
+        var expected = HypergraphFactory.createUnweightedHypergraph();
+        var hypergraph = new Hypergraph() {
+
+            @Override
+            public int getNumberOfVertices() {
+                return expected.getNumberOfVertices();
+            }
+
+            @Override
+            public int[] getVertexWeights() {
+                return null;
+            }
+
+            @Override
+            public int getNumberOfHyperedges() {
+                return expected.getNumberOfHyperedges();
+            }
+
+            @Override
+            public Hyperedge getHyperedge(int index) {
+                return expected.getHyperedge(index);
+            }
+
+            @Override
+            public int[] getHyperedgeWeights() {
+                return null;
+            }
+
+            @Override
+            public long[] getHyperedgeIndices() {
+                return expected.getHyperedgeIndices();
+            }
+
+            @Override
+            public int[] getHyperedgeVertices() {
+                return expected.getHyperedgeVertices();
+            }
+
+            @Override
+            public SegmentedIntArray getPins() {
+                throw new UnsupportedOperationException("Pins must not be wrapped");
+            }
+
+        };
+
+        for (int h = 0; h < expected.getNumberOfHyperedges(); h++) {
+            var pins = new ArrayList<Integer>();
+            hypergraph.forEachPin(h, pins::add);
+            var expectedPins = new ArrayList<Integer>();
+            expected.forEachPin(h, expectedPins::add);
+            assertEquals(expectedPins, pins);
+            for (int i = 0; i < expected.hyperedgeSize(h); i++) {
+                assertEquals(expected.pin(h, i), hypergraph.pin(h, i));
+            }
+        }
+    }
+
+    /**
+     * Checks that the allocation-free views of the hyperedges of the given hypergraph
+     * are those of the hypergraph used as example in hMetis' manual.
+     *
+     * @param hypergraph The hypergraph to check.
+     */
+    private static void testHyperedgeAccess(Hypergraph hypergraph) {
+        var expected = List.of(List.of(0, 1), List.of(0, 6, 4, 5), List.of(4, 5, 3),
+                List.of(1, 2, 3));
+        var cursor = hypergraph.cursor();
+
+        for (int h = 0; h < expected.size(); h++) {
+            // Checking the direct access to the pins.
+            assertEquals(expected.get(h).size(), hypergraph.hyperedgeSize(h));
+            for (int i = 0; i < hypergraph.hyperedgeSize(h); i++) {
+                assertEquals(expected.get(h).get(i), hypergraph.pin(h, i));
+            }
+
+            // Checking the iteration over the pins.
+            var pins = new ArrayList<Integer>();
+            hypergraph.forEachPin(h, pins::add);
+            assertEquals(expected.get(h), pins);
+
+            // Checking the cursor.
+            cursor.moveTo(h);
+            assertEquals(h, cursor.hyperedge());
+            assertEquals(expected.get(h).size(), cursor.size());
+            assertEquals(expected.get(h).get(1), cursor.get(1));
+            for (int v : expected.get(h)) {
+                assertEquals(v, cursor.next());
+            }
+            assertFalse(cursor.hasNext());
+            assertThrows(NoSuchElementException.class, cursor::next);
+        }
+    }
+
 }
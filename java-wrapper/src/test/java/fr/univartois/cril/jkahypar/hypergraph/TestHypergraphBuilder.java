@@ -0,0 +1,185 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createConcurrentHypergraph;
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The TestHypergraphBuilder is a JUnit test case for testing the primitive and bulk
+ * methods of {@link HypergraphBuilder}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestHypergraphBuilder {
+
+    /**
+     * The offsets of the hyperedges of the hypergraph used as example in hMetis' manual.
+     * They are shifted by one, to check that the first offset is taken into account.
+     */
+    private static final long[] OFFSETS = { 1, 3, 7, 10, 13 };
+
+    /**
+     * The vertices of the hyperedges of the hypergraph used as example in hMetis' manual,
+     * numbered from {@code 1}.
+     * The first element does not represent a vertex, and must thus be ignored.
+     */
+    private static final int[] VERTICES = { 0, 1, 2, 1, 7, 5, 6, 5, 6, 4, 2, 3, 4 };
+
+    /**
+     * The weights of the hyperedges of the hypergraph used as example in hMetis' manual.
+     */
+    private static final int[] WEIGHTS = { 2, 3, 8, 7 };
+
+    /**
+     * Test method for hyperedges added without creating {@link Hyperedge} objects.
+     */
+    @Test
+    @DisplayName("Hyperedges may be added from their vertices")
+    void testPrimitiveHyperedges() {
+        var unweighted = createHypergraph()
+                .withHyperedge(1, 2)
+                .withHyperedge(1, 7, 5, 6)
+                .withHyperedge(5, 6, 4)
+                .withHyperedge(2, 3, 4)
+                .build();
+        TestHypergraph.testUnweightedHypergraph(unweighted);
+
+        var weighted = createHypergraph(7, 4)
+                .withWeightedHyperedge(2, 1, 2)
+                .withWeightedHyperedge(3, 1, 7, 5, 6)
+                .withWeightedHyperedge(8, 5, 6, 4)
+                .withWeightedHyperedge(7, 2, 3, 4)
+                .build();
+        TestHypergraph.testHypergraphWithWeightsOnHyperedges(weighted);
+    }
+
+    /**
+     * Test method for hyperedges added in compressed form.
+     */
+    @Test
+    @DisplayName("Hyperedges may be added in bulk")
+    void testBulkHyperedges() {
+        TestHypergraph.testUnweightedHypergraph(
+                createHypergraph().withHyperedges(OFFSETS, VERTICES, null).build());
+        TestHypergraph.testHypergraphWithWeightsOnHyperedges(
+                createHypergraph(7, 4).withHyperedges(OFFSETS, VERTICES, WEIGHTS).build());
+        TestHypergraph.testHypergraphWithWeightsOnHyperedges(
+                createConcurrentHypergraph().withHyperedges(OFFSETS, VERTICES, WEIGHTS).build());
+
+        // Bulks may be mixed with other hyperedges.
+        var hypergraph = createHypergraph()
+                .withHyperedge(1, 2)
+                .withHyperedges(new long[] { 3, 7, 10 }, VERTICES, null)
+                .withHyperedge(2, 3, 4)
+                .build();
+        TestHypergraph.testUnweightedHypergraph(hypergraph);
+    }
+
+    /**
+     * Test method for invalid hyperedges added in compressed form.
+     */
+    @Test
+    @DisplayName("Invalid bulks of hyperedges are rejected")
+    void testInvalidBulkHyperedges() {
+        var builder = createHypergraph();
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withHyperedges(new long[] { -1, 3 }, VERTICES, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withHyperedges(new long[] { 1, 14 }, VERTICES, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withHyperedges(new long[] { 1, 7, 3 }, VERTICES, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withHyperedges(OFFSETS, VERTICES, new int[] { 2, 3 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withHyperedges(new long[] { 0, 3 }, VERTICES, null));
+        assertThrows(IllegalArgumentException.class, () -> createConcurrentHypergraph()
+                .withHyperedges(new long[] { 0, 3 }, VERTICES, null));
+
+        // When the number of vertices is known, larger vertices are rejected.
+        assertThrows(IllegalArgumentException.class,
+                () -> createHypergraph(6, 4).withHyperedges(OFFSETS, VERTICES, null));
+
+        // Rejected hyperedges are not added to the hypergraph.
+        TestHypergraph.testUnweightedHypergraph(
+                builder.withHyperedges(OFFSETS, VERTICES, null).build());
+    }
+
+    /**
+     * Test method for the vertices of the hyperedges given by a builder before the
+     * hypergraph is built.
+     */
+    @Test
+    @DisplayName("Builders give the vertices added so far")
+    void testVerticesBeforeBuild() {
+        var builder = createHypergraph()
+                .withHyperedge(1, 2)
+                .withHyperedge(1, 7, 5, 6);
+        assertArrayEquals(new int[] { 0, 1, 0, 6, 4, 5 }, builder.getHyperedgeVertices());
+        assertEquals(6, builder.getPins().length());
+
+        builder.withHyperedge(5, 6, 4);
+        assertArrayEquals(new int[] { 0, 1, 0, 6, 4, 5, 4, 5, 3 },
+                builder.getHyperedgeVertices());
+
+        var exactBuilder = createHypergraph(7, 4, 12).withHyperedge(1, 2);
+        assertArrayEquals(new int[] { 0, 1 }, exactBuilder.getHyperedgeVertices());
+        TestHypergraph.testUnweightedHypergraph(exactBuilder
+                .withHyperedge(1, 7, 5, 6)
+                .withHyperedge(5, 6, 4)
+                .withHyperedge(2, 3, 4)
+                .build());
+    }
+
+    /**
+     * Test method for builders given the exact number of pins.
+     */
+    @Test
+    @DisplayName("Builders given the number of pins allocate their arrays only once")
+    void testExactSize() {
+        var builder = createHypergraph(7, 4, 12)
+                .withHyperedge(1, 2)
+                .withHyperedge(1, 7, 5, 6)
+                .withHyperedge(5, 6, 4)
+                .withHyperedge(2, 3, 4);
+        var hypergraph = builder.build();
+        TestHypergraph.testUnweightedHypergraph(hypergraph);
+        assertEquals(5 * Long.BYTES + 12 * Integer.BYTES, builder.getPeakMemoryUsage());
+
+        // Without the number of pins, the array of pins is grown, and then trimmed.
+        var growingBuilder = createHypergraph()
+                .withHyperedge(1, 2)
+                .withHyperedge(1, 7, 5, 6)
+                .withHyperedge(5, 6, 4)
+                .withHyperedge(2, 3, 4);
+        growingBuilder.build();
+        assertTrue(growingBuilder.getPeakMemoryUsage() > builder.getPeakMemoryUsage());
+    }
+
+}
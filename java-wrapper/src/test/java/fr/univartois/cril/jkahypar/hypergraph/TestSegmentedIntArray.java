@@ -0,0 +1,136 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.IntBuffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The TestSegmentedIntArray is a JUnit test case for testing {@link SegmentedIntArray}
+ * and the hypergraphs using it.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestSegmentedIntArray {
+
+    /**
+     * Test method for arrays spanning several segments.
+     */
+    @Test
+    @DisplayName("Segmented arrays grow and are read across segments")
+    void testSegments() {
+        var array = SegmentedIntArray.allocate(3, 1);
+        for (int i = 0; i < 30; i++) {
+            array.ensureCapacity(i + 1);
+            array.set(i, i * i);
+        }
+        array.setLength(30);
+
+        assertEquals(30, array.length());
+        assertEquals(32, array.capacity());
+        assertEquals(17 * 17, array.get(17));
+
+        var copy = new int[10];
+        array.copyTo(5, copy, 0, 10);
+        assertArrayEquals(new int[] { 25, 36, 49, 64, 81, 100, 121, 144, 169, 196 }, copy);
+
+        var expected = new int[30];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i * i;
+        }
+        assertArrayEquals(expected, array.toArray());
+    }
+
+    /**
+     * Test method for arrays allocated with an exact capacity.
+     */
+    @Test
+    @DisplayName("Exactly allocated arrays are stored in a single segment")
+    void testExactAllocation() {
+        var array = SegmentedIntArray.allocateExactly(1000);
+        assertEquals(1000, array.capacity());
+        for (int i = 0; i < 1000; i++) {
+            array.set(i, i);
+        }
+        array.setLength(1000);
+        assertTrue(array.isSingleArray());
+        assertSame(array.toArray(), array.toArray());
+
+        // Growing the array keeps a single segment.
+        array.ensureCapacity(5000);
+        assertEquals(1, array.numberOfSegments());
+        assertEquals(999, array.get(999));
+    }
+
+    /**
+     * Test method for arrays wrapping existing arrays or buffers.
+     */
+    @Test
+    @DisplayName("Segmented arrays wrap existing arrays and buffers")
+    void testWrapping() {
+        var values = new int[] { 4, 8, 15, 16, 23, 42 };
+        assertSame(values, SegmentedIntArray.wrapping(values).toArray());
+
+        var array = SegmentedIntArray.wrapping(1,
+                IntBuffer.wrap(new int[] { 4, 8 }), IntBuffer.wrap(new int[] { 15, 16 }),
+                IntBuffer.wrap(new int[] { 23 }));
+        assertEquals(5, array.length());
+        assertEquals(23, array.get(4));
+        assertArrayEquals(new int[] { 4, 8, 15, 16, 23 }, array.toArray());
+
+        assertThrows(IllegalArgumentException.class, () -> SegmentedIntArray.wrapping(1,
+                IntBuffer.wrap(new int[] { 4 }), IntBuffer.wrap(new int[] { 8 })));
+    }
+
+    /**
+     * Test method for hypergraphs storing their pins in several segments.
+     */
+    @Test
+    @DisplayName("Segmented hypergraphs behave as usual hypergraphs")
+    void testSegmentedHypergraph() {
+        var expected = HypergraphFactory.createUnweightedHypergraph();
+        var pins = SegmentedIntArray.allocate(2, 0);
+        var vertices = expected.getHyperedgeVertices();
+        pins.ensureCapacity(vertices.length);
+        for (int i = 0; i < vertices.length; i++) {
+            pins.set(i, vertices[i]);
+        }
+        pins.setLength(vertices.length);
+
+        var hypergraph = new FlatHypergraph(expected.getNumberOfVertices(),
+                expected.getNumberOfHyperedges(), expected.getHyperedgeIndices(), pins, null, null);
+        assertEquals(12, hypergraph.getNumberOfPins());
+        assertArrayEquals(vertices, hypergraph.getHyperedgeVertices());
+        assertEquals(6, hypergraph.pin(1, 1));
+        assertArrayEquals(new int[] { 1, 7, 5, 6 }, hypergraph.getHyperedge(1).getVertices());
+        assertEquals(expected.toString(), hypergraph.toString());
+    }
+
+}
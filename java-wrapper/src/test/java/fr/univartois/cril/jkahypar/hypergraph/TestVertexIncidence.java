@@ -0,0 +1,115 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.hypergraph;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static fr.univartois.cril.jkahypar.hypergraph.UnweightedHyperedge.joining;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The TestVertexIncidence is a JUnit test case for testing {@link VertexIncidence}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestVertexIncidence {
+
+    /**
+     * Test method for the incidence index of the hypergraph used as example in hMetis'
+     * manual.
+     */
+    @Test
+    @DisplayName("The incidence index of a small hypergraph is correctly computed")
+    void testSmallHypergraph() {
+        var hypergraph = HypergraphFactory.createHypergraphWithWeightsOnHyperedgesAndVertices();
+        var incidence = hypergraph.getVertexIncidence();
+
+        assertEquals(7, incidence.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 4, 5, 7, 9, 11, 12 }, incidence.getVertexIndices());
+        assertArrayEquals(new int[] { 0, 1, 0, 3, 3, 2, 3, 1, 2, 1, 2, 1 },
+                incidence.getIncidentHyperedges());
+        assertEquals(2, incidence.degree(3));
+        assertEquals(3, incidence.incidentHyperedge(1, 1));
+        assertEquals(8 * Long.BYTES + 12 * Integer.BYTES, incidence.memoryUsage());
+
+        var hyperedges = new ArrayList<Integer>();
+        incidence.forEachIncidentHyperedge(4, hyperedges::add);
+        assertEquals(List.of(1, 2), hyperedges);
+    }
+
+    /**
+     * Test method for checking that the incidence index is cached by the hypergraph.
+     */
+    @Test
+    @DisplayName("The incidence index is computed only once")
+    void testCache() {
+        var hypergraph = HypergraphFactory.createHypergraphWithWeightsOnHyperedgesAndVertices();
+        assertSame(hypergraph.getVertexIncidence(), hypergraph.getVertexIncidence());
+    }
+
+    /**
+     * Test method for the incidence index of a hypergraph that is large enough for the
+     * index to be computed in parallel.
+     */
+    @Test
+    @DisplayName("The incidence index of a large hypergraph is correctly computed")
+    void testLargeHypergraph() {
+        var random = new Random(2022);
+        int nbVertices = 10_000;
+        var builder = createHypergraph();
+        for (int h = 0; h < 50_000; h++) {
+            var vertices = random.ints(1 + random.nextInt(8), 1, nbVertices + 1)
+                    .distinct().toArray();
+            builder.withHyperedge(joining(vertices));
+        }
+        var hypergraph = builder.build();
+        var incidence = hypergraph.getVertexIncidence();
+
+        // Computing the expected index sequentially.
+        var expected = new ArrayList<List<Integer>>();
+        for (int v = 0; v < hypergraph.getNumberOfVertices(); v++) {
+            expected.add(new ArrayList<>());
+        }
+        var indices = hypergraph.getHyperedgeIndices();
+        var vertices = hypergraph.getHyperedgeVertices();
+        for (int h = 0; h < hypergraph.getNumberOfHyperedges(); h++) {
+            for (int i = (int) indices[h]; i < indices[h + 1]; i++) {
+                expected.get(vertices[i]).add(h);
+            }
+        }
+
+        for (int v = 0; v < hypergraph.getNumberOfVertices(); v++) {
+            var actual = new ArrayList<Integer>();
+            incidence.forEachIncidentHyperedge(v, actual::add);
+            assertEquals(expected.get(v), actual);
+        }
+    }
+
+}
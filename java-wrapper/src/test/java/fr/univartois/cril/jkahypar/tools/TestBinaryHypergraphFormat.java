@@ -0,0 +1,127 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The TestBinaryHypergraphFormat is a JUnit test case for testing
+ * {@link BinaryHypergraphFormat}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestBinaryHypergraphFormat {
+
+    /**
+     * Tests that a hypergraph is mapped back as it was written.
+     *
+     * @param fileName The name of the file containing the hypergraph to write.
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "unweighted.hgr", "weighted-hyperedges.hgr",
+            "weighted-vertices.hgr", "weighted-hyperedges-vertices.hgr" })
+    @DisplayName("Hypergraphs are mapped back as they were written")
+    void testWriteThenMap(String fileName, @TempDir Path directory) throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph(fileName);
+        var file = directory.resolve("hypergraph.bin");
+        BinaryHypergraphFormat.write(hypergraph, file);
+
+        var mapped = BinaryHypergraphFormat.map(file);
+        assertTrue(mapped.isNative());
+        assertEquals(hypergraph.getNumberOfVertices(), mapped.getNumberOfVertices());
+        assertEquals(hypergraph.getNumberOfHyperedges(), mapped.getNumberOfHyperedges());
+        assertArrayEquals(hypergraph.getHyperedgeIndices(), mapped.getHyperedgeIndices());
+        assertArrayEquals(hypergraph.getHyperedgeVertices(), mapped.getHyperedgeVertices());
+        assertArrayEquals(hypergraph.getHyperedgeWeights(), mapped.getHyperedgeWeights());
+        assertArrayEquals(hypergraph.getVertexWeights(), mapped.getVertexWeights());
+        assertEquals(hypergraph.toString(), mapped.toString());
+    }
+
+    /**
+     * Tests that a hypergraph is mapped back by windows smaller than its sections.
+     *
+     * @param fileName The name of the file containing the hypergraph to write.
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "unweighted.hgr", "weighted-hyperedges-vertices.hgr" })
+    @DisplayName("Hypergraphs are mapped back by windows")
+    void testMapByWindows(String fileName, @TempDir Path directory) throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph(fileName);
+        var file = directory.resolve("hypergraph.bin");
+        BinaryHypergraphFormat.write(hypergraph, file);
+
+        var mapped = BinaryHypergraphFormat.map(file, 16);
+        assertFalse(mapped.isNative());
+        assertThrows(UnsupportedOperationException.class, mapped::getHyperedgeVerticesBuffer);
+        assertEquals(hypergraph.getNumberOfHyperedges(), mapped.getNumberOfHyperedges());
+        assertEquals(hypergraph.getNumberOfPins(), mapped.getNumberOfPins());
+        assertEquals(5, mapped.getPins().get(5));
+        assertArrayEquals(hypergraph.getHyperedgeIndices(), mapped.getHyperedgeIndices());
+        assertSame(mapped.getHyperedgeIndices(), mapped.getHyperedgeIndices());
+        assertArrayEquals(hypergraph.getHyperedgeVertices(), mapped.getHyperedgeVertices());
+        assertArrayEquals(hypergraph.getHyperedgeWeights(), mapped.getHyperedgeWeights());
+        assertArrayEquals(hypergraph.getVertexWeights(), mapped.getVertexWeights());
+        assertEquals(hypergraph.toString(), mapped.toString());
+
+        // Writing the mapped hypergraph again reads its pins by windows.
+        var copy = directory.resolve("copy.bin");
+        BinaryHypergraphFormat.write(mapped, copy);
+        assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(copy));
+    }
+
+    /**
+     * Tests that files that are not in the expected format are rejected.
+     *
+     * @param directory The directory in which to write the file.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Files in another format are rejected")
+    void testInvalidFile(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("hypergraph.bin");
+        Files.writeString(file, "4 7\n1 2\n1 7 5 6\n5 6 4\n2 3 4\n");
+        assertThrows(IOException.class, () -> BinaryHypergraphFormat.map(file));
+    }
+
+}
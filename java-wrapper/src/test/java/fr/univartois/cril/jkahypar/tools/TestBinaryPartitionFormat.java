@@ -0,0 +1,149 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static fr.univartois.cril.jkahypar.hypergraph.UnweightedHyperedge.joining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The TestBinaryPartitionFormat is a JUnit test case for testing
+ * {@link BinaryPartitionFormat}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestBinaryPartitionFormat {
+
+    /**
+     * The number of vertices in the partitioned hypergraph.
+     */
+    private static final int NB_VERTICES = 1000;
+
+    /**
+     * Tests that a partition is read back as it was written.
+     *
+     * @param nbBlocks The number of blocks in the partition.
+     * @param directory The directory in which to write the partition.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 37, 64, 100_000 })
+    @DisplayName("Partitions are read back as they were written")
+    void testWriteThenRead(int nbBlocks, @TempDir Path directory) throws IOException {
+        var hypergraph = createTestHypergraph();
+        var blocks = new int[NB_VERTICES];
+        for (int v = 0; v < NB_VERTICES; v++) {
+            blocks[v] = (v * 7919) % nbBlocks;
+        }
+        var partition = HypergraphPartition.of(nbBlocks, blocks, 42);
+
+        var file = directory.resolve("partition.bin");
+        BinaryPartitionFormat.write(partition, hypergraph, file);
+        var read = BinaryPartitionFormat.read(file, hypergraph);
+
+        assertEquals(nbBlocks, read.numberOfBlocks());
+        assertEquals(NB_VERTICES, read.numberOfVertices());
+        assertEquals(42, read.objectiveValue());
+        for (int v = 1; v <= NB_VERTICES; v++) {
+            assertEquals(partition.blockOf(v), read.blockOf(v));
+        }
+    }
+
+    /**
+     * Tests that reading a partition for the wrong hypergraph fails.
+     *
+     * @param directory The directory in which to write the partition.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Partitions of other hypergraphs are rejected")
+    void testFingerprintMismatch(@TempDir Path directory) throws IOException {
+        var partition = HypergraphPartition.of(2, new int[NB_VERTICES], 0);
+        var file = directory.resolve("partition.bin");
+        BinaryPartitionFormat.write(partition, createTestHypergraph(), file);
+
+        var other = createHypergraph(NB_VERTICES, 1).withHyperedge(joining(1, 3)).build();
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryPartitionFormat.read(file, other));
+    }
+
+    /**
+     * Tests that partitions with an invalid number of blocks, or with block identifiers
+     * exceeding this number, are rejected.
+     *
+     * @param nbBlocks The number of blocks to write in the header of the partition.
+     * @param directory The directory in which to write the partition.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { -1, 0, 33 })
+    @DisplayName("Partitions with invalid blocks are rejected")
+    void testInvalidBlocks(int nbBlocks, @TempDir Path directory) throws IOException {
+        var blocks = new int[NB_VERTICES];
+        for (int v = 0; v < NB_VERTICES; v++) {
+            blocks[v] = v % 37;
+        }
+        var file = directory.resolve("partition.bin");
+        BinaryPartitionFormat.write(HypergraphPartition.of(37, blocks, 0),
+                createTestHypergraph(), file);
+
+        // Overwriting the number of blocks, stored after the magic number and version.
+        var bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(8, nbBlocks);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> BinaryPartitionFormat.read(file));
+        try (var channel = Channels.newChannel(Files.newInputStream(file))) {
+            assertThrows(IOException.class, () -> BinaryPartitionFormat.read(channel));
+        }
+    }
+
+    /**
+     * Creates the hypergraph used in the tests.
+     *
+     * @return The created hypergraph.
+     */
+    private static Hypergraph createTestHypergraph() {
+        return createHypergraph(NB_VERTICES, 1).withHyperedge(joining(1, 2)).build();
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static fr.univartois.cril.jkahypar.hypergraph.UnweightedHyperedge.joining;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The TestCutHyperedges is a JUnit test case for testing {@link CutHyperedges}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestCutHyperedges {
+
+    /**
+     * Test method for partitions having few blocks, for which connectivity sets are
+     * represented as bitsets.
+     */
+    @Test
+    @DisplayName("Cut hyperedges are identified when there are few blocks")
+    void testFewBlocks() {
+        var partition = HypergraphPartition.of(3, new int[] { 0, 0, 1, 1, 2, 2, 0 }, 18);
+        var cut = CutHyperedges.of(createTestHypergraph(), partition);
+
+        assertArrayEquals(new int[] { 1, 2, 3 }, cut.getHyperedges());
+        assertFalse(cut.isCut(0));
+        assertTrue(cut.isCut(2));
+        assertEquals(1, cut.indexOf(2));
+
+        assertArrayEquals(new int[] { 0, 2 }, cut.getBlocks(0));
+        assertArrayEquals(new int[] { 1, 2 }, cut.getBlocks(1));
+        assertArrayEquals(new int[] { 0, 1 }, cut.getBlocks(2));
+        assertEquals(2, cut.connectivity(1));
+        assertTrue(cut.spans(1, 2));
+        assertFalse(cut.spans(1, 0));
+
+        assertEquals(18, cut.cutWeight());
+        assertEquals(18, cut.connectivityWeight());
+    }
+
+    /**
+     * Test method for partitions having many blocks, for which connectivity sets are
+     * represented as sorted lists.
+     */
+    @Test
+    @DisplayName("Cut hyperedges are identified when there are many blocks")
+    void testManyBlocks() {
+        var partition = HypergraphPartition.of(70, new int[] { 0, 0, 65, 65, 69, 69, 0 }, 18);
+        var cut = CutHyperedges.of(createTestHypergraph(), partition);
+
+        assertArrayEquals(new int[] { 1, 2, 3 }, cut.getHyperedges());
+        assertArrayEquals(new int[] { 0, 69 }, cut.getBlocks(0));
+        assertArrayEquals(new int[] { 65, 69 }, cut.getBlocks(1));
+        assertArrayEquals(new int[] { 0, 65 }, cut.getBlocks(2));
+        assertTrue(cut.spans(2, 65));
+        assertFalse(cut.spans(2, 69));
+
+        var blocks = new ArrayList<Integer>();
+        cut.forEachBlock(0, blocks::add);
+        assertEquals(List.of(0, 69), blocks);
+
+        assertEquals(18, cut.cutWeight());
+        assertEquals(18, cut.connectivityWeight());
+    }
+
+    /**
+     * Creates the hypergraph used in the tests.
+     *
+     * @return The created hypergraph.
+     */
+    private static Hypergraph createTestHypergraph() {
+        return createHypergraph(7, 4)
+                .withHyperedge(joining(1, 2).withWeight(2))
+                .withHyperedge(joining(1, 7, 5, 6).withWeight(3))
+                .withHyperedge(joining(5, 6, 4).withWeight(8))
+                .withHyperedge(joining(2, 3, 4).withWeight(7))
+                .build();
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder;
+
+/**
+ * The TestDecompressingChannel is a JUnit test case for testing
+ * {@link DecompressingChannel}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestDecompressingChannel {
+
+    /**
+     * Tests that an uncompressed input is read as is.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Uncompressed inputs are read as is")
+    void testUncompressedInput() throws IOException {
+        var bytes = bytes(1000);
+        assertArrayEquals(bytes, readAll(new ByteArrayInputStream(bytes)));
+        assertArrayEquals(new byte[0], readAll(new ByteArrayInputStream(new byte[0])));
+    }
+
+    /**
+     * Tests that a gzip input spanning several buffers of the ring is decompressed.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Gzip inputs are decompressed through the ring of buffers")
+    void testGzipInput() throws IOException {
+        var bytes = bytes(10_000_000);
+        assertArrayEquals(bytes, readAll(new ByteArrayInputStream(gzip(bytes))));
+    }
+
+    /**
+     * Tests that errors occurring while decompressing are reported to the reader.
+     */
+    @Test
+    @DisplayName("Decompression errors are reported to the reader")
+    void testTruncatedGzipInput() {
+        var compressed = gzip(bytes(100_000));
+        var truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        assertThrows(IOException.class, () -> readAll(new ByteArrayInputStream(truncated)));
+    }
+
+    /**
+     * Tests that unchecked exceptions thrown while decompressing are reported to the
+     * reader, instead of leaving it waiting for the end of the input.
+     */
+    @Test
+    @DisplayName("Unchecked decompression errors are reported to the reader")
+    void testFailingDecompressor() {
+        var compressed = gzip(bytes(1_000_000));
+        var failing = new ByteArrayInputStream(compressed) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (pos >= compressed.length / 2) {
+                    throw new IllegalStateException("Decompressor failure");
+                }
+                return super.read(b, off, Math.min(len, compressed.length / 2 - pos));
+            }
+        };
+
+        var exception = assertThrows(IOException.class, () -> readAll(failing));
+        assertEquals(IllegalStateException.class, exception.getCause().getClass());
+    }
+
+    /**
+     * Tests that uncompressed files are not wrapped, so that they can be mapped.
+     *
+     * @param directory The directory in which to write the files.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Uncompressed files are not wrapped")
+    void testOpenFile(@TempDir Path directory) throws IOException {
+        var plain = Files.write(directory.resolve("plain"), bytes(100));
+        try (var channel = FileChannel.open(plain)) {
+            assertSame(channel, DecompressingChannel.open(channel));
+        }
+
+        var compressed = Files.write(directory.resolve("compressed"), gzip(bytes(100)));
+        try (var channel = DecompressingChannel.open(FileChannel.open(compressed))) {
+            var buffer = ByteBuffer.allocate(200);
+            while (channel.read(buffer) >= 0) {
+                // Reading the whole file.
+            }
+            assertEquals(100, buffer.position());
+        }
+    }
+
+    /**
+     * Tests that compressed hypergraph files are transparently parsed.
+     *
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Compressed hypergraphs are transparently parsed")
+    void testParseCompressedHypergraph(@TempDir Path directory) throws IOException {
+        int nbVertices = 100000;
+        var builder = HypergraphBuilder.createHypergraph(nbVertices, nbVertices);
+        for (int v = 1; v <= nbVertices; v++) {
+            builder.withHyperedge(v, (v * 31) % nbVertices + 1);
+        }
+        var hypergraph = builder.build();
+
+        var file = directory.resolve("test.hgr.gz");
+        try (var output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(hypergraph.toString().getBytes());
+        }
+
+        try (var parser = new HypergraphParser(file.toString())) {
+            parser.parseInParallel();
+            var read = parser.getHypergraph();
+            assertArrayEquals(hypergraph.getHyperedgeIndices(), read.getHyperedgeIndices());
+            assertArrayEquals(hypergraph.getHyperedgeVertices(), read.getHyperedgeVertices());
+        }
+    }
+
+    /**
+     * Creates an array of bytes of the given size.
+     *
+     * @param size The number of bytes.
+     *
+     * @return The created array.
+     */
+    private static byte[] bytes(int size) {
+        var bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) ((i * 7) % 10 + '0');
+        }
+        return bytes;
+    }
+
+    /**
+     * Compresses bytes with gzip.
+     *
+     * @param bytes The bytes to compress.
+     *
+     * @return The compressed bytes.
+     */
+    private static byte[] gzip(byte[] bytes) {
+        var output = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads all the bytes from a decompressing channel.
+     *
+     * @param stream The stream to read from.
+     *
+     * @return The read bytes.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static byte[] readAll(InputStream stream) throws IOException {
+        var output = new ByteArrayOutputStream();
+        try (var channel = new DecompressingChannel(stream)) {
+            var buffer = ByteBuffer.allocate(1 << 15);
+            while (channel.read(buffer) >= 0) {
+                output.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+        return output.toByteArray();
+    }
+
+}
@@ -0,0 +1,181 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.tools.DimacsCnfFormat.Model;
+
+/**
+ * The TestDimacsCnfFormat is a JUnit test case for testing {@link DimacsCnfFormat}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestDimacsCnfFormat {
+
+    /**
+     * The CNF formula used in the tests, with a clause containing duplicate literals,
+     * a clause spanning several lines, and the SATLIB end marker.
+     */
+    private static final String FORMULA = "c An example.\nc\np cnf 4 3\n1 -2 0\n"
+            + "2 3 -1 1 0 -4\n 0\n%\n0\n";
+
+    /**
+     * Tests that formulas are read in the primal model.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Clauses are hyperedges over variables in the primal model")
+    void testPrimalModel() throws IOException {
+        var hypergraph = read(FORMULA, Model.PRIMAL);
+        assertEquals(4, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 5, 6 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 1, 2, 0, 3 }, hypergraph.getHyperedgeVertices());
+        assertNull(hypergraph.getHyperedgeWeights());
+    }
+
+    /**
+     * Tests that formulas are read in the literal model.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Clauses are hyperedges over literals in the literal model")
+    void testLiteralModel() throws IOException {
+        var hypergraph = read(FORMULA, Model.LITERAL);
+        assertEquals(8, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 6, 7 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 3, 2, 4, 1, 0, 7 }, hypergraph.getHyperedgeVertices());
+    }
+
+    /**
+     * Tests that formulas are read in the dual model.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Variables are hyperedges over clauses in the dual model")
+    void testDualModel() throws IOException {
+        var hypergraph = read(FORMULA, Model.DUAL);
+        assertEquals(3, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 4, 5, 6 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 0, 1, 1, 2 }, hypergraph.getHyperedgeVertices());
+        assertNull(hypergraph.getVertexWeights());
+    }
+
+    /**
+     * Tests that the weights of the clauses are read in weighted formulas, hard clauses
+     * being given a weight such that the total weight fits in an integer.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Clause weights are given to hyperedges or vertices")
+    void testWeightedFormula() throws IOException {
+        var formula = "p wcnf 2 3 100000000000\n10 1 2 0\n3 -1 0\n100000000000 2 0\n";
+        int hardWeight = Integer.MAX_VALUE / 3;
+        var primal = read(formula, Model.PRIMAL);
+        assertArrayEquals(new int[] { 10, 3, hardWeight }, primal.getHyperedgeWeights());
+        assertNull(primal.getVertexWeights());
+
+        var dual = read(formula, Model.DUAL);
+        assertArrayEquals(new int[] { 10, 3, hardWeight }, dual.getVertexWeights());
+        assertNull(dual.getHyperedgeWeights());
+
+        // Without top weight, all clauses are soft.
+        var soft = read("p wcnf 2 2\n10 1 2 0\n100000 -1 0\n", Model.PRIMAL);
+        assertArrayEquals(new int[] { 10, 100000 }, soft.getHyperedgeWeights());
+    }
+
+    /**
+     * Tests that compressed formulas are read from files.
+     *
+     * @param directory The directory in which to write the formula.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Compressed formulas are read from files")
+    void testReadCompressedFile(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("test.cnf.gz");
+        try (var output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(FORMULA.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        var hypergraph = DimacsCnfFormat.read(file, Model.PRIMAL);
+        assertArrayEquals(read(FORMULA, Model.PRIMAL).getHyperedgeVertices(),
+                hypergraph.getHyperedgeVertices());
+    }
+
+    /**
+     * Tests that invalid formulas are rejected.
+     */
+    @Test
+    @DisplayName("Invalid formulas are rejected")
+    void testInvalidFormulas() {
+        assertThrows(IOException.class, () -> read("1 2 0\n", Model.PRIMAL));
+        assertThrows(IOException.class, () -> read("p sat 2 1\n1 2 0\n", Model.PRIMAL));
+        assertThrows(IOException.class, () -> read("p cnf 2 1\n1 3 0\n", Model.PRIMAL));
+        assertThrows(IOException.class, () -> read("p cnf 2 2\n1 2 0\n", Model.PRIMAL));
+        assertThrows(IOException.class, () -> read("p cnf 2 1\n1 0\n2 0\n", Model.PRIMAL));
+        assertThrows(IOException.class, () -> read("p cnf 2 1\n1 2\n", Model.PRIMAL));
+        assertThrows(IOException.class, () -> read("p wcnf 2 1\n0 1 2 0\n", Model.PRIMAL));
+        assertThrows(IOException.class, () -> read("p wcnf 2 1 0\n1 2 0\n", Model.PRIMAL));
+        assertThrows(IOException.class,
+                () -> read("p wcnf 2 1\n3000000000 1 2 0\n", Model.PRIMAL));
+        assertThrows(IOException.class,
+                () -> read("p wcnf 2 2\n2000000000 1 0\n2000000000 2 0\n", Model.DUAL));
+    }
+
+    /**
+     * Reads a formula from the given text.
+     *
+     * @param text The text to read.
+     * @param model The hypergraph model representing the formula.
+     *
+     * @return The read hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static Hypergraph read(String text, Model model) throws IOException {
+        var stream = new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+        return DimacsCnfFormat.read(Channels.newChannel(stream), model);
+    }
+
+}
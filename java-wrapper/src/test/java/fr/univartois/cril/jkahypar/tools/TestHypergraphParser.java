@@ -19,12 +19,25 @@
 
 package fr.univartois.cril.jkahypar.tools;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder;
 import fr.univartois.cril.jkahypar.hypergraph.TestHypergraph;
 
 /**
@@ -87,6 +100,266 @@ final class TestHypergraphParser {
         TestHypergraph.testHypergraphWithWeightsOnHyperedgesAndVertices(hypergraph);
     }
 
+    /**
+     * Tests that the parser ignores comments and supports other line separators.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    @Test
+    @DisplayName("Comments and other line separators are supported")
+    void testReadCommentsAndOtherSeparators() throws IOException {
+        var hypergraph = readHypergraphFrom(
+                "% A comment.\r\n3 4 11\r\n2 1  2\r\n% Another comment.\r\n"
+                        + "5 \r\n1\t2 3 4\r\n7\r\n8\r\n9\r\n10");
+        assertEquals(3, hypergraph.getNumberOfHyperedges());
+        assertEquals(4, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 2, 5 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 1, 2, 3 }, hypergraph.getHyperedgeVertices());
+        assertArrayEquals(new int[] { 2, 5, 1 }, hypergraph.getHyperedgeWeights());
+        assertArrayEquals(new int[] { 7, 8, 9, 10 }, hypergraph.getVertexWeights());
+    }
+
+    /**
+     * Tests that the parser reads hypergraphs spanning several batches of hyperedges.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    @Test
+    @DisplayName("Large hypergraphs are read in several batches")
+    void testReadLargeHypergraph() throws IOException {
+        int nbHyperedges = 10000;
+        var text = new StringBuilder().append(nbHyperedges).append(" 100050\n");
+        for (int h = 0; h < nbHyperedges; h++) {
+            for (int v = 1; v <= h % 50; v++) {
+                text.append(h * 10 + v).append(' ');
+            }
+            text.append('\n');
+        }
+
+        var hypergraph = readHypergraphFrom(text.toString());
+        assertEquals(nbHyperedges, hypergraph.getNumberOfHyperedges());
+        var pins = hypergraph.getPins();
+        var indices = hypergraph.getHyperedgeIndices();
+        for (int h = 0; h < nbHyperedges; h++) {
+            assertEquals(h % 50, hypergraph.hyperedgeSize(h));
+            for (int v = 1; v <= h % 50; v++) {
+                assertEquals(h * 10 + v - 1, pins.get(indices[h] + v - 1));
+            }
+        }
+    }
+
+    /**
+     * Tests that the parser rejects invalid hypergraphs.
+     */
+    @Test
+    @DisplayName("Invalid hypergraphs are rejected")
+    void testReadInvalidHypergraphs() {
+        assertThrows(IOException.class, () -> readHypergraphFrom(""));
+        assertThrows(IOException.class, () -> readHypergraphFrom("2 3\n1 2\n"));
+        assertThrows(IOException.class, () -> readHypergraphFrom("1 3\n1 4\n"));
+        assertThrows(IOException.class, () -> readHypergraphFrom("1 3\n1 a\n"));
+        assertThrows(IOException.class, () -> readHypergraphFrom("1 3 10\n1 2\n1\n2\n"));
+    }
+
+    /**
+     * Test method for {@link HypergraphParser#parseInParallel()}.
+     *
+     * @param fileName The name of the file containing the hypergraph to read.
+     * @param directory The directory in which to copy the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "unweighted.hgr", "weighted-hyperedges.hgr",
+            "weighted-vertices.hgr", "weighted-hyperedges-vertices.hgr" })
+    @DisplayName("Hypergraphs are read in the same way in parallel")
+    void testReadInParallel(String fileName, @TempDir Path directory) throws IOException {
+        var file = directory.resolve(fileName);
+        try (var stream = TestHypergraphParser.class.getResourceAsStream(
+                "/hypergraphs/" + fileName)) {
+            Files.copy(stream, file);
+        }
+
+        try (var parser = new HypergraphParser(file.toString())) {
+            parser.parseInParallel();
+            assertSameHypergraph(readHypergraph(fileName), parser.getHypergraph());
+        }
+    }
+
+    /**
+     * Tests that a large hypergraph is read in several chunks in parallel, including
+     * the weights of its vertices.
+     *
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    @Test
+    @DisplayName("Large hypergraphs are read in several chunks in parallel")
+    void testReadLargeHypergraphInParallel(@TempDir Path directory) throws IOException {
+        int nbVertices = 300000;
+        var builder = HypergraphBuilder.createHypergraph(nbVertices, nbVertices);
+        for (int v = 1; v <= nbVertices; v++) {
+            builder.withWeightedHyperedge(v % 7 + 1, v, (v * 31) % nbVertices + 1,
+                    (v * 97) % nbVertices + 1);
+            builder.withVertexWeight(v, v % 13 + 1);
+        }
+        var hypergraph = builder.build();
+        var file = directory.resolve("large.hgr");
+        HypergraphWriter.write(hypergraph, file);
+
+        try (var parser = new HypergraphParser(file.toString())) {
+            parser.parseInParallel();
+            assertSameHypergraph(hypergraph, parser.getHypergraph());
+        }
+
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try (var parser = new HypergraphParser(buffer)) {
+            parser.parseInParallel();
+            assertSameHypergraph(hypergraph, parser.getHypergraph());
+        }
+    }
+
+    /**
+     * Test method for {@link HypergraphParser#parseWithExactAllocation()}.
+     *
+     * @param fileName The name of the file containing the hypergraph to read.
+     * @param directory The directory in which to copy the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "unweighted.hgr", "weighted-hyperedges.hgr",
+            "weighted-vertices.hgr", "weighted-hyperedges-vertices.hgr" })
+    @DisplayName("Hypergraphs are read in the same way with exact allocation")
+    void testReadWithExactAllocation(String fileName, @TempDir Path directory)
+            throws IOException {
+        var file = directory.resolve(fileName);
+        try (var stream = TestHypergraphParser.class.getResourceAsStream(
+                "/hypergraphs/" + fileName)) {
+            Files.copy(stream, file);
+        }
+
+        try (var parser = new HypergraphParser(file.toString())) {
+            parser.parseWithExactAllocation();
+            assertSameHypergraph(readHypergraph(fileName), parser.getHypergraph());
+            assertTrue(parser.getHypergraph().getPins().isSingleArray());
+        }
+    }
+
+    /**
+     * Tests that comments, blanks and weights are not counted as pins when reading
+     * with exact allocation.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    @Test
+    @DisplayName("Only pins are counted when reading with exact allocation")
+    void testCountPins() throws IOException {
+        var text = "% A comment.\r\n3 4 11\r\n2 1  2\r\n% 1 2 3\r\n"
+                + "5 \r\n1\t2 3 4\r\n7\r\n8\r\n9\r\n10";
+        var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        try (var parser = new HypergraphParser(buffer)) {
+            parser.parseWithExactAllocation();
+            assertSameHypergraph(readHypergraphFrom(text), parser.getHypergraph());
+        }
+    }
+
+    /**
+     * Tests that the three parse modes read the same hypergraph, in particular when the
+     * input contains comments among the hyperedges or the vertex weights.
+     *
+     * @param text The text to read.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "% A comment.\n2 3 10\n1 2\n% 1 2 3\n2 3\n5\n6\n7\n",
+            "2 3 10\n1 2\n2 3\n% 1 2 3\n5\n% 4\n6\n\n7",
+            "2 3 11\r\n4 1 2\r\n%\r\n8 2 3\r\n5 6\r\n% 4\r\n7\r\n",
+            "2 3 11\n4 1 2\n8 2 3\n%\n%\n5\t6  7\n% 4\n" })
+    @DisplayName("The parse modes handle comments in the same way")
+    void testParseModes(String text) throws IOException {
+        var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        Hypergraph expected;
+        try (var parser = new HypergraphParser(buffer.duplicate())) {
+            parser.parse();
+            expected = parser.getHypergraph();
+        }
+        assertArrayEquals(new long[] { 0, 2, 4 }, expected.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 1, 2 }, expected.getHyperedgeVertices());
+        assertArrayEquals(new int[] { 5, 6, 7 }, expected.getVertexWeights());
+
+        try (var parser = new HypergraphParser(buffer.duplicate())) {
+            parser.parseInParallel();
+            assertSameHypergraph(expected, parser.getHypergraph());
+        }
+        try (var parser = new HypergraphParser(buffer.duplicate())) {
+            parser.parseWithExactAllocation();
+            assertSameHypergraph(expected, parser.getHypergraph());
+        }
+    }
+
+    /**
+     * Tests that the parser rejects invalid hypergraphs in parallel.
+     */
+    @Test
+    @DisplayName("Invalid hypergraphs are rejected in parallel")
+    void testReadInvalidHypergraphsInParallel() {
+        assertThrows(IOException.class, () -> readHypergraphInParallelFrom(""));
+        assertThrows(IOException.class, () -> readHypergraphInParallelFrom("2 3\n1 2\n"));
+        assertThrows(IOException.class, () -> readHypergraphInParallelFrom("1 3\n1 4\n"));
+        assertThrows(IOException.class, () -> readHypergraphInParallelFrom("1 3\n1 a\n"));
+        assertThrows(IOException.class, () -> readHypergraphInParallelFrom("1 3 1\n\n"));
+        assertThrows(IOException.class,
+                () -> readHypergraphInParallelFrom("1 3 10\n1 2\n1\n2\n"));
+    }
+
+    /**
+     * Checks that two hypergraphs have the same representation.
+     *
+     * @param expected The expected hypergraph.
+     * @param actual The actual hypergraph.
+     */
+    private static void assertSameHypergraph(Hypergraph expected, Hypergraph actual) {
+        assertEquals(expected.getNumberOfVertices(), actual.getNumberOfVertices());
+        assertArrayEquals(expected.getHyperedgeIndices(), actual.getHyperedgeIndices());
+        assertArrayEquals(expected.getHyperedgeVertices(), actual.getHyperedgeVertices());
+        assertArrayEquals(expected.getHyperedgeWeights(), actual.getHyperedgeWeights());
+        assertArrayEquals(expected.getVertexWeights(), actual.getVertexWeights());
+    }
+
+    /**
+     * Reads a hypergraph from the given text, in parallel.
+     *
+     * @param text The text to read.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private static void readHypergraphInParallelFrom(String text) throws IOException {
+        var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        try (var parser = new HypergraphParser(buffer)) {
+            parser.parseInParallel();
+        }
+    }
+
+    /**
+     * Reads a hypergraph from the given text.
+     *
+     * @param text The text to read.
+     *
+     * @return The read hypergraph.
+     *
+     * @throws IOException If an I/O error occurs while reading.
+     */
+    private static Hypergraph readHypergraphFrom(String text) throws IOException {
+        var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        try (var parser = new HypergraphParser(buffer)) {
+            parser.parse();
+            return parser.getHypergraph();
+        }
+    }
+
     /**
      * Reads a hypergraph from the given file.
      *
@@ -96,7 +369,7 @@ final class TestHypergraphParser {
      *
      * @throws IOException If an I/O error occurs while reading.
      */
-    private static Hypergraph readHypergraph(String fileName) throws IOException {
+    static Hypergraph readHypergraph(String fileName) throws IOException {
         try (var parser = new HypergraphParser(
                 TestHypergraphParser.class.getResourceAsStream("/hypergraphs/" + fileName))) {
             parser.parse();
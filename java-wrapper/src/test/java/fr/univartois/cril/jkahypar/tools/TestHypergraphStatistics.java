@@ -0,0 +1,115 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The TestHypergraphStatistics is a JUnit test case for testing
+ * {@link HypergraphStatistics}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestHypergraphStatistics {
+
+    /**
+     * Tests the statistics computed on a weighted hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Statistics are computed on a weighted hypergraph")
+    void testWeightedHypergraph() throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("weighted-hyperedges-vertices.hgr");
+        var statistics = HypergraphStatistics.of(hypergraph, 2);
+
+        assertEquals(7, statistics.getNumberOfVertices());
+        assertEquals(4, statistics.getNumberOfHyperedges());
+        assertEquals(12, statistics.getNumberOfPins());
+        assertEquals(1, statistics.getNumberOfComponents());
+
+        assertEquals(2, statistics.getMinHyperedgeSize());
+        assertEquals(4, statistics.getMaxHyperedgeSize());
+        assertEquals(3.0, statistics.getAverageHyperedgeSize());
+        assertArrayEquals(new long[] { 0, 0, 3, 1 }, statistics.getHyperedgeSizeHistogram());
+        assertArrayEquals(new int[] { 1, 2 }, statistics.getLargestHyperedges());
+        assertArrayEquals(new int[] { 4, 3 }, statistics.getLargestHyperedgeSizes());
+
+        assertEquals(1, statistics.getMinVertexDegree());
+        assertEquals(2, statistics.getMaxVertexDegree());
+        assertArrayEquals(new long[] { 0, 2, 5 }, statistics.getVertexDegreeHistogram());
+
+        assertEquals(20, statistics.getTotalHyperedgeWeight());
+        assertEquals(36, statistics.getTotalVertexWeight());
+        assertEquals(9, statistics.getMaxVertexWeight());
+    }
+
+    /**
+     * Tests the statistics computed on an unweighted hypergraph having isolated vertices.
+     */
+    @Test
+    @DisplayName("Isolated vertices are counted as components")
+    void testIsolatedVertices() {
+        var hypergraph = createHypergraph(5, 2)
+                .withHyperedge(1, 2)
+                .withHyperedge(3, 4)
+                .build();
+        var statistics = HypergraphStatistics.of(hypergraph);
+
+        assertEquals(3, statistics.getNumberOfComponents());
+        assertEquals(0, statistics.getMinVertexDegree());
+        assertArrayEquals(new long[] { 1, 4 }, statistics.getVertexDegreeHistogram());
+        assertArrayEquals(new int[] { 0, 1 }, statistics.getLargestHyperedges());
+        assertEquals(2, statistics.getTotalHyperedgeWeight());
+        assertEquals(5, statistics.getTotalVertexWeight());
+    }
+
+    /**
+     * Tests the computation of the components of a large hypergraph, which is performed
+     * on several chunks in parallel.
+     */
+    @Test
+    @DisplayName("The components of a large hypergraph are computed in parallel")
+    void testLargeHypergraph() {
+        // The hypergraph is made of paths of 100 vertices.
+        int nbVertices = 200000;
+        var builder = createHypergraph(nbVertices, nbVertices - nbVertices / 100);
+        for (int v = 1; v < nbVertices; v++) {
+            if (v % 100 != 0) {
+                builder.withHyperedge(v, v + 1);
+            }
+        }
+        var statistics = HypergraphStatistics.of(builder.build());
+
+        assertEquals(nbVertices / 100, statistics.getNumberOfComponents());
+        assertEquals(1, statistics.getMinVertexDegree());
+        assertEquals(2, statistics.getMaxVertexDegree());
+    }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static fr.univartois.cril.jkahypar.tools.TestHypergraphParser.readHypergraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The TestHypergraphWriter is a JUnit test case for testing {@link HypergraphWriter}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestHypergraphWriter {
+
+    /**
+     * Test method for {@link HypergraphWriter#write(Hypergraph, java.io.Writer)}.
+     *
+     * @param fileName The name of the file containing the hypergraph to write.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "unweighted.hgr", "weighted-hyperedges.hgr",
+            "weighted-vertices.hgr", "weighted-hyperedges-vertices.hgr" })
+    @DisplayName("Hypergraphs are written as in their String representation")
+    void testWriteToWriter(String fileName) throws IOException {
+        var hypergraph = readHypergraph(fileName);
+        var writer = new StringWriter();
+        HypergraphWriter.write(hypergraph, writer);
+        assertEquals(hypergraph.toString().replace(System.lineSeparator(), "\n"),
+                writer.toString());
+    }
+
+    /**
+     * Test method for {@link HypergraphWriter#write(Hypergraph, Path)} and
+     * {@link HypergraphWriter#writeInParallel(Hypergraph, Path)}.
+     *
+     * @param fileName The name of the file containing the hypergraph to write.
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "unweighted.hgr", "weighted-hyperedges.hgr",
+            "weighted-vertices.hgr", "weighted-hyperedges-vertices.hgr" })
+    @DisplayName("Hypergraphs are written in the same way in parallel")
+    void testWriteToFile(String fileName, @TempDir Path directory) throws IOException {
+        var hypergraph = readHypergraph(fileName);
+        var sequential = directory.resolve("sequential.hgr");
+        var parallel = directory.resolve("parallel.hgr");
+        HypergraphWriter.write(hypergraph, sequential);
+        HypergraphWriter.writeInParallel(hypergraph, parallel);
+
+        var expected = hypergraph.toString().replace(System.lineSeparator(), "\n");
+        assertEquals(expected, Files.readString(sequential));
+        assertEquals(expected, Files.readString(parallel));
+    }
+
+    /**
+     * Tests that a large hypergraph is written in several chunks in parallel, and read
+     * back as it was written.
+     *
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Large hypergraphs are written in parallel and read back")
+    void testLargeHypergraph(@TempDir Path directory) throws IOException {
+        int nbVertices = 300000;
+        var builder = createHypergraph(nbVertices, nbVertices);
+        for (int v = 1; v <= nbVertices; v++) {
+            builder.withWeightedHyperedge(v % 7 + 1, v, v % nbVertices + 1,
+                    (v * 31) % nbVertices + 1, (v * 97) % nbVertices + 1);
+            builder.withVertexWeight(v, v % 13 + 1);
+        }
+        var hypergraph = builder.build();
+        var sequential = directory.resolve("sequential.hgr");
+        var parallel = directory.resolve("parallel.hgr");
+        HypergraphWriter.write(hypergraph, sequential);
+        HypergraphWriter.writeInParallel(hypergraph, parallel);
+        assertArrayEquals(Files.readAllBytes(sequential), Files.readAllBytes(parallel));
+
+        try (var parser = new HypergraphParser(parallel.toString())) {
+            parser.parse();
+            var read = parser.getHypergraph();
+            assertArrayEquals(hypergraph.getHyperedgeIndices(), read.getHyperedgeIndices());
+            assertArrayEquals(hypergraph.getHyperedgeVertices(), read.getHyperedgeVertices());
+            assertArrayEquals(hypergraph.getHyperedgeWeights(), read.getHyperedgeWeights());
+            assertArrayEquals(hypergraph.getVertexWeights(), read.getVertexWeights());
+        }
+    }
+
+}
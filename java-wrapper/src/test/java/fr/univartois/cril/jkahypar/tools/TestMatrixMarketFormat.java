@@ -0,0 +1,135 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.tools.SparseMatrixHypergraph.Model;
+
+/**
+ * The TestMatrixMarketFormat is a JUnit test case for testing {@link MatrixMarketFormat}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestMatrixMarketFormat {
+
+    /**
+     * The matrix used in the tests, with its nonzeros given column by column.
+     */
+    private static final String MATRIX = "%%MatrixMarket matrix coordinate real general\n"
+            + "% A comment.\n3 4 5\n1 1 1.0\n3 1 -2.5e3\n2 2 3\n1 3 4\n3 4 5\n";
+
+    /**
+     * Tests that a matrix is read in the row-net model.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Matrices are read in the row-net model")
+    void testRowNetModel() throws IOException {
+        var hypergraph = read(MATRIX, Model.ROW_NET);
+        assertEquals(4, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 3, 5 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 2, 1, 0, 3 }, hypergraph.getHyperedgeVertices());
+        assertArrayEquals(new int[] { 2, 1, 1, 1 }, hypergraph.getVertexWeights());
+    }
+
+    /**
+     * Tests that a matrix is read in the column-net model.
+     *
+     * @param directory The directory in which to write the matrix.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Matrices are read from files in the column-net model")
+    void testColumnNetModel(@TempDir Path directory) throws IOException {
+        var file = Files.writeString(directory.resolve("test.mtx"), MATRIX);
+        var hypergraph = MatrixMarketFormat.read(file, Model.COLUMN_NET);
+        assertEquals(3, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 3, 4, 5 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 2, 1, 0, 2 }, hypergraph.getHyperedgeVertices());
+        assertArrayEquals(new int[] { 2, 1, 2 }, hypergraph.getVertexWeights());
+    }
+
+    /**
+     * Tests that symmetric matrices are expanded.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Symmetric matrices are expanded")
+    void testSymmetricMatrix() throws IOException {
+        var hypergraph = read("%%MatrixMarket matrix coordinate pattern symmetric\r\n"
+                + "3 3 3\r\n1 1\r\n2 1\r\n3 2\r\n", Model.ROW_NET);
+        assertArrayEquals(new long[] { 0, 2, 4, 5 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 0, 2, 1 }, hypergraph.getHyperedgeVertices());
+    }
+
+    /**
+     * Tests that invalid matrices are rejected.
+     */
+    @Test
+    @DisplayName("Invalid matrices are rejected")
+    void testInvalidMatrices() {
+        assertThrows(IOException.class, () -> read("3 4 5\n", Model.ROW_NET));
+        assertThrows(IOException.class, () -> read(
+                "%%MatrixMarket matrix array real general\n2 2\n1\n2\n3\n4\n", Model.ROW_NET));
+        assertThrows(IOException.class, () -> read(
+                "%%MatrixMarket matrix coordinate real general\n2 2 2\n1 1 1\n", Model.ROW_NET));
+        assertThrows(IOException.class, () -> read(
+                "%%MatrixMarket matrix coordinate real general\n2 2 1\n1 3 1\n", Model.ROW_NET));
+        assertThrows(IOException.class, () -> read(
+                "%%MatrixMarket matrix coordinate pattern symmetric\n3 4 1\n3 4\n",
+                Model.ROW_NET));
+    }
+
+    /**
+     * Reads a matrix from the given text.
+     *
+     * @param text The text to read.
+     * @param model The hypergraph model representing the matrix.
+     *
+     * @return The read hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static Hypergraph read(String text, Model model) throws IOException {
+        var stream = new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+        return MatrixMarketFormat.read(Channels.newChannel(stream), model);
+    }
+
+}
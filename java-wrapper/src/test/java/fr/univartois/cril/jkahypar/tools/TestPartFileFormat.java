@@ -0,0 +1,111 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+
+/**
+ * The TestPartFileFormat is a JUnit test case for testing {@link PartFileFormat}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestPartFileFormat {
+
+    /**
+     * Tests that a partition is written with one block identifier per line.
+     *
+     * @param directory The directory in which to write the partition.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Partitions are written with one block per line")
+    void testWrite(@TempDir Path directory) throws IOException {
+        var partition = HypergraphPartition.of(12, new int[] { 0, 11, 3, 10, 0 }, 5);
+        var file = directory.resolve("test.part");
+        PartFileFormat.write(partition, file);
+        assertEquals("0\n11\n3\n10\n0\n", Files.readString(file));
+    }
+
+    /**
+     * Tests that a partition is read back as it was written.
+     *
+     * @param directory The directory in which to write the partition.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Partitions are read back as they were written")
+    void testWriteThenRead(@TempDir Path directory) throws IOException {
+        var blocks = new int[100_000];
+        for (int v = 0; v < blocks.length; v++) {
+            blocks[v] = (v * 7919) % 1234;
+        }
+        var partition = HypergraphPartition.of(1234, blocks, 0);
+        var file = directory.resolve("test.part");
+        PartFileFormat.write(partition, file);
+
+        var read = PartFileFormat.read(file);
+        assertEquals(1234, read.numberOfBlocks());
+        assertEquals(blocks.length, read.numberOfVertices());
+        assertEquals(-1, read.objectiveValue());
+        for (int v = 1; v <= blocks.length; v++) {
+            assertEquals(partition.blockOf(v), read.blockOf(v));
+        }
+    }
+
+    /**
+     * Tests that files produced on other platforms or by other tools are read.
+     *
+     * @param directory The directory in which to write the partition.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Partitions with other line separators are read")
+    void testReadOtherSeparators(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("test.part");
+        Files.writeString(file, "1\r\n0\r\n  2\r\n1");
+
+        var read = PartFileFormat.read(file, 4);
+        assertEquals(3, read.numberOfBlocks());
+        assertEquals(1, read.blockOf(1));
+        assertEquals(0, read.blockOf(2));
+        assertEquals(2, read.blockOf(3));
+        assertEquals(1, read.blockOf(4));
+
+        assertThrows(IOException.class, () -> PartFileFormat.read(file, 5));
+        assertThrows(IOException.class, () -> PartFileFormat.read(file, 3));
+    }
+
+}
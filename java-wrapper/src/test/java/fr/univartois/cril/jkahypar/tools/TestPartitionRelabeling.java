@@ -0,0 +1,128 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+
+/**
+ * The TestPartitionRelabeling is a JUnit test case for testing
+ * {@link PartitionRelabeling}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestPartitionRelabeling {
+
+    /**
+     * Tests that permuted blocks are recognized, so that no vertex has to move.
+     */
+    @Test
+    @DisplayName("Permuted blocks are relabeled without any move")
+    void testPermutedBlocks() {
+        var previous = HypergraphPartition.of(3, new int[] { 0, 0, 1, 1, 2, 2 }, 0);
+        var current = HypergraphPartition.of(3, new int[] { 2, 2, 0, 0, 1, 1 }, 0);
+        var relabeling = PartitionRelabeling.relabel(previous, current);
+
+        for (int v = 1; v <= 6; v++) {
+            assertEquals(previous.blockOf(v), relabeling.getPartition().blockOf(v));
+        }
+        assertEquals(1, relabeling.labelOf(0));
+        assertEquals(6, relabeling.retainedWeight());
+        assertEquals(0, relabeling.migratedWeight());
+        assertEquals(0, relabeling.numberOfMoves());
+    }
+
+    /**
+     * Tests that the exact assignment maximizes the weight that stays in place, even
+     * when a greedy assignment would not.
+     */
+    @Test
+    @DisplayName("Relabeling maximizes the weight that stays in place")
+    void testOptimalAssignment() {
+        var previous = HypergraphPartition.of(2,
+                new int[] { 0, 0, 0, 0, 0, 1, 1, 1, 1, 0, 0, 0, 0 }, 0);
+        var current = HypergraphPartition.of(2,
+                new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1 }, 0);
+        var relabeling = PartitionRelabeling.relabel(previous, current);
+
+        assertEquals(1, relabeling.labelOf(0));
+        assertEquals(0, relabeling.labelOf(1));
+        assertEquals(8, relabeling.retainedWeight());
+        assertEquals(5, relabeling.migratedWeight());
+        assertArrayEquals(new int[0], relabeling.getMovesTo(0));
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, relabeling.getMovesTo(1));
+    }
+
+    /**
+     * Tests that partitions having many blocks are relabeled.
+     */
+    @Test
+    @DisplayName("Partitions with many blocks are relabeled")
+    void testManyBlocks() {
+        int nbBlocks = PartitionRelabeling.MAX_BLOCKS_FOR_EXACT_ASSIGNMENT + 10;
+        var previousBlocks = new int[nbBlocks];
+        var currentBlocks = new int[nbBlocks];
+        for (int v = 0; v < nbBlocks; v++) {
+            previousBlocks[v] = v;
+            currentBlocks[v] = (v + 1) % nbBlocks;
+        }
+
+        var previous = HypergraphPartition.of(nbBlocks, previousBlocks, 0);
+        var current = HypergraphPartition.of(nbBlocks, currentBlocks, 0);
+        var relabeling = PartitionRelabeling.relabel(previous, current);
+        assertEquals(0, relabeling.numberOfMoves());
+        assertEquals(nbBlocks, relabeling.retainedWeight());
+    }
+
+    /**
+     * Tests that partitions having more blocks than a dense overlap matrix could store
+     * are relabeled greedily.
+     */
+    @Test
+    @DisplayName("Partitions with very many blocks are relabeled greedily")
+    void testVeryManyBlocks() {
+        int nbBlocks = 50_000;
+        int nbVertices = 2 * nbBlocks;
+        var previousBlocks = new int[nbVertices];
+        var currentBlocks = new int[nbVertices];
+        for (int v = 0; v < nbVertices; v++) {
+            previousBlocks[v] = v % nbBlocks;
+            currentBlocks[v] = (v + 7) % nbBlocks;
+        }
+
+        // One vertex moves, and another one belongs to a new block.
+        currentBlocks[0] = currentBlocks[1];
+        currentBlocks[nbVertices - 1] = nbBlocks;
+        var previous = HypergraphPartition.of(nbBlocks, previousBlocks, 0);
+        var current = HypergraphPartition.of(nbBlocks + 1, currentBlocks, 0);
+        var relabeling = PartitionRelabeling.relabel(previous, current);
+        assertEquals(2, relabeling.numberOfMoves());
+        assertEquals(nbVertices - 2, relabeling.retainedWeight());
+        assertEquals(nbBlocks + 1, relabeling.getPartition().numberOfBlocks());
+    }
+
+}
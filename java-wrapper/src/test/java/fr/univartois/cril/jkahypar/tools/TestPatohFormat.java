@@ -0,0 +1,174 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The TestPatohFormat is a JUnit test case for testing {@link PatohFormat}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestPatohFormat {
+
+    /**
+     * The hypergraph used in the tests, with 0-based indices, weights on both nets and
+     * cells, two constraints and an empty net.
+     */
+    private static final String HYPERGRAPH = "% An example.\n0 4 3 6 3 2\n"
+            + "5 0 1\n% A comment between nets.\n2 1 2 3 0\n7\n"
+            + "1 10 2 20\n3 30 4 40\n";
+
+    /**
+     * Tests that hypergraphs are read with their weights.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Nets and cells are read with their weights")
+    void testReadWeighted() throws IOException {
+        var hypergraph = read(HYPERGRAPH);
+        assertEquals(4, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 6, 6 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 1, 2, 3, 0 },
+                hypergraph.getHyperedgeVertices());
+        assertArrayEquals(new int[] { 5, 2, 7 }, hypergraph.getHyperedgeWeights());
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, hypergraph.getVertexWeights());
+    }
+
+    /**
+     * Tests that hypergraphs without weights are read with 1-based indices.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Unweighted hypergraphs are read with 1-based indices")
+    void testReadUnweighted() throws IOException {
+        var hypergraph = read("1 3 2 4\n1 2\n3 1\n");
+        assertEquals(3, hypergraph.getNumberOfVertices());
+        assertArrayEquals(new long[] { 0, 2, 4 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 2, 0 }, hypergraph.getHyperedgeVertices());
+        assertNull(hypergraph.getHyperedgeWeights());
+        assertNull(hypergraph.getVertexWeights());
+    }
+
+    /**
+     * Tests that written hypergraphs are read back identically.
+     *
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Written hypergraphs are read back identically")
+    void testRoundTrip(@TempDir Path directory) throws IOException {
+        var hypergraph = createHypergraph(4, 3)
+                .withWeightedHyperedge(3, 1, 2)
+                .withWeightedHyperedge(1, 2, 3, 4)
+                .withWeightedHyperedge(2, 4)
+                .withVertexWeight(1, 1)
+                .withVertexWeight(2, 1)
+                .withVertexWeight(3, 8)
+                .withVertexWeight(4, 1)
+                .build();
+        var file = directory.resolve("test.patoh");
+        PatohFormat.write(hypergraph, file);
+        assertEquals("1 4 3 6 3\n3 1 2\n1 2 3 4\n2 4\n1\n1\n8\n1\n",
+                Files.readString(file));
+
+        var read = PatohFormat.read(file);
+        assertEquals(hypergraph.getNumberOfVertices(), read.getNumberOfVertices());
+        assertArrayEquals(hypergraph.getHyperedgeIndices(), read.getHyperedgeIndices());
+        assertArrayEquals(hypergraph.getHyperedgeVertices(), read.getHyperedgeVertices());
+        assertArrayEquals(hypergraph.getHyperedgeWeights(), read.getHyperedgeWeights());
+        assertArrayEquals(hypergraph.getVertexWeights(), read.getVertexWeights());
+    }
+
+    /**
+     * Tests that compressed hypergraphs are read from files.
+     *
+     * @param directory The directory in which to write the hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Compressed hypergraphs are read from files")
+    void testReadCompressedFile(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("test.patoh.gz");
+        try (var output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(HYPERGRAPH.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        var hypergraph = PatohFormat.read(file);
+        assertArrayEquals(read(HYPERGRAPH).getHyperedgeVertices(),
+                hypergraph.getHyperedgeVertices());
+    }
+
+    /**
+     * Tests that invalid hypergraphs are rejected.
+     */
+    @Test
+    @DisplayName("Invalid hypergraphs are rejected")
+    void testInvalidHypergraphs() {
+        assertThrows(IOException.class, () -> read("% Only a comment.\n"));
+        assertThrows(IOException.class, () -> read("2 3 1 2\n1 2\n"));
+        assertThrows(IOException.class, () -> read("1 3 1 2 4\n1 2\n"));
+        assertThrows(IOException.class, () -> read("0 3 1 2\n1 3\n"));
+        assertThrows(IOException.class, () -> read("1 3 2 2\n1 2\n"));
+        assertThrows(IOException.class, () -> read("1 3 1 3\n1 2\n"));
+        assertThrows(IOException.class, () -> read("1 3 1 2 1\n1 2\n1 2\n"));
+        assertThrows(IOException.class, () -> read("1 3 2 18446744073709551620\n1 2\n3 1\n"));
+    }
+
+    /**
+     * Reads a hypergraph from the given text.
+     *
+     * @param text The text to read.
+     *
+     * @return The read hypergraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private static Hypergraph read(String text) throws IOException {
+        var stream = new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+        return PatohFormat.read(Channels.newChannel(stream));
+    }
+
+}
@@ -0,0 +1,315 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hyperedge;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
+import fr.univartois.cril.jkahypar.tools.VertexReordering.Strategy;
+
+/**
+ * The TestSegmentedPins is a JUnit test case for testing that the tools of this package
+ * support hypergraphs whose pins are stored in several segments.
+ * Each tool is run on the same hypergraph, once with its pins in a single array and
+ * once with its pins split into small segments, and must give the same result.
+ * The segmented hypergraph does not give its pins as a Java array, so that the tools
+ * must read them through {@link Hypergraph#getPins()}, or through the methods accessing
+ * a single pin, which such a hypergraph overrides.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestSegmentedPins {
+
+    /**
+     * The logarithm of the size of the segments, which is small enough for most
+     * hyperedges to span several segments.
+     */
+    private static final int SHIFT = 3;
+
+    /**
+     * The number of vertices in the test hypergraphs.
+     */
+    private static final int NB_VERTICES = 50;
+
+    /**
+     * The number of hyperedges in the test hypergraphs.
+     */
+    private static final int NB_HYPEREDGES = 80;
+
+    /**
+     * The number of blocks in the partition of the test hypergraphs.
+     */
+    private static final int NB_BLOCKS = 4;
+
+    /**
+     * The hypergraph storing its pins in a single array.
+     */
+    private Hypergraph flat;
+
+    /**
+     * The same hypergraph, storing its pins in several segments.
+     */
+    private Hypergraph segmented;
+
+    /**
+     * The partition of the test hypergraphs.
+     */
+    private HypergraphPartition partition;
+
+    /**
+     * Creates the test hypergraphs.
+     */
+    @BeforeEach
+    void setUp() {
+        var random = new Random(1234);
+
+        // Generating random hyperedges.
+        var indices = new long[NB_HYPEREDGES + 1];
+        var pins = new int[NB_HYPEREDGES * 10];
+        int nbPins = 0;
+        for (int h = 0; h < NB_HYPEREDGES; h++) {
+            indices[h] = nbPins;
+            for (int v : random.ints(0, NB_VERTICES).distinct().limit(1 + random.nextInt(10))
+                    .toArray()) {
+                pins[nbPins++] = v;
+            }
+        }
+        indices[NB_HYPEREDGES] = nbPins;
+        pins = Arrays.copyOf(pins, nbPins);
+        var hyperedgeWeights = random.ints(NB_HYPEREDGES, 1, 10).toArray();
+        var vertexWeights = random.ints(NB_VERTICES, 1, 10).toArray();
+
+        // Splitting the pins into segments.
+        int segmentSize = 1 << SHIFT;
+        var segments = new IntBuffer[(nbPins + segmentSize - 1) / segmentSize];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = IntBuffer.wrap(Arrays.copyOfRange(pins, s * segmentSize,
+                    Math.min(nbPins, (s + 1) * segmentSize)));
+        }
+
+        flat = Hypergraph.wrapping(NB_VERTICES, indices, pins, hyperedgeWeights,
+                vertexWeights, true);
+        segmented = new SegmentedHypergraph(Hypergraph.wrapping(NB_VERTICES, indices,
+                SegmentedIntArray.wrapping(SHIFT, segments), hyperedgeWeights,
+                vertexWeights, true));
+        partition = HypergraphPartition.of(NB_BLOCKS,
+                random.ints(NB_VERTICES, 0, NB_BLOCKS).toArray(), 0);
+    }
+
+    /**
+     * Tests that the pins of the segmented hypergraph are not stored in a single array.
+     */
+    @Test
+    @DisplayName("The pins of the segmented hypergraph are kept in segments")
+    void testSegments() {
+        assertFalse(segmented.getPins().isSingleArray());
+        assertArrayEquals(flat.getHyperedgeVertices(), segmented.getPins().toArray());
+        for (int h = 0; h < NB_HYPEREDGES; h++) {
+            var expected = new ArrayList<Integer>();
+            flat.forEachPin(h, expected::add);
+            var actual = new ArrayList<Integer>();
+            segmented.forEachPin(h, actual::add);
+            assertEquals(expected, actual);
+            assertEquals(flat.pin(h, 0), segmented.pin(h, 0));
+        }
+    }
+
+    /**
+     * Tests that the incidence index of a segmented hypergraph is correctly computed.
+     */
+    @Test
+    @DisplayName("The incidence index supports segmented pins")
+    void testVertexIncidence() {
+        var expected = flat.getVertexIncidence();
+        var actual = segmented.getVertexIncidence();
+        assertArrayEquals(expected.getVertexIndices(), actual.getVertexIndices());
+        assertArrayEquals(expected.getIncidentHyperedges(), actual.getIncidentHyperedges());
+    }
+
+    /**
+     * Tests that the cut hyperedges of a segmented hypergraph are correctly computed.
+     */
+    @Test
+    @DisplayName("The cut hyperedges support segmented pins")
+    void testCutHyperedges() {
+        var expected = CutHyperedges.of(flat, partition);
+        var actual = CutHyperedges.of(segmented, partition);
+        assertArrayEquals(expected.getHyperedges(), actual.getHyperedges());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.getBlocks(i), actual.getBlocks(i));
+        }
+        assertEquals(expected.cutWeight(), actual.cutWeight());
+        assertEquals(expected.connectivityWeight(), actual.connectivityWeight());
+    }
+
+    /**
+     * Tests that the fingerprint of a segmented hypergraph does not depend on how its
+     * pins are stored.
+     */
+    @Test
+    @DisplayName("The fingerprint supports segmented pins")
+    void testFingerprint() {
+        assertEquals(BinaryPartitionFormat.fingerprint(flat),
+                BinaryPartitionFormat.fingerprint(segmented));
+    }
+
+    /**
+     * Tests that a segmented hypergraph is correctly reordered.
+     */
+    @Test
+    @DisplayName("The vertex reordering supports segmented pins")
+    void testVertexReordering() {
+        for (var strategy : Strategy.values()) {
+            var expected = VertexReordering.of(flat, strategy, true).getHypergraph();
+            var actual = VertexReordering.of(segmented, strategy, true).getHypergraph();
+            assertArrayEquals(expected.getHyperedgeIndices(), actual.getHyperedgeIndices());
+            assertArrayEquals(expected.getHyperedgeVertices(), actual.getHyperedgeVertices());
+            assertArrayEquals(expected.getHyperedgeWeights(), actual.getHyperedgeWeights());
+        }
+    }
+
+    /**
+     * Tests that the sub-hypergraphs of a segmented hypergraph are correctly extracted.
+     */
+    @Test
+    @DisplayName("The sub-hypergraphs support segmented pins")
+    void testSubHypergraph() {
+        var expected = SubHypergraph.ofBlocks(flat, partition, true);
+        var actual = SubHypergraph.ofBlocks(segmented, partition, true);
+        assertEquals(expected.size(), actual.size());
+        for (int b = 0; b < expected.size(); b++) {
+            var expectedBlock = expected.get(b).getHypergraph();
+            var actualBlock = actual.get(b).getHypergraph();
+            assertArrayEquals(expectedBlock.getHyperedgeIndices(),
+                    actualBlock.getHyperedgeIndices());
+            assertArrayEquals(expectedBlock.getHyperedgeVertices(),
+                    actualBlock.getHyperedgeVertices());
+            assertArrayEquals(expected.get(b).getOriginalHyperedges(),
+                    actual.get(b).getOriginalHyperedges());
+        }
+    }
+
+    /**
+     * Tests that the statistics of a segmented hypergraph are correctly computed.
+     */
+    @Test
+    @DisplayName("The statistics support segmented pins")
+    void testStatistics() {
+        assertEquals(HypergraphStatistics.of(flat).toString(),
+                HypergraphStatistics.of(segmented).toString());
+    }
+
+    /**
+     * The SegmentedHypergraph is a {@link Hypergraph} whose pins are only available
+     * through {@link #getPins()}, as when they do not fit in a Java array.
+     * Its other methods are those of the interface, or delegate to a hypergraph storing
+     * the same arrays.
+     */
+    private static final class SegmentedHypergraph implements Hypergraph {
+
+        /**
+         * The hypergraph storing the arrays of this hypergraph.
+         */
+        private final Hypergraph hypergraph;
+
+        /**
+         * Creates a new SegmentedHypergraph.
+         *
+         * @param hypergraph The hypergraph storing the arrays of this hypergraph.
+         */
+        SegmentedHypergraph(Hypergraph hypergraph) {
+            this.hypergraph = hypergraph;
+        }
+
+        @Override
+        public int getNumberOfVertices() {
+            return hypergraph.getNumberOfVertices();
+        }
+
+        @Override
+        public int[] getVertexWeights() {
+            return hypergraph.getVertexWeights();
+        }
+
+        @Override
+        public int getNumberOfHyperedges() {
+            return hypergraph.getNumberOfHyperedges();
+        }
+
+        @Override
+        public Hyperedge getHyperedge(int index) {
+            return hypergraph.getHyperedge(index);
+        }
+
+        @Override
+        public int[] getHyperedgeWeights() {
+            return hypergraph.getHyperedgeWeights();
+        }
+
+        @Override
+        public long[] getHyperedgeIndices() {
+            return hypergraph.getHyperedgeIndices();
+        }
+
+        @Override
+        public int[] getHyperedgeVertices() {
+            throw new UnsupportedOperationException("Pins must be read with getPins()");
+        }
+
+        @Override
+        public SegmentedIntArray getPins() {
+            return hypergraph.getPins();
+        }
+
+        @Override
+        public int pin(int hyperedge, int index) {
+            return hypergraph.pin(hyperedge, index);
+        }
+
+        @Override
+        public void forEachPin(int hyperedge, IntConsumer action) {
+            hypergraph.forEachPin(hyperedge, action);
+        }
+
+        @Override
+        public String toString() {
+            return hypergraph.toString();
+        }
+
+    }
+
+}
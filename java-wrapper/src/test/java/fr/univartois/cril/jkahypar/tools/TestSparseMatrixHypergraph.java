@@ -0,0 +1,138 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.jkahypar.tools.SparseMatrixHypergraph.Model;
+
+/**
+ * The TestSparseMatrixHypergraph is a JUnit test case for testing
+ * {@link SparseMatrixHypergraph}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestSparseMatrixHypergraph {
+
+    /**
+     * The row pointers of the matrix used in the tests.
+     */
+    private static final long[] ROW_POINTERS = { 0, 2, 3, 5 };
+
+    /**
+     * The column indices of the matrix used in the tests.
+     */
+    private static final int[] COLUMN_INDICES = { 0, 2, 1, 0, 3 };
+
+    /**
+     * Tests that the row-net model uses the CSR arrays of the matrix.
+     */
+    @Test
+    @DisplayName("The row-net model uses the CSR arrays without copying them")
+    void testRowNetModel() {
+        var hypergraph = SparseMatrixHypergraph.of(3, 4, ROW_POINTERS, COLUMN_INDICES,
+                Model.ROW_NET, true);
+        assertEquals(4, hypergraph.getNumberOfVertices());
+        assertEquals(3, hypergraph.getNumberOfHyperedges());
+        assertSame(ROW_POINTERS, hypergraph.getHyperedgeIndices());
+        assertSame(COLUMN_INDICES, hypergraph.getHyperedgeVertices());
+        assertArrayEquals(new int[] { 2, 1, 1, 1 }, hypergraph.getVertexWeights());
+        assertNull(hypergraph.getHyperedgeWeights());
+    }
+
+    /**
+     * Tests that the column-net model is the transpose of the matrix.
+     */
+    @Test
+    @DisplayName("The column-net model is the transpose of the matrix")
+    void testColumnNetModel() {
+        var hypergraph = SparseMatrixHypergraph.of(3, 4, new int[] { 0, 2, 3, 5 },
+                COLUMN_INDICES, Model.COLUMN_NET, true);
+        assertEquals(3, hypergraph.getNumberOfVertices());
+        assertEquals(4, hypergraph.getNumberOfHyperedges());
+        assertArrayEquals(new long[] { 0, 2, 3, 4, 5 }, hypergraph.getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 2, 1, 0, 2 }, hypergraph.getHyperedgeVertices());
+        assertArrayEquals(new int[] { 2, 1, 2 }, hypergraph.getVertexWeights());
+    }
+
+    /**
+     * Tests that a large matrix is transposed in parallel.
+     */
+    @Test
+    @DisplayName("Large matrices are transposed in parallel")
+    void testLargeMatrix() {
+        // The matrix is tridiagonal, and is thus symmetric.
+        int n = 100000;
+        var rowPointers = new long[n + 1];
+        var columnIndices = new int[3 * n - 2];
+        int nbNonzeros = 0;
+        for (int r = 0; r < n; r++) {
+            for (int c = Math.max(0, r - 1); c <= Math.min(n - 1, r + 1); c++) {
+                columnIndices[nbNonzeros++] = c;
+            }
+            rowPointers[r + 1] = nbNonzeros;
+        }
+
+        var rowNet = SparseMatrixHypergraph.of(n, n, rowPointers, columnIndices,
+                Model.ROW_NET, true);
+        var columnNet = SparseMatrixHypergraph.of(n, n, rowPointers, columnIndices,
+                Model.COLUMN_NET, false);
+        assertArrayEquals(rowNet.getHyperedgeIndices(), columnNet.getHyperedgeIndices());
+        assertArrayEquals(rowNet.getHyperedgeVertices(), columnNet.getHyperedgeVertices());
+        assertArrayEquals(rowNet.getVertexWeights(), columnNet.getVertexWeights());
+    }
+
+    /**
+     * Tests that inconsistent arrays are rejected.
+     */
+    @Test
+    @DisplayName("Inconsistent row pointers are rejected")
+    void testInvalidRowPointers() {
+        assertThrows(IllegalArgumentException.class, () -> SparseMatrixHypergraph.of(2, 4,
+                ROW_POINTERS, COLUMN_INDICES, Model.ROW_NET, false));
+        assertThrows(IllegalArgumentException.class, () -> SparseMatrixHypergraph.of(2, 4,
+                new int[] { 0, 2, 3, 5 }, COLUMN_INDICES, Model.ROW_NET, false));
+    }
+
+    /**
+     * Tests that invalid column indices are rejected when the matrix is validated.
+     */
+    @Test
+    @DisplayName("Invalid column indices are rejected when validating")
+    void testInvalidColumnIndices() {
+        var columnIndices = new int[] { 0, 2, 1, 0, 4 };
+        for (var model : Model.values()) {
+            assertThrows(IllegalArgumentException.class, () -> SparseMatrixHypergraph.of(3,
+                    4, ROW_POINTERS, columnIndices, model, true));
+        }
+        assertThrows(IllegalArgumentException.class, () -> SparseMatrixHypergraph.of(3, 4,
+                new long[] { 0, 3, 2, 5 }, COLUMN_INDICES, Model.COLUMN_NET, true));
+    }
+
+}
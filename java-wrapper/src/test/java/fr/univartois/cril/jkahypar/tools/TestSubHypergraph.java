@@ -0,0 +1,224 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+
+/**
+ * The TestSubHypergraph is a JUnit test case for testing {@link SubHypergraph}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestSubHypergraph {
+
+    /**
+     * The partition of the test hypergraph used in the tests.
+     */
+    private static final HypergraphPartition PARTITION =
+            HypergraphPartition.of(2, new int[] { 0, 0, 0, 1, 1, 1, 1 }, 10);
+
+    /**
+     * Tests that only the hyperedges inside a block are kept when cut hyperedges are not
+     * trimmed.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Cut hyperedges are dropped from the blocks")
+    void testDroppedCutHyperedges() throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("weighted-hyperedges-vertices.hgr");
+        var blocks = SubHypergraph.ofBlocks(hypergraph, PARTITION, false);
+        assertEquals(2, blocks.size());
+
+        var first = blocks.get(0);
+        assertEquals(3, first.getHypergraph().getNumberOfVertices());
+        assertArrayEquals(new int[] { 0 }, first.getOriginalHyperedges());
+        assertArrayEquals(new long[] { 0, 2 }, first.getHypergraph().getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1 }, first.getHypergraph().getHyperedgeVertices());
+        assertArrayEquals(new int[] { 2 }, first.getHypergraph().getHyperedgeWeights());
+        assertArrayEquals(new int[] { 5, 1, 8 }, first.getHypergraph().getVertexWeights());
+
+        var second = blocks.get(1);
+        assertArrayEquals(new int[] { 3, 4, 5, 6 }, second.getOriginalVertices());
+        assertArrayEquals(new int[] { 2 }, second.getOriginalHyperedges());
+        assertArrayEquals(new int[] { 1, 2, 0 }, second.getHypergraph().getHyperedgeVertices());
+        assertArrayEquals(new int[] { 8 }, second.getHypergraph().getHyperedgeWeights());
+        assertArrayEquals(new int[] { 7, 3, 9, 3 }, second.getHypergraph().getVertexWeights());
+        assertEquals(5, second.originalVertexOf(2));
+        assertEquals(2, second.subVertexOf(5));
+        assertEquals(0, second.subVertexOf(1));
+    }
+
+    /**
+     * Tests that cut hyperedges are trimmed to the vertices of each block.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Cut hyperedges are trimmed to the vertices of the blocks")
+    void testTrimmedCutHyperedges() throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("weighted-hyperedges-vertices.hgr");
+
+        var first = SubHypergraph.ofBlock(hypergraph, PARTITION, 0, true);
+        assertArrayEquals(new int[] { 0, 3 }, first.getOriginalHyperedges());
+        assertArrayEquals(new long[] { 0, 2, 4 }, first.getHypergraph().getHyperedgeIndices());
+        assertArrayEquals(new int[] { 0, 1, 1, 2 }, first.getHypergraph().getHyperedgeVertices());
+        assertArrayEquals(new int[] { 2, 7 }, first.getHypergraph().getHyperedgeWeights());
+
+        var second = SubHypergraph.ofBlock(hypergraph, PARTITION, 1, true);
+        assertArrayEquals(new int[] { 1, 2 }, second.getOriginalHyperedges());
+        assertArrayEquals(new long[] { 0, 3, 6 }, second.getHypergraph().getHyperedgeIndices());
+        assertArrayEquals(new int[] { 3, 1, 2, 1, 2, 0 },
+                second.getHypergraph().getHyperedgeVertices());
+        assertArrayEquals(new int[] { 3, 8 }, second.getHypergraph().getHyperedgeWeights());
+    }
+
+    /**
+     * Tests the extraction of the sub-hypergraph induced by arbitrary vertices.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Sub-hypergraphs can be induced by arbitrary vertices")
+    void testInduced() throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("unweighted.hgr");
+        var sub = SubHypergraph.induced(hypergraph, new int[] { 6, 4, 5 }, false);
+        assertArrayEquals(new int[] { 3, 4, 5 }, sub.getOriginalVertices());
+        assertArrayEquals(new int[] { 2 }, sub.getOriginalHyperedges());
+        assertArrayEquals(new int[] { 1, 2, 0 }, sub.getHypergraph().getHyperedgeVertices());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SubHypergraph.induced(hypergraph, new int[] { 1, 8 }, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> SubHypergraph.induced(hypergraph, new int[] { 1, 2, 1 }, false));
+    }
+
+    /**
+     * Tests the extraction of all the blocks of a large hypergraph, which is performed
+     * on several chunks in parallel.
+     */
+    @Test
+    @DisplayName("All the blocks of a large hypergraph are extracted in one sweep")
+    void testLargeHypergraph() {
+        int nbVertices = 20000;
+        int nbHyperedges = 100000;
+        var random = new Random(42);
+        var builder = createHypergraph(nbVertices, nbHyperedges);
+        for (int h = 0; h < nbHyperedges; h++) {
+            int first = 1 + random.nextInt(nbVertices - 3);
+            builder.withHyperedge(first, first + 1 + random.nextInt(2), first + 3);
+        }
+        var hypergraph = builder.build();
+
+        var blockIdentifiers = new int[nbVertices];
+        for (int v = 0; v < nbVertices; v++) {
+            blockIdentifiers[v] = v / 1000;
+        }
+        var partition = HypergraphPartition.of(20, blockIdentifiers, 0);
+
+        for (boolean trim : new boolean[] { false, true }) {
+            var blocks = SubHypergraph.ofBlocks(hypergraph, partition, trim);
+            for (int b = 0; b < blocks.size(); b++) {
+                var expected = new ArrayList<Integer>();
+                for (int h = 0; h < nbHyperedges; h++) {
+                    if (countVertices(hypergraph, h, blockIdentifiers, b) >= (trim ? 2 : 3)) {
+                        expected.add(h);
+                    }
+                }
+
+                var block = blocks.get(b);
+                assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(),
+                        block.getOriginalHyperedges());
+                var sub = block.getHypergraph();
+                for (int h = 0; h < sub.getNumberOfHyperedges(); h++) {
+                    int original = block.originalHyperedgeOf(h);
+                    for (int i = 0; i < sub.hyperedgeSize(h); i++) {
+                        int vertex = block.originalVertexOf(sub.pin(h, i) + 1);
+                        assertEquals(b, partition.blockOf(vertex));
+                        assertEquals(vertex, hypergraph.pin(original, i + trimmedBefore(
+                                hypergraph, original, i, blockIdentifiers, b)) + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the vertices of a hyperedge belonging to a given block.
+     *
+     * @param hypergraph The hypergraph containing the hyperedge.
+     * @param hyperedge The hyperedge to count the vertices of.
+     * @param blocks The block of each vertex.
+     * @param block The block to count the vertices of.
+     *
+     * @return The number of vertices of the hyperedge in the block.
+     */
+    private static int countVertices(Hypergraph hypergraph, int hyperedge, int[] blocks,
+            int block) {
+        int count = 0;
+        for (int i = 0; i < hypergraph.hyperedgeSize(hyperedge); i++) {
+            if (blocks[hypergraph.pin(hyperedge, i)] == block) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the vertices of a hyperedge that have been trimmed before its
+     * {@code index}-th vertex in a block.
+     *
+     * @param hypergraph The hypergraph containing the hyperedge.
+     * @param hyperedge The hyperedge to consider.
+     * @param index The index of the vertex in the trimmed hyperedge.
+     * @param blocks The block of each vertex.
+     * @param block The block of the trimmed hyperedge.
+     *
+     * @return The number of trimmed vertices before the given one.
+     */
+    private static int trimmedBefore(Hypergraph hypergraph, int hyperedge, int index,
+            int[] blocks, int block) {
+        int trimmed = 0;
+        for (int i = 0, kept = 0; kept <= index; i++) {
+            if (blocks[hypergraph.pin(hyperedge, i)] == block) {
+                kept++;
+            } else {
+                trimmed++;
+            }
+        }
+        return trimmed;
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.tools;
+
+import static fr.univartois.cril.jkahypar.hypergraph.HypergraphBuilder.createHypergraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import fr.univartois.cril.jkahypar.HypergraphPartition;
+import fr.univartois.cril.jkahypar.hypergraph.Hypergraph;
+import fr.univartois.cril.jkahypar.tools.VertexReordering.Strategy;
+
+/**
+ * The TestVertexReordering is a JUnit test case for testing {@link VertexReordering}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestVertexReordering {
+
+    /**
+     * Tests that the reordered hypergraph is the same as the original one, up to the
+     * renumbering of its vertices and hyperedges.
+     *
+     * @param strategy The strategy used to order the vertices.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @ParameterizedTest
+    @EnumSource(Strategy.class)
+    @DisplayName("Reordered hypergraphs are isomorphic to the original ones")
+    void testIsomorphism(Strategy strategy) throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("weighted-hyperedges-vertices.hgr");
+        for (boolean sortHyperedges : new boolean[] { false, true }) {
+            var reordering = VertexReordering.of(hypergraph, strategy, sortHyperedges);
+            var reordered = reordering.getHypergraph();
+            assertEquals(hypergraph.getNumberOfVertices(), reordered.getNumberOfVertices());
+            assertEquals(hypergraph.getNumberOfHyperedges(), reordered.getNumberOfHyperedges());
+
+            for (int v = 1; v <= hypergraph.getNumberOfVertices(); v++) {
+                int newVertex = reordering.newVertexOf(v);
+                assertEquals(v, reordering.originalVertexOf(newVertex));
+                assertEquals(hypergraph.getVertexWeights()[v - 1],
+                        reordered.getVertexWeights()[newVertex - 1]);
+            }
+
+            for (int h = 0; h < reordered.getNumberOfHyperedges(); h++) {
+                int original = reordering.originalHyperedgeOf(h);
+                assertArrayEquals(sortedVertices(hypergraph, original),
+                        IntStream.of(sortedVertices(reordered, h))
+                                .map(v -> reordering.originalVertexOf(v + 1) - 1)
+                                .sorted().toArray());
+                assertEquals(hypergraph.getHyperedgeWeights()[original],
+                        reordered.getHyperedgeWeights()[h]);
+            }
+        }
+    }
+
+    /**
+     * Tests that the Reverse Cuthill-McKee ordering numbers the vertices of a path
+     * consecutively.
+     */
+    @Test
+    @DisplayName("Reverse Cuthill-McKee numbers the vertices of a path consecutively")
+    void testReverseCuthillMcKee() {
+        // The vertices of the path are shuffled.
+        var path = new int[] { 4, 7, 1, 6, 2, 8, 3, 5 };
+        var builder = createHypergraph(path.length, path.length - 1);
+        for (int i = 0; i < path.length - 1; i++) {
+            builder.withHyperedge(path[i], path[i + 1]);
+        }
+
+        var reordering = VertexReordering.of(builder.build(), Strategy.REVERSE_CUTHILL_MCKEE);
+        var reordered = reordering.getHypergraph();
+        for (int h = 0; h < reordered.getNumberOfHyperedges(); h++) {
+            assertEquals(1, Math.abs(reordered.pin(h, 0) - reordered.pin(h, 1)));
+        }
+    }
+
+    /**
+     * Tests that the vertices are ordered by decreasing degree.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Vertices can be ordered by decreasing degree")
+    void testDecreasingDegree() throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("unweighted.hgr");
+        var reordered = VertexReordering.of(hypergraph, Strategy.DECREASING_DEGREE)
+                .getHypergraph();
+        var incidence = reordered.getVertexIncidence();
+        for (int v = 1; v < reordered.getNumberOfVertices(); v++) {
+            assertTrue(incidence.degree(v - 1) >= incidence.degree(v));
+        }
+    }
+
+    /**
+     * Tests that sorted hyperedges are ordered by increasing smallest vertex.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Hyperedges are sorted by increasing smallest vertex")
+    void testSortedHyperedges() throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("unweighted.hgr");
+        var reordered = VertexReordering.of(hypergraph, Strategy.BREADTH_FIRST, true)
+                .getHypergraph();
+        for (int h = 0; h < reordered.getNumberOfHyperedges(); h++) {
+            var vertices = sortedVertices(reordered, h);
+            assertEquals(vertices[0], reordered.pin(h, 0));
+            if (h > 0) {
+                assertTrue(reordered.pin(h - 1, 0) <= reordered.pin(h, 0));
+            }
+        }
+    }
+
+    /**
+     * Tests that partitions of the reordered hypergraph are mapped back to the original
+     * vertices.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Test
+    @DisplayName("Partitions are mapped back to the original vertices")
+    void testRestore() throws IOException {
+        var hypergraph = TestHypergraphParser.readHypergraph("unweighted.hgr");
+        var reordering = VertexReordering.of(hypergraph, Strategy.REVERSE_CUTHILL_MCKEE);
+        var partition = HypergraphPartition.of(2, new int[] { 0, 0, 0, 1, 1, 1, 1 }, 2);
+
+        var restored = reordering.restore(partition);
+        assertEquals(2, restored.numberOfBlocks());
+        assertEquals(2, restored.objectiveValue());
+        for (int v = 1; v <= hypergraph.getNumberOfVertices(); v++) {
+            assertEquals(partition.blockOf(reordering.newVertexOf(v)), restored.blockOf(v));
+        }
+
+        var wrong = HypergraphPartition.of(2, new int[] { 0, 1 }, 1);
+        assertThrows(IllegalArgumentException.class, () -> reordering.restore(wrong));
+    }
+
+    /**
+     * Gives the sorted vertices of a hyperedge.
+     *
+     * @param hypergraph The hypergraph containing the hyperedge.
+     * @param hyperedge The hyperedge to get the vertices of.
+     *
+     * @return The sorted vertices (numbered from {@code 0}) of the hyperedge.
+     */
+    private static int[] sortedVertices(Hypergraph hypergraph, int hyperedge) {
+        var vertices = new int[hypergraph.hyperedgeSize(hyperedge)];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = hypergraph.pin(hyperedge, i);
+        }
+        Arrays.sort(vertices);
+        return vertices;
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * JKaHyPar - Java binding for the KaHyPar hypergraph partitioning framework.
+ * Copyright (c) 2020-2022 - Univ Artois & CNRS.
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package fr.univartois.cril.jkahypar.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import fr.univartois.cril.jkahypar.hypergraph.SegmentedIntArray;
+
+/**
+ * The TestParallelArrays is a JUnit test case for testing {@link ParallelArrays}.
+ *
+ * @author Romain WALLON
+ *
+ * @version 0.2.0
+ */
+final class TestParallelArrays {
+
+    /**
+     * Tests that the chunks cover all the elements of the largest arrays.
+     *
+     * @param nbChunks The number of chunks to use.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 4, 64, 1000 })
+    @DisplayName("Chunks cover the largest arrays without overflowing")
+    void testChunksOfLargestArrays(int nbChunks) {
+        var covered = new AtomicLong();
+        int length = SegmentedIntArray.MAX_ARRAY_LENGTH;
+        ParallelArrays.forEachChunk(length, nbChunks, (from, to) -> {
+            assertTrue((0 <= from) && (from <= to));
+            covered.addAndGet(to - from);
+        });
+        assertEquals(length, covered.get());
+    }
+
+    /**
+     * Tests that indexed chunks are contiguous and cover the largest arrays.
+     *
+     * @param nbChunks The number of chunks to use.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 4, 64, 1000 })
+    @DisplayName("Indexed chunks are contiguous and cover the largest arrays")
+    void testIndexedChunksOfLargestArrays(int nbChunks) {
+        var froms = new int[nbChunks];
+        var tos = new int[nbChunks];
+        int length = SegmentedIntArray.MAX_ARRAY_LENGTH;
+        ParallelArrays.forEachChunk(length, nbChunks, (c, from, to) -> {
+            froms[c] = from;
+            tos[c] = to;
+        });
+
+        assertEquals(0, froms[0]);
+        for (int c = 1; c < nbChunks; c++) {
+            assertEquals(tos[c - 1], froms[c]);
+        }
+        assertEquals(length, tos[nbChunks - 1]);
+    }
+
+    /**
+     * Tests that counts are turned into offsets.
+     */
+    @Test
+    @DisplayName("Counts are turned into offsets")
+    void testCountsToOffsets() {
+        var array = new long[(ParallelArrays.MIN_CHUNK_SIZE << 3) + 1];
+        for (int i = 0; i < array.length - 1; i++) {
+            array[i] = i & 3;
+        }
+        var expected = new long[array.length];
+        for (int i = 1; i < array.length; i++) {
+            expected[i] = expected[i - 1] + ((i - 1) & 3);
+        }
+
+        ParallelArrays.countsToOffsets(array);
+        assertArrayEquals(expected, array);
+    }
+
+}